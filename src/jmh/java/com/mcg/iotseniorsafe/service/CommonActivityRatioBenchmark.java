@@ -0,0 +1,95 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 공통 활동 비율 계산 비교 - 기존 Map 기반 vs 비트 패킹 인메모리 모델
+ * 가구별 어제/오늘 시간대별 집계(최대 24행)를 합성해 전체 가구를 한 번씩 평가한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommonActivityRatioBenchmark {
+
+    @Param({"1000", "10000"})
+    private int households;
+
+    private List<List<Map<String, Object>>> yesterdayRows;
+    private List<List<Map<String, Object>>> todayRows;
+    private final HourJoinRiskScorer scorer = new HourJoinRiskScorer();
+    private HouseholdActivityModel model;
+    private int[] householdIds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        yesterdayRows = new ArrayList<>(households);
+        todayRows = new ArrayList<>(households);
+        model = new HouseholdActivityModel();
+        HouseholdActivityModel.Store store = model.newStore(LocalDate.now(), households);
+        householdIds = new int[households];
+
+        for (int i = 0; i < households; i++) {
+            int householdId = 1_000_000 + i;
+            householdIds[i] = householdId;
+            store.register(householdId, SensorSource.SECONDARY);
+            yesterdayRows.add(randomDay(random, store, householdId, 1));
+            todayRows.add(randomDay(random, store, householdId, 0));
+        }
+        model.publish(store);
+    }
+
+    private List<Map<String, Object>> randomDay(Random random, HouseholdActivityModel.Store store,
+                                                int householdId, int dayOffset) {
+        List<Map<String, Object>> rows = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            if (random.nextInt(10) == 0) {
+                continue; // 약 10% 시간대는 데이터 없음
+            }
+            int led = random.nextInt(3) == 0 ? 0 : random.nextInt(4) + 1;
+            int occupied = random.nextBoolean() ? 1 : 0;
+            int noisy = random.nextInt(4) == 0 ? 1 : 0;
+
+            Map<String, Object> row = new HashMap<>();
+            row.put("hour", hour);
+            row.put("led_active", (long) led);
+            row.put("occupied", occupied);
+            row.put("noisy", noisy);
+            rows.add(row);
+
+            store.recordHour(householdId, SensorSource.SECONDARY, dayOffset, hour, led > 0, occupied > 0, noisy > 0);
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public void mapBased(Blackhole blackhole) {
+        for (int i = 0; i < households; i++) {
+            blackhole.consume(scorer.commonDataRatio(yesterdayRows.get(i), todayRows.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void bitPacked(Blackhole blackhole) {
+        for (int householdId : householdIds) {
+            blackhole.consume(model.ratio(householdId));
+        }
+    }
+}
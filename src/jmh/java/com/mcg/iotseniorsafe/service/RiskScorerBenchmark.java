@@ -0,0 +1,91 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RiskScorer 구현체별 처리량 / 할당량 비교 (./gradlew jmh, gc 프로파일러로 gc.alloc.rate.norm 확인)
+ * 가구마다 어제/오늘 센서 원본 행(시간당 1행, 약 10% 시간대 누락)을 합성해 전체 가구를 한 번씩 평가한다.
+ * 10만 가구분 Map 행을 모두 만들면 힙이 부족하므로 서로 다른 가구-일 데이터 POOL_SIZE개를 만들어 두고
+ * 가구마다 어제/오늘을 다른 조합으로 골라 쓴다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RiskScorerBenchmark {
+
+    private static final int POOL_SIZE = 4096;
+
+    @Param({"1000", "10000", "100000"})
+    private int households;
+
+    @Param({HourJoinRiskScorer.NAME, RowIndexRiskScorer.NAME})
+    private String scorerName;
+
+    private RiskScorer scorer;
+    private List<List<Map<String, Object>>> pool;
+    private int[] yesterdayIndex;
+    private int[] todayIndex;
+
+    @Setup
+    public void setUp() {
+        scorer = new RiskScorers(List.of(new HourJoinRiskScorer(), new RowIndexRiskScorer())).get(scorerName);
+
+        Random random = new Random(42);
+        LocalDate today = LocalDate.of(2025, 1, 2);
+        pool = new ArrayList<>(POOL_SIZE);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool.add(randomDay(random, today.minusDays(i % 2)));
+        }
+
+        yesterdayIndex = new int[households];
+        todayIndex = new int[households];
+        for (int i = 0; i < households; i++) {
+            yesterdayIndex[i] = random.nextInt(POOL_SIZE);
+            todayIndex[i] = random.nextInt(POOL_SIZE);
+        }
+    }
+
+    private static List<Map<String, Object>> randomDay(Random random, LocalDate day) {
+        List<Map<String, Object>> rows = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            if (random.nextInt(10) == 0) {
+                continue; // 약 10% 시간대는 데이터 없음
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("recorded_at", LocalDateTime.of(day.getYear(), day.getMonth(), day.getDayOfMonth(), hour, 0));
+            row.put("led_master_room", random.nextInt(4) == 0 ? 1 : 0);
+            row.put("led_living_room", random.nextInt(3) == 0 ? 1 : 0);
+            row.put("led_kitchen", random.nextInt(5) == 0 ? 1 : 0);
+            row.put("led_toilet", random.nextInt(6) == 0 ? 1 : 0);
+            row.put("is_occupied", random.nextBoolean() ? 1 : 0);
+            row.put("is_noisy", random.nextInt(4) == 0 ? 1 : 0);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public void scoreAllHouseholds(Blackhole blackhole) {
+        for (int i = 0; i < households; i++) {
+            double ratio = scorer.commonDataRatio(pool.get(yesterdayIndex[i]), pool.get(todayIndex[i]));
+            blackhole.consume(RiskScorer.riskLevel(ratio));
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.mcg.iotseniorsafe.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * AI 분석 경로 부하 테스트 (/api/ai-reporting/*)
+ * 서버를 bedrock-sim 프로필로 띄운 뒤 ./gradlew loadTest -PloadTest.concurrency=16 -PloadTest.scenario=full
+ * 가상 사용자 concurrency명이 durationSeconds 동안 시나리오를 반복하고, warmupSeconds 이후 결과만 집계해
+ * 요청 종류별 처리량과 p50/p95/p99 지연 시간을 출력한다. 마지막에 서버의 /bedrock/stats와 대역 통계 /bedrock-sim/stats를 함께 출력한다.
+ *
+ * 옵션 (key=value):
+ * - baseUrl: 서버 주소 (기본 http://localhost:8080)
+ * - scenario: analyze(분석만) | report(분석 후 analysisId로 보고서) | stream(분석 후 보고서 스트리밍) (기본 report)
+ * - concurrency: 가상 사용자 수 (기본 8)
+ * - durationSeconds / warmupSeconds: 측정 시간 / 집계 제외 시간 (기본 60 / 10)
+ * - households: 대상 가구 "1-50" 또는 "3,7,9" (없으면 위험 의심 내역 첫 100건)
+ * - thinkTimeMs: 사용자별 요청 간 대기 (기본 0)
+ * - requestTimeoutSeconds: 요청 한 건 최대 대기 (기본 180)
+ */
+public final class AIReportingLoadTest {
+
+    private static final String API = "/api/ai-reporting";
+    private static final Pattern HOUSEHOLD_ID = Pattern.compile("\"householdId\"\\s*:\\s*\"?(\\d+)");
+    private static final Pattern ANALYSIS_ID = Pattern.compile("\"analysisId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern SSE_STATUS = Pattern.compile("\"status\"\\s*:\\s*(\\d+)");
+
+    private final String baseUrl;
+    private final String scenario;
+    private final int concurrency;
+    private final long durationMs;
+    private final long warmupMs;
+    private final long thinkTimeMs;
+    private final Duration requestTimeout;
+    private final HttpClient client;
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private volatile long measureFromNanos;
+
+    private AIReportingLoadTest(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("baseUrl", "http://localhost:8080").replaceAll("/$", "");
+        this.scenario = options.getOrDefault("scenario", "report");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+        this.durationMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("durationSeconds", "60")));
+        this.warmupMs = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("warmupSeconds", "10")));
+        this.thinkTimeMs = Long.parseLong(options.getOrDefault("thinkTimeMs", "0"));
+        this.requestTimeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("requestTimeoutSeconds", "180")));
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, concurrency)))
+                .build();
+        if (!List.of("analyze", "report", "stream").contains(scenario)) {
+            throw new IllegalArgumentException("알 수 없는 scenario: " + scenario);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split > 0) {
+                options.put(arg.substring(0, split), arg.substring(split + 1));
+            }
+        }
+        AIReportingLoadTest test = new AIReportingLoadTest(options);
+        test.run(test.households(options.get("households")));
+    }
+
+    private void run(List<Integer> households) throws Exception {
+        if (households.isEmpty()) {
+            throw new IllegalStateException("대상 가구가 없습니다 (households 옵션으로 지정)");
+        }
+        System.out.printf("부하 테스트 시작 - %s, scenario=%s, concurrency=%d, duration=%ds (warmup %ds), 가구 %d개%n",
+                baseUrl, scenario, concurrency, durationMs / 1000, warmupMs / 1000, households.size());
+
+        long startNanos = System.nanoTime();
+        measureFromNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(warmupMs);
+        long endNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        AtomicInteger nextHousehold = new AtomicInteger();
+
+        ExecutorService users = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            users.execute(() -> {
+                while (System.nanoTime() < endNanos && !Thread.currentThread().isInterrupted()) {
+                    int householdId = households.get(Math.floorMod(nextHousehold.getAndIncrement(), households.size()));
+                    try {
+                        iteration(householdId);
+                        if (thinkTimeMs > 0) {
+                            Thread.sleep(thinkTimeMs);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        users.shutdown();
+        if (!users.awaitTermination(durationMs + requestTimeout.toMillis() + 10_000, TimeUnit.MILLISECONDS)) {
+            users.shutdownNow();
+        }
+
+        double measuredSeconds = Math.max(1, durationMs - warmupMs) / 1000.0;
+        printReport(measuredSeconds);
+        printServerStats();
+        System.exit(0);
+    }
+
+    /**
+     * 시나리오 한 번 - 분석, 필요하면 이어서 analysisId로 보고서 생성
+     */
+    private void iteration(int householdId) throws InterruptedException {
+        String analysis = post("analyze-household", API + "/analyze-household/" + householdId);
+        if (analysis == null || scenario.equals("analyze")) {
+            return;
+        }
+        Matcher matcher = ANALYSIS_ID.matcher(analysis);
+        if (!matcher.find()) {
+            return; // 데이터 부족 등 - 보고서 단계 없음
+        }
+        String query = "?analysisId=" + matcher.group(1);
+        if (scenario.equals("report")) {
+            post("generate-report", API + "/generate-report/" + householdId + query);
+        } else {
+            stream(API + "/generate-report/" + householdId + "/stream" + query);
+        }
+    }
+
+    /**
+     * POST 요청 - 2xx면 본문, 아니면 null
+     */
+    private String post(String operation, String path) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            record(operation, start, String.valueOf(response.statusCode()));
+            return response.statusCode() / 100 == 2 ? response.body() : null;
+        } catch (IOException e) {
+            record(operation, start, e.getClass().getSimpleName());
+            return null;
+        }
+    }
+
+    /**
+     * SSE 보고서 생성 - 첫 delta까지(first-delta)와 result/error까지(전체)를 따로 기록
+     */
+    private void stream(String path) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Accept", "text/event-stream")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        long start = System.nanoTime();
+        String outcome = "EOF";
+        try {
+            HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+            if (response.statusCode() / 100 != 2) {
+                outcome = String.valueOf(response.statusCode());
+            } else {
+                try (Stream<String> lines = response.body()) {
+                    String event = null;
+                    boolean firstDelta = true;
+                    for (Iterator<String> iterator = lines.iterator(); iterator.hasNext(); ) {
+                        String line = iterator.next();
+                        if (line.startsWith("event:")) {
+                            event = line.substring("event:".length()).trim();
+                        } else if (line.startsWith("data:") && event != null) {
+                            if (event.equals("delta") && firstDelta) {
+                                firstDelta = false;
+                                record("generate-report/stream first-delta", start, "200");
+                            } else if (event.equals("result")) {
+                                outcome = "200";
+                                break;
+                            } else if (event.equals("error")) {
+                                Matcher status = SSE_STATUS.matcher(line);
+                                outcome = "error-" + (status.find() ? status.group(1) : "?");
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            outcome = e.getClass().getSimpleName();
+        }
+        record("generate-report/stream", start, outcome);
+    }
+
+    private void record(String operation, long startNanos, String outcome) {
+        if (startNanos < measureFromNanos) {
+            return; // warmup 구간
+        }
+        recorders.computeIfAbsent(operation, name -> new Recorder())
+                .add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), outcome);
+    }
+
+    private List<Integer> households(String option) throws Exception {
+        List<Integer> households = new ArrayList<>();
+        if (option != null && !option.isBlank()) {
+            for (String part : option.split(",")) {
+                String[] range = part.trim().split("-");
+                int from = Integer.parseInt(range[0].trim());
+                int to = range.length > 1 ? Integer.parseInt(range[1].trim()) : from;
+                for (int id = from; id <= to; id++) {
+                    households.add(id);
+                }
+            }
+            return households;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + API + "/risk-entries?size=100&total=false"))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = HOUSEHOLD_ID.matcher(body);
+        while (matcher.find()) {
+            int id = Integer.parseInt(matcher.group(1));
+            if (!households.contains(id)) {
+                households.add(id);
+            }
+        }
+        return households;
+    }
+
+    private void printReport(double measuredSeconds) {
+        System.out.println();
+        System.out.printf("%-36s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+        new TreeMap<>(recorders).forEach((operation, recorder) -> {
+            long[] latencies = recorder.sorted();
+            System.out.printf("%-36s %8d %8d %9.2f %9.1f %9.1f %9.1f %9.1f%n",
+                    operation, latencies.length, recorder.errors(), latencies.length / measuredSeconds,
+                    percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+                    latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1000.0);
+        });
+        System.out.println();
+        new TreeMap<>(recorders).forEach((operation, recorder) ->
+                System.out.printf("%-36s 결과별 건수 %s%n", operation, recorder.outcomes()));
+    }
+
+    private void printServerStats() {
+        printServerStats("/bedrock/stats");
+        printServerStats("/bedrock-sim/stats"); // bedrock-sim 프로필이 아니면 404
+    }
+
+    private void printServerStats(String path) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + API + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            System.out.println();
+            System.out.println("서버 " + path + " (HTTP " + response.statusCode() + "):");
+            System.out.println(response.body());
+        } catch (Exception e) {
+            System.out.println("서버 통계 조회 실패 " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 정렬된 지연 시간(마이크로초)의 백분위수 (nearest-rank, 밀리초)
+     */
+    private static double percentile(long[] sorted, double percent) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1] / 1000.0;
+    }
+
+    /**
+     * 요청 종류 하나의 지연 시간 / 결과 기록
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024]; // this로 동기화
+        private int size;
+        private final Map<String, Integer> outcomes = new TreeMap<>();
+
+        synchronized void add(long latencyMicros, String outcome) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyMicros;
+            outcomes.merge(outcome, 1, Integer::sum);
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized int errors() {
+            return size - outcomes.getOrDefault("200", 0);
+        }
+
+        synchronized Map<String, Integer> outcomes() {
+            return new TreeMap<>(outcomes);
+        }
+    }
+}
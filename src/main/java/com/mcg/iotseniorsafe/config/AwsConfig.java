@@ -1,21 +1,67 @@
 package com.mcg.iotseniorsafe.config;
 
+import com.mcg.iotseniorsafe.service.BedrockCallLimiter;
+import com.mcg.iotseniorsafe.service.BedrockCircuitBreaker;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
 import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
 
+import java.time.Duration;
+
 // AWS Bedrock 설정 파일
 // 애플리케이션 전역에서 관리되는 빈 객체 (Root Context)
 @Configuration
 public class AwsConfig {
 
+    // 이 프로필이면 실제 Bedrock 클라이언트 대신 대역(BedrockSimulatorConfig)을 쓴다
+    public static final String SIMULATOR_PROFILE = "bedrock-sim";
+
     @Value("${app.bedrock.region:ap-northeast-2}")
     private String region;
 
+    // 비동기 호출 한 건의 최대 시간 (초과 시 실패 처리하고 자리를 반납)
+    @Value("${app.bedrock.apiCallTimeoutMs:60000}")
+    private long apiCallTimeoutMs;
+
+    @Value("${app.bedrock.maxInFlight:8}")
+    private int maxInFlight;
+
+    @Value("${app.bedrock.maxQueued:32}")
+    private int maxQueued;
+
+    @Value("${app.bedrock.maxQueueWaitMs:30000}")
+    private long maxQueueWaitMs;
+
+    @Value("${app.bedrockBreaker.enabled:true}")
+    private boolean breakerEnabled;
+
+    // 실패율 / 느린 호출 비율을 세는 최근 시간 창
+    @Value("${app.bedrockBreaker.windowMs:60000}")
+    private long breakerWindowMs;
+
+    // 시간 창 안의 호출이 이보다 적으면 차단하지 않음
+    @Value("${app.bedrockBreaker.minCalls:10}")
+    private int breakerMinCalls;
+
+    @Value("${app.bedrockBreaker.failureRatePercent:50}")
+    private int breakerFailureRatePercent;
+
+    @Value("${app.bedrockBreaker.slowCallRatePercent:80}")
+    private int breakerSlowCallRatePercent;
+
+    @Value("${app.bedrockBreaker.openMs:30000}")
+    private long breakerOpenMs;
+
+    @Value("${app.bedrockBreaker.halfOpenProbes:2}")
+    private int breakerHalfOpenProbes;
+
     @Bean
+    @Profile("!" + SIMULATOR_PROFILE)
     public BedrockRuntimeClient bedrockRuntimeClient() {
         return BedrockRuntimeClient.builder()
                 .region(Region.of(region))
@@ -23,5 +69,27 @@ public class AwsConfig {
                 .build();
     }
 
+    // 요청 스레드를 붙잡지 않는 비동기 클라이언트 (Netty 기반 기본 HTTP 클라이언트)
+    @Bean
+    @Profile("!" + SIMULATOR_PROFILE)
+    public BedrockRuntimeAsyncClient bedrockRuntimeAsyncClient() {
+        return BedrockRuntimeAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(config -> config.apiCallTimeout(Duration.ofMillis(apiCallTimeoutMs)))
+                .build();
+    }
 
+    // Bedrock 동시 호출 수 제한 (실행 중 + 대기열)
+    @Bean
+    public BedrockCallLimiter bedrockCallLimiter() {
+        return new BedrockCallLimiter(maxInFlight, maxQueued, maxQueueWaitMs);
+    }
+
+    // Bedrock 회로 차단기 (최근 실패율 / 느린 호출 비율 기준)
+    @Bean
+    public BedrockCircuitBreaker bedrockCircuitBreaker() {
+        return new BedrockCircuitBreaker(breakerEnabled, breakerWindowMs, breakerMinCalls, breakerFailureRatePercent,
+                breakerSlowCallRatePercent, breakerOpenMs, breakerHalfOpenProbes);
+    }
 }
@@ -0,0 +1,53 @@
+package com.mcg.iotseniorsafe.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcg.iotseniorsafe.service.SimulatedBedrockClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Bedrock 대역 설정 (bedrock-sim 프로필) - 부하 테스트 / 로컬 개발용, AWS 자격 증명 불필요
+// 실행: --spring.profiles.active=bedrock-sim (호출 제한, 회로 차단기, 캐시 등 나머지 경로는 그대로 사용)
+@Configuration
+@Profile(AwsConfig.SIMULATOR_PROFILE)
+public class BedrockSimulatorConfig {
+
+    @Value("${app.bedrock.region:ap-northeast-2}")
+    private String region;
+
+    // 응답 지연 로그정규분포 (중앙값 / 99백분위)
+    @Value("${app.bedrockSim.latencyMedianMs:2000}")
+    private long latencyMedianMs;
+
+    @Value("${app.bedrockSim.latencyP99Ms:8000}")
+    private long latencyP99Ms;
+
+    // 스트리밍 첫 조각까지 걸리는 시간 (전체 지연 대비 비율)
+    @Value("${app.bedrockSim.firstTokenRatio:0.25}")
+    private double firstTokenRatio;
+
+    @Value("${app.bedrockSim.chunkChars:24}")
+    private int chunkChars;
+
+    // 오류 주입 비율 (0.0 ~ 1.0)
+    @Value("${app.bedrockSim.throttleRate:0.0}")
+    private double throttleRate;
+
+    @Value("${app.bedrockSim.errorRate:0.0}")
+    private double errorRate;
+
+    // 계정 동시 호출 한도 흉내 (넘으면 ThrottlingException, 0이면 제한 없음)
+    @Value("${app.bedrockSim.maxConcurrent:0}")
+    private int maxConcurrent;
+
+    @Value("${app.bedrockSim.threads:2}")
+    private int threads;
+
+    // 구체 타입으로 등록해 BedrockRuntimeAsyncClient 주입과 대역 통계 조회(BedrockSimulatorController) 모두에 쓴다
+    @Bean
+    public SimulatedBedrockClient bedrockRuntimeAsyncClient(ObjectMapper objectMapper) {
+        return new SimulatedBedrockClient(new SimulatedBedrockClient.Settings(region, latencyMedianMs, latencyP99Ms,
+                firstTokenRatio, chunkChars, throttleRate, errorRate, maxConcurrent, threads), objectMapper);
+    }
+}
@@ -0,0 +1,16 @@
+package com.mcg.iotseniorsafe.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+// 조회 기간(오늘/어제/최근 N분) 계산 기준 시계 - 테스트에서는 Clock.fixed로 교체
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
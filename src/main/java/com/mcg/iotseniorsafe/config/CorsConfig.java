@@ -13,6 +13,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:5173", "http://localhost:5174")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Total-Count", "X-Next-Cursor", "X-Snapshot-At", "X-Snapshot-Age-Seconds")
                 .allowCredentials(false)
                 .maxAge(3600);
     }
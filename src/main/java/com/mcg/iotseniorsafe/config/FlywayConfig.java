@@ -0,0 +1,20 @@
+package com.mcg.iotseniorsafe.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 스키마 마이그레이션 (src/main/resources/db/migration) - Spring Boot가 @Primary 데이터소스(kepcomcs_new)에 기동 시 적용
+// 운영 DB는 이력 테이블(flyway_schema_history) 없이 테이블이 이미 있으므로 버전 0으로 baseline을 잡고 V1부터 실행한다.
+// 스크립트는 모두 IF NOT EXISTS라 손으로 먼저 반영한 DB에서도 그대로 통과한다.
+// data.sql(샘플 데이터)은 spring.sql.init.mode 기본값(embedded)대로 운영 DB에서는 실행되지 않는다.
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer flywayBaselineCustomizer() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("0");
+    }
+}
@@ -0,0 +1,27 @@
+package com.mcg.iotseniorsafe.config;
+
+import com.mcg.iotseniorsafe.service.DataSourceBulkhead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 위험도 일괄 평가용 DB별 동시 쿼리 제한 - DB마다 허용량만큼의 전용 스레드 (공유 스레드 풀 없음)
+@Configuration
+public class RiskExecutorConfig {
+
+    @Value("${app.risk.primaryConcurrency:2}")
+    private int primaryConcurrency;   // 한전 MCS (레거시, 느림)
+
+    @Value("${app.risk.secondaryConcurrency:4}")
+    private int secondaryConcurrency; // 우리 시스템
+
+    @Bean(name = "primaryBulkhead", destroyMethod = "shutdown")
+    public DataSourceBulkhead primaryBulkhead() {
+        return new DataSourceBulkhead("primary", primaryConcurrency);
+    }
+
+    @Bean(name = "secondaryBulkhead", destroyMethod = "shutdown")
+    public DataSourceBulkhead secondaryBulkhead() {
+        return new DataSourceBulkhead("secondary", secondaryConcurrency);
+    }
+}
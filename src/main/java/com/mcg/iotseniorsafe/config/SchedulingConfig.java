@@ -0,0 +1,31 @@
+package com.mcg.iotseniorsafe.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+// 스케줄 작업용 스레드 풀 - 긴 스캔이 캐시/스냅샷 갱신을 막지 않도록 기본 단일 스레드 대신 사용
+// 빈으로 등록해 컨텍스트 종료 시 Spring이 초기화/종료를 맡는다 (scheduler- 스레드가 남아 JVM 종료를 막지 않음)
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    @Value("${app.scheduling.poolSize:4}")
+    private int poolSize;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, poolSize));
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(taskScheduler());
+    }
+}
@@ -3,17 +3,38 @@ package com.mcg.iotseniorsafe.controller;
 import com.mcg.iotseniorsafe.dto.AlertResponse;
 import com.mcg.iotseniorsafe.dto.RiskEntryDto;
 import com.mcg.iotseniorsafe.entity.Report;
+import com.mcg.iotseniorsafe.repository.SensorSummaryMigrator;
+import com.mcg.iotseniorsafe.repository.SensorSummaryStore;
+import com.mcg.iotseniorsafe.service.AIPrewarmPipeline;
+import com.mcg.iotseniorsafe.service.AITriageQueue;
 import com.mcg.iotseniorsafe.service.BedrockService;
+import com.mcg.iotseniorsafe.service.ReportDocumentStream;
 import com.mcg.iotseniorsafe.service.ReportService;
+import com.mcg.iotseniorsafe.service.RiskEntryPage;
+import com.mcg.iotseniorsafe.service.RiskEventStream;
+import com.mcg.iotseniorsafe.service.RiskAnalysisJob;
 import com.mcg.iotseniorsafe.service.RiskAnalysisService;
+import com.mcg.iotseniorsafe.service.TriageJob;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/ai-reporting")
@@ -25,78 +46,242 @@ public class AIReportingController {
     private final BedrockService bedrockService;
     private final RiskAnalysisService riskAnalysisService;
     private final ReportService reportService;
+    private final RiskAnalysisJob riskAnalysisJob;
+    private final SensorSummaryStore sensorSummaryStore;
+    private final SensorSummaryMigrator sensorSummaryMigrator;
+    private final RiskEventStream riskEventStream;
+    private final ReportDocumentStream reportDocumentStream;
+    private final AITriageQueue aiTriageQueue;
+    private final AIPrewarmPipeline aiPrewarmPipeline;
+
+    // 비동기 분석 응답 최대 대기 시간 (Bedrock 호출 제한 시간 + 대기열 대기 시간보다 길게)
+    @Value("${app.bedrock.asyncTimeoutMs:120000}")
+    private long asyncTimeoutMs;
+
+    // 위험도 평가 벤치마크 허용 여부 - 운영 DB에 가구별/일괄/병렬 스캔을 연달아 실행하므로 기본 비활성
+    @Value("${app.risk.benchmarkEnabled:false}")
+    private boolean benchmarkEnabled;
+
+    // 벤치마크 1회에 허용할 가구 수 상한 (크기 목록은 최대 5개)
+    @Value("${app.risk.benchmarkMaxHouseholds:1000}")
+    private int benchmarkMaxHouseholds;
 
     @Autowired
-    public AIReportingController(BedrockService bedrockService, RiskAnalysisService riskAnalysisService, ReportService reportService) {
+    public AIReportingController(BedrockService bedrockService, RiskAnalysisService riskAnalysisService, ReportService reportService,
+                                 RiskAnalysisJob riskAnalysisJob, SensorSummaryStore sensorSummaryStore,
+                                 SensorSummaryMigrator sensorSummaryMigrator, RiskEventStream riskEventStream,
+                                 ReportDocumentStream reportDocumentStream, AITriageQueue aiTriageQueue,
+                                 AIPrewarmPipeline aiPrewarmPipeline) {
         this.bedrockService = bedrockService;
         this.riskAnalysisService = riskAnalysisService;
         this.reportService = reportService;
+        this.riskAnalysisJob = riskAnalysisJob;
+        this.sensorSummaryStore = sensorSummaryStore;
+        this.sensorSummaryMigrator = sensorSummaryMigrator;
+        this.riskEventStream = riskEventStream;
+        this.reportDocumentStream = reportDocumentStream;
+        this.aiTriageQueue = aiTriageQueue;
+        this.aiPrewarmPipeline = aiPrewarmPipeline;
     }
 
     /**
-     * 위험 의심 내역 목록 조회 (기존 report 테이블 기반)
+     * 위험 의심 내역 목록 조회 (risk_snapshot 기반)
+     * cursor가 있으면 키셋 페이징 (page 무시) - 다음 페이지는 X-Next-Cursor 값을 cursor로 넘긴다.
+     * total=false면 전체 건수를 세지 않는다.
+     * 응답 헤더: X-Total-Count(검색 결과 전체 건수, 스냅샷 기준), X-Next-Cursor(다음 페이지 커서, 마지막 페이지면 없음),
+     *           X-Snapshot-At / X-Snapshot-Age-Seconds(스냅샷 시각/경과 초, 첫 스냅샷 전이면 없음)
      */
     @GetMapping("/risk-entries")
     public ResponseEntity<List<RiskEntryDto>> getRiskEntries(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search,
-            @RequestParam(defaultValue = "latest") String sort) {
+            @RequestParam(defaultValue = "latest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean total) {
 
         try {
-            List<RiskEntryDto> riskEntries = riskAnalysisService.getRiskEntries(page, size, search, sort);
-            return ResponseEntity.ok(riskEntries);
+            RiskEntryPage riskEntryPage = riskAnalysisService.getRiskEntryPage(cursor, page, size, search, sort, total);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (riskEntryPage.snapshotAt() != null) {
+                response.header("X-Snapshot-At", String.valueOf(riskEntryPage.snapshotAt()))
+                        .header("X-Snapshot-Age-Seconds", String.valueOf(riskEntryPage.snapshotAgeSeconds()));
+            }
+            if (riskEntryPage.totalCount() >= 0) {
+                response.header("X-Total-Count", String.valueOf(riskEntryPage.totalCount()));
+            }
+            if (riskEntryPage.nextCursor() != null) {
+                response.header("X-Next-Cursor", riskEntryPage.nextCursor());
+            }
+            return response.body(riskEntryPage.entries());
+        } catch (IllegalArgumentException e) {
+            logger.warn("위험 의심 내역 조회 - 잘못된 커서: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("위험 의심 내역 조회 실패", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * 위험도 단계 변화 스트림 (text/event-stream)
+     * - risk-transition 이벤트: 가구의 위험도 단계가 바뀌었을 때 (같은 가구의 연속 변화는 합쳐서 한 건)
+     * - reset 이벤트: 놓친 변화가 있으니 목록을 다시 조회해야 할 때
+     * 재연결 시 Last-Event-ID 헤더(또는 lastEventId 파라미터) 이후 이벤트부터 이어 받는다.
+     */
+    @GetMapping(value = "/risk-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRiskEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return riskEventStream.connect(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    /**
+     * 위험도 단계 변화 스트림 현황 (디버깅/확인용)
+     */
+    @GetMapping("/risk-events/stats")
+    public ResponseEntity<Map<String, Object>> getRiskEventStats() {
+        return ResponseEntity.ok(riskEventStream.getStats());
+    }
+
     /**
      * 특정 가구의 위험도 분석 (위험 의심 내역 클릭 시)
+     * Bedrock 응답을 기다리는 동안 요청 스레드를 반납한다 (비동기 응답).
+     * 미리 만든 분석(AIPrewarmPipeline)이 아직 유효하면 바로 응답한다.
+     * 동시 분석 요청이 허용량을 넘으면 503, 응답 대기 시간을 넘으면 504
      */
     @PostMapping("/analyze-household/{householdId}")
-    public ResponseEntity<AlertResponse> analyzeHouseholdRisk(@PathVariable int householdId) {
-        try {
-            logger.info("가구 위험도 분석 요청: householdId={}", householdId);
+    public DeferredResult<ResponseEntity<AlertResponse>> analyzeHouseholdRisk(@PathVariable int householdId) {
+        logger.info("가구 위험도 분석 요청: householdId={}", householdId);
+        AlertResponse prewarmed = aiPrewarmPipeline.getAnalysis(householdId);
+        return toDeferredResult("가구 위험도 분석", householdId,
+                () -> prewarmed != null
+                        ? CompletableFuture.completedFuture(prewarmed)
+                        : bedrockService.analyzeHouseholdRiskAsync(householdId));
+    }
 
-            AlertResponse response = bedrockService.analyzeHouseholdRisk(householdId);
+    /**
+     * 신고용 상세 보고서 생성 (비동기 응답, 분석 요청과 같은 제한 적용)
+     * analysisId(분석 응답의 analysisId)를 넘기면 분석 때 읽은 데이터와 결과를 재사용하므로 본문은 생략할 수 있다.
+     * 본문(1차 분석 결과)을 넘기면 그 내용으로 보고서를 만든다. 둘 다 없거나 분석 컨텍스트가 만료됐으면 404
+     * 같은 분석으로 미리 만든 초안이 있으면 바로 응답한다.
+     */
+    @PostMapping("/generate-report/{householdId}")
+    public DeferredResult<ResponseEntity<AlertResponse>> generateReportingDocument(
+            @PathVariable int householdId,
+            @RequestParam(required = false) String analysisId,
+            @RequestBody(required = false) AlertResponse initialAnalysis) {
 
-            if (response == null) {
-                return ResponseEntity.internalServerError().build();
-            }
+        logger.info("신고 문서 생성 요청: householdId={}, analysisId={}", householdId, analysisId);
+        AlertResponse prewarmed = aiPrewarmPipeline.getReport(householdId,
+                analysisId != null ? analysisId : initialAnalysis != null ? initialAnalysis.getAnalysisId() : null);
+        return toDeferredResult("신고 문서 생성", householdId,
+                () -> prewarmed != null
+                        ? CompletableFuture.completedFuture(prewarmed)
+                        : bedrockService.generateReportingDocumentAsync(householdId, analysisId, initialAnalysis));
+    }
 
-            return ResponseEntity.ok(response);
+    /**
+     * 신고용 상세 보고서 스트리밍 생성 (text/event-stream, analysisId / POST 본문은 generate-report와 같음)
+     * - delta 이벤트: 생성 중인 텍스트 조각 {"text": "..."}
+     * - result 이벤트: 완성된 보고서 (AlertResponse)
+     * - error 이벤트: {"status": 503(동시 호출 초과) | 404(분석 컨텍스트 없음) | 500, "message": "..."}
+     */
+    @PostMapping(value = "/generate-report/{householdId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReportingDocument(
+            @PathVariable int householdId,
+            @RequestParam(required = false) String analysisId,
+            @RequestBody(required = false) AlertResponse initialAnalysis) {
 
-        } catch (Exception e) {
-            logger.error("가구 위험도 분석 실패: householdId={}", householdId, e);
-            return ResponseEntity.internalServerError().build();
-        }
+        logger.info("신고 문서 스트리밍 생성 요청: householdId={}, analysisId={}", householdId, analysisId);
+        return reportDocumentStream.start(householdId, analysisId, initialAnalysis);
     }
 
     /**
-     * 신고용 상세 보고서 생성
+     * 신고 문서 스트리밍 현황 - 진행 중인 스트림 수, 첫 조각까지 평균 시간 (디버깅/확인용)
      */
-    @PostMapping("/generate-report/{householdId}")
-    public ResponseEntity<AlertResponse> generateReportingDocument(
-            @PathVariable int householdId,
-            @RequestBody AlertResponse initialAnalysis) {
+    @GetMapping("/generate-report/stream/stats")
+    public ResponseEntity<Map<String, Object>> getReportStreamStats() {
+        return ResponseEntity.ok(reportDocumentStream.getStats());
+    }
 
-        try {
-            logger.info("신고 문서 생성 요청: householdId={}", householdId);
+    /**
+     * AI 선별 분석 대기열 현황 - 대기 수, 대기 시간, 최근 1분 처리량 (디버깅/확인용)
+     */
+    @GetMapping("/triage/stats")
+    public ResponseEntity<Map<String, Object>> getTriageStats() {
+        return ResponseEntity.ok(aiTriageQueue.getStats());
+    }
 
-            AlertResponse reportingDocument = bedrockService.generateReportingDocument(householdId, initialAnalysis);
+    /**
+     * 오늘 AI 선별 분석 작업 목록 (실행 중 → 대기(우선순위 순) → 완료/실패)
+     */
+    @GetMapping("/triage/jobs")
+    public ResponseEntity<List<TriageJob>> getTriageJobs() {
+        return ResponseEntity.ok(aiTriageQueue.getJobs());
+    }
 
-            if (reportingDocument == null) {
-                return ResponseEntity.internalServerError().build();
-            }
+    /**
+     * 가구의 오늘 선별 분석 결과 - 완료됐으면 result에 분석 결과, 작업이 없으면 404
+     */
+    @GetMapping("/triage/jobs/{householdId}")
+    public ResponseEntity<TriageJob> getTriageJob(@PathVariable int householdId) {
+        TriageJob job = aiTriageQueue.getJob(householdId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * AI 분석 미리 생성 현황 - 보관 중인 결과 수, 오늘 쓴 토큰, 적중 수 (디버깅/확인용)
+     */
+    @GetMapping("/prewarm/stats")
+    public ResponseEntity<Map<String, Object>> getPrewarmStats() {
+        return ResponseEntity.ok(aiPrewarmPipeline.getStats());
+    }
+
+    /**
+     * Bedrock 호출 현황 - 실행 중/대기 중 호출 수, 거절 수, 분석 결과 캐시 적중/절약 시간 (디버깅/확인용)
+     */
+    @GetMapping("/bedrock/stats")
+    public ResponseEntity<Map<String, Object>> getBedrockStats() {
+        return ResponseEntity.ok(bedrockService.getStats());
+    }
+
+    private DeferredResult<ResponseEntity<AlertResponse>> toDeferredResult(
+            String action, int householdId, Supplier<CompletableFuture<AlertResponse>> call) {
 
-            return ResponseEntity.ok(reportingDocument);
+        DeferredResult<ResponseEntity<AlertResponse>> result = new DeferredResult<>(asyncTimeoutMs);
+        result.onTimeout(() -> {
+            logger.warn("{} 응답 시간 초과: householdId={}", action, householdId);
+            result.setErrorResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build());
+        });
 
+        CompletableFuture<AlertResponse> future;
+        try {
+            future = call.get();
         } catch (Exception e) {
-            logger.error("신고 문서 생성 실패: householdId={}", householdId, e);
-            return ResponseEntity.internalServerError().build();
+            future = CompletableFuture.failedFuture(e);
         }
+
+        future.whenComplete((response, error) -> {
+            if (error == null) {
+                result.setResult(response != null ? ResponseEntity.ok(response) : ResponseEntity.internalServerError().build());
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RejectedExecutionException) {
+                logger.warn("{} 요청 거절 (동시 호출 초과): householdId={}, {}", action, householdId, cause.getMessage());
+                result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+            } else if (cause instanceof NoSuchElementException) {
+                logger.warn("{} - {}: householdId={}", action, cause.getMessage(), householdId);
+                result.setResult(ResponseEntity.notFound().build());
+            } else {
+                logger.error("{} 실패: householdId={}", action, householdId, cause);
+                result.setResult(ResponseEntity.internalServerError().build());
+            }
+        });
+        return result;
     }
 
     /**
@@ -117,11 +302,12 @@ public class AIReportingController {
      * 모든 가구의 위험도 일괄 평가 (배치 작업용)
      */
     @PostMapping("/evaluate-all-households")
-    public ResponseEntity<Map<String, Object>> evaluateAllHouseholds() {
+    public ResponseEntity<Map<String, Object>> evaluateAllHouseholds(
+            @RequestParam(required = false) Boolean parallel) {
         try {
-            logger.info("전체 가구 위험도 평가 시작");
+            logger.info("전체 가구 위험도 평가 시작: parallel={}", parallel);
 
-            Map<String, Object> result = riskAnalysisService.evaluateAllHouseholds();
+            Map<String, Object> result = riskAnalysisService.evaluateAllHouseholds(parallel);
 
             return ResponseEntity.ok(result);
 
@@ -131,6 +317,89 @@ public class AIReportingController {
         }
     }
 
+    /**
+     * 위험도 평가 벤치마크 - 가구 수별 DB 왕복 횟수 / 소요 시간 비교 (기존 방식 vs 일괄 방식)
+     * app.risk.benchmarkEnabled=true일 때만 동작 (기본 404), 가구 수는 app.risk.benchmarkMaxHouseholds로 제한
+     */
+    @PostMapping("/risk-scan/benchmark")
+    public ResponseEntity<List<Map<String, Object>>> benchmarkRiskScan(
+            @RequestParam(defaultValue = "10,100,1000") List<Integer> sizes) {
+        if (!benchmarkEnabled) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            List<Integer> capped = sizes.stream()
+                    .limit(5)
+                    .map(size -> Math.min(Math.max(size, 0), benchmarkMaxHouseholds))
+                    .toList();
+            logger.info("위험도 평가 벤치마크 시작: sizes={}", capped);
+            return ResponseEntity.ok(riskAnalysisService.benchmarkRiskScan(capped));
+        } catch (Exception e) {
+            logger.error("위험도 평가 벤치마크 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 센서 테이블 카탈로그 현황 (디버깅/확인용)
+     */
+    @GetMapping("/sensor-tables/stats")
+    public ResponseEntity<Map<String, Object>> getSensorTableCatalogStats() {
+        return ResponseEntity.ok(riskAnalysisService.getSensorTableCatalogStats());
+    }
+
+    /**
+     * 가구 디렉터리 현황 (디버깅/확인용)
+     */
+    @GetMapping("/household-directory/stats")
+    public ResponseEntity<Map<String, Object>> getHouseholdDirectoryStats() {
+        return ResponseEntity.ok(riskAnalysisService.getHouseholdDirectoryStats());
+    }
+
+    /**
+     * 전체 가구 검색 - 가구명 / 담당자명 / 주소 부분 문자열 (접두 일치 먼저)
+     */
+    @GetMapping("/households/search")
+    public ResponseEntity<Map<String, Object>> searchHouseholds(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(riskAnalysisService.searchHouseholds(q, Math.min(Math.max(limit, 1), 1000)));
+    }
+
+    /**
+     * 무점유·소음 패턴 스캔 실행 지표 (디버깅/확인용)
+     */
+    @GetMapping("/hourly-scan/stats")
+    public ResponseEntity<Map<String, Object>> getHourlyScanStats() {
+        return ResponseEntity.ok(riskAnalysisJob.getStats());
+    }
+
+    /**
+     * 가구별 센서 테이블 → 통합 파티션 테이블(sensor_summary) 이관 시작 (비동기, 중단된 지점부터 재개)
+     */
+    @PostMapping("/sensor-store/migrate")
+    public ResponseEntity<Map<String, Object>> startSensorStoreMigration() {
+        boolean started = sensorSummaryMigrator.start();
+        logger.info("센서 요약 통합 테이블 이관 요청 - 시작: {}", started);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("started", started);
+        result.put("message", started ? "이관을 시작했습니다." : "이미 이관이 진행 중입니다.");
+        result.put("status", sensorSummaryMigrator.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 센서 요약 저장소 백엔드 / 이관 진행 현황 (디버깅/확인용)
+     */
+    @GetMapping("/sensor-store/status")
+    public ResponseEntity<Map<String, Object>> getSensorStoreStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("backend", sensorSummaryStore.backend());
+        result.put("migration", sensorSummaryMigrator.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 최종 신고 제출 (DB 저장)
      */
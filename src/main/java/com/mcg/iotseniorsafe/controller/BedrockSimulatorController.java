@@ -0,0 +1,29 @@
+package com.mcg.iotseniorsafe.controller;
+
+import com.mcg.iotseniorsafe.config.AwsConfig;
+import com.mcg.iotseniorsafe.service.SimulatedBedrockClient;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Bedrock 대역 통계 (bedrock-sim 프로필에서만 등록) - 운영 경로의 /bedrock/stats와 분리
+@RestController
+@RequestMapping("/api/ai-reporting")
+@Profile(AwsConfig.SIMULATOR_PROFILE)
+public class BedrockSimulatorController {
+
+    private final SimulatedBedrockClient simulatedBedrockClient;
+
+    public BedrockSimulatorController(SimulatedBedrockClient simulatedBedrockClient) {
+        this.simulatedBedrockClient = simulatedBedrockClient;
+    }
+
+    @GetMapping("/bedrock-sim/stats")
+    public ResponseEntity<Map<String, Object>> getSimulatorStats() {
+        return ResponseEntity.ok(simulatedBedrockClient.getStats());
+    }
+}
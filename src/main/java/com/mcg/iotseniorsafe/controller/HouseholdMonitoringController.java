@@ -20,16 +20,19 @@ public class HouseholdMonitoringController {
     /**
      * 통합 센서 모니터링 데이터 조회
      * GET /api/monitoring/households
+     * q가 있으면 가구명 / 담당자명 / 주소에 q가 포함된 가구만
      */
     @GetMapping("/households")
     public ResponseEntity<Map<String, Object>> getAllHouseholdMonitoring(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "latest") String sortBy) {
+            @RequestParam(defaultValue = "latest") String sortBy,
+            @RequestParam(required = false) String q) {
 
         try {
-            List<HouseholdMonitoringDto> allData =
-                    householdMonitoringService.getAllHouseholdMonitoringData();
+            List<HouseholdMonitoringDto> allData = q != null && !q.isBlank()
+                    ? householdMonitoringService.searchHouseholdMonitoringData(q)
+                    : householdMonitoringService.getAllHouseholdMonitoringData();
 
             // 정렬 적용
             List<HouseholdMonitoringDto> sortedData = applySorting(allData, sortBy);
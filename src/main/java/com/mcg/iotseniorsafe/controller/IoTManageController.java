@@ -1,9 +1,9 @@
 // src/main/java/com/mcg/iotseniorsafe/controller/IoTManageController.java
 package com.mcg.iotseniorsafe.controller;
 
-import com.mcg.iotseniorsafe.dto.MaintenanceLogDto;
 import com.mcg.iotseniorsafe.dto.SensorStatsDto;
 import com.mcg.iotseniorsafe.service.IoTManageService;
+import com.mcg.iotseniorsafe.service.MaintenanceLogPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -52,27 +52,42 @@ public class IoTManageController {
     /**
      * 유지보수 로그 조회
      * GET /api/iot-manage/maintenance-logs
+     * cursor가 있으면 키셋 페이징 (page 무시) - 다음 페이지는 응답의 nextCursor를 cursor로 넘긴다.
+     * total=false면 전체 건수를 세지 않는다. 전체 건수는 짧은 주기로 캐시한 근사값이다.
      */
     @GetMapping("/maintenance-logs")
     public ResponseEntity<Map<String, Object>> getMaintenanceLogs(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "latest") String sortBy) {
+            @RequestParam(defaultValue = "latest") String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean total) {
 
         try {
-            List<MaintenanceLogDto> logs = iotManageService.getMaintenanceLogs(page, size, sortBy);
-            int totalElements = iotManageService.getMaintenanceLogCount();
+            MaintenanceLogPage logPage = iotManageService.getMaintenanceLogPage(cursor, page, size, sortBy, total);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", logs);
-            response.put("totalElements", totalElements);
-            response.put("totalPages", (int) Math.ceil((double) totalElements / size));
+            response.put("data", logPage.logs());
+            if (logPage.totalElements() >= 0) {
+                response.put("totalElements", logPage.totalElements());
+                response.put("totalPages", (int) Math.ceil((double) logPage.totalElements() / Math.max(size, 1)));
+                response.put("totalApproximate", true);
+            }
             response.put("currentPage", page);
             response.put("pageSize", size);
+            response.put("hasNext", logPage.nextCursor() != null);
+            response.put("nextCursor", logPage.nextCursor());
 
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+
+            return ResponseEntity.badRequest().body(errorResponse);
+
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -2,6 +2,7 @@ package com.mcg.iotseniorsafe.controller;
 
 import com.mcg.iotseniorsafe.dto.ManualReportDto;
 import com.mcg.iotseniorsafe.entity.Report;
+import com.mcg.iotseniorsafe.repository.HouseholdDirectory;
 import com.mcg.iotseniorsafe.repository.ReportRepository;
 import com.mcg.iotseniorsafe.service.ReportService;
 import lombok.RequiredArgsConstructor;
@@ -16,10 +17,16 @@ public class ReportController {
 
     private final ReportService service;
     private final ReportRepository repo;
+    private final HouseholdDirectory householdDirectory;
 
+    // q가 있으면 가구명 / 담당자명 / 주소에 q가 포함된 가구의 신고만
     @GetMapping
-    public List<Report> list(){
-        return repo.findAll();
+    public List<Report> list(@RequestParam(required = false) String q){
+        if (q == null || q.isBlank()) {
+            return repo.findAll();
+        }
+        List<Integer> householdIds = householdDirectory.search(q, Integer.MAX_VALUE);
+        return householdIds.isEmpty() ? List.of() : repo.findByHouseholdIds(householdIds);
     }
 
     @PostMapping
@@ -13,6 +13,9 @@ public class AlertResponse {
     private String comparisonDetails;
     private double commonDataRatio;
     private String householdId; // JSON 응답용
+    private boolean fallback;   // 모델 대신 규칙으로 만든 응답 (Bedrock 차단/장애 시)
+    private String analysisId;  // 분석 컨텍스트 ID (신고 문서 생성 시 전달)
+    private int tokensUsed;     // 이 응답에 쓴 모델 토큰 수 (입력+출력, 캐시/규칙 기반 응답은 0)
 
     // 신고용 보고서 필드들
     private String reportTitle;
@@ -107,6 +110,30 @@ public class AlertResponse {
         this.householdId = householdId;
     }
 
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    public void setFallback(boolean fallback) {
+        this.fallback = fallback;
+    }
+
+    public String getAnalysisId() {
+        return analysisId;
+    }
+
+    public void setAnalysisId(String analysisId) {
+        this.analysisId = analysisId;
+    }
+
+    public int getTokensUsed() {
+        return tokensUsed;
+    }
+
+    public void setTokensUsed(int tokensUsed) {
+        this.tokensUsed = tokensUsed;
+    }
+
     public String getReportTitle() {
         return reportTitle;
     }
@@ -0,0 +1,24 @@
+package com.mcg.iotseniorsafe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 가구 + 담당자 기본 정보 (household LEFT JOIN manager)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HouseholdProfileDto {
+    private Integer householdId;
+    private String name;                    // 이름
+    private String address;                 // 주소
+    private String contactNumber;           // 연락처
+    private Integer managerId;              // 담당자 ID
+    private String managerName;             // 담당자
+    private String managerContact;          // 담당자 연락처
+    private LocalDateTime updatedAt;        // household.updated_at (디렉터리 증분 갱신용)
+}
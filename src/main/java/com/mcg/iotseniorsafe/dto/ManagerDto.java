@@ -0,0 +1,20 @@
+package com.mcg.iotseniorsafe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 담당자(manager) 기본 정보
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagerDto {
+    private Integer managerId;
+    private String name;                    // 담당자
+    private String contactNumber;           // 담당자 연락처
+    private LocalDateTime updatedAt;        // manager.updated_at
+}
@@ -0,0 +1,77 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ai_analysis_log 테이블 - Bedrock 요청/응답 기록
+ * prompt_hash / expires_at이 있는 성공 행은 분석 결과 캐시(AnalysisResultCache)의 영속 저장소로도 쓴다.
+ */
+@Repository
+public class AIAnalysisLogRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ai_analysis_log " +
+                    "(household_id, request_type, request_data, ai_response, processing_time_ms, success, error_message, " +
+                    "prompt_hash, expires_at, input_tokens, output_tokens) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 기록 일괄 추가 (JDBC batch)
+     */
+    public void insertAll(List<LogRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.householdId());
+            ps.setString(2, row.requestType());
+            ps.setString(3, row.requestData());
+            ps.setString(4, row.aiResponse());
+            ps.setLong(5, row.processingTimeMs());
+            ps.setBoolean(6, row.success());
+            ps.setString(7, row.errorMessage());
+            ps.setString(8, row.promptHash());
+            ps.setTimestamp(9, row.expiresAt() != null ? Timestamp.valueOf(row.expiresAt()) : null);
+            ps.setObject(10, row.inputTokens(), Types.INTEGER);
+            ps.setObject(11, row.outputTokens(), Types.INTEGER);
+        });
+    }
+
+    /**
+     * 같은 프롬프트 해시의 아직 유효한 성공 응답 중 가장 최근 것 (없으면 null)
+     */
+    public CachedResponse findCachedResponse(String promptHash, LocalDateTime now) {
+        List<CachedResponse> rows = jdbcTemplate.query(
+                "SELECT ai_response, processing_time_ms, expires_at FROM ai_analysis_log " +
+                        "WHERE prompt_hash = ? AND expires_at > ? AND success = 1 AND ai_response IS NOT NULL " +
+                        "ORDER BY expires_at DESC LIMIT 1",
+                (rs, rowNum) -> new CachedResponse(
+                        rs.getString("ai_response"),
+                        rs.getLong("processing_time_ms"),
+                        rs.getTimestamp("expires_at").toLocalDateTime()),
+                promptHash, Timestamp.valueOf(now));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * 기록 한 행 - requestData / aiResponse는 JSON 문자열, 캐시 대상이 아니면 promptHash / expiresAt은 null
+     * inputTokens / outputTokens는 모델이 알려준 토큰 수 (실패했거나 알려주지 않으면 null)
+     */
+    public record LogRow(int householdId, String requestType, String requestData, String aiResponse,
+                         long processingTimeMs, boolean success, String errorMessage,
+                         String promptHash, LocalDateTime expiresAt, Integer inputTokens, Integer outputTokens) {
+    }
+
+    /**
+     * @param aiResponse JSON 문자열 ({"response": "..."})
+     */
+    public record CachedResponse(String aiResponse, long processingTimeMs, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,419 @@
+package com.mcg.iotseniorsafe.repository;
+
+import com.mcg.iotseniorsafe.dto.HouseholdProfileDto;
+import com.mcg.iotseniorsafe.dto.ManagerDto;
+import com.mcg.iotseniorsafe.util.IntIntHashMap;
+import com.mcg.iotseniorsafe.util.NgramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 가구/담당자 정보 인메모리 디렉터리 (household, manager)
+ * - 시작 시 전체 적재, 이후 updated_at 워터마크 기준 증분 갱신
+ * - 삭제된 가구 반영을 위해 일정 주기로 전체 재적재 (새 저장소를 만들어 통째로 교체)
+ * - 디렉터리에 없는 가구는 DB에서 조회해 채운다
+ * 가구 ID → 슬롯은 박싱 없는 IntIntHashMap, 필드는 슬롯별 배열에 저장한다.
+ * 가구명 / 담당자명 / 주소는 n-gram 역색인(NgramIndex)으로 함께 색인해 전체 가구 부분 문자열 검색에 쓴다.
+ */
+@Component
+public class HouseholdDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(HouseholdDirectory.class);
+
+    private final HouseholdRepository householdRepository;
+
+    @Value("${app.directory.fullReloadMinutes:60}")
+    private long fullReloadMinutes;
+
+    private volatile Store store = new Store(16);
+    private volatile LocalDateTime lastFullReload;
+    private volatile LocalDateTime householdWatermark;
+    private volatile LocalDateTime managerWatermark;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong incrementalRows = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong();
+
+    @Autowired
+    public HouseholdDirectory(HouseholdRepository householdRepository) {
+        this.householdRepository = householdRepository;
+    }
+
+    @Scheduled(initialDelayString = "${app.directory.initialDelayMs:0}",
+            fixedDelayString = "${app.directory.refreshIntervalMs:60000}")
+    public synchronized void refresh() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (lastFullReload == null || Duration.between(lastFullReload, now).toMinutes() >= fullReloadMinutes) {
+                fullReload(now);
+            } else {
+                incrementalRefresh();
+            }
+        } catch (Exception e) {
+            logger.error("가구 디렉터리 갱신 실패", e);
+        }
+    }
+
+    private void fullReload(LocalDateTime now) {
+        long start = System.currentTimeMillis();
+        Store loaded = new Store(Math.max(16, store.size()));
+
+        List<ManagerDto> managers = householdRepository.findManagers(null);
+        managers.forEach(loaded::putManager);
+        LocalDateTime managerMax = maxUpdatedAt(managers);
+
+        LocalDateTime[] householdMax = {null};
+        householdRepository.forEachHousehold(null, profile -> {
+            loaded.putHousehold(profile);
+            householdMax[0] = later(householdMax[0], profile.getUpdatedAt());
+        });
+
+        store = loaded;
+        lastFullReload = now;
+        householdWatermark = householdMax[0];
+        managerWatermark = managerMax;
+
+        logger.info("가구 디렉터리 전체 적재 완료 - 가구: {}, 담당자: {}, {}ms",
+                loaded.size(), managers.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 워터마크 이후 변경분만 반영 (같은 초에 바뀐 행을 놓치지 않도록 >= 로 조회, 중복 반영은 무해)
+     */
+    private void incrementalRefresh() {
+        Store current = store;
+
+        List<ManagerDto> managers = householdRepository.findManagers(managerWatermark);
+        managers.forEach(current::putManager);
+        managerWatermark = later(managerWatermark, maxUpdatedAt(managers));
+
+        int[] changed = {0};
+        LocalDateTime[] householdMax = {householdWatermark};
+        householdRepository.forEachHousehold(householdWatermark, profile -> {
+            current.putHousehold(profile);
+            householdMax[0] = later(householdMax[0], profile.getUpdatedAt());
+            changed[0]++;
+        });
+        householdWatermark = householdMax[0];
+
+        incrementalRows.addAndGet(managers.size() + changed[0]);
+        logger.debug("가구 디렉터리 증분 갱신 - 가구: {}, 담당자: {}", changed[0], managers.size());
+    }
+
+    /**
+     * 가구 + 담당자 정보 (디렉터리에 없으면 DB 조회 후 추가, 그래도 없으면 null)
+     */
+    public HouseholdProfileDto find(int householdId) {
+        return findAll(List.of(householdId)).get(householdId);
+    }
+
+    /**
+     * 여러 가구 정보 - 디렉터리에 없는 가구만 모아 한 번에 DB 조회
+     */
+    public Map<Integer, HouseholdProfileDto> findAll(Collection<Integer> householdIds) {
+        Store current = store;
+        Map<Integer, HouseholdProfileDto> profiles = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+
+        for (int householdId : householdIds) {
+            HouseholdProfileDto profile = current.get(householdId);
+            if (profile != null) {
+                profiles.put(householdId, profile);
+            } else {
+                missing.add(householdId);
+            }
+        }
+        hits.addAndGet(profiles.size());
+        misses.addAndGet(missing.size());
+
+        if (!missing.isEmpty()) {
+            Map<Integer, HouseholdProfileDto> loaded = householdRepository.findProfilesByIds(missing);
+            loaded.values().forEach(current::putProfile);
+            profiles.putAll(loaded);
+        }
+        return profiles;
+    }
+
+    /**
+     * 가구명 / 담당자명 / 주소 부분 문자열 검색 (공백·대소문자 무시) - 접두 일치 먼저, 최대 limit건의 가구 ID
+     * 디렉터리에 적재된 전체 가구가 대상이며 DB를 조회하지 않는다.
+     */
+    public List<Integer> search(String query, int limit) {
+        int[] ids = store.search(query, limit);
+        List<Integer> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(id);
+        }
+        searches.incrementAndGet();
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Store current = store;
+        long hitCount = hits.get();
+        long missCount = misses.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("households", current.size());
+        stats.put("managers", current.managerCount());
+        stats.put("estimatedBytes", current.estimatedBytes());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        stats.put("incrementalRows", incrementalRows.get());
+        stats.put("searches", searches.get());
+        stats.put("searchIndexTerms", current.searchIndexTerms());
+        stats.put("searchIndexBytes", current.searchIndexBytes());
+        stats.put("lastFullReload", lastFullReload);
+        stats.put("householdWatermark", householdWatermark);
+        stats.put("managerWatermark", managerWatermark);
+        return stats;
+    }
+
+    private static LocalDateTime maxUpdatedAt(List<ManagerDto> managers) {
+        LocalDateTime max = null;
+        for (ManagerDto manager : managers) {
+            max = later(max, manager.getUpdatedAt());
+        }
+        return max;
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+
+    /**
+     * 가구/담당자 저장소 - 슬롯별 배열 + StampedLock (조회는 읽기 락, 갱신은 쓰기 락)
+     */
+    private static final class Store {
+
+        private static final int NO_MANAGER = -1;
+
+        private final StampedLock lock = new StampedLock();
+
+        private final IntIntHashMap householdSlots;
+        private int[] householdIds;
+        private String[] names;
+        private String[] addresses;
+        private String[] contacts;
+        private int[] managerIds;
+        private int size;
+
+        private final IntIntHashMap managerSlots = new IntIntHashMap(64);
+        private String[] managerNames = new String[64];
+        private String[] managerContacts = new String[64];
+        private int managerSize;
+
+        private final NgramIndex searchIndex;
+
+        Store(int expectedHouseholds) {
+            searchIndex = new NgramIndex(expectedHouseholds);
+            householdSlots = new IntIntHashMap(expectedHouseholds);
+            householdIds = new int[expectedHouseholds];
+            names = new String[expectedHouseholds];
+            addresses = new String[expectedHouseholds];
+            contacts = new String[expectedHouseholds];
+            managerIds = new int[expectedHouseholds];
+        }
+
+        HouseholdProfileDto get(int householdId) {
+            long stamp = lock.readLock();
+            try {
+                int slot = householdSlots.get(householdId);
+                if (slot < 0) {
+                    return null;
+                }
+                int managerId = managerIds[slot];
+                int managerSlot = managerId == NO_MANAGER ? -1 : managerSlots.get(managerId);
+                return HouseholdProfileDto.builder()
+                        .householdId(householdId)
+                        .name(names[slot])
+                        .address(addresses[slot])
+                        .contactNumber(contacts[slot])
+                        .managerId(managerId == NO_MANAGER ? null : managerId)
+                        .managerName(managerSlot >= 0 ? managerNames[managerSlot] : null)
+                        .managerContact(managerSlot >= 0 ? managerContacts[managerSlot] : null)
+                        .build();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void putHousehold(HouseholdProfileDto profile) {
+            long stamp = lock.writeLock();
+            try {
+                writeHousehold(profile);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 가구 + 담당자 정보를 함께 반영 (DB 단건 조회 결과)
+         */
+        void putProfile(HouseholdProfileDto profile) {
+            long stamp = lock.writeLock();
+            try {
+                writeHousehold(profile);
+                if (profile.getManagerId() != null) {
+                    writeManager(profile.getManagerId(), profile.getManagerName(), profile.getManagerContact());
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void putManager(ManagerDto manager) {
+            long stamp = lock.writeLock();
+            try {
+                writeManager(manager.getManagerId(), manager.getName(), manager.getContactNumber());
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int[] search(String query, int limit) {
+            long stamp = lock.readLock();
+            try {
+                return searchIndex.search(query, limit);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int searchIndexTerms() {
+            long stamp = lock.readLock();
+            try {
+                return searchIndex.termCount();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long searchIndexBytes() {
+            long stamp = lock.readLock();
+            try {
+                return searchIndex.estimatedBytes();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int managerCount() {
+            long stamp = lock.readLock();
+            try {
+                return managerSize;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * 대략적인 메모리 사용량 (배열 + 해시 테이블 + 문자열, 객체 헤더 포함 추정치)
+         */
+        long estimatedBytes() {
+            long stamp = lock.readLock();
+            try {
+                long bytes = householdSlots.estimatedBytes() + managerSlots.estimatedBytes();
+                bytes += 4L * (16 + (long) names.length * 4) + 2L * (16 + (long) managerIds.length * Integer.BYTES);
+                bytes += 2L * (16 + (long) managerNames.length * 4);
+                for (int i = 0; i < size; i++) {
+                    bytes += stringBytes(names[i]) + stringBytes(addresses[i]) + stringBytes(contacts[i]);
+                }
+                for (int i = 0; i < managerSize; i++) {
+                    bytes += stringBytes(managerNames[i]) + stringBytes(managerContacts[i]);
+                }
+                return bytes;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private static long stringBytes(String value) {
+            return value == null ? 0 : 40L + value.length() * 2L;
+        }
+
+        private void writeHousehold(HouseholdProfileDto profile) {
+            int householdId = profile.getHouseholdId();
+            int slot = householdSlots.get(householdId);
+            if (slot < 0) {
+                if (size == names.length) {
+                    int capacity = Math.max(16, names.length * 2);
+                    householdIds = Arrays.copyOf(householdIds, capacity);
+                    names = Arrays.copyOf(names, capacity);
+                    addresses = Arrays.copyOf(addresses, capacity);
+                    contacts = Arrays.copyOf(contacts, capacity);
+                    managerIds = Arrays.copyOf(managerIds, capacity);
+                }
+                slot = size++;
+                householdSlots.put(householdId, slot);
+                householdIds[slot] = householdId;
+            }
+            names[slot] = profile.getName();
+            addresses[slot] = profile.getAddress();
+            contacts[slot] = profile.getContactNumber();
+            managerIds[slot] = profile.getManagerId() != null ? profile.getManagerId() : NO_MANAGER;
+            index(slot, householdId);
+        }
+
+        private void writeManager(int managerId, String name, String contactNumber) {
+            int slot = managerSlots.get(managerId);
+            if (slot < 0) {
+                if (managerSize == managerNames.length) {
+                    managerNames = Arrays.copyOf(managerNames, managerNames.length * 2);
+                    managerContacts = Arrays.copyOf(managerContacts, managerContacts.length * 2);
+                }
+                slot = managerSize++;
+                managerSlots.put(managerId, slot);
+            } else if (Objects.equals(managerNames[slot], name)) {
+                managerContacts[slot] = contactNumber;
+                return;
+            }
+            managerNames[slot] = name;
+            managerContacts[slot] = contactNumber;
+
+            // 담당자명이 바뀌면 담당 가구를 다시 색인 (담당자 변경은 드물어 전체 슬롯을 훑는다)
+            for (int i = 0; i < size; i++) {
+                if (managerIds[i] == managerId) {
+                    index(i, householdIds[i]);
+                }
+            }
+        }
+
+        private void index(int slot, int householdId) {
+            int managerId = managerIds[slot];
+            int managerSlot = managerId == NO_MANAGER ? -1 : managerSlots.get(managerId);
+            searchIndex.put(householdId, names[slot], managerSlot >= 0 ? managerNames[managerSlot] : null, addresses[slot]);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.mcg.iotseniorsafe.repository;
 
 import com.mcg.iotseniorsafe.dto.HouseholdMonitoringDto;
+import com.mcg.iotseniorsafe.dto.HouseholdProfileDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -9,7 +10,11 @@ import org.springframework.stereotype.Repository;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class HouseholdMonitoringRepository {
@@ -17,35 +22,41 @@ public class HouseholdMonitoringRepository {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    /**
-     * 모든 가구의 모니터링 데이터 조회
-     */
-    public List<HouseholdMonitoringDto> findAllHouseholdMonitoringData() {
-        String sql = """
+    @Autowired
+    private SensorTableCatalog sensorTableCatalog;
+
+    @Autowired
+    private SensorSummaryStore sensorSummaryStore;
+
+    @Autowired
+    private HouseholdDirectory householdDirectory;
+
+    @Autowired
+    private TimeWindows timeWindows;
+
+    // 한 번의 IN 조회에 넣을 가구 수 (MariaDB prepared statement 플레이스홀더 한도 65535)
+    private static final int IN_CLAUSE_CHUNK = 500;
+
+    private static final String MONITORING_SELECT = """
             SELECT 
                 h.household_id,
-                h.name,
-                h.contact_number,
-                h.address,
-                m.name as manager_name,
-                m.contact_number as manager_contact,
                 -- 최신 센서 데이터 조회 서브쿼리
                 (SELECT COUNT(*) FROM all_household_sensor_log asl1 
                  WHERE asl1.household_id = h.household_id 
                    AND asl1.led_sensor_gbn = '01' 
-                   AND asl1.recorded_at >= DATE_SUB(NOW(), INTERVAL 1 HOUR)) as light_count,
+                   AND asl1.recorded_at >= ?) as light_count,
                 (SELECT COUNT(*) FROM all_household_sensor_log asl2 
                  WHERE asl2.household_id = h.household_id 
                    AND asl2.ocpy_sensor_gbn IS NOT NULL 
-                   AND asl2.recorded_at >= DATE_SUB(NOW(), INTERVAL 1 HOUR)) as occupancy_count,
+                   AND asl2.recorded_at >= ?) as occupancy_count,
                 (SELECT COUNT(*) FROM all_household_sensor_log asl3 
                  WHERE asl3.household_id = h.household_id 
                    AND asl3.noise_sensor_gbn IS NOT NULL 
-                   AND asl3.recorded_at >= DATE_SUB(NOW(), INTERVAL 1 HOUR)) as noise_count,
+                   AND asl3.recorded_at >= ?) as noise_count,
                 (SELECT COUNT(*) FROM all_household_sensor_log asl4 
                  WHERE asl4.household_id = h.household_id 
                    AND asl4.led_sensor_gbn = '04' 
-                   AND asl4.recorded_at >= DATE_SUB(NOW(), INTERVAL 1 HOUR)) as toilet_count,
+                   AND asl4.recorded_at >= ?) as toilet_count,
                 -- 마지막 활동 시간
                 (SELECT MAX(recorded_at) FROM all_household_sensor_log asl5 
                  WHERE asl5.household_id = h.household_id) as last_activity_time,
@@ -56,51 +67,75 @@ public class HouseholdMonitoringRepository {
                  END
                  FROM report r 
                  WHERE r.household_id = h.household_id 
-                   AND r.created_at >= DATE_SUB(NOW(), INTERVAL 24 HOUR)) as status
+                   AND r.created_at >= ?) as status
             FROM household h
-            LEFT JOIN manager m ON h.manager_id = m.manager_id
-            ORDER BY last_activity_time DESC
             """;
 
-        return jdbcTemplate.query(sql, new HouseholdMonitoringRowMapper());
+    /**
+     * 모든 가구의 모니터링 데이터 조회
+     */
+    public List<HouseholdMonitoringDto> findAllHouseholdMonitoringData() {
+        String sql = MONITORING_SELECT + "ORDER BY last_activity_time DESC";
+        List<HouseholdMonitoringDto> monitoringData = jdbcTemplate.query(sql, new HouseholdMonitoringRowMapper(),
+                windowParams().toArray());
+        fillProfiles(monitoringData);
+        return monitoringData;
     }
 
     /**
-     * 특정 가구의 센서 요약 데이터 조회 (동적 테이블)
+     * 지정한 가구들의 모니터링 데이터만 조회 (가구 검색 결과)
+     * - IN_CLAUSE_CHUNK개씩 나눠 조회 후 전체 조회와 같은 순서(마지막 활동 최신순)로 합침
      */
-    public List<HouseholdMonitoringDto> findHouseholdSensorSummary(Integer householdId) {
-        String tableName = "sensor_summary_" + householdId;
+    public List<HouseholdMonitoringDto> findHouseholdMonitoringData(List<Integer> householdIds) {
+        List<HouseholdMonitoringDto> monitoringData = new ArrayList<>();
+        for (int from = 0; from < householdIds.size(); from += IN_CLAUSE_CHUNK) {
+            List<Integer> chunk = householdIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK, householdIds.size()));
+            String sql = MONITORING_SELECT + "WHERE h.household_id IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            List<Object> params = windowParams();
+            params.addAll(chunk);
+            monitoringData.addAll(jdbcTemplate.query(sql, new HouseholdMonitoringRowMapper(), params.toArray()));
+        }
+        monitoringData.sort(Comparator.comparing(HouseholdMonitoringDto::getSortTime).reversed());
+        fillProfiles(monitoringData);
+        return monitoringData;
+    }
 
-        // 테이블 존재 여부 확인
-        String checkTableSql = """
-            SELECT COUNT(*) FROM information_schema.tables 
-            WHERE table_schema = DATABASE() 
-            AND table_name = ?
-            """;
+    // 센서 카운트 서브쿼리 4개는 최근 1시간, 신고 상태는 최근 24시간 기준
+    private List<Object> windowParams() {
+        LocalDateTime lastHour = timeWindows.lastHours(1).from();
+        LocalDateTime last24Hours = timeWindows.lastHours(24).from();
+        return new ArrayList<>(List.of(lastHour, lastHour, lastHour, lastHour, last24Hours));
+    }
 
-        Integer tableExists = jdbcTemplate.queryForObject(checkTableSql, Integer.class, tableName);
+    // 가구/담당자 정보는 디렉터리에서 채움
+    private void fillProfiles(List<HouseholdMonitoringDto> monitoringData) {
+        Map<Integer, HouseholdProfileDto> profiles = householdDirectory.findAll(
+                monitoringData.stream().map(HouseholdMonitoringDto::getHouseholdId).toList());
+        for (HouseholdMonitoringDto dto : monitoringData) {
+            HouseholdProfileDto profile = profiles.get(dto.getHouseholdId());
+            if (profile != null) {
+                dto.setName(profile.getName());
+                dto.setContactNumber(profile.getContactNumber());
+                dto.setAddress(profile.getAddress());
+                dto.setManagerName(profile.getManagerName());
+                dto.setManagerContact(profile.getManagerContact());
+            }
+        }
+    }
 
-        if (tableExists == 0) {
+    /**
+     * 특정 가구의 센서 요약 데이터 조회 (SensorSummaryStore)
+     */
+    public List<HouseholdMonitoringDto> findHouseholdSensorSummary(Integer householdId) {
+        // 테이블 존재 여부 확인 (카탈로그)
+        if (!sensorTableCatalog.exists(SensorSource.SECONDARY, householdId)) {
             return List.of(); // 테이블이 없으면 빈 리스트 반환
         }
 
-        String sql = String.format("""
-            SELECT 
-                %d as household_id,
-                recorded_at,
-                led_master_room,
-                led_living_room, 
-                led_kitchen,
-                led_toilet,
-                is_occupied,
-                is_noisy
-            FROM %s 
-            WHERE recorded_at >= DATE_SUB(NOW(), INTERVAL 24 HOUR)
-            ORDER BY recorded_at DESC
-            LIMIT 100
-            """, householdId, tableName);
-
-        return jdbcTemplate.query(sql, new SensorSummaryRowMapper());
+        // 최근 24시간, 최신순 100건
+        return sensorSummaryStore.findRecords(SensorSource.SECONDARY, householdId, timeWindows.lastHours(24),
+                true, 100, new SensorSummaryRowMapper());
     }
 
     private static class HouseholdMonitoringRowMapper implements RowMapper<HouseholdMonitoringDto> {
@@ -108,11 +143,6 @@ public class HouseholdMonitoringRepository {
         public HouseholdMonitoringDto mapRow(ResultSet rs, int rowNum) throws SQLException {
             return HouseholdMonitoringDto.builder()
                     .householdId(rs.getInt("household_id"))
-                    .name(rs.getString("name"))
-                    .contactNumber(rs.getString("contact_number"))
-                    .address(rs.getString("address"))
-                    .managerName(rs.getString("manager_name"))
-                    .managerContact(rs.getString("manager_contact"))
                     .lightLevel(rs.getDouble("light_count") / 10.0) // 정규화된 값
                     .occupancyLevel(rs.getDouble("occupancy_count") / 10.0)
                     .noiseLevel(rs.getDouble("noise_count") / 10.0)
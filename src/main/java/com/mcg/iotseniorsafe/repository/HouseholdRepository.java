@@ -0,0 +1,121 @@
+package com.mcg.iotseniorsafe.repository;
+
+import com.mcg.iotseniorsafe.dto.HouseholdProfileDto;
+import com.mcg.iotseniorsafe.dto.ManagerDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Repository
+public class HouseholdRepository {
+
+    // IN 절 하나에 넣을 최대 가구 수
+    private static final int IN_CLAUSE_CHUNK = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 여러 가구의 가구/담당자 정보를 한 번에 조회 (household LEFT JOIN manager)
+     */
+    public Map<Integer, HouseholdProfileDto> findProfilesByIds(Collection<Integer> householdIds) {
+        Map<Integer, HouseholdProfileDto> profiles = new HashMap<>();
+        if (householdIds.isEmpty()) {
+            return profiles;
+        }
+
+        List<Integer> ids = new ArrayList<>(householdIds);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+
+            String sql = "SELECT h.household_id, h.name, h.address, h.contact_number, h.manager_id, " +
+                    "m.name as manager_name, m.contact_number as manager_contact FROM household h " +
+                    "LEFT JOIN manager m ON h.manager_id = m.manager_id " +
+                    "WHERE h.household_id IN (" + placeholders + ")";
+
+            for (HouseholdProfileDto profile : jdbcTemplate.query(sql, new HouseholdProfileRowMapper(), chunk.toArray())) {
+                profiles.put(profile.getHouseholdId(), profile);
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * 가구 정보 전체(updatedSince가 null) 또는 updatedSince 이후 변경분 스트리밍 조회 (담당자 컬럼 제외)
+     */
+    public void forEachHousehold(LocalDateTime updatedSince, Consumer<HouseholdProfileDto> consumer) {
+        String sql = "SELECT household_id, name, address, contact_number, manager_id, updated_at FROM household";
+        Object[] args = new Object[0];
+        if (updatedSince != null) {
+            sql += " WHERE updated_at >= ?";
+            args = new Object[]{Timestamp.valueOf(updatedSince)};
+        }
+
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            int managerId = rs.getInt("manager_id");
+            boolean noManager = rs.wasNull();
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            consumer.accept(HouseholdProfileDto.builder()
+                    .householdId(rs.getInt("household_id"))
+                    .name(rs.getString("name"))
+                    .address(rs.getString("address"))
+                    .contactNumber(rs.getString("contact_number"))
+                    .managerId(noManager ? null : managerId)
+                    .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                    .build());
+        }, args);
+    }
+
+    /**
+     * 담당자 전체(updatedSince가 null) 또는 updatedSince 이후 변경분 조회
+     */
+    public List<ManagerDto> findManagers(LocalDateTime updatedSince) {
+        String sql = "SELECT manager_id, name, contact_number, updated_at FROM manager";
+        Object[] args = new Object[0];
+        if (updatedSince != null) {
+            sql += " WHERE updated_at >= ?";
+            args = new Object[]{Timestamp.valueOf(updatedSince)};
+        }
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            return ManagerDto.builder()
+                    .managerId(rs.getInt("manager_id"))
+                    .name(rs.getString("name"))
+                    .contactNumber(rs.getString("contact_number"))
+                    .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                    .build();
+        }, args);
+    }
+
+    private static class HouseholdProfileRowMapper implements RowMapper<HouseholdProfileDto> {
+        @Override
+        public HouseholdProfileDto mapRow(ResultSet rs, int rowNum) throws SQLException {
+            int managerId = rs.getInt("manager_id");
+            return HouseholdProfileDto.builder()
+                    .householdId(rs.getInt("household_id"))
+                    .name(rs.getString("name"))
+                    .address(rs.getString("address"))
+                    .contactNumber(rs.getString("contact_number"))
+                    .managerId(rs.wasNull() ? null : managerId)
+                    .managerName(rs.getString("manager_name"))
+                    .managerContact(rs.getString("manager_contact"))
+                    .build();
+        }
+    }
+}
@@ -9,14 +9,34 @@ import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
 public class IoTManageRepository {
 
+    // 마지막 LED 기록이 이 시간보다 오래되면 오프라인 / 신호 약함
+    private static final int OFFLINE_HOURS = 24;
+    private static final int WEAK_SIGNAL_HOURS = 12;
+    private static final int NO_DATA_DAYS = 7; // 기록이 없는 가구의 last_activity
+
+    // 가구별 마지막 LED 센서 기록 시각
+    private static final String LAST_RECORDED_QUERY = """
+            SELECT h.household_id, h.name as household_name, h.address, MAX(asl.recorded_at) as last_recorded
+            FROM household h
+            LEFT JOIN all_household_sensor_log asl ON h.household_id = asl.household_id 
+                AND asl.led_sensor_gbn IS NOT NULL
+            GROUP BY h.household_id, h.name, h.address
+            """;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private TimeWindows timeWindows;
+
     /**
      * 센서 상태 통계 조회
      */
@@ -25,32 +45,35 @@ public class IoTManageRepository {
         String totalHouseholdsQuery = "SELECT COUNT(*) FROM household";
         Integer totalHouseholds = jdbcTemplate.queryForObject(totalHouseholdsQuery, Integer.class);
 
+        // 최근 24시간 (recorded_at 범위 조건)
+        TimeWindow last24Hours = timeWindows.lastHours(24);
+
         // LED 센서 부착 가구 수
         String ledSensorQuery = """
             SELECT COUNT(DISTINCT household_id) 
             FROM all_household_sensor_log 
             WHERE led_sensor_gbn IS NOT NULL 
-            AND recorded_at >= DATE_SUB(NOW(), INTERVAL 24 HOUR)
+            AND recorded_at >= ?
             """;
-        Integer ledSensorCount = jdbcTemplate.queryForObject(ledSensorQuery, Integer.class);
+        Integer ledSensorCount = jdbcTemplate.queryForObject(ledSensorQuery, Integer.class, last24Hours.from());
 
         // 재실 감지 센서 부착 가구 수
         String occupancySensorQuery = """
             SELECT COUNT(DISTINCT household_id) 
             FROM all_household_sensor_log 
             WHERE ocpy_sensor_gbn IS NOT NULL 
-            AND recorded_at >= DATE_SUB(NOW(), INTERVAL 24 HOUR)
+            AND recorded_at >= ?
             """;
-        Integer occupancySensorCount = jdbcTemplate.queryForObject(occupancySensorQuery, Integer.class);
+        Integer occupancySensorCount = jdbcTemplate.queryForObject(occupancySensorQuery, Integer.class, last24Hours.from());
 
         // 소음 센서 부착 가구 수
         String noiseSensorQuery = """
             SELECT COUNT(DISTINCT household_id) 
             FROM all_household_sensor_log 
             WHERE noise_sensor_gbn IS NOT NULL 
-            AND recorded_at >= DATE_SUB(NOW(), INTERVAL 24 HOUR)
+            AND recorded_at >= ?
             """;
-        Integer noiseSensorCount = jdbcTemplate.queryForObject(noiseSensorQuery, Integer.class);
+        Integer noiseSensorCount = jdbcTemplate.queryForObject(noiseSensorQuery, Integer.class, last24Hours.from());
 
         // LED 센서 오류 수
         String errorCountQuery = """
@@ -59,10 +82,10 @@ public class IoTManageRepository {
                 SELECT 1 FROM all_household_sensor_log asl
                 WHERE asl.household_id = h.household_id
                 AND asl.led_sensor_gbn IS NOT NULL
-                AND asl.recorded_at >= DATE_SUB(NOW(), INTERVAL 24 HOUR)
+                AND asl.recorded_at >= ?
             )
             """;
-        Integer errorCount = jdbcTemplate.queryForObject(errorCountQuery, Integer.class);
+        Integer errorCount = jdbcTemplate.queryForObject(errorCountQuery, Integer.class, last24Hours.from());
 
         return SensorStatsDto.builder()
                 .totalHouseholds(totalHouseholds != null ? totalHouseholds : 0)
@@ -75,69 +98,106 @@ public class IoTManageRepository {
 
     /**
      * 유지보수 로그 조회
+     * - 가구별 마지막 LED 기록 시각을 한 번 집계한 뒤 상태/메시지를 계산한다.
+     * - asOf: 오프라인/신호 약함 판단 기준 시각 (같은 커서로 이어지는 페이지는 같은 기준 시각을 쓴다)
+     * - after가 있으면 그 행 다음부터 (키셋), 없으면 offset부터 limit건
+     * - 행 번호(id)는 after.id(또는 offset) 다음부터 이어진다.
      */
-    public List<MaintenanceLogDto> getMaintenanceLogs(int page, int size, String sortBy) {
-        // 정렬 조건 설정
+    public List<MaintenanceLogDto> getMaintenanceLogs(String sortBy, LocalDateTime asOf, MaintenanceLogDto after,
+                                                      int offset, int limit) {
+        // 정렬 조건 설정 (household_id로 순서를 고정해야 키셋 페이징이 가능)
         String orderBy = switch (sortBy) {
-            case "name" -> "h.name ASC";
-            case "status" -> "status ASC, last_activity DESC";
-            default -> "last_activity DESC";
+            case "name" -> "sort_name ASC, household_id ASC";
+            case "status" -> "status ASC, last_activity DESC, household_id DESC";
+            default -> "last_activity DESC, household_id DESC";
         };
 
+        List<Object> params = new ArrayList<>();
+        params.add(after != null ? after.getId() : offset);
+        params.add(Timestamp.valueOf(asOf.minusHours(OFFLINE_HOURS)));
+        params.add(Timestamp.valueOf(asOf.minusHours(WEAK_SIGNAL_HOURS)));
+        params.add(Timestamp.valueOf(asOf.minusHours(OFFLINE_HOURS)));
+        params.add(Timestamp.valueOf(asOf.minusHours(WEAK_SIGNAL_HOURS)));
+        params.add(Timestamp.valueOf(asOf.minusDays(NO_DATA_DAYS)));
+        params.add(Timestamp.valueOf(asOf.minusHours(WEAK_SIGNAL_HOURS)));
+        String keyset = after != null ? keysetCondition(sortBy, after, params) : "";
+
         String query = String.format("""
             SELECT 
-                ROW_NUMBER() OVER (ORDER BY %s) as row_num,
-                h.household_id,
-                h.name as household_name,
-                h.address,
+                ROW_NUMBER() OVER (ORDER BY %s) + ? as row_num,
+                household_id,
+                household_name,
+                address,
                 'LED센서' as sensor_type,
-                CASE 
-                    WHEN MAX(asl.recorded_at) IS NULL THEN '데이터 없음'
-                    WHEN MAX(asl.recorded_at) < DATE_SUB(NOW(), INTERVAL 24 HOUR) THEN '연결 끊김 (오프라인)'
-                    WHEN MAX(asl.recorded_at) < DATE_SUB(NOW(), INTERVAL 12 HOUR) THEN '신호 약함'
-                    ELSE '정상'
-                END as error_message,
-                CASE 
-                    WHEN MAX(asl.recorded_at) IS NULL THEN '점검 필요'
-                    WHEN MAX(asl.recorded_at) < DATE_SUB(NOW(), INTERVAL 24 HOUR) THEN '재부팅 필요'
-                    WHEN MAX(asl.recorded_at) < DATE_SUB(NOW(), INTERVAL 12 HOUR) THEN '신호 확인 필요'
-                    ELSE '정상'
-                END as status,
-                COALESCE(MAX(asl.recorded_at), NOW() - INTERVAL 7 DAY) as last_activity,
-                DATE_FORMAT(COALESCE(MAX(asl.recorded_at), NOW() - INTERVAL 7 DAY), '%%Y.%%m.%%d %%H:%%i:%%s') as formatted_time
-            FROM household h
-            LEFT JOIN all_household_sensor_log asl ON h.household_id = asl.household_id 
-                AND asl.led_sensor_gbn IS NOT NULL
-            GROUP BY h.household_id, h.name, h.address
-            HAVING error_message != '정상'
+                error_message,
+                status,
+                last_activity,
+                DATE_FORMAT(last_activity, '%%Y.%%m.%%d %%H:%%i:%%s') as formatted_time
+            FROM (
+                SELECT 
+                    household_id,
+                    household_name,
+                    COALESCE(household_name, '') as sort_name,
+                    address,
+                    CASE 
+                        WHEN last_recorded IS NULL THEN '데이터 없음'
+                        WHEN last_recorded < ? THEN '연결 끊김 (오프라인)'
+                        WHEN last_recorded < ? THEN '신호 약함'
+                        ELSE '정상'
+                    END as error_message,
+                    CASE 
+                        WHEN last_recorded IS NULL THEN '점검 필요'
+                        WHEN last_recorded < ? THEN '재부팅 필요'
+                        WHEN last_recorded < ? THEN '신호 확인 필요'
+                        ELSE '정상'
+                    END as status,
+                    COALESCE(last_recorded, ?) as last_activity
+                FROM (%s) latest
+                WHERE last_recorded IS NULL OR last_recorded < ?
+            ) logs
+            WHERE 1 = 1%s
             ORDER BY %s
             LIMIT ? OFFSET ?
-            """, orderBy, orderBy);
+            """, orderBy, LAST_RECORDED_QUERY, keyset, orderBy);
+        params.add(limit);
+        params.add(after != null ? 0 : offset);
+
+        return jdbcTemplate.query(query, new MaintenanceLogRowMapper(), params.toArray());
+    }
 
-        return jdbcTemplate.query(query, new MaintenanceLogRowMapper(), size, page * size);
+    /**
+     * 이전 페이지 마지막 행(after) 다음 행 조건 - 정렬 순서와 같은 비교
+     */
+    private static String keysetCondition(String sortBy, MaintenanceLogDto after, List<Object> params) {
+        Timestamp lastActivity = Timestamp.valueOf(after.getLastActivity());
+        switch (sortBy) {
+            case "name" -> {
+                String name = after.getHouseholdName() != null ? after.getHouseholdName() : "";
+                params.addAll(List.of(name, name, after.getHouseholdId()));
+                return " AND (sort_name > ? OR (sort_name = ? AND household_id > ?))";
+            }
+            case "status" -> {
+                params.addAll(List.of(after.getStatus(), after.getStatus(),
+                        lastActivity, lastActivity, after.getHouseholdId()));
+                return " AND (status > ? OR (status = ? AND " +
+                        "(last_activity < ? OR (last_activity = ? AND household_id < ?))))";
+            }
+            default -> {
+                params.addAll(List.of(lastActivity, lastActivity, after.getHouseholdId()));
+                return " AND (last_activity < ? OR (last_activity = ? AND household_id < ?))";
+            }
+        }
     }
 
     /**
      * 유지보수 로그 전체 개수 조회
      */
-    public int getMaintenanceLogCount() {
-        String countQuery = """
-            SELECT COUNT(*) FROM (
-                SELECT h.household_id
-                FROM household h
-                LEFT JOIN all_household_sensor_log asl ON h.household_id = asl.household_id 
-                    AND asl.led_sensor_gbn IS NOT NULL
-                GROUP BY h.household_id
-                HAVING CASE 
-                    WHEN MAX(asl.recorded_at) IS NULL THEN '데이터 없음'
-                    WHEN MAX(asl.recorded_at) < DATE_SUB(NOW(), INTERVAL 24 HOUR) THEN '연결 끊김 (오프라인)'
-                    WHEN MAX(asl.recorded_at) < DATE_SUB(NOW(), INTERVAL 12 HOUR) THEN '신호 약함'
-                    ELSE '정상'
-                END != '정상'
-            ) as problem_households
-            """;
+    public int getMaintenanceLogCount(LocalDateTime asOf) {
+        String countQuery = "SELECT COUNT(*) FROM (" + LAST_RECORDED_QUERY + ") latest " +
+                "WHERE last_recorded IS NULL OR last_recorded < ?";
 
-        Integer count = jdbcTemplate.queryForObject(countQuery, Integer.class);
+        Integer count = jdbcTemplate.queryForObject(countQuery, Integer.class,
+                Timestamp.valueOf(asOf.minusHours(WEAK_SIGNAL_HOURS)));
         return count != null ? count : 0;
     }
 
@@ -0,0 +1,166 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 통합 테이블 백엔드 - Secondary의 sensor_summary (PK household_id, recorded_at / 월별 파티션)
+ * 테이블명이 고정이라 모든 쿼리가 바인딩 변수만 바뀌는 같은 문장이 되고(서버 측 prepared statement 재사용),
+ * 여러 가구는 UNION ALL 대신 household_id IN (...) 한 번으로 조회한다.
+ * 기간 조건으로 파티션 프루닝, household_id 조건으로 PK range scan을 탄다.
+ * Primary(한전 MCS)는 외부 DB라 가구별 테이블을 그대로 읽는다 (SensorSummaryRepository 위임).
+ */
+@Component
+@ConditionalOnProperty(name = "app.sensorStore.backend", havingValue = SensorSummaryStore.PARTITIONED)
+public class PartitionedSensorSummaryStore implements SensorSummaryStore {
+
+    public static final String TABLE = "sensor_summary";
+
+    private final JdbcTemplate secondaryJdbcTemplate;
+    private final SensorSummaryRepository perTable;
+
+    @Autowired
+    public PartitionedSensorSummaryStore(@Qualifier("secondaryJdbcTemplate") JdbcTemplate secondaryJdbcTemplate,
+                                         SensorSummaryRepository perTable) {
+        this.secondaryJdbcTemplate = secondaryJdbcTemplate;
+        this.perTable = perTable;
+    }
+
+    @Override
+    public String backend() {
+        return PARTITIONED;
+    }
+
+    @Override
+    public List<Integer> findHouseholdIds(SensorSource source) {
+        if (source == SensorSource.PRIMARY) {
+            return perTable.findHouseholdIds(source);
+        }
+        // PK 앞부분(household_id)만 읽는 loose index scan
+        return secondaryJdbcTemplate.queryForList(
+                "SELECT household_id FROM " + TABLE + " GROUP BY household_id", Integer.class);
+    }
+
+    @Override
+    public void streamHourlyActivity(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                     RowCallbackHandler handler) {
+        if (source == SensorSource.PRIMARY) {
+            perTable.streamHourlyActivity(source, householdIds, today, handler);
+            return;
+        }
+        streamHourlyActivity(householdIds, today, TimeWindow.days(today.minusDays(1), today.plusDays(1)), handler);
+    }
+
+    @Override
+    public void streamHourlyActivityForPastDays(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                                int days, RowCallbackHandler handler) {
+        if (source == SensorSource.PRIMARY) {
+            perTable.streamHourlyActivityForPastDays(source, householdIds, today, days, handler);
+            return;
+        }
+        streamHourlyActivity(householdIds, today, TimeWindow.days(today.minusDays(days), today), handler);
+    }
+
+    @Override
+    public void streamHourlyActivitySince(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                          LocalDateTime since, RowCallbackHandler handler) {
+        if (source == SensorSource.PRIMARY) {
+            perTable.streamHourlyActivitySince(source, householdIds, today, since, handler);
+            return;
+        }
+        streamHourlyActivity(householdIds, today, new TimeWindow(since, today.plusDays(1).atStartOfDay()), handler);
+    }
+
+    @Override
+    public void streamQuietNoiseCounts(List<Integer> householdIds, TimeWindow window, RowCallbackHandler handler) {
+        if (householdIds.isEmpty()) {
+            return;
+        }
+        // 기간 내 기록이 없는 가구는 행이 나오지 않는다 (가구별 테이블 방식은 0건 행)
+        List<Object> args = new ArrayList<>(householdIds);
+        args.addAll(window.args());
+        secondaryJdbcTemplate.query("SELECT household_id, COUNT(*) as scanned_rows, " +
+                "COALESCE(SUM(is_occupied = 0 AND is_noisy = 1), 0) as pattern_count " +
+                "FROM " + TABLE + " WHERE household_id IN (" + placeholders(householdIds.size()) + ") " +
+                "AND " + window.predicate("recorded_at") + " GROUP BY household_id", handler, args.toArray());
+    }
+
+    @Override
+    public List<Map<String, Object>> findHourlyActivity(SensorSource source, int householdId, TimeWindow window) {
+        if (source == SensorSource.PRIMARY) {
+            return perTable.findHourlyActivity(source, householdId, window);
+        }
+        return secondaryJdbcTemplate.queryForList("SELECT HOUR(recorded_at) as hour, " +
+                SensorSummaryRepository.LED_ACTIVE + ", MAX(is_occupied) as occupied, MAX(is_noisy) as noisy " +
+                "FROM " + TABLE + " WHERE household_id = ? AND " + window.predicate("recorded_at") + " " +
+                "GROUP BY HOUR(recorded_at) ORDER BY hour", args(householdId, window));
+    }
+
+    @Override
+    public Map<String, Object> findActivityTotals(SensorSource source, int householdId, TimeWindow window) {
+        if (source == SensorSource.PRIMARY) {
+            return perTable.findActivityTotals(source, householdId, window);
+        }
+        return secondaryJdbcTemplate.queryForMap("SELECT " + SensorSummaryRepository.ACTIVITY_TOTALS +
+                SensorSummaryRepository.SENSOR_TOTALS +
+                " FROM " + TABLE + " WHERE household_id = ? AND " + window.predicate("recorded_at"),
+                args(householdId, window));
+    }
+
+    @Override
+    public <T> List<T> findRecords(SensorSource source, int householdId, TimeWindow window, boolean newestFirst,
+                                   int limit, RowMapper<T> rowMapper) {
+        if (source == SensorSource.PRIMARY) {
+            return perTable.findRecords(source, householdId, window, newestFirst, limit, rowMapper);
+        }
+        return secondaryJdbcTemplate.query("SELECT household_id, " + SensorSummaryRepository.RECORD_COLUMNS +
+                ", is_occupied, is_noisy FROM " + TABLE +
+                " WHERE household_id = ? AND " + window.predicate("recorded_at") +
+                " ORDER BY recorded_at" + (newestFirst ? " DESC" : "") + (limit > 0 ? " LIMIT " + limit : ""),
+                rowMapper, args(householdId, window));
+    }
+
+    /**
+     * 여러 가구를 IN 목록 한 번으로 집계 - day_offset은 today 기준
+     */
+    private void streamHourlyActivity(List<Integer> householdIds, LocalDate today, TimeWindow window,
+                                      RowCallbackHandler handler) {
+        if (householdIds.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(today);
+        args.addAll(householdIds);
+        args.addAll(window.args());
+
+        secondaryJdbcTemplate.query("SELECT household_id, DATEDIFF(?, recorded_at) as day_offset, " +
+                "HOUR(recorded_at) as hour, " + SensorSummaryRepository.LED_ACTIVE + ", " +
+                "MAX(is_occupied) as occupied, MAX(is_noisy) as noisy " +
+                "FROM " + TABLE + " WHERE household_id IN (" + placeholders(householdIds.size()) + ") " +
+                "AND " + window.predicate("recorded_at") + " " +
+                "GROUP BY household_id, day_offset, hour", handler, args.toArray());
+    }
+
+    private static Object[] args(int householdId, TimeWindow window) {
+        List<Object> args = new ArrayList<>(3);
+        args.add(householdId);
+        args.addAll(window.args());
+        return args.toArray();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
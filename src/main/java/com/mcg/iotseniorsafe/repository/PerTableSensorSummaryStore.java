@@ -0,0 +1,76 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 가구별 테이블 백엔드 (기존 구조) - SensorSummaryRepository에 그대로 위임
+ */
+@Component
+@ConditionalOnProperty(name = "app.sensorStore.backend", havingValue = SensorSummaryStore.PER_TABLE, matchIfMissing = true)
+public class PerTableSensorSummaryStore implements SensorSummaryStore {
+
+    private final SensorSummaryRepository sensorSummaryRepository;
+
+    @Autowired
+    public PerTableSensorSummaryStore(SensorSummaryRepository sensorSummaryRepository) {
+        this.sensorSummaryRepository = sensorSummaryRepository;
+    }
+
+    @Override
+    public String backend() {
+        return PER_TABLE;
+    }
+
+    @Override
+    public List<Integer> findHouseholdIds(SensorSource source) {
+        return sensorSummaryRepository.findHouseholdIds(source);
+    }
+
+    @Override
+    public void streamHourlyActivity(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                     RowCallbackHandler handler) {
+        sensorSummaryRepository.streamHourlyActivity(source, householdIds, today, handler);
+    }
+
+    @Override
+    public void streamHourlyActivityForPastDays(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                                int days, RowCallbackHandler handler) {
+        sensorSummaryRepository.streamHourlyActivityForPastDays(source, householdIds, today, days, handler);
+    }
+
+    @Override
+    public void streamHourlyActivitySince(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                          LocalDateTime since, RowCallbackHandler handler) {
+        sensorSummaryRepository.streamHourlyActivitySince(source, householdIds, today, since, handler);
+    }
+
+    @Override
+    public void streamQuietNoiseCounts(List<Integer> householdIds, TimeWindow window, RowCallbackHandler handler) {
+        sensorSummaryRepository.streamQuietNoiseCounts(householdIds, window, handler);
+    }
+
+    @Override
+    public List<Map<String, Object>> findHourlyActivity(SensorSource source, int householdId, TimeWindow window) {
+        return sensorSummaryRepository.findHourlyActivity(source, householdId, window);
+    }
+
+    @Override
+    public Map<String, Object> findActivityTotals(SensorSource source, int householdId, TimeWindow window) {
+        return sensorSummaryRepository.findActivityTotals(source, householdId, window);
+    }
+
+    @Override
+    public <T> List<T> findRecords(SensorSource source, int householdId, TimeWindow window, boolean newestFirst,
+                                   int limit, RowMapper<T> rowMapper) {
+        return sensorSummaryRepository.findRecords(source, householdId, window, newestFirst, limit, rowMapper);
+    }
+}
@@ -5,11 +5,38 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ReportRepository extends JpaRepository<Report, Long> {
 
-    // 특정 가구의 오늘 날짜 report 조회
-    @Query("SELECT r FROM Report r WHERE r.householdId = :householdId AND DATE(r.createdAt) = CURRENT_DATE")
-    Optional<Report> findByHouseholdIdAndCreatedAtToday(@Param("householdId") Integer householdId);
-}
\ No newline at end of file
+    // 한 번의 IN 조회에 넣을 가구 수 (MariaDB prepared statement 플레이스홀더 한도 65535)
+    int IN_CLAUSE_CHUNK = 500;
+
+    // 특정 가구의 [from, to) 기간 report 조회 (created_at 범위 조건 - idx_report_household_created 사용)
+    @Query("SELECT r FROM Report r WHERE r.householdId = :householdId AND r.createdAt >= :from AND r.createdAt < :to")
+    Optional<Report> findByHouseholdIdAndCreatedAtWithin(@Param("householdId") Integer householdId,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
+
+    // 여러 가구의 report 조회 (가구 검색 결과로 필터링)
+    List<Report> findByHouseholdIdIn(Collection<Integer> householdIds);
+
+    // 가구 수 제한 없는 report 조회 - IN_CLAUSE_CHUNK개씩 나눠 조회 (한 글자 검색처럼 결과 가구가 많은 경우)
+    default List<Report> findByHouseholdIds(List<Integer> householdIds) {
+        List<Report> reports = new ArrayList<>();
+        for (int from = 0; from < householdIds.size(); from += IN_CLAUSE_CHUNK) {
+            reports.addAll(findByHouseholdIdIn(
+                    householdIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK, householdIds.size()))));
+        }
+        return reports;
+    }
+
+    // 특정 가구의 오늘 날짜 report 조회 (today = TimeWindows.day(0))
+    default Optional<Report> findByHouseholdIdAndCreatedAtToday(Integer householdId, TimeWindow today) {
+        return findByHouseholdIdAndCreatedAtWithin(householdId, today.from(), today.to());
+    }
+}
@@ -0,0 +1,228 @@
+package com.mcg.iotseniorsafe.repository;
+
+import com.mcg.iotseniorsafe.dto.HouseholdProfileDto;
+import com.mcg.iotseniorsafe.dto.RiskEntryDto;
+import com.mcg.iotseniorsafe.service.HouseholdRisk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * risk_snapshot 테이블 - 가구별 최신 위험도 평가 결과 + 가구/담당자 정보
+ * 위험 의심 내역 목록은 이 테이블에서 정렬/검색/페이징한다.
+ */
+@Repository
+public class RiskSnapshotRepository {
+
+    // 한 번의 batchUpdate에 넣을 행 수
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO risk_snapshot (household_id, source, common_data_ratio, risk_level, at_risk, " +
+                    "household_name, address, contact_number, manager_id, manager_name, detected_at, evaluated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    // 위험 상태가 이어지면 최초 감지 시각 유지 (at_risk 갱신 전에 평가되어야 함)
+                    "detected_at = IF(at_risk = 1 AND VALUES(at_risk) = 1, detected_at, VALUES(detected_at)), " +
+                    "source = VALUES(source), common_data_ratio = VALUES(common_data_ratio), " +
+                    "risk_level = VALUES(risk_level), at_risk = VALUES(at_risk), " +
+                    "household_name = VALUES(household_name), address = VALUES(address), " +
+                    "contact_number = VALUES(contact_number), manager_id = VALUES(manager_id), " +
+                    "manager_name = VALUES(manager_name), evaluated_at = VALUES(evaluated_at)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 스냅샷 교체 - 이번 평가 반영(upsertAll)과 빠진 가구 삭제(deleteEvaluatedBefore)를 한 트랜잭션으로
+     * 조회하는 쪽은 이전 스냅샷 또는 새 스냅샷 전체만 본다 (일부만 갱신된 상태가 보이지 않음).
+     * keepIds(조회 실패로 평가하지 못한 가구)는 이전 행을 그대로 둔다. 삭제된 행 수 반환
+     */
+    @Transactional("secondaryTransactionManager")
+    public int replaceAll(List<HouseholdRisk> risks, Map<Integer, HouseholdProfileDto> profiles,
+                          LocalDateTime evaluatedAt, Collection<Integer> keepIds) {
+        upsertAll(risks, profiles, evaluatedAt);
+        return keepIds.isEmpty() ? deleteEvaluatedBefore(evaluatedAt) : deleteEvaluatedBefore(evaluatedAt, keepIds);
+    }
+
+    /**
+     * 평가 결과 일괄 반영 (가구 정보가 없는 가구도 위험도는 저장)
+     */
+    public void upsertAll(List<HouseholdRisk> risks, Map<Integer, HouseholdProfileDto> profiles,
+                          LocalDateTime evaluatedAt) {
+        Timestamp evaluated = Timestamp.valueOf(evaluatedAt);
+        for (int from = 0; from < risks.size(); from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>();
+            for (HouseholdRisk risk : risks.subList(from, Math.min(from + BATCH_SIZE, risks.size()))) {
+                HouseholdProfileDto profile = profiles.get(risk.householdId());
+                batch.add(new Object[]{
+                        risk.householdId(),
+                        risk.source().name(),
+                        risk.commonDataRatio(),
+                        risk.riskLevel(),
+                        risk.isAtRisk() ? 1 : 0,
+                        profile != null ? profile.getName() : null,
+                        profile != null ? profile.getAddress() : null,
+                        profile != null ? profile.getContactNumber() : null,
+                        profile != null ? profile.getManagerId() : null,
+                        profile != null ? profile.getManagerName() : null,
+                        evaluated,
+                        evaluated
+                });
+            }
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        }
+    }
+
+    /**
+     * 이번 평가에 포함되지 않은 가구(센서 테이블이 사라진 가구) 삭제
+     */
+    public int deleteEvaluatedBefore(LocalDateTime evaluatedAt) {
+        return jdbcTemplate.update("DELETE FROM risk_snapshot WHERE evaluated_at < ?", Timestamp.valueOf(evaluatedAt));
+    }
+
+    /**
+     * 이번 평가에 포함되지 않은 가구 삭제 - keepIds는 제외
+     * 대상은 보통 몇 건뿐이라 먼저 읽은 뒤 가구별로 지운다 (긴 NOT IN 목록을 만들지 않음)
+     */
+    public int deleteEvaluatedBefore(LocalDateTime evaluatedAt, Collection<Integer> keepIds) {
+        Timestamp evaluated = Timestamp.valueOf(evaluatedAt);
+        Set<Integer> keep = new HashSet<>(keepIds);
+        List<Object[]> targets = new ArrayList<>();
+        jdbcTemplate.query("SELECT household_id FROM risk_snapshot WHERE evaluated_at < ?",
+                rs -> {
+                    int householdId = rs.getInt("household_id");
+                    if (!keep.contains(householdId)) {
+                        targets.add(new Object[]{householdId, evaluated});
+                    }
+                }, evaluated);
+        int deleted = 0;
+        for (int from = 0; from < targets.size(); from += BATCH_SIZE) {
+            for (int count : jdbcTemplate.batchUpdate(
+                    "DELETE FROM risk_snapshot WHERE household_id = ? AND evaluated_at < ?",
+                    targets.subList(from, Math.min(from + BATCH_SIZE, targets.size())))) {
+                deleted += Math.max(count, 0);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 스냅샷에 저장된 가구별 위험도 (재시작 후 첫 갱신에서 단계 변화 감지 기준으로 사용)
+     */
+    public Map<Integer, String> findRiskLevels() {
+        Map<Integer, String> levels = new HashMap<>();
+        jdbcTemplate.query("SELECT household_id, risk_level FROM risk_snapshot",
+                rs -> {
+                    levels.put(rs.getInt("household_id"), rs.getString("risk_level"));
+                });
+        return levels;
+    }
+
+    /**
+     * 마지막 스냅샷 시각 (스냅샷이 없으면 null)
+     */
+    public LocalDateTime findLastEvaluatedAt() {
+        Timestamp last = jdbcTemplate.queryForObject("SELECT MAX(evaluated_at) FROM risk_snapshot", Timestamp.class);
+        return last != null ? last.toLocalDateTime() : null;
+    }
+
+    /**
+     * 위험(의심/심각) 가구 목록 - 감지 시각 기준 정렬, 담당자명/가구명/주소 검색, 페이징
+     */
+    public List<RiskEntryDto> findAtRisk(String search, boolean latestFirst, int offset, int limit) {
+        List<Object> params = new ArrayList<>();
+        String direction = latestFirst ? "DESC" : "ASC";
+
+        String sql = "SELECT household_id, common_data_ratio, risk_level, household_name, address, " +
+                "contact_number, manager_id, manager_name, detected_at, evaluated_at " +
+                "FROM risk_snapshot WHERE at_risk = 1" + searchCondition(search, params) +
+                " ORDER BY detected_at " + direction + ", household_id " + direction +
+                " LIMIT ? OFFSET ?";
+        params.add(limit);
+        params.add(offset);
+
+        return jdbcTemplate.query(sql, new RiskEntryRowMapper(), params.toArray());
+    }
+
+    /**
+     * 위험 가구 목록 키셋 페이징 - (afterDetectedAt, afterHouseholdId) 다음 행부터 limit건
+     * idx_risk_snapshot_list (at_risk, detected_at, household_id) 범위 조회라 깊은 페이지도 첫 페이지와 비용이 같다.
+     */
+    public List<RiskEntryDto> findAtRiskAfter(String search, boolean latestFirst,
+                                              LocalDateTime afterDetectedAt, int afterHouseholdId, int limit) {
+        List<Object> params = new ArrayList<>();
+        String direction = latestFirst ? "DESC" : "ASC";
+        String comparison = latestFirst ? "<" : ">";
+
+        String sql = "SELECT household_id, common_data_ratio, risk_level, household_name, address, " +
+                "contact_number, manager_id, manager_name, detected_at, evaluated_at " +
+                "FROM risk_snapshot WHERE at_risk = 1" + searchCondition(search, params) +
+                " AND (detected_at " + comparison + " ? OR (detected_at = ? AND household_id " + comparison + " ?))" +
+                " ORDER BY detected_at " + direction + ", household_id " + direction +
+                " LIMIT ?";
+        Timestamp after = Timestamp.valueOf(afterDetectedAt);
+        params.add(after);
+        params.add(after);
+        params.add(afterHouseholdId);
+        params.add(limit);
+
+        return jdbcTemplate.query(sql, new RiskEntryRowMapper(), params.toArray());
+    }
+
+    public long countAtRisk(String search) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM risk_snapshot WHERE at_risk = 1" + searchCondition(search, params);
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, params.toArray());
+        return count != null ? count : 0;
+    }
+
+    private String searchCondition(String search, List<Object> params) {
+        if (search == null || search.trim().isEmpty()) {
+            return "";
+        }
+        String pattern = "%" + escapeLike(search.trim()) + "%";
+        params.add(pattern);
+        params.add(pattern);
+        params.add(pattern);
+        return " AND (manager_name LIKE ? OR household_name LIKE ? OR address LIKE ?)";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static class RiskEntryRowMapper implements RowMapper<RiskEntryDto> {
+        @Override
+        public RiskEntryDto mapRow(ResultSet rs, int rowNum) throws SQLException {
+            RiskEntryDto dto = new RiskEntryDto();
+            dto.setReportId(0); // 아직 신고되지 않음
+            dto.setHouseholdId(rs.getInt("household_id"));
+            dto.setManagerId(rs.getInt("manager_id")); // NULL이면 0
+            dto.setManagerName(rs.getString("manager_name"));
+            dto.setHouseholdName(rs.getString("household_name"));
+            dto.setAddress(rs.getString("address"));
+            dto.setContactNumber(rs.getString("contact_number"));
+            dto.setStatusCode(0); // 미처리
+            dto.setCreatedAt(rs.getTimestamp("detected_at").toLocalDateTime());
+            dto.setUpdatedAt(rs.getTimestamp("evaluated_at").toLocalDateTime());
+            dto.setCommonDataRatio(rs.getDouble("common_data_ratio"));
+            dto.setRiskLevel(rs.getString("risk_level"));
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.mcg.iotseniorsafe.repository;
+
+// sensor_summary_{householdId} 테이블이 위치한 DB 구분
+public enum SensorSource {
+
+    SECONDARY("프로토타입 센서"), // kepcomcs_new: LED + 재실감지 + 소음감지
+    PRIMARY("기존 LED 센서");     // kepcomcs: 기존 LED만
+
+    private final String label;
+
+    SensorSource(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
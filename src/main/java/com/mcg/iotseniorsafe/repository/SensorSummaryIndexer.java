@@ -0,0 +1,72 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 가구별 sensor_summary_{id} 테이블에 recorded_at 인덱스 보장
+ * 가구 테이블은 가구가 추가될 때 동적으로 생기므로 Flyway 마이그레이션(db/migration)으로 관리할 수 없어,
+ * 카탈로그의 테이블 목록을 주기적으로 훑어 아직 확인하지 않은 테이블에만 CREATE INDEX IF NOT EXISTS를 실행한다.
+ * Primary(한전 MCS)는 외부 DB라 기본값으로는 건드리지 않는다.
+ */
+@Component
+public class SensorSummaryIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorSummaryIndexer.class);
+
+    private final SensorSummaryRepository sensorSummaryRepository;
+    private final SensorTableCatalog sensorTableCatalog;
+
+    @Value("${app.schema.indexPrimarySensorTables:false}")
+    private boolean indexPrimary;
+
+    // 이미 인덱스를 확인한 가구
+    private final Map<SensorSource, Set<Integer>> ensured = new EnumMap<>(SensorSource.class);
+
+    @Autowired
+    public SensorSummaryIndexer(SensorSummaryRepository sensorSummaryRepository, SensorTableCatalog sensorTableCatalog) {
+        this.sensorSummaryRepository = sensorSummaryRepository;
+        this.sensorTableCatalog = sensorTableCatalog;
+        for (SensorSource source : SensorSource.values()) {
+            ensured.put(source, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.schema.sensorIndexInitialDelayMs:30000}",
+            fixedDelayString = "${app.schema.sensorIndexIntervalMs:3600000}")
+    public synchronized void ensureIndexes() {
+        ensureIndexes(SensorSource.SECONDARY);
+        if (indexPrimary) {
+            ensureIndexes(SensorSource.PRIMARY);
+        }
+    }
+
+    private void ensureIndexes(SensorSource source) {
+        Set<Integer> done = ensured.get(source);
+        int created = 0;
+        for (int householdId : sensorTableCatalog.householdIds(source)) {
+            if (done.contains(householdId)) {
+                continue;
+            }
+            try {
+                sensorSummaryRepository.createRecordedAtIndex(source, householdId);
+                done.add(householdId);
+                created++;
+            } catch (Exception e) {
+                logger.warn("{} {} 인덱스 생성 실패: {}", source, SensorSummaryRepository.tableName(householdId), e.getMessage());
+            }
+        }
+        if (created > 0) {
+            logger.info("{} sensor_summary recorded_at 인덱스 확인 - {}개 테이블", source, created);
+        }
+    }
+}
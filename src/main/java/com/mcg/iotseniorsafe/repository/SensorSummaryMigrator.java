@@ -0,0 +1,212 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Secondary 가구별 테이블(sensor_summary_{id}) → 통합 테이블(sensor_summary) 복사
+ * - 가구 단위로 스레드 풀에 나눠 병렬 실행, 가구 안에서는 chunkDays일씩 INSERT IGNORE ... SELECT
+ * - 통합 테이블에 이미 있는 가구는 마지막 recorded_at부터 이어서 복사 (PK 중복은 무시되므로 여러 번 실행해도 안전)
+ * 가구별 테이블에 계속 쓰이는 동안에는 주기적으로 다시 실행해 따라잡고, 쓰기 경로를 옮긴 뒤
+ * app.sensorStore.backend=partitioned로 전환한다.
+ */
+@Component
+public class SensorSummaryMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorSummaryMigrator.class);
+
+    private static final String COLUMNS = "recorded_at, led_master_room, led_living_room, led_kitchen, led_toilet, is_occupied, is_noisy";
+
+    private final SensorSummaryRepository sensorSummaryRepository;
+    private final JdbcTemplate secondaryJdbcTemplate;
+    private final SensorSummaryPartitions partitions;
+    private final TimeWindows timeWindows;
+
+    @Value("${app.sensorStore.migrationThreads:4}")
+    private int threads;
+
+    @Value("${app.sensorStore.migrationChunkDays:7}")
+    private int chunkDays;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger householdsTotal = new AtomicInteger();
+    private final AtomicInteger householdsDone = new AtomicInteger();
+    private final AtomicInteger householdsFailed = new AtomicInteger();
+    private final AtomicLong rowsCopied = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String lastError;
+
+    @Autowired
+    public SensorSummaryMigrator(SensorSummaryRepository sensorSummaryRepository,
+                                 @Qualifier("secondaryJdbcTemplate") JdbcTemplate secondaryJdbcTemplate,
+                                 SensorSummaryPartitions partitions,
+                                 TimeWindows timeWindows) {
+        this.sensorSummaryRepository = sensorSummaryRepository;
+        this.secondaryJdbcTemplate = secondaryJdbcTemplate;
+        this.partitions = partitions;
+        this.timeWindows = timeWindows;
+    }
+
+    /**
+     * 백그라운드로 마이그레이션 시작 - 이미 실행 중이면 false
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread coordinator = new Thread(() -> {
+            try {
+                migrate();
+            } catch (Exception e) {
+                lastError = e.getMessage();
+                logger.error("sensor_summary 마이그레이션 실패", e);
+            } finally {
+                finishedAt = timeWindows.now();
+                running.set(false);
+            }
+        }, "sensor-summary-migrator");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    private void migrate() throws InterruptedException {
+        startedAt = timeWindows.now();
+        finishedAt = null;
+        lastError = null;
+        householdsDone.set(0);
+        householdsFailed.set(0);
+        rowsCopied.set(0);
+
+        List<Integer> householdIds = sensorSummaryRepository.findHouseholdIds(SensorSource.SECONDARY);
+        householdsTotal.set(householdIds.size());
+        logger.info("sensor_summary 마이그레이션 시작 - {}가구, {}스레드, {}일 단위", householdIds.size(), threads, chunkDays);
+
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "sensor-summary-migrate-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // 1) 가구별 복사 시작 시각 (통합 테이블의 마지막 기록 또는 원본의 첫 기록)
+            Map<Integer, LocalDateTime> starts = new ConcurrentHashMap<>();
+            invokeAll(pool, householdIds, householdId -> {
+                LocalDateTime from = resumePoint(householdId);
+                if (from != null) {
+                    starts.put(householdId, from);
+                } else {
+                    householdsDone.incrementAndGet(); // 원본이 빈 가구
+                }
+            });
+
+            // 2) 가장 오래된 달부터 월별 파티션 준비 후 복사
+            starts.values().stream().min(Comparator.naturalOrder())
+                    .ifPresent(oldest -> partitions.ensure(oldest.toLocalDate()));
+            invokeAll(pool, new ArrayList<>(starts.keySet()), householdId -> {
+                copy(householdId, starts.get(householdId));
+                householdsDone.incrementAndGet();
+            });
+        } finally {
+            pool.shutdownNow();
+        }
+
+        logger.info("sensor_summary 마이그레이션 완료 - 가구: {}/{}, 실패: {}, 복사 행: {}",
+                householdsDone.get(), householdsTotal.get(), householdsFailed.get(), rowsCopied.get());
+    }
+
+    private LocalDateTime resumePoint(int householdId) {
+        LocalDateTime migrated = secondaryJdbcTemplate.queryForObject(
+                "SELECT MAX(recorded_at) FROM " + PartitionedSensorSummaryStore.TABLE + " WHERE household_id = ?",
+                LocalDateTime.class, householdId);
+        if (migrated != null) {
+            return migrated;
+        }
+        return secondaryJdbcTemplate.queryForObject(
+                "SELECT MIN(recorded_at) FROM " + SensorSummaryRepository.tableName(householdId), LocalDateTime.class);
+    }
+
+    /**
+     * from부터 chunkDays일씩 복사, 마지막 구간은 상한 없이 현재까지
+     */
+    private void copy(int householdId, LocalDateTime from) {
+        String insert = "INSERT IGNORE INTO " + PartitionedSensorSummaryStore.TABLE + " (household_id, " + COLUMNS + ") " +
+                "SELECT ?, " + COLUMNS + " FROM " + SensorSummaryRepository.tableName(householdId) + " WHERE ";
+        LocalDateTime today = timeWindows.today().atStartOfDay();
+        int days = Math.max(1, chunkDays);
+        LocalDateTime chunkStart = from;
+        while (true) {
+            LocalDateTime chunkEnd = chunkStart.toLocalDate().plusDays(days).atStartOfDay();
+            if (!chunkEnd.isBefore(today)) {
+                break;
+            }
+            rowsCopied.addAndGet(insert(insert, householdId, new TimeWindow(chunkStart, chunkEnd)));
+            chunkStart = chunkEnd;
+        }
+        rowsCopied.addAndGet(insert(insert, householdId, TimeWindow.since(chunkStart)));
+    }
+
+    private int insert(String insert, int householdId, TimeWindow window) {
+        List<Object> args = new ArrayList<>();
+        args.add(householdId);
+        args.addAll(window.args());
+        return secondaryJdbcTemplate.update(insert + window.predicate("recorded_at"), args.toArray());
+    }
+
+    private void invokeAll(ExecutorService pool, List<Integer> householdIds, HouseholdTask task) throws InterruptedException {
+        List<Callable<Void>> tasks = new ArrayList<>(householdIds.size());
+        for (int householdId : householdIds) {
+            tasks.add(() -> {
+                try {
+                    task.run(householdId);
+                } catch (Exception e) {
+                    householdsFailed.incrementAndGet();
+                    lastError = SensorSummaryRepository.tableName(householdId) + ": " + e.getMessage();
+                    logger.warn("가구 {} 마이그레이션 실패: {}", householdId, e.getMessage());
+                }
+                return null;
+            });
+        }
+        pool.invokeAll(tasks);
+    }
+
+    @FunctionalInterface
+    private interface HouseholdTask {
+        void run(int householdId) throws Exception;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("householdsTotal", householdsTotal.get());
+        status.put("householdsDone", householdsDone.get());
+        status.put("householdsFailed", householdsFailed.get());
+        status.put("rowsCopied", rowsCopied.get());
+        status.put("threads", threads);
+        status.put("chunkDays", chunkDays);
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("lastError", lastError);
+        return status;
+    }
+}
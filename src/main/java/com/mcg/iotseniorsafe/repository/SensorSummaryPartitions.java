@@ -0,0 +1,86 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 통합 sensor_summary 테이블 월별 파티션 관리
+ * 마지막 파티션 p_future(MAXVALUE)를 REORGANIZE 해서 pYYYYMM 파티션을 앞으로 몇 달치 미리 만들어 둔다.
+ * p_future가 비어 있을 때 나누므로 데이터 이동이 거의 없다. 파티션이 없는 테이블이면 아무것도 하지 않는다.
+ */
+@Component
+public class SensorSummaryPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorSummaryPartitions.class);
+
+    private static final String FUTURE = "p_future";
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate secondaryJdbcTemplate;
+    private final TimeWindows timeWindows;
+
+    @Value("${app.sensorStore.partitionMonthsAhead:2}")
+    private int monthsAhead;
+
+    @Autowired
+    public SensorSummaryPartitions(@Qualifier("secondaryJdbcTemplate") JdbcTemplate secondaryJdbcTemplate,
+                                   TimeWindows timeWindows) {
+        this.secondaryJdbcTemplate = secondaryJdbcTemplate;
+        this.timeWindows = timeWindows;
+    }
+
+    @Scheduled(cron = "${app.sensorStore.partitionCron:0 10 0 * * *}")
+    public void scheduledEnsure() {
+        try {
+            ensure(timeWindows.today());
+        } catch (Exception e) {
+            logger.error("sensor_summary 파티션 생성 실패", e);
+        }
+    }
+
+    /**
+     * oldest가 속한 달부터 이번 달 + monthsAhead까지 월별 파티션 보장
+     * 이미 있는 마지막 파티션 이후의 달만 추가된다 (그 이전 데이터는 첫 파티션에 들어 있음)
+     */
+    public synchronized void ensure(LocalDate oldest) {
+        List<String> partitions = secondaryJdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, PartitionedSensorSummaryStore.TABLE);
+        if (partitions.isEmpty() || !partitions.contains(FUTURE)) {
+            return;
+        }
+
+        YearMonth month = YearMonth.from(oldest);
+        String last = partitions.size() > 1 ? partitions.get(partitions.size() - 2) : null;
+        if (last != null) {
+            YearMonth lastMonth = YearMonth.parse(last.substring(1), DateTimeFormatter.ofPattern("yyyyMM"));
+            month = lastMonth.plusMonths(1).isAfter(month) ? lastMonth.plusMonths(1) : month;
+        }
+
+        YearMonth until = YearMonth.from(timeWindows.today()).plusMonths(monthsAhead);
+        int added = 0;
+        for (; !month.isAfter(until); month = month.plusMonths(1)) {
+            secondaryJdbcTemplate.execute("ALTER TABLE " + PartitionedSensorSummaryStore.TABLE +
+                    " REORGANIZE PARTITION " + FUTURE + " INTO (" +
+                    "PARTITION " + month.format(NAME) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), " +
+                    "PARTITION " + FUTURE + " VALUES LESS THAN (MAXVALUE))");
+            added++;
+        }
+        if (added > 0) {
+            logger.info("sensor_summary 월별 파티션 {}개 추가 (~{})", added, until);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 가구별 동적 테이블(sensor_summary_{householdId}) 조회
+ * 여러 가구의 테이블을 UNION ALL로 묶어 한 번의 쿼리로 조회한다.
+ * 서비스는 SensorSummaryStore를 통해 접근하고, 이 클래스는 가구별 테이블 백엔드 / 마이그레이터 / 인덱서가 직접 쓴다.
+ */
+@Repository
+public class SensorSummaryRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorSummaryRepository.class);
+
+    public static final String TABLE_PREFIX = "sensor_summary_";
+    public static final String RECORDED_AT_INDEX = "idx_recorded_at";
+
+    // 공통 컬럼 식 (가구별 테이블 / 통합 테이블 공용)
+    public static final String LED_ACTIVE = "MAX(led_master_room + led_living_room + led_kitchen + led_toilet) as led_active";
+    public static final String ACTIVITY_TOTALS = "COUNT(*) as total_hours, " +
+            "SUM(CASE WHEN (led_master_room + led_living_room + led_kitchen + led_toilet) > 0 THEN 1 ELSE 0 END) as led_active_hours, ";
+    public static final String SENSOR_TOTALS = "SUM(CASE WHEN is_occupied = 1 THEN 1 ELSE 0 END) as occupancy_hours, " +
+            "SUM(CASE WHEN is_noisy = 1 THEN 1 ELSE 0 END) as noise_hours";
+    public static final String RECORD_COLUMNS = "recorded_at, led_master_room, led_living_room, led_kitchen, led_toilet";
+
+    private final JdbcTemplate primaryJdbcTemplate;   // 한전 MCS (기존 LED만)
+    private final JdbcTemplate secondaryJdbcTemplate; // 우리 시스템 (프로토타입 센서)
+
+    @Autowired
+    public SensorSummaryRepository(@Qualifier("primaryJdbcTemplate") JdbcTemplate primaryJdbcTemplate,
+                                   @Qualifier("secondaryJdbcTemplate") JdbcTemplate secondaryJdbcTemplate) {
+        this.primaryJdbcTemplate = primaryJdbcTemplate;
+        this.secondaryJdbcTemplate = secondaryJdbcTemplate;
+    }
+
+    public JdbcTemplate template(SensorSource source) {
+        return source == SensorSource.SECONDARY ? secondaryJdbcTemplate : primaryJdbcTemplate;
+    }
+
+    public static String tableName(int householdId) {
+        return TABLE_PREFIX + householdId;
+    }
+
+    /**
+     * sensor_summary_{id} 테이블명에서 가구 ID 추출 (숫자가 아닌 테이블은 -1)
+     */
+    public static int parseHouseholdId(String tableName) {
+        if (tableName == null || !tableName.startsWith(TABLE_PREFIX)) {
+            return -1;
+        }
+        String idPart = tableName.substring(TABLE_PREFIX.length());
+        if (idPart.isEmpty() || idPart.length() > 9 || !idPart.chars().allMatch(Character::isDigit)) {
+            return -1; // 예: sensor_summary_queue_test
+        }
+        return Integer.parseInt(idPart);
+    }
+
+    /**
+     * 해당 DB에 sensor_summary 테이블이 있는 가구 ID 목록
+     */
+    public List<Integer> findHouseholdIds(SensorSource source) {
+        List<String> tables = template(source).queryForList("SHOW TABLES LIKE 'sensor_summary_%'", String.class);
+
+        List<Integer> householdIds = new ArrayList<>(tables.size());
+        for (String table : tables) {
+            int householdId = parseHouseholdId(table);
+            if (householdId < 0) {
+                logger.debug("숫자가 아닌 테이블 스킵: {}", table);
+                continue;
+            }
+            householdIds.add(householdId);
+        }
+        return householdIds;
+    }
+
+    /**
+     * recorded_at 인덱스 생성 (이미 있으면 아무것도 하지 않음)
+     */
+    public void createRecordedAtIndex(SensorSource source, int householdId) {
+        template(source).execute("CREATE INDEX IF NOT EXISTS " + RECORDED_AT_INDEX
+                + " ON " + tableName(householdId) + " (recorded_at)");
+    }
+
+    /**
+     * 한 가구의 기간 내 시간대별 활동 집계 (hour, led_active[, occupied, noisy])
+     * Primary(기존 LED)는 재실/소음 컬럼이 없으므로 LED만 조회한다.
+     */
+    public List<Map<String, Object>> findHourlyActivity(SensorSource source, int householdId, TimeWindow window) {
+        String sensorColumns = source == SensorSource.SECONDARY ? ", MAX(is_occupied) as occupied, MAX(is_noisy) as noisy " : " ";
+        String sql = "SELECT HOUR(recorded_at) as hour, " + LED_ACTIVE + sensorColumns +
+                "FROM " + tableName(householdId) + " WHERE " + window.predicate("recorded_at") + " " +
+                "GROUP BY HOUR(recorded_at) ORDER BY hour";
+        return template(source).queryForList(sql, window.args().toArray());
+    }
+
+    /**
+     * 한 가구의 기간 내 기록 수 / LED·재실·소음 활동 기록 수
+     * 컬럼: total_hours, led_active_hours, occupancy_hours, noise_hours
+     */
+    public Map<String, Object> findActivityTotals(SensorSource source, int householdId, TimeWindow window) {
+        String sensorTotals = source == SensorSource.SECONDARY ? SENSOR_TOTALS : "0 as occupancy_hours, 0 as noise_hours";
+        String sql = "SELECT " + ACTIVITY_TOTALS + sensorTotals +
+                " FROM " + tableName(householdId) + " WHERE " + window.predicate("recorded_at");
+        return template(source).queryForMap(sql, window.args().toArray());
+    }
+
+    /**
+     * 한 가구의 기간 내 원본 기록 (household_id, recorded_at, led_*, is_occupied, is_noisy)
+     * limit이 0 이하면 제한 없음
+     */
+    public <T> List<T> findRecords(SensorSource source, int householdId, TimeWindow window, boolean newestFirst,
+                                   int limit, RowMapper<T> rowMapper) {
+        String sensorColumns = source == SensorSource.SECONDARY ? "is_occupied, is_noisy" : "0 as is_occupied, 0 as is_noisy";
+        String sql = "SELECT " + householdId + " as household_id, " + RECORD_COLUMNS + ", " + sensorColumns +
+                " FROM " + tableName(householdId) + " WHERE " + window.predicate("recorded_at") +
+                " ORDER BY recorded_at" + (newestFirst ? " DESC" : "") + (limit > 0 ? " LIMIT " + limit : "");
+        return template(source).query(sql, rowMapper, window.args().toArray());
+    }
+
+    /**
+     * 여러 가구의 어제/오늘 시간대별 활동 집계를 한 번의 쿼리로 스트리밍 조회
+     * 컬럼: household_id, day_offset(0=오늘, 1=어제), hour, led_active, occupied, noisy
+     * Primary(기존 LED)는 재실/소음 센서가 없으므로 0으로 채운다.
+     */
+    public void streamHourlyActivity(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                     RowCallbackHandler handler) {
+        streamHourlyActivity(source, householdIds, today, TimeWindow.days(today.minusDays(1), today.plusDays(1)), handler);
+    }
+
+    /**
+     * 오늘을 제외한 최근 days일의 시간대별 활동 집계 (기준선 적재용, day_offset 1~days)
+     */
+    public void streamHourlyActivityForPastDays(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                                int days, RowCallbackHandler handler) {
+        streamHourlyActivity(source, householdIds, today, TimeWindow.days(today.minusDays(days), today), handler);
+    }
+
+    /**
+     * since 이후에 기록된 시간대별 활동 집계만 조회 (인메모리 모델 증분 갱신용)
+     */
+    public void streamHourlyActivitySince(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                          LocalDateTime since, RowCallbackHandler handler) {
+        streamHourlyActivity(source, householdIds, today, new TimeWindow(since, today.plusDays(1).atStartOfDay()), handler);
+    }
+
+    /**
+     * 기간 내 가구별 기록 수와 무점유·소음(is_occupied=0, is_noisy=1) 기록 수
+     * 집계는 DB에서 끝내고 가구당 한 행만 스트리밍한다.
+     * 컬럼: household_id, scanned_rows, pattern_count
+     */
+    public void streamQuietNoiseCounts(List<Integer> householdIds, TimeWindow window, RowCallbackHandler handler) {
+        if (householdIds.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        for (int householdId : householdIds) {
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT ").append(householdId).append(" as household_id, ")
+                    .append("COUNT(*) as scanned_rows, ")
+                    .append("COALESCE(SUM(is_occupied = 0 AND is_noisy = 1), 0) as pattern_count ")
+                    .append("FROM ").append(tableName(householdId))
+                    .append(" WHERE ").append(window.predicate("recorded_at"));
+            args.addAll(window.args());
+        }
+
+        secondaryJdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    /**
+     * day_offset은 today 기준 (DATEDIFF는 시각을 무시하고 날짜 차이만 계산)
+     */
+    private void streamHourlyActivity(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                      TimeWindow window, RowCallbackHandler handler) {
+        if (householdIds.isEmpty()) {
+            return;
+        }
+
+        String sensorColumns = source == SensorSource.SECONDARY
+                ? "MAX(is_occupied) as occupied, MAX(is_noisy) as noisy "
+                : "0 as occupied, 0 as noisy ";
+
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        for (int householdId : householdIds) {
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT ").append(householdId).append(" as household_id, ")
+                    .append("DATEDIFF(?, recorded_at) as day_offset, ")
+                    .append("HOUR(recorded_at) as hour, ")
+                    .append(LED_ACTIVE).append(", ")
+                    .append(sensorColumns)
+                    .append("FROM ").append(tableName(householdId))
+                    .append(" WHERE ").append(window.predicate("recorded_at")).append(" ")
+                    .append("GROUP BY day_offset, hour");
+            args.add(today);
+            args.addAll(window.args());
+        }
+
+        template(source).query(sql.toString(), handler, args.toArray());
+    }
+}
@@ -0,0 +1,72 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 센서 요약 데이터 저장소
+ * 백엔드는 app.sensorStore.backend로 선택한다.
+ * - per-table (기본값): 가구별 테이블 sensor_summary_{householdId} (PerTableSensorSummaryStore)
+ * - partitioned: 월별 파티션 통합 테이블 sensor_summary, PK (household_id, recorded_at) (PartitionedSensorSummaryStore)
+ *   Primary(한전 MCS)는 외부 DB라 어느 백엔드든 가구별 테이블을 그대로 읽는다.
+ * 시간대별 집계 컬럼: household_id, day_offset(0=오늘), hour, led_active, occupied, noisy
+ */
+public interface SensorSummaryStore {
+
+    String PER_TABLE = "per-table";
+    String PARTITIONED = "partitioned";
+
+    /**
+     * 백엔드 이름 (PER_TABLE / PARTITIONED)
+     */
+    String backend();
+
+    /**
+     * 해당 DB에 센서 요약 데이터가 있는 가구 ID 목록 (SensorTableCatalog가 캐시)
+     */
+    List<Integer> findHouseholdIds(SensorSource source);
+
+    /**
+     * 여러 가구의 어제/오늘 시간대별 활동 집계 스트리밍
+     */
+    void streamHourlyActivity(SensorSource source, List<Integer> householdIds, LocalDate today,
+                              RowCallbackHandler handler);
+
+    /**
+     * 오늘을 제외한 최근 days일의 시간대별 활동 집계 (day_offset 1~days)
+     */
+    void streamHourlyActivityForPastDays(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                         int days, RowCallbackHandler handler);
+
+    /**
+     * since 이후 기록의 시간대별 활동 집계
+     */
+    void streamHourlyActivitySince(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                   LocalDateTime since, RowCallbackHandler handler);
+
+    /**
+     * 기간 내 가구별 기록 수(scanned_rows)와 무점유·소음 기록 수(pattern_count) - Secondary 전용
+     */
+    void streamQuietNoiseCounts(List<Integer> householdIds, TimeWindow window, RowCallbackHandler handler);
+
+    /**
+     * 한 가구의 기간 내 시간대별 활동 집계 (hour, led_active[, occupied, noisy])
+     */
+    List<Map<String, Object>> findHourlyActivity(SensorSource source, int householdId, TimeWindow window);
+
+    /**
+     * 한 가구의 기간 내 활동 기록 수 (total_hours, led_active_hours, occupancy_hours, noise_hours)
+     */
+    Map<String, Object> findActivityTotals(SensorSource source, int householdId, TimeWindow window);
+
+    /**
+     * 한 가구의 기간 내 원본 기록 (household_id, recorded_at, led_*, is_occupied, is_noisy), limit 0 이하면 제한 없음
+     */
+    <T> List<T> findRecords(SensorSource source, int householdId, TimeWindow window, boolean newestFirst,
+                            int limit, RowMapper<T> rowMapper);
+}
@@ -0,0 +1,168 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * DB별 센서 요약 데이터가 있는 가구 ID 목록 캐시 (SensorSummaryStore 백엔드 기준)
+ * 호출마다 메타데이터(SHOW TABLES / 통합 테이블 GROUP BY)를 조회하지 않도록 가구 ID 집합을 메모리에 들고 있는다.
+ * - 주기적으로 전체 갱신 (새 가구 테이블 반영)
+ * - 조회 실패(miss) 시 해당 DB만 즉시 갱신하되, 최소 간격을 두어 없는 가구 조회가 메타데이터 쿼리로 이어지지 않게 한다.
+ */
+@Component
+public class SensorTableCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorTableCatalog.class);
+
+    private final SensorSummaryStore sensorSummaryStore;
+    // 생성 후 키는 바뀌지 않고 값(Snapshot)만 통째로 교체된다
+    private final Map<SensorSource, AtomicReference<Snapshot>> snapshots = new EnumMap<>(SensorSource.class);
+
+    // miss로 인한 갱신 최소 간격
+    @Value("${app.catalog.missRefreshIntervalMs:30000}")
+    private long missRefreshIntervalMs;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong metadataQueries = new AtomicLong();
+
+    @Autowired
+    public SensorTableCatalog(SensorSummaryStore sensorSummaryStore) {
+        this.sensorSummaryStore = sensorSummaryStore;
+        for (SensorSource source : SensorSource.values()) {
+            snapshots.put(source, new AtomicReference<>(Snapshot.EMPTY));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog.initialDelayMs:0}",
+            fixedDelayString = "${app.catalog.refreshIntervalMs:300000}")
+    public void scheduledRefresh() {
+        for (SensorSource source : SensorSource.values()) {
+            try {
+                refresh(source);
+            } catch (Exception e) {
+                logger.error("{} 센서 테이블 목록 갱신 실패", source, e);
+            }
+        }
+    }
+
+    /**
+     * 해당 DB의 테이블 목록 다시 조회
+     */
+    public void refresh(SensorSource source) {
+        List<Integer> householdIds = new ArrayList<>(sensorSummaryStore.findHouseholdIds(source));
+        metadataQueries.incrementAndGet();
+        Collections.sort(householdIds);
+
+        Snapshot previous = snapshots.get(source).getAndSet(new Snapshot(householdIds, System.currentTimeMillis()));
+        if (previous.householdIds.size() != householdIds.size()) {
+            logger.info("{} 센서 테이블 목록 갱신 - {} -> {}개", source, previous.householdIds.size(), householdIds.size());
+        }
+    }
+
+    /**
+     * 해당 DB에 가구 테이블이 있는지 (없으면 필요 시 목록 갱신 후 재확인)
+     */
+    public boolean exists(SensorSource source, int householdId) {
+        if (snapshot(source).contains(householdId)) {
+            hits.incrementAndGet();
+            return true;
+        }
+        misses.incrementAndGet();
+        return refreshOnMiss(source) && snapshot(source).contains(householdId);
+    }
+
+    /**
+     * 가구 데이터를 읽을 DB (Secondary 우선, 둘 다 없으면 null)
+     */
+    public SensorSource resolve(int householdId) {
+        if (exists(SensorSource.SECONDARY, householdId)) {
+            return SensorSource.SECONDARY;
+        }
+        if (exists(SensorSource.PRIMARY, householdId)) {
+            return SensorSource.PRIMARY;
+        }
+        return null;
+    }
+
+    /**
+     * 해당 DB의 가구 ID 목록 (오름차순, 읽기 전용) - 아직 적재 전이면 즉시 조회
+     */
+    public List<Integer> householdIds(SensorSource source) {
+        Snapshot snapshot = snapshot(source);
+        if (snapshot.loadedAt == 0) {
+            refreshOnMiss(source);
+            snapshot = snapshot(source);
+        }
+        return snapshot.householdIds;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (SensorSource source : SensorSource.values()) {
+            Snapshot snapshot = snapshot(source);
+            stats.put(source.name().toLowerCase() + "Tables", snapshot.householdIds.size());
+            stats.put(source.name().toLowerCase() + "LoadedAt", snapshot.loadedAt);
+        }
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("metadataQueries", metadataQueries.get());
+        return stats;
+    }
+
+    private Snapshot snapshot(SensorSource source) {
+        return snapshots.get(source).get();
+    }
+
+    /**
+     * miss 시 갱신 - 최근 갱신 후 최소 간격이 지나지 않았으면 갱신하지 않고 false
+     */
+    private boolean refreshOnMiss(SensorSource source) {
+        synchronized (snapshots.get(source)) {
+            if (System.currentTimeMillis() - snapshot(source).loadedAt < missRefreshIntervalMs) {
+                return false;
+            }
+            try {
+                refresh(source);
+                return true;
+            } catch (Exception e) {
+                logger.warn("{} 센서 테이블 목록 갱신 실패: {}", source, e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(List.of(), 0);
+
+        final List<Integer> householdIds;
+        final Set<Integer> idSet;
+        final long loadedAt;
+
+        Snapshot(List<Integer> householdIds, long loadedAt) {
+            this.householdIds = Collections.unmodifiableList(householdIds);
+            this.idSet = new HashSet<>(householdIds);
+            this.loadedAt = loadedAt;
+        }
+
+        boolean contains(int householdId) {
+            return idSet.contains(householdId);
+        }
+    }
+}
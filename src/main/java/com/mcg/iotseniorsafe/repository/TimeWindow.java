@@ -0,0 +1,61 @@
+package com.mcg.iotseniorsafe.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 조회 기간 [from, to) - 반열린 구간
+ * DATE(recorded_at) = ... 처럼 컬럼을 함수로 감싸지 않고 "컬럼 >= ? AND 컬럼 < ?" 범위 조건으로 만들어
+ * recorded_at / created_at 인덱스를 range scan으로 탈 수 있게 한다.
+ * to가 null이면 상한 없음 (컬럼 >= ?)
+ */
+public record TimeWindow(LocalDateTime from, LocalDateTime to) {
+
+    public TimeWindow {
+        if (from == null) {
+            throw new IllegalArgumentException("from은 필수입니다");
+        }
+        if (to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("to는 from 이후여야 합니다: " + from + " ~ " + to);
+        }
+    }
+
+    /**
+     * 하루 전체 [day 00:00, day+1 00:00)
+     */
+    public static TimeWindow day(LocalDate day) {
+        return days(day, day.plusDays(1));
+    }
+
+    /**
+     * firstDay 00:00부터 endExclusive 00:00 전까지
+     */
+    public static TimeWindow days(LocalDate firstDay, LocalDate endExclusive) {
+        return new TimeWindow(firstDay.atStartOfDay(), endExclusive.atStartOfDay());
+    }
+
+    /**
+     * from 이후 전체 (상한 없음)
+     */
+    public static TimeWindow since(LocalDateTime from) {
+        return new TimeWindow(from, null);
+    }
+
+    /**
+     * 범위 조건 SQL - 바인딩 값은 args() 순서
+     */
+    public String predicate(String column) {
+        return to == null
+                ? column + " >= ?"
+                : column + " >= ? AND " + column + " < ?";
+    }
+
+    public List<Object> args() {
+        return to == null ? List.of(from) : List.of(from, to);
+    }
+
+    public boolean contains(LocalDateTime time) {
+        return !time.isBefore(from) && (to == null || time.isBefore(to));
+    }
+}
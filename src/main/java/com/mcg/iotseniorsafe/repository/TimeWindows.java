@@ -0,0 +1,61 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 주입된 Clock 기준 조회 기간 생성
+ * DB의 NOW()/CURDATE() 대신 애플리케이션 시계로 경계를 계산해 바인딩한다
+ * (DB와 애플리케이션의 시간대가 같다는 전제, LocalDateTime 그대로 바인딩).
+ */
+@Component
+public class TimeWindows {
+
+    private final Clock clock;
+
+    @Autowired
+    public TimeWindows(Clock clock) {
+        this.clock = clock;
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * daysAgo일 전 하루 (0 = 오늘, 1 = 어제)
+     */
+    public TimeWindow day(int daysAgo) {
+        return TimeWindow.day(today().minusDays(daysAgo));
+    }
+
+    /**
+     * 오늘을 제외한 최근 days일 [오늘-days 00:00, 오늘 00:00)
+     */
+    public TimeWindow pastDays(int days) {
+        LocalDate today = today();
+        return TimeWindow.days(today.minusDays(days), today);
+    }
+
+    /**
+     * 최근 minutes분 (상한 없음)
+     */
+    public TimeWindow lastMinutes(long minutes) {
+        return TimeWindow.since(now().minusMinutes(minutes));
+    }
+
+    /**
+     * 최근 hours시간 (상한 없음)
+     */
+    public TimeWindow lastHours(long hours) {
+        return TimeWindow.since(now().minusHours(hours));
+    }
+}
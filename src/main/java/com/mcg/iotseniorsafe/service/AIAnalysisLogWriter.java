@@ -0,0 +1,224 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcg.iotseniorsafe.repository.AIAnalysisLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ai_analysis_log 지연 기록(write-behind)
+ * - 요청 스레드는 기록을 메모리 대기열에 넣기만 한다 (JSON 변환과 INSERT는 기록 스레드에서).
+ * - 기록 스레드는 app.aiLog.batchSize건이 모이거나 첫 건 이후 app.aiLog.flushIntervalMs가 지나면 JDBC batch로 저장한다.
+ * - 대기열(app.aiLog.queueCapacity)이 가득 차면 새 기록을 버린다 - 요청 스레드는 절대 기다리지 않는다 (dropped).
+ * - 저장 실패 시 같은 묶음을 app.aiLog.maxRetries번까지 다시 시도하고, 그래도 실패하면 버린다 (failedRows).
+ * - 종료 시 새 기록을 받지 않고 남은 기록을 모두 저장한다 (최대 app.aiLog.shutdownTimeoutMs).
+ */
+@Component
+public class AIAnalysisLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIAnalysisLogWriter.class);
+
+    // 대기열이 가득 찬 동안 경고 로그 간격
+    private static final long DROP_WARN_INTERVAL_MS = 60_000;
+
+    private final AIAnalysisLogRepository aiAnalysisLogRepository;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Entry> queue;
+    private final ExecutorService writer;
+
+    @Value("${app.aiLog.batchSize:100}")
+    private int batchSize;
+
+    @Value("${app.aiLog.flushIntervalMs:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.aiLog.maxRetries:3}")
+    private int maxRetries;
+
+    @Value("${app.aiLog.shutdownTimeoutMs:10000}")
+    private long shutdownTimeoutMs;
+
+    private volatile boolean stopping;
+    private volatile long lastDropWarnAtMs;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private volatile long lastFlushMs;
+
+    @Autowired
+    public AIAnalysisLogWriter(AIAnalysisLogRepository aiAnalysisLogRepository, ObjectMapper objectMapper,
+                               @Value("${app.aiLog.queueCapacity:10000}") int queueCapacity) {
+        this.aiAnalysisLogRepository = aiAnalysisLogRepository;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.execute(this::run);
+    }
+
+    /**
+     * 기록 추가 - 대기열이 가득 찼거나 종료 중이면 버리고 false
+     */
+    public boolean submit(Entry entry) {
+        if (!stopping && queue.offer(entry)) {
+            submitted.incrementAndGet();
+            return true;
+        }
+        dropped.incrementAndGet();
+        long now = System.currentTimeMillis();
+        if (now - lastDropWarnAtMs >= DROP_WARN_INTERVAL_MS) {
+            lastDropWarnAtMs = now;
+            logger.warn("AI 분석 로그 대기열이 가득 차 기록을 버림 - 누적 {}건", dropped.get());
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                writer.shutdownNow();
+                logger.warn("AI 분석 로그 종료 시간 초과 - 저장하지 못한 기록 {}건", queue.size());
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>();
+        long flushAt = 0;
+        while (true) {
+            try {
+                long waitMs = batch.isEmpty() ? flushIntervalMs : flushAt - System.currentTimeMillis();
+                Entry entry = waitMs > 0 ? queue.poll(waitMs, TimeUnit.MILLISECONDS) : queue.poll();
+                if (entry != null) {
+                    if (batch.isEmpty()) {
+                        flushAt = System.currentTimeMillis() + flushIntervalMs;
+                    }
+                    batch.add(entry);
+                    queue.drainTo(batch, Math.max(1, batchSize) - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // 강제 종료 - 지금까지 모은 것만 저장 시도
+                flush(batch);
+                return;
+            }
+
+            boolean due = !batch.isEmpty() && System.currentTimeMillis() >= flushAt;
+            if (batch.size() >= Math.max(1, batchSize) || due || (stopping && !batch.isEmpty())) {
+                flush(batch);
+                batch.clear();
+            }
+            if (stopping && batch.isEmpty() && queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<AIAnalysisLogRepository.LogRow> rows = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            try {
+                rows.add(toRow(entry));
+            } catch (Exception e) {
+                failedRows.incrementAndGet();
+                logger.warn("AI 분석 로그 변환 실패: householdId={}, {}", entry.householdId(), e.getMessage());
+            }
+        }
+
+        for (int attempt = 1; !rows.isEmpty(); attempt++) {
+            long start = System.currentTimeMillis();
+            try {
+                aiAnalysisLogRepository.insertAll(rows);
+                batches.incrementAndGet();
+                written.addAndGet(rows.size());
+                lastFlushMs = System.currentTimeMillis() - start;
+                logger.debug("AI 분석 로그 기록 완료: {}건, {}ms", rows.size(), lastFlushMs);
+                return;
+            } catch (Exception e) {
+                failedBatches.incrementAndGet();
+                if (attempt > Math.max(0, maxRetries) || Thread.currentThread().isInterrupted()) {
+                    failedRows.addAndGet(rows.size());
+                    logger.error("AI 분석 로그 기록 실패 - {}건 버림", rows.size(), e);
+                    return;
+                }
+                logger.warn("AI 분석 로그 기록 실패 - 재시도 {}/{}: {}", attempt, maxRetries, e.getMessage());
+                try {
+                    Thread.sleep(flushIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private AIAnalysisLogRepository.LogRow toRow(Entry entry) throws Exception {
+        // JSON 형태로 변환
+        String jsonRequestData = entry.prompt() != null ?
+                objectMapper.writeValueAsString(Map.of("prompt", entry.prompt())) : null;
+        String jsonAiResponse = entry.response() != null ?
+                objectMapper.writeValueAsString(Map.of("response", entry.response())) : null;
+
+        return new AIAnalysisLogRepository.LogRow(entry.householdId(), entry.requestType(),
+                jsonRequestData, jsonAiResponse, entry.processingTimeMs(), entry.success(), entry.errorMessage(),
+                entry.promptHash(), entry.expiresAt(), entry.inputTokens(), entry.outputTokens());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("capacity", queue.size() + queue.remainingCapacity());
+        stats.put("submitted", submitted.get());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("failedRows", failedRows.get());
+        stats.put("lastFlushMs", lastFlushMs);
+        return stats;
+    }
+
+    /**
+     * 기록 한 건 (원문 그대로 - JSON 변환은 기록 스레드에서)
+     * inputTokens / outputTokens는 모델이 알려준 토큰 수 (없으면 null)
+     */
+    public record Entry(int householdId, String requestType, String prompt, String response,
+                        long processingTimeMs, boolean success, String errorMessage,
+                        String promptHash, LocalDateTime expiresAt, Integer inputTokens, Integer outputTokens) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.dto.AlertResponse;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 심각 가구 AI 분석 미리 만들기 (pre-warm)
+ * - 별도 작업 스레드 없이 AI 선별 분석 대기열(AITriageQueue)에 얹는다. 위험도 스냅샷 갱신 후 새로 심각이 된 가구를
+ *   onEvaluated()가 골라 주면 대기열이 같은 심각 가구 중 먼저 분석하고, 그 결과를 onAnalyzed()로 넘긴다
+ *   (가구당 Bedrock 분석은 선별 분석 한 번뿐). app.prewarm.draftReports=true면 그 분석으로 신고 문서 초안까지 만든다.
+ * - 결과는 가구별로 보관한다. 같은 날이고, 이후 평가에서 위험도/공통 활동 비율이 그대로이고, app.prewarm.ttlMs가
+ *   지나지 않았으면 analyze-household / generate-report가 Bedrock을 기다리지 않고 바로 돌려준다.
+ * - 그날 미리 만들기에 쓴 토큰(분석 + 초안)이 app.prewarm.dailyTokenCap에 닿으면 더 고르지 않고 초안도 만들지 않는다
+ *   (고르지 않은 가구도 선별 분석은 평소 순서대로 받는다, 화면 요청은 이 한도와 무관).
+ * - app.triage.enabled=false면 미리 만들지 않는다.
+ * - app.prewarm.ttlMs는 app.analysisContext.ttlMs 이하로 둔다 - 미리 만든 분석의 analysisId로 보고서를 만들 수 있어야 한다.
+ */
+@Component
+public class AIPrewarmPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIPrewarmPipeline.class);
+
+    private final BedrockService bedrockService;
+    private final TimeWindows timeWindows;
+    private final Clock clock;
+
+    @Value("${app.prewarm.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.prewarm.draftReports:false}")
+    private boolean draftReports;
+
+    // 하루 토큰 한도 (입력+출력, 0이면 제한 없음)
+    @Value("${app.prewarm.dailyTokenCap:200000}")
+    private long dailyTokenCap;
+
+    @Value("${app.prewarm.ttlMs:1800000}")
+    private long ttlMs;
+
+    // this로 동기화
+    private final Map<Integer, Prewarmed> entries = new HashMap<>();
+    private LocalDate tokenDay;
+    private long tokensToday;
+
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong prewarmed = new AtomicLong();
+    private final AtomicLong reportsDrafted = new AtomicLong();
+    private final AtomicLong skippedCap = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong invalidated = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong analysisHits = new AtomicLong();
+    private final AtomicLong reportHits = new AtomicLong();
+
+    @Autowired
+    public AIPrewarmPipeline(BedrockService bedrockService, TimeWindows timeWindows, Clock clock) {
+        this.bedrockService = bedrockService;
+        this.timeWindows = timeWindows;
+        this.clock = clock;
+    }
+
+    /**
+     * 위험도 평가 후, 선별 분석 등록 전에 호출 - 평가 결과가 달라진 가구의 미리 만든 결과를 버리고,
+     * 미리 만들 가구(새로 심각이 되었고 보관 중인 결과가 없는 가구)를 돌려준다 → AITriageQueue.enqueueAll의 우선 처리 대상
+     */
+    public Set<Integer> onEvaluated(List<HouseholdRisk> risks, List<RiskTransition> transitions) {
+        Set<Integer> targets = new LinkedHashSet<>();
+        if (!enabled) {
+            return targets;
+        }
+        LocalDate today = timeWindows.today();
+        boolean withinCap = withinTokenCap();
+        synchronized (this) {
+            invalidateChanged(risks, today);
+            for (RiskTransition transition : transitions) {
+                if ("심각".equals(transition.toLevel()) && !entries.containsKey(transition.householdId())) {
+                    targets.add(transition.householdId());
+                }
+            }
+        }
+        if (!withinCap && !targets.isEmpty()) {
+            skippedCap.addAndGet(targets.size());
+            logger.debug("AI 분석 미리 생성 생략 (하루 토큰 한도) - 심각 가구: {}", targets.size());
+            targets.clear();
+        }
+        if (!targets.isEmpty()) {
+            scheduled.addAndGet(targets.size());
+            logger.info("AI 분석 미리 생성 요청 (선별 분석 우선 처리) - 심각 가구: {}", targets.size());
+        }
+        return targets;
+    }
+
+    /**
+     * 미리 만들기로 고른 가구의 선별 분석이 끝나면 호출 (AITriageQueue 작업 스레드)
+     * riskLevel / commonDataRatio는 작업의 최신 위험도 - 이후 평가와 비교해 유효성을 판단한다. analysis가 null이면 실패
+     */
+    public void onAnalyzed(int householdId, LocalDate day, String riskLevel, double commonDataRatio,
+                           AlertResponse analysis) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!day.equals(timeWindows.today())) {
+                return; // 분석 중 날짜가 바뀜 - 오늘 평가에서 다시 고른다
+            }
+            int tokens = charge(analysis);
+            if (!usable(analysis)) {
+                failed.incrementAndGet();
+                logger.info("AI 분석 미리 생성 - 보관하지 않음 (데이터 부족/모델 오류/규칙 기반): householdId={}", householdId);
+                return;
+            }
+
+            AlertResponse report = null;
+            if (draftReports && analysis.getAnalysisId() != null && withinTokenCap()) {
+                try {
+                    report = bedrockService.generateReportingDocumentAsync(householdId, analysis.getAnalysisId(), null).join();
+                    tokens += charge(report);
+                } catch (RuntimeException e) {
+                    // 초안이 없어도 분석은 보관 - 보고서는 화면에서 요청할 때 만든다
+                    logger.info("신고 문서 초안 생략: householdId={}, {}", householdId, e.getMessage());
+                }
+                if (usable(report)) {
+                    reportsDrafted.incrementAndGet();
+                } else {
+                    report = null;
+                }
+            }
+
+            long now = clock.millis();
+            synchronized (this) {
+                entries.put(householdId, new Prewarmed(householdId, day, riskLevel, commonDataRatio,
+                        analysis, report, now, now + ttlMs));
+            }
+            prewarmed.incrementAndGet();
+            logger.info("AI 분석 미리 생성 완료: householdId={}, 신고 문서 {}, 토큰 {}",
+                    householdId, report != null ? "포함" : "없음", tokens);
+
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            logger.warn("AI 분석 미리 생성 실패: householdId={}, {}", householdId, e.getMessage());
+        }
+    }
+
+    /**
+     * 미리 만든 가구 분석 (없거나 유효하지 않으면 null)
+     */
+    public AlertResponse getAnalysis(int householdId) {
+        Prewarmed entry = valid(householdId);
+        if (entry == null) {
+            return null;
+        }
+        analysisHits.incrementAndGet();
+        return entry.analysis();
+    }
+
+    /**
+     * analysisId 분석으로 미리 만든 신고 문서 초안 (없거나 다른 분석이거나 유효하지 않으면 null)
+     */
+    public AlertResponse getReport(int householdId, String analysisId) {
+        Prewarmed entry = valid(householdId);
+        if (entry == null || entry.report() == null || analysisId == null
+                || !analysisId.equals(entry.analysis().getAnalysisId())) {
+            return null;
+        }
+        reportHits.incrementAndGet();
+        return entry.report();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("draftReports", draftReports);
+        stats.put("ttlMs", ttlMs);
+        stats.put("dailyTokenCap", dailyTokenCap);
+        synchronized (this) {
+            stats.put("tokensToday", timeWindows.today().equals(tokenDay) ? tokensToday : 0);
+            stats.put("entries", entries.size());
+        }
+        stats.put("scheduled", scheduled.get());
+        stats.put("prewarmed", prewarmed.get());
+        stats.put("reportsDrafted", reportsDrafted.get());
+        stats.put("skippedCap", skippedCap.get());
+        stats.put("failed", failed.get());
+        stats.put("invalidated", invalidated.get());
+        stats.put("expired", expired.get());
+        stats.put("analysisHits", analysisHits.get());
+        stats.put("reportHits", reportHits.get());
+        return stats;
+    }
+
+    /**
+     * 스냅샷의 위험도나 공통 활동 비율이 바뀌었거나(= 데이터가 바뀜) 날짜가 지난 결과 제거
+     */
+    private void invalidateChanged(List<HouseholdRisk> risks, LocalDate today) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Integer, HouseholdRisk> current = new HashMap<>();
+        for (HouseholdRisk risk : risks) {
+            if (entries.containsKey(risk.householdId())) {
+                current.put(risk.householdId(), risk);
+            }
+        }
+        Iterator<Prewarmed> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Prewarmed entry = iterator.next();
+            HouseholdRisk risk = current.get(entry.householdId());
+            if (risk == null || !entry.day().equals(today) || !risk.riskLevel().equals(entry.riskLevel())
+                    || risk.commonDataRatio() != entry.commonDataRatio()) {
+                iterator.remove();
+                invalidated.incrementAndGet();
+            }
+        }
+    }
+
+    private synchronized Prewarmed valid(int householdId) {
+        if (!enabled) {
+            return null;
+        }
+        Prewarmed entry = entries.get(householdId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMs() <= clock.millis() || !entry.day().equals(timeWindows.today())) {
+            entries.remove(householdId);
+            expired.incrementAndGet();
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized boolean withinTokenCap() {
+        resetTokensIfNewDay();
+        return dailyTokenCap <= 0 || tokensToday < dailyTokenCap;
+    }
+
+    private synchronized int charge(AlertResponse response) {
+        int tokens = response != null ? response.getTokensUsed() : 0;
+        resetTokensIfNewDay();
+        tokensToday += tokens;
+        return tokens;
+    }
+
+    private void resetTokensIfNewDay() {
+        LocalDate today = timeWindows.today();
+        if (!today.equals(tokenDay)) {
+            tokenDay = today;
+            tokensToday = 0;
+        }
+    }
+
+    /**
+     * 보관할 만한 응답인지 - 데이터 부족 / 모델 오류("확인필요")와 규칙 기반 대체 응답은 제외
+     */
+    private static boolean usable(AlertResponse response) {
+        return response != null && !response.isFallback() && !"확인필요".equals(response.getRiskLevel());
+    }
+
+    /**
+     * 미리 만든 결과 - riskLevel / commonDataRatio는 분석한 작업의 위험도 (이후 평가와 비교해 유효성 판단)
+     */
+    private record Prewarmed(int householdId, LocalDate day, String riskLevel, double commonDataRatio,
+                             AlertResponse analysis, AlertResponse report, long createdAtMs, long expiresAtMs) {
+    }
+}
@@ -0,0 +1,477 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.dto.AlertResponse;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 위험 가구 AI 선별 분석(triage) 대기열
+ * - 위험도 스냅샷 갱신 후 위험(의심/심각) 가구를 넣으면 심각 먼저, 같은 단계는 미리 만들기(AIPrewarmPipeline) 대상,
+ *   공통 활동 비율이 낮은 순으로 분석한다. 미리 만들기 대상의 결과는 AIPrewarmPipeline.onAnalyzed로 넘긴다.
+ * - 같은 가구·같은 날의 요청은 한 작업으로 합친다 (대기 중에 위험도가 바뀌면 순서만 갱신).
+ *   이미 끝난 작업도 미리 만들기 대상이 되면(새로 심각) 다시 대기열에 넣는다.
+ * - app.triage.concurrency개 작업 스레드로만 실행하고 app.triage.maxPerMinute로 시작 간격을 둔다.
+ *   Bedrock 호출은 BedrockCallLimiter를 함께 거치므로 화면의 분석 요청과 호출 한도를 나눠 쓴다.
+ * - 차단/한도 초과로 다시 시도할 작업은 작업 스레드에서 기다리지 않고 retryDelayMs 뒤에 대기열로 돌려보낸다
+ *   (그동안 작업 스레드는 다른 작업, 특히 새로 들어온 심각 가구를 처리한다).
+ * - 결과는 작업에 보관하고(오늘 작업만), 같은 데이터면 분석 결과 캐시에도 남아 analyze-household가 바로 응답한다.
+ */
+@Component
+public class AITriageQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(AITriageQueue.class);
+
+    // 심각 먼저, 같은 단계는 미리 만들기 대상 먼저, 비율이 낮은(평소와 더 다른) 가구 먼저, 그다음 들어온 순서
+    private static final Comparator<Job> PRIORITY = Comparator
+            .comparingInt((Job job) -> severityRank(job.riskLevel))
+            .thenComparing(job -> !job.prewarm)
+            .thenComparingDouble(job -> job.commonDataRatio)
+            .thenComparingLong(job -> job.sequence);
+
+    private static final long THROUGHPUT_WINDOW_MS = 60_000;
+
+    private final BedrockService bedrockService;
+    private final AIPrewarmPipeline aiPrewarmPipeline;
+    private final TimeWindows timeWindows;
+    private final int concurrency;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>(64, PRIORITY);
+    private final Map<JobKey, Job> jobs = new HashMap<>(); // this로 동기화, 오늘 작업만 유지
+    private long sequence;
+
+    @Value("${app.triage.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.triage.maxPerMinute:0}")
+    private int maxPerMinute; // 0이면 간격 없음
+
+    @Value("${app.triage.maxAttempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.triage.retryDelayMs:10000}")
+    private long retryDelayMs;
+
+    private final Object rateLock = new Object();
+    private long nextStartAtMs;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger retryWaiting = new AtomicInteger();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final AtomicLong reprioritized = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong starts = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+    private final ArrayDeque<Long> recentCompletions = new ArrayDeque<>(); // 완료 시각(ms), 자신으로 동기화
+
+    @Autowired
+    public AITriageQueue(BedrockService bedrockService, AIPrewarmPipeline aiPrewarmPipeline, TimeWindows timeWindows,
+                         @Value("${app.triage.concurrency:2}") int concurrency) {
+        this.bedrockService = bedrockService;
+        this.aiPrewarmPipeline = aiPrewarmPipeline;
+        this.timeWindows = timeWindows;
+        this.concurrency = Math.max(1, concurrency);
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "ai-triage-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger retrySequence = new AtomicInteger();
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-triage-retry-" + retrySequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        retryScheduler.shutdownNow();
+    }
+
+    /**
+     * 위험 가구 일괄 등록 (정상 가구는 무시) - 새로 등록한 작업 수
+     */
+    public int enqueueAll(List<HouseholdRisk> risks) {
+        return enqueueAll(risks, Set.of());
+    }
+
+    /**
+     * 위험 가구 일괄 등록 - prewarm은 미리 만들기 대상 가구 (AIPrewarmPipeline.onEvaluated), 같은 단계에서 먼저 분석한다.
+     * 새로 등록하거나 다시 대기열에 넣은 작업 수
+     */
+    public int enqueueAll(List<HouseholdRisk> risks, Set<Integer> prewarm) {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDate today = timeWindows.today();
+        LocalDateTime now = timeWindows.now();
+        int added = 0;
+        synchronized (this) {
+            pruneBefore(today);
+            for (HouseholdRisk risk : risks) {
+                if (risk.isAtRisk() && enqueue(risk, prewarm.contains(risk.householdId()), today, now)) {
+                    added++;
+                }
+            }
+        }
+        if (added > 0) {
+            logger.info("AI 선별 분석 등록 - 신규: {}, 대기: {}", added, queue.size());
+        }
+        return added;
+    }
+
+    private boolean enqueue(HouseholdRisk risk, boolean prewarm, LocalDate today, LocalDateTime now) {
+        JobKey key = new JobKey(risk.householdId(), today);
+        Job existing = jobs.get(key);
+        if (existing != null && prewarm && !existing.prewarm) {
+            return promote(existing, risk, now);
+        }
+        if (existing != null) {
+            collapsed.incrementAndGet();
+            boolean changed = !risk.riskLevel().equals(existing.riskLevel) || risk.commonDataRatio() != existing.commonDataRatio;
+            // 대기 중인 작업만 최신 위험도로 순서 갱신 (큐에서 뺀 상태에서 바꿔야 정렬이 깨지지 않음)
+            // 재시도 대기 중인 작업은 큐 밖에 있으므로 값만 바꾸면 대기열로 돌아갈 때 반영된다
+            if (changed && existing.status == TriageJob.Status.QUEUED) {
+                boolean inQueue = queue.remove(existing);
+                if (inQueue || existing.retryPending) {
+                    existing.riskLevel = risk.riskLevel();
+                    existing.commonDataRatio = risk.commonDataRatio();
+                    if (inQueue) {
+                        queue.add(existing);
+                    }
+                    reprioritized.incrementAndGet();
+                }
+            }
+            return false;
+        }
+
+        Job job = new Job(risk.householdId(), today, risk.riskLevel(), risk.commonDataRatio(), sequence++, now);
+        job.prewarm = prewarm;
+        jobs.put(key, job);
+        queue.add(job);
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 기존 작업을 미리 만들기 대상으로 - 대기 중이면 순서만 앞당기고, 실행 중이면 결과만 넘기고,
+     * 끝난 작업(이전 단계의 분석)은 새 위험도로 다시 대기열에 넣는다. 다시 넣었으면 true
+     */
+    private boolean promote(Job job, HouseholdRisk risk, LocalDateTime now) {
+        if (job.status == TriageJob.Status.RUNNING) {
+            job.prewarm = true;
+            collapsed.incrementAndGet();
+            return false;
+        }
+        boolean queued = job.status == TriageJob.Status.QUEUED;
+        if (queued && !job.retryPending && !queue.remove(job)) {
+            job.prewarm = true; // 작업 스레드가 막 꺼냄
+            collapsed.incrementAndGet();
+            return false;
+        }
+        job.prewarm = true;
+        job.riskLevel = risk.riskLevel();
+        job.commonDataRatio = risk.commonDataRatio();
+        if (!queued) {
+            job.status = TriageJob.Status.QUEUED;
+            job.attempts = 0;
+            job.enqueuedAt = now;
+            job.startedAt = null;
+            job.completedAt = null;
+            job.result = null;
+            job.queuedAtMs = System.currentTimeMillis();
+            enqueued.incrementAndGet();
+        } else {
+            reprioritized.incrementAndGet();
+        }
+        if (!job.retryPending) {
+            queue.add(job); // 재시도 대기 중이면 대기 시간이 끝날 때 돌아간다
+        }
+        return !queued;
+    }
+
+    /**
+     * 지난 날짜의 작업 정리 - 대기 중이던 것도 버린다 (오늘 스캔에서 다시 등록됨)
+     */
+    private void pruneBefore(LocalDate today) {
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            if (job.day.isBefore(today)) {
+                if (job.status == TriageJob.Status.QUEUED) {
+                    queue.remove(job);
+                }
+                iterator.remove();
+            }
+        }
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Job job = queue.take();
+                awaitRateSlot();
+                run(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("AI 선별 분석 작업 처리 실패", e);
+            }
+        }
+    }
+
+    private void run(Job job) {
+        long waited = System.currentTimeMillis() - job.queuedAtMs;
+        starts.incrementAndGet();
+        totalWaitMs.addAndGet(waited);
+        maxWaitMs.accumulateAndGet(waited, Math::max);
+
+        synchronized (this) {
+            job.status = TriageJob.Status.RUNNING;
+            job.startedAt = timeWindows.now();
+            job.attempts++;
+        }
+        running.incrementAndGet();
+        try {
+            AlertResponse response = bedrockService.analyzeHouseholdRiskAsync(job.householdId).join();
+            if (response != null && response.isFallback() && job.attempts < Math.max(1, maxAttempts)) {
+                // Bedrock 차단/장애로 규칙 기반 응답 - 잠시 후 모델 분석을 다시 시도 (마지막 시도면 규칙 기반 결과라도 보관)
+                retry(job);
+                return;
+            }
+            // "확인필요"는 데이터 부족 / 모델 오류 응답 - 보관하지 않음
+            boolean ok = response != null && !"확인필요".equals(response.getRiskLevel());
+            complete(job, ok ? response : null);
+            logger.debug("AI 선별 분석 {}: householdId={}, 대기 {}ms", ok ? "완료" : "실패", job.householdId, waited);
+
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RejectedExecutionException && job.attempts < Math.max(1, maxAttempts)) {
+                // 화면 요청으로 호출 한도가 찼음 - 잠시 후 다시 대기열로
+                retry(job);
+            } else {
+                logger.warn("AI 선별 분석 실패: householdId={}, {}", job.householdId, cause.getMessage());
+                complete(job, null);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("AI 선별 분석 실패: householdId={}, {}", job.householdId, e.getMessage());
+            complete(job, null);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    /**
+     * 잠시 후 다시 시도 - 바로 대기 상태로 돌려 작업 스레드를 놓아주고, retryDelayMs 뒤에 대기열에 넣는다
+     */
+    private void retry(Job job) {
+        retried.incrementAndGet();
+        synchronized (this) {
+            job.status = TriageJob.Status.QUEUED;
+            job.retryPending = true;
+        }
+        retryWaiting.incrementAndGet();
+        retryScheduler.schedule(() -> requeue(job), retryDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void requeue(Job job) {
+        retryWaiting.decrementAndGet();
+        job.retryPending = false;
+        // 기다리는 동안 날짜가 바뀌어 정리된 작업은 버린다
+        if (jobs.get(new JobKey(job.householdId, job.day)) != job || job.status != TriageJob.Status.QUEUED) {
+            return;
+        }
+        job.queuedAtMs = System.currentTimeMillis();
+        queue.add(job);
+    }
+
+    private void complete(Job job, AlertResponse result) {
+        boolean prewarm;
+        String riskLevel;
+        double commonDataRatio;
+        synchronized (this) {
+            job.status = result != null ? TriageJob.Status.DONE : TriageJob.Status.FAILED;
+            job.result = result;
+            job.completedAt = timeWindows.now();
+            prewarm = job.prewarm;
+            riskLevel = job.riskLevel;
+            commonDataRatio = job.commonDataRatio;
+        }
+        (result != null ? completed : failed).incrementAndGet();
+        if (prewarm) {
+            aiPrewarmPipeline.onAnalyzed(job.householdId, job.day, riskLevel, commonDataRatio, result);
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (recentCompletions) {
+            recentCompletions.addLast(now);
+            pruneCompletions(now);
+        }
+    }
+
+    /**
+     * app.triage.maxPerMinute에 맞춰 작업 시작 간격 유지
+     */
+    private void awaitRateSlot() throws InterruptedException {
+        if (maxPerMinute <= 0) {
+            return;
+        }
+        long interval = 60_000L / maxPerMinute;
+        long now = System.currentTimeMillis();
+        long startAt;
+        synchronized (rateLock) {
+            startAt = Math.max(now, nextStartAtMs);
+            nextStartAtMs = startAt + interval;
+        }
+        if (startAt > now) {
+            Thread.sleep(startAt - now);
+        }
+    }
+
+    private void pruneCompletions(long now) {
+        while (!recentCompletions.isEmpty() && now - recentCompletions.peekFirst() > THROUGHPUT_WINDOW_MS) {
+            recentCompletions.pollFirst();
+        }
+    }
+
+    /**
+     * 오늘 작업 목록 - 실행 중, 대기(우선순위 순), 완료/실패(최근 순)
+     */
+    public synchronized List<TriageJob> getJobs() {
+        List<Job> ordered = new ArrayList<>(jobs.values());
+        ordered.sort((a, b) -> {
+            int byStatus = Integer.compare(statusRank(a.status), statusRank(b.status));
+            if (byStatus != 0) {
+                return byStatus;
+            }
+            return a.status == TriageJob.Status.QUEUED
+                    ? PRIORITY.compare(a, b)
+                    : Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()).compare(a.completedAt, b.completedAt);
+        });
+        return ordered.stream().map(Job::view).toList();
+    }
+
+    /**
+     * 가구의 오늘 선별 분석 작업 (없으면 null)
+     */
+    public synchronized TriageJob getJob(int householdId) {
+        Job job = jobs.get(new JobKey(householdId, timeWindows.today()));
+        return job != null ? job.view() : null;
+    }
+
+    public Map<String, Object> getStats() {
+        long throughput;
+        synchronized (recentCompletions) {
+            pruneCompletions(System.currentTimeMillis());
+            throughput = recentCompletions.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("concurrency", concurrency);
+        stats.put("maxPerMinute", maxPerMinute);
+        stats.put("depth", queue.size());
+        stats.put("running", running.get());
+        stats.put("enqueued", enqueued.get());
+        stats.put("collapsed", collapsed.get());
+        stats.put("reprioritized", reprioritized.get());
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("retried", retried.get());
+        stats.put("retryWaiting", retryWaiting.get());
+        stats.put("avgWaitMs", starts.get() == 0 ? 0 : totalWaitMs.get() / starts.get());
+        stats.put("maxWaitMs", maxWaitMs.get());
+        stats.put("completedLastMinute", throughput);
+        return stats;
+    }
+
+    private static int statusRank(TriageJob.Status status) {
+        return status == TriageJob.Status.RUNNING ? 0 : status == TriageJob.Status.QUEUED ? 1 : 2;
+    }
+
+    private static int severityRank(String riskLevel) {
+        return "심각".equals(riskLevel) ? 0 : "의심".equals(riskLevel) ? 1 : 2;
+    }
+
+    private record JobKey(int householdId, LocalDate day) {
+    }
+
+    /**
+     * 작업 한 건 - 상태 필드는 AITriageQueue로 동기화, 정렬 필드는 큐 밖에서만 바꾼다
+     */
+    private static final class Job {
+
+        private final int householdId;
+        private final LocalDate day;
+        private final long sequence;
+        private LocalDateTime enqueuedAt;
+        private String riskLevel;
+        private double commonDataRatio;
+        private boolean prewarm; // 미리 만들기 대상 - 정렬 필드
+        private boolean retryPending; // 재시도 대기 중 (QUEUED지만 큐 밖에 있음)
+        private TriageJob.Status status = TriageJob.Status.QUEUED;
+        private int attempts;
+        private long queuedAtMs = System.currentTimeMillis();
+        private LocalDateTime startedAt;
+        private LocalDateTime completedAt;
+        private AlertResponse result;
+
+        Job(int householdId, LocalDate day, String riskLevel, double commonDataRatio, long sequence,
+            LocalDateTime enqueuedAt) {
+            this.householdId = householdId;
+            this.day = day;
+            this.riskLevel = riskLevel;
+            this.commonDataRatio = commonDataRatio;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        TriageJob view() {
+            return new TriageJob(householdId, day, riskLevel, commonDataRatio, status, attempts,
+                    enqueuedAt, startedAt, completedAt, result);
+        }
+    }
+}
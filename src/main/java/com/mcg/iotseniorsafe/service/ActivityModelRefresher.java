@@ -0,0 +1,199 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import com.mcg.iotseniorsafe.repository.SensorSummaryStore;
+import com.mcg.iotseniorsafe.repository.SensorTableCatalog;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 인메모리 활동 모델(HouseholdActivityModel) 갱신
+ * - 날짜가 바뀌었거나 일정 시간이 지나면 어제/오늘 전체 재적재 (새 가구 테이블 반영)
+ * - 그 외에는 마지막 갱신 시각이 속한 시간대 이후의 집계만 가져와 비트 OR로 반영
+ * - 조회에 실패한 가구는 0으로 평가하지 않는다 (이전 값 유지 또는 평가 제외, 갱신 시각도 올리지 않음)
+ */
+@Component
+public class ActivityModelRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityModelRefresher.class);
+
+    private final HouseholdActivityModel activityModel;
+    private final SensorSummaryStore sensorSummaryStore;
+    private final SensorTableCatalog sensorTableCatalog;
+    private final TimeWindows timeWindows;
+
+    @Value("${app.risk.batchChunkSize:50}")
+    private int chunkSize;
+
+    @Value("${app.activity.fullReloadMinutes:60}")
+    private long fullReloadMinutes;
+
+    private LocalDateTime lastFullReload;
+    private LocalDateTime lastRefresh;
+
+    @Autowired
+    public ActivityModelRefresher(HouseholdActivityModel activityModel, SensorSummaryStore sensorSummaryStore,
+                                  SensorTableCatalog sensorTableCatalog, TimeWindows timeWindows) {
+        this.activityModel = activityModel;
+        this.sensorSummaryStore = sensorSummaryStore;
+        this.sensorTableCatalog = sensorTableCatalog;
+        this.timeWindows = timeWindows;
+    }
+
+    @Scheduled(initialDelayString = "${app.activity.initialDelayMs:5000}",
+            fixedDelayString = "${app.activity.refreshIntervalMs:60000}")
+    public synchronized void refresh() {
+        LocalDateTime now = timeWindows.now();
+        try {
+            boolean dayChanged = !now.toLocalDate().equals(activityModel.getDay());
+            boolean reloadDue = lastFullReload == null
+                    || Duration.between(lastFullReload, now).toMinutes() >= fullReloadMinutes;
+
+            boolean complete = !activityModel.isReady() || dayChanged || reloadDue
+                    ? fullReload(now)
+                    : incrementalRefresh(now);
+            if (complete) {
+                lastRefresh = now;
+            } else if (lastRefresh == null || !lastRefresh.toLocalDate().equals(now.toLocalDate())) {
+                // 조회에 실패한 가구가 있으면 갱신 시각을 올리지 않음 - 다음 증분 갱신에서 그 시간대를 다시 읽는다
+                lastRefresh = now.toLocalDate().atStartOfDay();
+            }
+        } catch (Exception e) {
+            logger.error("활동 모델 갱신 실패", e);
+        }
+    }
+
+    /**
+     * 어제/오늘 전체 재적재 후 모델 교체
+     * 조회에 실패한 가구는 같은 날의 이전 모델 항목을 그대로 쓰고, 그것도 없으면 모델에서 빼고 평가 불가로 기록한다
+     * (데이터가 없는 것으로 평가해 심각으로 잘못 분류하지 않도록). 모든 가구를 읽었으면 true
+     */
+    private boolean fullReload(LocalDateTime now) {
+        long start = System.currentTimeMillis();
+        LocalDate today = now.toLocalDate();
+
+        List<Integer> secondaryIds = sensorTableCatalog.householdIds(SensorSource.SECONDARY);
+        Set<Integer> primaryOnly = new TreeSet<>(sensorTableCatalog.householdIds(SensorSource.PRIMARY));
+        primaryOnly.removeAll(secondaryIds);
+
+        HouseholdActivityModel.Store store = activityModel.newStore(today, secondaryIds.size() + primaryOnly.size());
+        List<Integer> failed = new ArrayList<>();
+        failed.addAll(load(store, SensorSource.SECONDARY, new ArrayList<>(secondaryIds), today, null));
+        failed.addAll(load(store, SensorSource.PRIMARY, new ArrayList<>(primaryOnly), today, null));
+
+        List<Integer> excluded = new ArrayList<>();
+        for (int householdId : failed) {
+            if (!activityModel.carryOver(store, householdId)) {
+                excluded.add(householdId);
+            }
+        }
+        store.markUnevaluated(excluded);
+        activityModel.publish(store);
+        lastFullReload = now;
+
+        if (failed.isEmpty()) {
+            logger.info("활동 모델 전체 적재 완료 - 가구: {}, {}ms",
+                    secondaryIds.size() + primaryOnly.size(), System.currentTimeMillis() - start);
+        } else {
+            logger.warn("활동 모델 전체 적재 완료 (일부 실패) - 가구: {}, 실패: {} (이전 값 유지: {}, 제외: {}), {}ms",
+                    secondaryIds.size() + primaryOnly.size(), failed.size(), failed.size() - excluded.size(), excluded.size(),
+                    System.currentTimeMillis() - start);
+        }
+        return failed.isEmpty();
+    }
+
+    /**
+     * 마지막 갱신 시각이 속한 시간대부터 다시 집계해 반영 - 모든 가구를 읽었으면 true
+     */
+    private boolean incrementalRefresh(LocalDateTime now) {
+        LocalDateTime since = lastRefresh.truncatedTo(ChronoUnit.HOURS);
+        List<Integer> secondaryIds = new ArrayList<>();
+        List<Integer> primaryIds = new ArrayList<>();
+        for (int householdId : activityModel.householdIds()) {
+            (activityModel.source(householdId) == SensorSource.SECONDARY ? secondaryIds : primaryIds).add(householdId);
+        }
+
+        int failed = load(null, SensorSource.SECONDARY, secondaryIds, now.toLocalDate(), since).size()
+                + load(null, SensorSource.PRIMARY, primaryIds, now.toLocalDate(), since).size();
+        logger.debug("활동 모델 증분 갱신 - since: {}, 가구: {}, 실패: {}", since, secondaryIds.size() + primaryIds.size(), failed);
+        return failed == 0;
+    }
+
+    /**
+     * 청크 단위 적재 - 청크 조회가 실패하면 가구별로 다시 시도한다 (테이블 하나의 문제로 청크 전체를 잃지 않도록)
+     * store가 있으면 조회에 성공한 가구만 등록하고, null이면 현재 모델에 직접 반영 (비트 OR이라 다시 읽어도 결과 동일)
+     * 끝내 읽지 못한 가구 ID 반환
+     */
+    private List<Integer> load(HouseholdActivityModel.Store store, SensorSource source, List<Integer> householdIds,
+                               LocalDate today, LocalDateTime since) {
+        List<Integer> failed = new ArrayList<>();
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < householdIds.size(); from += size) {
+            List<Integer> chunk = householdIds.subList(from, Math.min(from + size, householdIds.size()));
+            try {
+                loadChunk(store, source, chunk, today, since);
+            } catch (Exception e) {
+                logger.warn("{} 활동 모델 청크 적재 실패, 가구별 재시도 - {}가구: {}", source, chunk.size(), e.getMessage());
+                for (int householdId : chunk) {
+                    try {
+                        loadChunk(store, source, List.of(householdId), today, since);
+                    } catch (Exception ex) {
+                        logger.warn("가구 {} 활동 모델 적재 실패: {}", householdId, ex.getMessage());
+                        failed.add(householdId);
+                    }
+                }
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 청크 하나 조회 - store에는 조회가 끝까지 성공한 경우에만 반영한다 (중간에 실패한 청크의 일부 행이 남지 않도록)
+     */
+    private void loadChunk(HouseholdActivityModel.Store store, SensorSource source, List<Integer> chunk,
+                           LocalDate today, LocalDateTime since) {
+        List<HourRow> rows = new ArrayList<>();
+        RowCallbackHandler handler = rs -> {
+            HourRow row = new HourRow(rs.getInt("household_id"), rs.getInt("day_offset"), rs.getInt("hour"),
+                    rs.getInt("led_active") > 0, rs.getInt("occupied") > 0, rs.getInt("noisy") > 0);
+            if (store != null) {
+                rows.add(row);
+            } else {
+                activityModel.recordHour(row.householdId(), source, row.dayOffset(), row.hour(),
+                        row.led(), row.occupied(), row.noisy());
+            }
+        };
+
+        if (since == null) {
+            sensorSummaryStore.streamHourlyActivity(source, chunk, today, handler);
+        } else {
+            sensorSummaryStore.streamHourlyActivitySince(source, chunk, today, since, handler);
+        }
+
+        if (store != null) {
+            chunk.forEach(id -> store.register(id, source));
+            for (HourRow row : rows) {
+                store.recordHour(row.householdId(), source, row.dayOffset(), row.hour(),
+                        row.led(), row.occupied(), row.noisy());
+            }
+        }
+    }
+
+    private record HourRow(int householdId, int dayOffset, int hour, boolean led, boolean occupied, boolean noisy) {
+    }
+}
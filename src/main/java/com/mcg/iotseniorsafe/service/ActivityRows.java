@@ -0,0 +1,97 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 활동 데이터 행(Map) 읽기
+ * 시간대별 집계 행(hour, led_active, occupied, noisy)과 센서 원본 행
+ * (recorded_at, led_master_room.., is_occupied, is_noisy)을 같은 방식으로 해석한다.
+ * Primary(LED만) 집계 행처럼 없는 컬럼은 비활성으로 본다.
+ */
+final class ActivityRows {
+
+    // foldHours 결과 배열 인덱스
+    static final int PRESENT = 0, LED = 1, OCCUPIED = 2, NOISY = 3;
+
+    private ActivityRows() {
+    }
+
+    /**
+     * 하루치 행을 시간대별 24비트 마스크(데이터 있음 / LED / 재실 / 소음)로 접기 (같은 시간대의 행이 여러 개여도 한 시간)
+     */
+    static void foldHours(List<Map<String, Object>> rows, int[] masks) {
+        for (Map<String, Object> row : rows) {
+            int hour = hour(row);
+            if (hour < 0 || hour > 23) {
+                continue;
+            }
+            int bit = 1 << hour;
+            masks[PRESENT] |= bit;
+            if (isLedActive(row)) masks[LED] |= bit;
+            if (isOccupied(row)) masks[OCCUPIED] |= bit;
+            if (isNoisy(row)) masks[NOISY] |= bit;
+        }
+    }
+
+    /**
+     * 시간대 (0~23) - hour 컬럼, 없으면 recorded_at에서 추출, 둘 다 없으면 -1
+     */
+    static int hour(Map<String, Object> row) {
+        Object hour = row.get("hour");
+        if (hour instanceof Number number) {
+            return number.intValue();
+        }
+        Object recordedAt = row.get("recorded_at");
+        if (recordedAt instanceof LocalDateTime dateTime) {
+            return dateTime.getHour();
+        }
+        if (recordedAt instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().getHour();
+        }
+        return -1;
+    }
+
+    /**
+     * LED 활동 여부 - 집계 행은 led_active, 원본 행은 방별 LED 중 하나라도 켜짐
+     */
+    static boolean isLedActive(Map<String, Object> row) {
+        if (row.containsKey("led_active")) {
+            return flag(row, "led_active");
+        }
+        return flag(row, "led_master_room") ||
+                flag(row, "led_living_room") ||
+                flag(row, "led_kitchen") ||
+                flag(row, "led_toilet");
+    }
+
+    static boolean isOccupied(Map<String, Object> row) {
+        return flag(row, "occupied") || flag(row, "is_occupied");
+    }
+
+    static boolean isNoisy(Map<String, Object> row) {
+        return flag(row, "noisy") || flag(row, "is_noisy");
+    }
+
+    /**
+     * 두 행에 같은 종류의 활동이 하나라도 있는지
+     */
+    static boolean hasCommonActivity(Map<String, Object> a, Map<String, Object> b) {
+        return (isLedActive(a) && isLedActive(b)) ||
+                (isOccupied(a) && isOccupied(b)) ||
+                (isNoisy(a) && isNoisy(b));
+    }
+
+    /**
+     * Boolean 값 안전하게 추출
+     */
+    static boolean flag(Map<String, Object> row, String key) {
+        Object value = row.get(key);
+        if (value == null) return false;
+        if (value instanceof Boolean) return (Boolean) value;
+        if (value instanceof Number) return ((Number) value).intValue() != 0;
+        return false;
+    }
+}
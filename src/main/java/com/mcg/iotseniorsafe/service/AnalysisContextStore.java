@@ -0,0 +1,116 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.dto.AlertResponse;
+import com.mcg.iotseniorsafe.dto.HouseholdComparisonDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 가구 분석 컨텍스트 (analyze-household → generate-report 사이 재사용)
+ * - 분석할 때 읽은 어제/오늘 데이터, 공통 활동 비율, 1차 분석 결과를 분석 ID로 잠시 보관한다.
+ * - 신고 문서 생성은 분석 ID로 이 컨텍스트를 꺼내 쓰므로 DB를 다시 조회하지 않고 요청 본문도 필요 없다.
+ * - 메모리는 app.analysisContext.maxEntries개까지 LRU, 항목마다 app.analysisContext.ttlMs 후 만료
+ */
+@Component
+public class AnalysisContextStore {
+
+    private final Clock clock;
+
+    @Value("${app.analysisContext.ttlMs:1800000}")
+    private long ttlMs;
+
+    @Value("${app.analysisContext.maxEntries:500}")
+    private int maxEntries;
+
+    private final LinkedHashMap<String, Context> contexts = new LinkedHashMap<>(64, 0.75f, true); // this로 동기화
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    @Autowired
+    public AnalysisContextStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * 분석 컨텍스트 보관 - 새 분석 ID 반환
+     */
+    public String put(HouseholdComparisonDto comparisonData, double commonDataRatio, String riskLevel,
+                      AlertResponse analysis) {
+        String analysisId = UUID.randomUUID().toString();
+        long now = clock.millis();
+        Context context = new Context(analysisId, comparisonData.getHouseholdId(), comparisonData,
+                commonDataRatio, riskLevel, analysis, now, now + ttlMs);
+
+        synchronized (this) {
+            contexts.put(analysisId, context);
+            Iterator<Context> oldest = contexts.values().iterator();
+            while (contexts.size() > Math.max(1, maxEntries) && oldest.hasNext()) {
+                oldest.next();
+                oldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        stored.incrementAndGet();
+        return analysisId;
+    }
+
+    /**
+     * 가구의 유효한 분석 컨텍스트 (분석 ID가 없거나 다른 가구의 것이거나 만료됐으면 null)
+     */
+    public Context get(int householdId, String analysisId) {
+        if (analysisId == null || analysisId.isBlank()) {
+            return null;
+        }
+        long now = clock.millis();
+        Context context;
+        synchronized (this) {
+            context = contexts.get(analysisId);
+            if (context != null && context.expiresAtMs() <= now) {
+                contexts.remove(analysisId);
+                expirations.incrementAndGet();
+                context = null;
+            }
+        }
+        if (context == null || context.householdId() != householdId) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return context;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("entries", contexts.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMs", ttlMs);
+        stats.put("stored", stored.get());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    /**
+     * 분석 한 건의 입력과 결과
+     */
+    public record Context(String analysisId, int householdId, HouseholdComparisonDto comparisonData,
+                          double commonDataRatio, String riskLevel, AlertResponse analysis,
+                          long createdAtMs, long expiresAtMs) {
+    }
+}
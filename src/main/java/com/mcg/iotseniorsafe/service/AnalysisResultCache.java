@@ -0,0 +1,185 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcg.iotseniorsafe.repository.AIAnalysisLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bedrock 분석 결과 캐시 (프롬프트 내용 기준)
+ * - 키는 모델 + 요청 종류 + 프롬프트의 SHA-256. 가구 데이터가 그대로면 프롬프트도 같으므로 모델을 다시 부르지 않는다.
+ * - 값은 모델 응답 원문 - 꺼낼 때마다 새로 파싱하므로 호출 측이 AlertResponse를 고쳐도 캐시에 영향 없음
+ * - 메모리는 app.aiCache.maxEntries개까지 LRU, 항목마다 app.aiCache.ttlMs 후 만료
+ * - app.aiCache.persistent=true면 ai_analysis_log의 prompt_hash / expires_at 행을 재시작 후에도 재사용한다.
+ */
+@Component
+public class AnalysisResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisResultCache.class);
+
+    private final AIAnalysisLogRepository aiAnalysisLogRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Value("${app.aiCache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.aiCache.ttlMs:21600000}")
+    private long ttlMs;
+
+    @Value("${app.aiCache.maxEntries:1000}")
+    private int maxEntries;
+
+    @Value("${app.aiCache.persistent:true}")
+    private boolean persistent;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true); // this로 동기화
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong savedLatencyMs = new AtomicLong();
+
+    @Autowired
+    public AnalysisResultCache(AIAnalysisLogRepository aiAnalysisLogRepository, ObjectMapper objectMapper, Clock clock) {
+        this.aiAnalysisLogRepository = aiAnalysisLogRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * 캐시 키 - SHA-256(모델, 요청 종류, 프롬프트) 16진수 64자
+     */
+    public static String key(String model, String requestType, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(requestType.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+
+    /**
+     * 유효한 캐시 항목 (메모리 → ai_analysis_log 순), 없으면 null
+     */
+    public Entry get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        long now = clock.millis();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAtMs() > now) {
+                    hits.incrementAndGet();
+                    savedLatencyMs.addAndGet(entry.modelLatencyMs());
+                    return entry;
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+        }
+
+        if (persistent) {
+            try {
+                AIAnalysisLogRepository.CachedResponse row =
+                        aiAnalysisLogRepository.findCachedResponse(key, LocalDateTime.now(clock));
+                if (row != null) {
+                    JsonNode response = objectMapper.readTree(row.aiResponse()).get("response");
+                    if (response != null && response.isTextual()) {
+                        Entry entry = new Entry(response.asText(), row.processingTimeMs(),
+                                row.expiresAt().atZone(clock.getZone()).toInstant().toEpochMilli());
+                        store(key, entry);
+                        persistentHits.incrementAndGet();
+                        savedLatencyMs.addAndGet(entry.modelLatencyMs());
+                        return entry;
+                    }
+                }
+            } catch (Exception e) {
+                // 영속 캐시 조회 실패는 미스로 처리 (모델 호출로 진행)
+                logger.warn("AI 분석 캐시 조회 실패: {}", e.getMessage());
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 모델 응답 저장
+     * @return 영속 저장에 쓸 만료 시각 (ai_analysis_log 기록에 prompt_hash와 함께 넣는다), 영속 저장을 쓰지 않으면 null
+     */
+    public LocalDateTime put(String key, String responseText, long modelLatencyMs) {
+        if (!enabled) {
+            return null;
+        }
+        long expiresAtMs = clock.millis() + ttlMs;
+        store(key, new Entry(responseText, modelLatencyMs, expiresAtMs));
+        return persistent ? LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMs), clock.getZone()) : null;
+    }
+
+    private synchronized void store(String key, Entry entry) {
+        entries.put(key, entry);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > Math.max(1, maxEntries) && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get() + persistentHits.get();
+        long lookups = hitCount + misses.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("persistent", persistent);
+        stats.put("ttlMs", ttlMs);
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("persistentHits", persistentHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRate", lookups == 0 ? 0.0 : Math.round(hitCount * 1000.0 / lookups) / 10.0); // %
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("savedModelCalls", hitCount);
+        stats.put("savedLatencyMs", savedLatencyMs.get());
+        return stats;
+    }
+
+    /**
+     * @param responseText  모델 응답 원문
+     * @param modelLatencyMs 원래 모델 호출에 걸린 시간 (절약한 지연 시간 집계용)
+     */
+    public record Entry(String responseText, long modelLatencyMs, long expiresAtMs) {
+    }
+}
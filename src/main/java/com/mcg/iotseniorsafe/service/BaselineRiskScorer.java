@@ -0,0 +1,55 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 기준선 우선 공통 활동 비율 - 모든 평가 경로(인메모리 모델, 일괄/병렬 평가, 가구별 조회, AI 분석)가 이 클래스로 비율을 구한다.
+ * 7일 기준선이 있으면 평소 활동 시간대 대비 오늘 활동 비율, 기준선이 없거나 오늘 비교할 시간대가 없으면
+ * 각 경로가 넘긴 어제 대비 비율을 그대로 쓴다.
+ */
+@Component
+public class BaselineRiskScorer {
+
+    private static final long HOURS_MASK = 0xFFFFFFL;
+
+    private final HouseholdBaselineModel baselineModel;
+
+    @Autowired
+    public BaselineRiskScorer(HouseholdBaselineModel baselineModel) {
+        this.baselineModel = baselineModel;
+    }
+
+    /**
+     * todayActivity는 HouseholdActivityModel.todayActivity() 형식 (하위 24비트 데이터 있음, 32~55비트 활동, 없으면 -1)
+     * yesterdayRatio는 기준선으로 판단할 수 없을 때만 호출된다
+     */
+    public double commonDataRatio(int householdId, long todayActivity, DoubleSupplier yesterdayRatio) {
+        double ratio = baselineModel.score(householdId, todayActivity, HouseholdBaselineModel.SHORT_WINDOW);
+        return Double.isNaN(ratio) ? yesterdayRatio.getAsDouble() : ratio;
+    }
+
+    /**
+     * 활동 데이터 행 기준 - 기준선으로 판단할 수 없으면 scorer로 어제 대비 비율 (어제 데이터가 없으면 0)
+     */
+    public double commonDataRatio(int householdId, List<Map<String, Object>> yesterdayData,
+                                  List<Map<String, Object>> todayData, RiskScorer scorer) {
+        int[] today = new int[4];
+        ActivityRows.foldHours(todayData, today);
+        long todayActivity = todayActivity(today[ActivityRows.PRESENT],
+                today[ActivityRows.LED] | today[ActivityRows.OCCUPIED] | today[ActivityRows.NOISY]);
+        return commonDataRatio(householdId, todayActivity,
+                () -> yesterdayData.isEmpty() ? 0.0 : scorer.commonDataRatio(yesterdayData, todayData));
+    }
+
+    /**
+     * 오늘 시간대별 마스크(데이터 있음 / 활동 있음)를 todayActivity 형식으로 합치기
+     */
+    static long todayActivity(int presentMask, int activeMask) {
+        return (presentMask & HOURS_MASK) | (activeMask & HOURS_MASK) << 32;
+    }
+}
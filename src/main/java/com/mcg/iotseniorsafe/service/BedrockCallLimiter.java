@@ -0,0 +1,145 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bedrock 비동기 호출 동시 실행 수 제한 (스레드를 막지 않는 방식)
+ * - 실행 중인 호출이 maxInFlight개면 대기열에 넣고, 앞선 호출이 끝나는 시점에 다음 호출을 시작한다.
+ * - 대기열이 maxQueued개를 넘거나 대기 시간이 maxQueueWaitMs를 넘으면 RejectedExecutionException으로 실패시킨다.
+ * DataSourceBulkhead와 달리 세마포어를 기다리며 스레드를 붙잡지 않는다.
+ */
+public class BedrockCallLimiter {
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final long maxQueueWaitNanos;
+
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>(); // this로 동기화
+    private int inFlight;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder queuedCalls = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    public BedrockCallLimiter(int maxInFlight, int maxQueued, long maxQueueWaitMs) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxQueueWaitMs));
+    }
+
+    /**
+     * 허용량 안에서 비동기 호출 시작 - 자리가 없으면 대기열에 넣고 바로 반환
+     * 대기열이 가득 차면 RejectedExecutionException으로 실패한 future
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        Pending pending = new Pending(call);
+        synchronized (this) {
+            if (inFlight >= maxInFlight) {
+                if (queue.size() >= maxQueued) {
+                    rejected.increment();
+                    return CompletableFuture.failedFuture(
+                            new RejectedExecutionException("AI 분석 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."));
+                }
+                queue.add(pending);
+                queuedCalls.increment();
+                @SuppressWarnings("unchecked")
+                CompletableFuture<T> result = (CompletableFuture<T>) pending.result;
+                return result;
+            }
+            inFlight++;
+        }
+        pending.start();
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> result = (CompletableFuture<T>) pending.result;
+        return result;
+    }
+
+    /**
+     * 호출 하나가 끝남 - 대기 중인 호출이 있으면 자리를 넘겨주고, 없으면 반납
+     */
+    private void release() {
+        while (true) {
+            Pending next;
+            synchronized (this) {
+                next = queue.poll();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            if (System.nanoTime() - next.enqueuedAt > maxQueueWaitNanos) {
+                expired.increment();
+                next.result.completeExceptionally(
+                        new RejectedExecutionException("AI 분석 대기 시간이 초과되었습니다. 잠시 후 다시 시도해주세요."));
+                continue; // 자리는 그대로 다음 대기 호출에 넘김
+            }
+            next.start();
+            return;
+        }
+    }
+
+    public int getMaxInFlight() { return maxInFlight; }
+    public int getMaxQueued() { return maxQueued; }
+    public synchronized int getInFlight() { return inFlight; }
+    public synchronized int getQueued() { return queue.size(); }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("maxQueued", maxQueued);
+        stats.put("inFlight", getInFlight());
+        stats.put("queued", getQueued());
+        stats.put("calls", calls.sum());
+        stats.put("queuedCalls", queuedCalls.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("expired", expired.sum());
+        stats.put("failed", failed.sum());
+        stats.put("totalQueueWaitMs", queueWaitNanos.sum() / 1_000_000);
+        return stats;
+    }
+
+    /**
+     * 시작 전 호출 하나 (대기열 항목)
+     */
+    private final class Pending {
+
+        private final Supplier<? extends CompletableFuture<?>> call;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        Pending(Supplier<? extends CompletableFuture<?>> call) {
+            this.call = call;
+        }
+
+        void start() {
+            calls.increment();
+            queueWaitNanos.add(System.nanoTime() - enqueuedAt);
+
+            CompletableFuture<?> future;
+            try {
+                future = call.get();
+            } catch (Throwable e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> {
+                release(); // 결과 전달 전에 자리부터 넘김 - 후속 처리가 길어도 다음 호출이 밀리지 않도록
+                if (error != null) {
+                    failed.increment();
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bedrock 호출 회로 차단기
+ * - CLOSED: 최근 windowMs 동안 호출이 minCalls건 이상이고 실패율이나 느린 호출 비율이 기준 이상이면 OPEN
+ * - OPEN: openMs 동안 호출하지 않고 바로 거절 (호출 쪽은 규칙 기반 대체 응답을 쓴다)
+ * - HALF_OPEN: openMs가 지나면 halfOpenProbes건만 시험 호출 - 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN
+ * 통계는 windowMs를 BUCKETS개 칸으로 나눈 시간 창에서 센다 (오래된 칸은 재사용 시 비움).
+ */
+public class BedrockCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int BUCKETS = 10;
+
+    private final boolean enabled;
+    private final long bucketNanos;
+    private final int minCalls;
+    private final int failureRatePercent;
+    private final int slowCallRatePercent;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    // this로 동기화
+    private final long[] bucketEpoch = new long[BUCKETS];
+    private final int[] bucketCalls = new int[BUCKETS];
+    private final int[] bucketFailures = new int[BUCKETS];
+    private final int[] bucketSlow = new int[BUCKETS];
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+
+    public BedrockCircuitBreaker(boolean enabled, long windowMs, int minCalls, int failureRatePercent,
+                                 int slowCallRatePercent, long openMs, int halfOpenProbes) {
+        this.enabled = enabled;
+        this.bucketNanos = Math.max(1, TimeUnit.MILLISECONDS.toNanos(Math.max(BUCKETS, windowMs)) / BUCKETS);
+        this.minCalls = Math.max(1, minCalls);
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallRatePercent = slowCallRatePercent;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, openMs));
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+
+    /**
+     * 호출해도 되는지 - true면 결과를 반드시 onSuccess / onFailure / onSkipped 중 하나로 알려야 한다
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                rejected.increment();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                rejected.increment();
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * 모델 응답 성공 - slow면 느린 호출로 센다
+     */
+    public synchronized void onSuccess(boolean slow) {
+        if (slow) {
+            slowCalls.increment();
+        }
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (slow) {
+                open();
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                close();
+            }
+            return;
+        }
+        record(false, slow);
+    }
+
+    /**
+     * 모델 호출 실패 (시간 초과, 제한, 서버 오류 등)
+     */
+    public synchronized void onFailure() {
+        failures.increment();
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true, false);
+    }
+
+    /**
+     * 허가를 받았지만 모델을 호출하지 않음 (대기열 초과 등) - 시험 호출 자리만 돌려준다
+     */
+    public synchronized void onSkipped() {
+        if (enabled && state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN; // 다음 호출이 시험 호출
+        }
+        return state;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            int calls = 0, failed = 0, slow = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (current(i, now)) {
+                    calls += bucketCalls[i];
+                    failed += bucketFailures[i];
+                    slow += bucketSlow[i];
+                }
+            }
+            stats.put("enabled", enabled);
+            stats.put("state", getState().name());
+            stats.put("windowCalls", calls);
+            stats.put("windowFailureRate", calls == 0 ? 0 : failed * 100 / calls);
+            stats.put("windowSlowCallRate", calls == 0 ? 0 : slow * 100 / calls);
+            stats.put("openRemainingMs", state == State.OPEN
+                    ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(openNanos - (now - openedAt))) : 0);
+        }
+        stats.put("opened", opened.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("failures", failures.sum());
+        stats.put("slowCalls", slowCalls.sum());
+        return stats;
+    }
+
+    private void record(boolean failed, boolean slow) {
+        long now = System.nanoTime();
+        long epoch = now / bucketNanos;
+        int index = (int) Math.floorMod(epoch, (long) BUCKETS);
+        if (bucketEpoch[index] != epoch) {
+            bucketEpoch[index] = epoch;
+            bucketCalls[index] = 0;
+            bucketFailures[index] = 0;
+            bucketSlow[index] = 0;
+        }
+        bucketCalls[index]++;
+        if (failed) bucketFailures[index]++;
+        if (slow) bucketSlow[index]++;
+
+        if (state != State.CLOSED) {
+            return;
+        }
+        int calls = 0, failedCalls = 0, slowCount = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (current(i, now)) {
+                calls += bucketCalls[i];
+                failedCalls += bucketFailures[i];
+                slowCount += bucketSlow[i];
+            }
+        }
+        if (calls >= minCalls && (failedCalls * 100 >= failureRatePercent * calls
+                || slowCount * 100 >= slowCallRatePercent * calls)) {
+            open();
+        }
+    }
+
+    private boolean current(int index, long now) {
+        return now / bucketNanos - bucketEpoch[index] < BUCKETS;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        opened.increment();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        // 차단 전 통계로 바로 다시 열리지 않도록 창을 비움
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCalls[i] = 0;
+            bucketFailures[i] = 0;
+            bucketSlow[i] = 0;
+        }
+    }
+}
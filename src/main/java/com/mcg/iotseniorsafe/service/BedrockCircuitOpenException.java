@@ -0,0 +1,14 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 회로 차단기가 열려 Bedrock을 호출하지 않음
+ * 가구 분석은 규칙 기반 대체 응답으로 바꾸고, 그 외에는 호출 수 제한 거절과 같이 503으로 응답한다.
+ */
+public class BedrockCircuitOpenException extends RejectedExecutionException {
+
+    public BedrockCircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -4,30 +4,61 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcg.iotseniorsafe.dto.AlertResponse;
 import com.mcg.iotseniorsafe.dto.HouseholdComparisonDto;
 import com.mcg.iotseniorsafe.dto.SensorDataDto;
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import com.mcg.iotseniorsafe.repository.SensorSummaryStore;
+import com.mcg.iotseniorsafe.repository.SensorTableCatalog;
+import com.mcg.iotseniorsafe.repository.TimeWindow;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
 import software.amazon.awssdk.services.bedrockruntime.model.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class BedrockService {
     private static final Logger logger = LoggerFactory.getLogger(BedrockService.class);
 
-    private final BedrockRuntimeClient client;
+    private final BedrockRuntimeAsyncClient asyncClient;
+    private final BedrockCallLimiter callLimiter;
+    private final BedrockCircuitBreaker circuitBreaker;
     private final ObjectMapper objectMapper;
 
-    @Qualifier("secondaryJdbcTemplate")
-    private final JdbcTemplate jdbcTemplate;
+    private final AIAnalysisLogWriter aiAnalysisLogWriter;
+    private final AnalysisResultCache analysisResultCache;
+    private final AnalysisContextStore analysisContextStore;
+    private final PromptTokenStats promptTokenStats;
+    private final SensorSummaryStore sensorSummaryStore;
+    private final SensorTableCatalog sensorTableCatalog;
+    private final HouseholdActivityModel activityModel;
+    private final HouseholdBaselineModel baselineModel;
+    private final RiskScorers riskScorers;
+    private final BaselineRiskScorer baselineRiskScorer;
+    private final TimeWindows timeWindows;
 
     @Value("${app.bedrock.modelId}")
     private String modelId;
@@ -35,16 +66,64 @@ public class BedrockService {
     @Value("${app.bedrock.inferenceProfileArn}")
     private String inferenceProfileArn;
 
-    // 위험도 판단 기준값
-    private static final double NORMAL_THRESHOLD = 60.0; // 60% 초과 시 정상
-    private static final double SUSPICIOUS_THRESHOLD = 60.0; // 60% 이하 시 의심
-    private static final double CRITICAL_THRESHOLD = 40.0; // 40% 이하 시 심각
+    // 공통 활동 비율 계산 방식 (RiskScorer 이름)
+    @Value("${app.bedrock.scorer:" + RowIndexRiskScorer.NAME + "}")
+    private String scorerName;
+
+    // 가구 분석 프롬프트 예상 토큰 상한 (넘으면 덜 중요한 섹션부터 뺌, 0이면 제한 없음)
+    @Value("${app.bedrock.promptTokenBudget:800}")
+    private int promptTokenBudget;
+
+    // 호출 한 건의 제한 시간 (대기열 시간 제외, 초과 시 SDK가 요청을 취소하고 실패 처리)
+    @Value("${app.bedrock.analysisDeadlineMs:20000}")
+    private long analysisDeadlineMs;
+
+    @Value("${app.bedrock.reportDeadlineMs:60000}")
+    private long reportDeadlineMs;
+
+    // 가구 분석이 이보다 오래 걸리면 회로 차단기에 느린 호출로 기록
+    @Value("${app.bedrock.slowCallMs:15000}")
+    private long slowCallMs;
+
+    // 가구 분석 응답이 이 시간 안에 없으면 같은 요청을 한 번 더 보내 먼저 온 응답을 쓴다 (0이면 사용 안 함)
+    @Value("${app.bedrock.hedgeDelayMs:0}")
+    private long hedgeDelayMs;
+
+    // 같은 가구의 동시 분석 요청을 데이터 조회 / 모델 호출 단위로 합침
+    @Value("${app.bedrock.coalesce:true}")
+    private boolean coalesce;
+
+    private final SingleFlight<String, PreparedAnalysis> dataFlight = new SingleFlight<>();
+    private final SingleFlight<String, ModelReply> modelFlight = new SingleFlight<>();
+
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong fallbackCircuitOpen = new AtomicLong();
+    private final AtomicLong fallbackErrors = new AtomicLong();
 
     @Autowired
-    public BedrockService(BedrockRuntimeClient client, ObjectMapper objectMapper, @Qualifier("secondaryJdbcTemplate") JdbcTemplate jdbcTemplate) {
-        this.client = client;
+    public BedrockService(BedrockRuntimeAsyncClient asyncClient, BedrockCallLimiter callLimiter,
+                          BedrockCircuitBreaker circuitBreaker, ObjectMapper objectMapper,
+                          AIAnalysisLogWriter aiAnalysisLogWriter, AnalysisResultCache analysisResultCache,
+                          AnalysisContextStore analysisContextStore, PromptTokenStats promptTokenStats,
+                          SensorSummaryStore sensorSummaryStore, SensorTableCatalog sensorTableCatalog,
+                          HouseholdActivityModel activityModel, HouseholdBaselineModel baselineModel,
+                          RiskScorers riskScorers, BaselineRiskScorer baselineRiskScorer, TimeWindows timeWindows) {
+        this.asyncClient = asyncClient;
+        this.callLimiter = callLimiter;
+        this.circuitBreaker = circuitBreaker;
         this.objectMapper = objectMapper;
-        this.jdbcTemplate = jdbcTemplate;
+        this.aiAnalysisLogWriter = aiAnalysisLogWriter;
+        this.analysisResultCache = analysisResultCache;
+        this.analysisContextStore = analysisContextStore;
+        this.promptTokenStats = promptTokenStats;
+        this.sensorSummaryStore = sensorSummaryStore;
+        this.sensorTableCatalog = sensorTableCatalog;
+        this.activityModel = activityModel;
+        this.baselineModel = baselineModel;
+        this.riskScorers = riskScorers;
+        this.baselineRiskScorer = baselineRiskScorer;
+        this.timeWindows = timeWindows;
     }
 
     /**
@@ -65,8 +144,45 @@ public class BedrockService {
 
     /**
      * 특정 가구의 어제-오늘 데이터 비교 분석 (새로운 메인 기능)
+     * 호출 수 제한으로 거절되면 오류 응답
      */
     public AlertResponse analyzeHouseholdRisk(int householdId) {
+        return awaitResponse(analyzeHouseholdRiskAsync(householdId));
+    }
+
+    /**
+     * 가구 위험도 분석 (비동기) - 데이터 조회/프롬프트 생성은 호출 스레드에서, Bedrock 응답 이후 처리는 SDK 완료 스레드에서
+     * 같은 프롬프트의 유효한 결과가 캐시에 있으면 모델을 호출하지 않는다 (AnalysisResultCache).
+     * 같은 가구를 동시에 분석하면 데이터 조회와 모델 호출을 한 번만 하고 결과를 나눠 받는다 (SingleFlight) -
+     * 데이터 조회는 가구 + 오늘 날짜, 모델 호출은 가구 + 프롬프트 해시(읽은 데이터의 버전)로 합친다.
+     * 회로 차단기가 열렸거나 모델 호출이 실패하면 비율과 위험도로 만든 규칙 기반 응답 (fallback=true)
+     * 데이터를 읽은 분석 결과에는 analysisId가 붙는다 - 신고 문서 생성에 넘기면 같은 데이터를 다시 조회하지 않는다.
+     * 호출 수 제한으로 거절되면 RejectedExecutionException으로 실패한 future
+     */
+    public CompletableFuture<AlertResponse> analyzeHouseholdRiskAsync(int householdId) {
+        return coalesce(dataFlight, householdId + ":" + timeWindows.today(), () -> prepareAnalysis(householdId))
+                .handle((prepared, error) -> {
+                    if (error != null) {
+                        return CompletableFuture.completedFuture(createErrorResponse());
+                    }
+                    if (prepared.comparisonData() == null) {
+                        return CompletableFuture.completedFuture(createInsufficientDataResponse());
+                    }
+                    if (prepared.prompt() == null) {
+                        return CompletableFuture.completedFuture(remember(prepared,
+                                createSafeResponse(prepared.commonDataRatio())));
+                    }
+                    return analysisReply(householdId, prepared).handle((reply, replyError) ->
+                            toAnalysisResponse(householdId, prepared, reply, replyError));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * 분석 입력 준비 - 어제/오늘 데이터 조회, 공통 활동 비율, 위험도, 프롬프트 (동시 호출끼리 공유)
+     * 데이터가 부족하면 comparisonData가 null, "정상"이면 prompt가 null
+     */
+    private CompletableFuture<PreparedAnalysis> prepareAnalysis(int householdId) {
         try {
             logger.info("가구 위험도 분석 시작: householdId={}", householdId);
 
@@ -75,7 +191,7 @@ public class BedrockService {
 
             if (comparisonData == null || !comparisonData.hasValidData()) {
                 logger.warn("가구 데이터가 충분하지 않음: householdId={}", householdId);
-                return createInsufficientDataResponse();
+                return CompletableFuture.completedFuture(new PreparedAnalysis(null, 0, null, null, null));
             }
 
             // 공통 데이터 비율 계산
@@ -83,83 +199,239 @@ public class BedrockService {
             logger.info("공통 데이터 비율 계산 완료: {}%", commonDataRatio);
 
             // 위험도 레벨 결정
-            String riskLevel = determineRiskLevel(commonDataRatio);
+            String riskLevel = RiskScorer.riskLevel(commonDataRatio);
             logger.info("위험도 레벨 결정: {}", riskLevel);
 
             if ("정상".equals(riskLevel)) {
-                return createSafeResponse(commonDataRatio);
+                return CompletableFuture.completedFuture(
+                        new PreparedAnalysis(comparisonData, commonDataRatio, riskLevel, null, null));
             }
 
             // AI 분석을 위한 프롬프트 생성
-            String prompt = buildHouseholdAnalysisPrompt(comparisonData, commonDataRatio, riskLevel);
-
-            // Bedrock 호출
-            long startTime = System.currentTimeMillis();
-            String response = callBedrock(prompt);
-            long processingTime = System.currentTimeMillis() - startTime;
-
-            logger.info("Bedrock 응답 완료: {}ms", processingTime);
+            BuiltPrompt prompt = buildHouseholdAnalysisPrompt(comparisonData, commonDataRatio, riskLevel);
+            String promptHash = AnalysisResultCache.key(modelKey(), "household_analysis", prompt.text());
+            return CompletableFuture.completedFuture(
+                    new PreparedAnalysis(comparisonData, commonDataRatio, riskLevel, prompt, promptHash));
 
-            // 응답 파싱
-            AlertResponse alertResponse = parseBedrockResponse(response);
-            alertResponse.setCommonDataRatio(commonDataRatio);
-            alertResponse.setHouseholdId(String.valueOf(householdId));
+        } catch (Exception e) {
+            logger.error("가구 위험도 분석 중 오류 발생: householdId={}", householdId, e);
+            logAIAnalysis(householdId, "household_analysis", null, null, 0, false, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            // AI 분석 로그 기록
-            logAIAnalysis(householdId, "household_analysis", prompt, response, processingTime, true, null);
+    /**
+     * 분석 모델 응답 - 캐시에 있으면 캐시, 없으면 Bedrock 호출 (동시 호출끼리 공유)
+     * 캐시 저장과 분석 로그 기록은 실제로 호출한 한 번만 한다.
+     */
+    private CompletableFuture<ModelReply> analysisReply(int householdId, PreparedAnalysis prepared) {
+        return coalesce(modelFlight, householdId + ":" + prepared.promptHash(), () -> {
+            // 데이터가 바뀌지 않았으면 이전 분석 결과 재사용
+            AnalysisResultCache.Entry cached = analysisResultCache.get(prepared.promptHash());
+            if (cached != null) {
+                logger.info("AI 분석 캐시 적중: householdId={}, 절약 {}ms", householdId, cached.modelLatencyMs());
+                return CompletableFuture.completedFuture(new ModelReply(cached.responseText(), 0, 0)); // 토큰 사용 없음
+            }
 
-            return alertResponse;
+            // Bedrock 호출
+            long startTime = System.currentTimeMillis();
+            return hedged(() -> callBedrockAsync(prepared.prompt().text(), analysisDeadlineMs, slowCallMs))
+                    .whenComplete((reply, error) -> {
+                        if (error != null) {
+                            Throwable cause = unwrap(error);
+                            if (!(cause instanceof RejectedExecutionException)) {
+                                logger.error("가구 위험도 분석 중 오류 발생 - 규칙 기반 응답: householdId={}", householdId, cause);
+
+                                // 에러 로그 기록
+                                logAIAnalysis(householdId, "household_analysis", null, null, 0, false, cause.getMessage());
+                            }
+                            return;
+                        }
+
+                        long processingTime = System.currentTimeMillis() - startTime;
+                        logger.info("Bedrock 응답 완료: {}ms", processingTime);
+
+                        // 캐시 저장 + AI 분석 로그 기록 (영속 캐시면 prompt_hash / expires_at 포함)
+                        LocalDateTime expiresAt = analysisResultCache.put(prepared.promptHash(), reply.text(), processingTime);
+                        recordSuccess(householdId, "household_analysis", prepared.prompt(), reply, processingTime,
+                                expiresAt != null ? prepared.promptHash() : null, expiresAt);
+                    });
+        });
+    }
 
-        } catch (Exception e) {
-            logger.error("가구 위험도 분석 중 오류 발생: householdId={}", householdId, e);
+    /**
+     * 호출자별 분석 응답 - 모델 응답을 각자 파싱하므로 호출자가 AlertResponse를 고쳐도 서로 영향 없음
+     */
+    private AlertResponse toAnalysisResponse(int householdId, PreparedAnalysis prepared, ModelReply reply, Throwable error) {
+        if (error != null) {
+            Throwable cause = unwrap(error);
+            if (cause instanceof BedrockCircuitOpenException) {
+                fallbackCircuitOpen.incrementAndGet();
+                logger.info("Bedrock 회로 차단 중 - 규칙 기반 응답: householdId={}", householdId);
+            } else {
+                rethrowIfRejected(cause);
+                fallbackErrors.incrementAndGet();
+            }
+            return remember(prepared,
+                    createRuleBasedResponse(householdId, prepared.commonDataRatio(), prepared.riskLevel()));
+        }
 
-            // 에러 로그 기록
-            logAIAnalysis(householdId, "household_analysis", null, null, 0, false, e.getMessage());
+        // 응답 파싱
+        AlertResponse alertResponse = parseBedrockResponse(reply.text());
+        alertResponse.setCommonDataRatio(prepared.commonDataRatio());
+        alertResponse.setHouseholdId(String.valueOf(householdId));
+        alertResponse.setTokensUsed(reply.tokensUsed(prepared.prompt()));
+        return remember(prepared, alertResponse);
+    }
 
-            return createErrorResponse();
+    /**
+     * 동시 호출 합치기 (app.bedrock.coalesce=false면 호출마다 따로 실행)
+     */
+    private <T> CompletableFuture<T> coalesce(SingleFlight<String, T> flight, String key,
+                                              Supplier<CompletableFuture<T>> call) {
+        if (coalesce) {
+            return flight.execute(key, call);
+        }
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
     /**
      * 신고용 상세 보고서 생성
+     * 호출 수 제한으로 거절되면 오류 응답
      */
     public AlertResponse generateReportingDocument(int householdId, AlertResponse initialAnalysis) {
-        try {
-            logger.info("신고 문서 생성 시작: householdId={}", householdId);
+        return awaitResponse(generateReportingDocumentAsync(householdId, null, initialAnalysis));
+    }
 
-            HouseholdComparisonDto comparisonData = getHouseholdComparisonData(householdId);
+    /**
+     * 신고용 상세 보고서 생성 (비동기)
+     * analysisId(없으면 initialAnalysis.analysisId)의 분석 컨텍스트가 남아 있으면 DB를 조회하지 않고,
+     * initialAnalysis가 없으면 컨텍스트의 1차 분석 결과를 쓴다.
+     * 컨텍스트도 initialAnalysis도 없으면 NoSuchElementException으로 실패한 future
+     * 호출 수 제한으로 거절되거나 회로 차단기가 열려 있으면 RejectedExecutionException으로 실패한 future
+     */
+    public CompletableFuture<AlertResponse> generateReportingDocumentAsync(int householdId, String analysisId,
+                                                                           AlertResponse initialAnalysis) {
+        return generateReportingDocument(householdId, analysisId, initialAnalysis,
+                prompt -> callBedrockAsync(prompt, reportDeadlineMs, 0));
+    }
+
+    /**
+     * 신고용 상세 보고서 생성 (스트리밍) - 모델이 만드는 텍스트 조각을 도착하는 대로 onText로 전달하고,
+     * 끝나면 전체 응답을 파싱한 AlertResponse로 완료한다. onText는 SDK 스레드에서 호출되므로 막지 않아야 한다.
+     * 분석 컨텍스트 사용과 실패 방식은 generateReportingDocumentAsync와 같음
+     */
+    public CompletableFuture<AlertResponse> streamReportingDocument(int householdId, String analysisId,
+                                                                    AlertResponse initialAnalysis, Consumer<String> onText) {
+        return generateReportingDocument(householdId, analysisId, initialAnalysis,
+                prompt -> callBedrockStream(prompt, onText));
+    }
+
+    private CompletableFuture<AlertResponse> generateReportingDocument(int householdId, String analysisId,
+                                                                       AlertResponse initialAnalysis,
+                                                                       Function<String, CompletableFuture<ModelReply>> bedrockCall) {
+        BuiltPrompt reportingPrompt;
+        try {
+            boolean hasInitialAnalysis = initialAnalysis != null && initialAnalysis.getRiskLevel() != null;
+            AnalysisContextStore.Context context = analysisContextStore.get(householdId,
+                    analysisId != null ? analysisId : initialAnalysis != null ? initialAnalysis.getAnalysisId() : null);
+
+            HouseholdComparisonDto comparisonData;
+            if (context != null) {
+                logger.info("신고 문서 생성 시작 (분석 컨텍스트 재사용): householdId={}, analysisId={}",
+                        householdId, context.analysisId());
+                comparisonData = context.comparisonData();
+                if (!hasInitialAnalysis) {
+                    initialAnalysis = context.analysis();
+                }
+            } else if (hasInitialAnalysis) {
+                logger.info("신고 문서 생성 시작: householdId={}", householdId);
+                comparisonData = getHouseholdComparisonData(householdId);
+            } else {
+                logger.warn("신고 문서 생성 - 분석 컨텍스트 없음: householdId={}, analysisId={}", householdId, analysisId);
+                return CompletableFuture.failedFuture(
+                        new NoSuchElementException("분석 결과가 없거나 만료되었습니다. 가구 분석을 다시 실행해주세요."));
+            }
 
             if (comparisonData == null) {
                 logger.warn("신고 문서 생성을 위한 데이터 부족: householdId={}", householdId);
-                return createInsufficientDataResponse();
+                return CompletableFuture.completedFuture(createInsufficientDataResponse());
             }
 
-            String reportingPrompt = buildReportingPrompt(comparisonData, initialAnalysis);
+            reportingPrompt = buildReportingPrompt(comparisonData, initialAnalysis);
 
-            // Bedrock 호출
-            long startTime = System.currentTimeMillis();
-            String response = callBedrock(reportingPrompt);
-            long processingTime = System.currentTimeMillis() - startTime;
+        } catch (Exception e) {
+            logger.error("신고 문서 생성 중 오류 발생: householdId={}", householdId, e);
+            logAIAnalysis(householdId, "reporting_document", null, null, 0, false, e.getMessage());
+            return CompletableFuture.completedFuture(createErrorResponse());
+        }
+
+        // Bedrock 호출
+        long startTime = System.currentTimeMillis();
+        return bedrockCall.apply(reportingPrompt.text()).handle((reply, error) -> {
+            if (error != null) {
+                Throwable cause = rethrowIfRejected(error);
+                logger.error("신고 문서 생성 중 오류 발생: householdId={}", householdId, cause);
+
+                // 에러 로그 기록
+                logAIAnalysis(householdId, "reporting_document", null, null, 0, false, cause.getMessage());
 
+                return createErrorResponse();
+            }
+
+            long processingTime = System.currentTimeMillis() - startTime;
             logger.info("신고 문서 Bedrock 응답 완료: {}ms", processingTime);
 
-            AlertResponse reportingDocument = parseBedrockResponse(response);
+            AlertResponse reportingDocument = parseBedrockResponse(reply.text());
+            reportingDocument.setTokensUsed(reply.tokensUsed(reportingPrompt));
 
             // AI 분석 로그 기록
-            logAIAnalysis(householdId, "reporting_document", reportingPrompt, response, processingTime, true, null);
+            recordSuccess(householdId, "reporting_document", reportingPrompt, reply, processingTime, null, null);
 
             return reportingDocument;
+        });
+    }
 
-        } catch (Exception e) {
-            logger.error("신고 문서 생성 중 오류 발생: householdId={}", householdId, e);
-
-            // 에러 로그 기록
-            logAIAnalysis(householdId, "reporting_document", null, null, 0, false, e.getMessage());
+    /**
+     * 분석 결과와 그 입력을 분석 컨텍스트로 보관하고 analysisId를 붙여 반환
+     */
+    private AlertResponse remember(PreparedAnalysis prepared, AlertResponse analysis) {
+        analysis.setAnalysisId(analysisContextStore.put(prepared.comparisonData(), prepared.commonDataRatio(),
+                prepared.riskLevel(), analysis));
+        return analysis;
+    }
 
+    /**
+     * 비동기 결과 대기 (동기 호출용) - 거절/실패는 오류 응답
+     */
+    private AlertResponse awaitResponse(CompletableFuture<AlertResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            logger.warn("AI 분석 요청 처리 실패: {}", e.getMessage());
             return createErrorResponse();
         }
     }
 
+    /**
+     * 호출 수 제한 / 회로 차단으로 거절된 경우는 그대로 전달 (컨트롤러에서 503), 그 외에는 원인 예외 반환
+     */
+    private static Throwable rethrowIfRejected(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof RejectedExecutionException rejected) {
+            throw rejected;
+        }
+        return cause;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
     /**
      * 어제와 오늘의 가구 데이터 조회
      */
@@ -167,32 +439,20 @@ public class BedrockService {
         try {
             String tableName = "sensor_summary_" + householdId;
 
-            // 테이블 존재 여부 확인
-            String checkTableQuery = "SELECT COUNT(*) FROM information_schema.tables " +
-                    "WHERE table_schema = DATABASE() AND table_name = ?";
-            Integer tableExists = jdbcTemplate.queryForObject(checkTableQuery, Integer.class, tableName);
-
-            if (tableExists == null || tableExists == 0) {
+            // 테이블 존재 여부 확인 (카탈로그)
+            if (!sensorTableCatalog.exists(SensorSource.SECONDARY, householdId)) {
                 logger.warn("센서 요약 테이블이 존재하지 않음: {}", tableName);
                 return null;
             }
 
-            // 어제 데이터 조회 (24시간)
-            String yesterdayQuery = String.format(
-                    "SELECT recorded_at, led_master_room, led_living_room, led_kitchen, led_toilet, " +
-                            "is_occupied, is_noisy FROM %s " +
-                            "WHERE DATE(recorded_at) = DATE(NOW() - INTERVAL 1 DAY) " +
-                            "ORDER BY recorded_at", tableName);
-
-            // 오늘 데이터 조회 (24시간)
-            String todayQuery = String.format(
-                    "SELECT recorded_at, led_master_room, led_living_room, led_kitchen, led_toilet, " +
-                            "is_occupied, is_noisy FROM %s " +
-                            "WHERE DATE(recorded_at) = DATE(NOW()) " +
-                            "ORDER BY recorded_at", tableName);
+            TimeWindow yesterday = timeWindows.day(1);
+            TimeWindow today = timeWindows.day(0);
 
-            List<Map<String, Object>> yesterdayData = jdbcTemplate.queryForList(yesterdayQuery);
-            List<Map<String, Object>> todayData = jdbcTemplate.queryForList(todayQuery);
+            // 어제 / 오늘 데이터 조회 (24시간, 시간순)
+            List<Map<String, Object>> yesterdayData = sensorSummaryStore.findRecords(
+                    SensorSource.SECONDARY, householdId, yesterday, false, 0, new ColumnMapRowMapper());
+            List<Map<String, Object>> todayData = sensorSummaryStore.findRecords(
+                    SensorSource.SECONDARY, householdId, today, false, 0, new ColumnMapRowMapper());
 
             logger.debug("데이터 조회 완료 - 어제: {}시간, 오늘: {}시간", yesterdayData.size(), todayData.size());
 
@@ -205,7 +465,7 @@ public class BedrockService {
     }
 
     /**
-     * 어제와 오늘 데이터의 공통 활동 비율 계산
+     * 공통 활동 비율 계산 (7일 기준선 우선, 없으면 어제 대비)
      */
     private double calculateCommonDataRatio(HouseholdComparisonDto comparisonData) {
         List<Map<String, Object>> yesterdayData = comparisonData.getYesterdayData();
@@ -216,140 +476,65 @@ public class BedrockService {
             return 0.0;
         }
 
-        int commonActivityHours = 0;
-        int totalHours = Math.min(yesterdayData.size(), todayData.size());
-
-        for (int i = 0; i < totalHours; i++) {
-            Map<String, Object> yesterdayHour = yesterdayData.get(i);
-            Map<String, Object> todayHour = todayData.get(i);
-
-            // 각 시간대별 활동 패턴 비교
-            boolean hasCommonActivity = compareHourlyActivity(yesterdayHour, todayHour);
-            if (hasCommonActivity) {
-                commonActivityHours++;
-            }
-        }
-
-        double ratio = totalHours > 0 ? (double) commonActivityHours / totalHours * 100 : 0.0;
-        logger.debug("공통 활동 계산: {}/{}시간 = {}%", commonActivityHours, totalHours, ratio);
+        // 기준선 우선, 없으면 어제 대비
+        double ratio = baselineRiskScorer.commonDataRatio(comparisonData.getHouseholdId(), yesterdayData, todayData,
+                riskScorers.get(scorerName));
+        logger.debug("공통 활동 계산 ({}): {}%", scorerName, ratio);
 
         return ratio;
     }
 
-    /**
-     * 시간대별 활동 패턴 비교
-     */
-    private boolean compareHourlyActivity(Map<String, Object> yesterdayHour, Map<String, Object> todayHour) {
-        // LED 센서 활동 비교
-        boolean ledActivityYesterday = isAnyLedActive(yesterdayHour);
-        boolean ledActivityToday = isAnyLedActive(todayHour);
-
-        // 재실 감지 센서 비교
-        boolean occupancyYesterday = getBooleanValue(yesterdayHour, "is_occupied");
-        boolean occupancyToday = getBooleanValue(todayHour, "is_occupied");
-
-        // 소음 감지 센서 비교
-        boolean noiseYesterday = getBooleanValue(yesterdayHour, "is_noisy");
-        boolean noiseToday = getBooleanValue(todayHour, "is_noisy");
-
-        // 하나라도 공통 활동이 있으면 true
-        return (ledActivityYesterday && ledActivityToday) ||
-                (occupancyYesterday && occupancyToday) ||
-                (noiseYesterday && noiseToday);
-    }
-
-    /**
-     * LED 센서 중 하나라도 활성화되어 있는지 확인
-     */
-    private boolean isAnyLedActive(Map<String, Object> hourData) {
-        return getBooleanValue(hourData, "led_master_room") ||
-                getBooleanValue(hourData, "led_living_room") ||
-                getBooleanValue(hourData, "led_kitchen") ||
-                getBooleanValue(hourData, "led_toilet");
-    }
-
-    /**
-     * Boolean 값 안전하게 추출
-     */
-    private boolean getBooleanValue(Map<String, Object> data, String key) {
-        Object value = data.get(key);
-        if (value == null) return false;
-        if (value instanceof Boolean) return (Boolean) value;
-        if (value instanceof Number) return ((Number) value).intValue() != 0;
-        return false;
-    }
-
-    /**
-     * 공통 데이터 비율에 따른 위험도 결정
-     */
-    private String determineRiskLevel(double commonDataRatio) {
-        if (commonDataRatio > NORMAL_THRESHOLD) {
-            return "정상";
-        } else if (commonDataRatio <= CRITICAL_THRESHOLD) {
-            return "심각";
-        } else {
-            return "의심";
-        }
-    }
-
     /**
      * 가구 분석용 프롬프트 생성
+     * 시간대별 활동은 0~23시를 한 글자씩 쓴 표로 압축한다.
+     * app.bedrock.promptTokenBudget을 넘으면 기준선 확률 → 기준선 → 하루 요약 → 시간대 표 순으로 뺀다.
      */
-    private String buildHouseholdAnalysisPrompt(HouseholdComparisonDto comparisonData,
-                                                double commonDataRatio, String riskLevel) {
-        StringBuilder prompt = new StringBuilder();
-
-        prompt.append("독거노인 가구의 IoT 센서 데이터를 분석하여 위험 상황을 판단해주세요.\n\n");
-
-        prompt.append("### 분석 개요:\n");
-        prompt.append(String.format("- 가구 ID: %d\n", comparisonData.getHouseholdId()));
-        prompt.append(String.format("- 어제 대비 오늘 공통 활동 비율: %.1f%%\n", commonDataRatio));
-        prompt.append(String.format("- 위험도 판정: %s\n", riskLevel));
-        prompt.append("- 판정 기준: 60% 초과(정상), 40-60%(의심), 40% 이하(심각)\n\n");
-
-        prompt.append("### 센서 종류:\n");
-        prompt.append("1. LED 센서: 방별 조명 사용 패턴 (안방, 거실, 주방, 화장실)\n");
-        prompt.append("2. 재실 감지 센서: 움직임 감지 여부\n");
-        prompt.append("3. 소음 감지 센서: 생활 소음 감지 여부\n\n");
-
-        // 어제 데이터 요약
-        prompt.append("### 어제 활동 패턴:\n");
-        appendDailyActivitySummary(prompt, comparisonData.getYesterdayData(), "어제");
-
-        // 오늘 데이터 요약
-        prompt.append("### 오늘 활동 패턴:\n");
-        appendDailyActivitySummary(prompt, comparisonData.getTodayData(), "오늘");
-
-        // 시간대별 상세 비교 (주요 시간대만)
-        prompt.append("### 주요 시간대별 비교:\n");
-        appendHourlyComparison(prompt, comparisonData);
-
-        prompt.append("위의 데이터를 종합적으로 분석하여 다음 형식으로 JSON 응답을 생성해주세요:\n");
-        prompt.append("{\n");
-        prompt.append("  \"riskLevel\": \"위험도 수준 (정상/의심/심각)\",\n");
-        prompt.append("  \"situation\": \"현재 상황에 대한 상세한 분석 (활동 패턴 변화, 우려사항 포함)\",\n");
-        prompt.append("  \"location\": \"주요 위험 감지 위치 (안방/거실/주방/화장실 등)\",\n");
-        prompt.append("  \"comparisonDetails\": \"어제 대비 오늘의 구체적인 변화 수치와 패턴\",\n");
-        prompt.append("  \"recommendation\": \"구체적인 대응 지침 (줄바꿈은 \\n으로 표시)\",\n");
-        prompt.append("  \"reportingAgency\": \"신고 기관 (119/112/지역복지센터)\",\n");
-        prompt.append("  \"contactNumber\": \"연락처\",\n");
-        prompt.append("  \"urgencyLevel\": \"긴급도 (즉시/신속/보통/경과관찰)\"\n");
-        prompt.append("}\n");
-
-        return prompt.toString();
+    private BuiltPrompt buildHouseholdAnalysisPrompt(HouseholdComparisonDto comparisonData,
+                                                     double commonDataRatio, String riskLevel) {
+        int[] yesterday = new int[4];
+        int[] today = new int[4];
+        ActivityRows.foldHours(comparisonData.getYesterdayData(), yesterday);
+        ActivityRows.foldHours(comparisonData.getTodayData(), today);
+
+        StringBuilder overview = new StringBuilder();
+        overview.append("독거노인 가구의 IoT 센서 데이터를 분석하여 위험 상황을 판단해주세요.\n\n");
+        overview.append("### 분석 개요\n");
+        overview.append(String.format("- 가구 ID: %d\n", comparisonData.getHouseholdId()));
+        overview.append(String.format("- 오늘 공통 활동 비율 (7일 기준선 대비, 기준선이 없으면 어제 대비): %.1f%% (%s)\n", commonDataRatio, riskLevel));
+        overview.append("- 판정 기준: 60% 초과 정상, 40-60% 의심, 40% 이하 심각\n\n");
+
+        String responseFormat = "위 데이터를 종합해 아래 JSON으로 답해주세요 (값 안의 줄바꿈은 \\n):\n" +
+                "{\"riskLevel\": \"정상/의심/심각\", " +
+                "\"situation\": \"현재 상황 분석 (활동 패턴 변화, 우려사항)\", " +
+                "\"location\": \"주요 위험 감지 위치 (안방/거실/주방/화장실 등)\", " +
+                "\"comparisonDetails\": \"어제 대비 오늘의 구체적인 변화 수치와 패턴\", " +
+                "\"recommendation\": \"구체적인 대응 지침\", " +
+                "\"reportingAgency\": \"119/112/지역복지센터\", " +
+                "\"contactNumber\": \"연락처\", " +
+                "\"urgencyLevel\": \"즉시/신속/보통/경과관찰\"}\n";
+
+        int householdId = comparisonData.getHouseholdId();
+        PromptBudget budget = new PromptBudget()
+                .add(PromptBudget.REQUIRED, overview)
+                .add(2, dailyActivitySummary(yesterday, today))
+                .add(1, hourlyActivityTable(yesterday, today))
+                .add(3, baselineSummary(householdId))
+                .add(4, baselineProbabilities(householdId))
+                .add(PromptBudget.REQUIRED, responseFormat);
+        return BuiltPrompt.of(budget, promptTokenBudget);
     }
 
     /**
      * 신고용 문서 생성 프롬프트
      */
-    private String buildReportingPrompt(HouseholdComparisonDto comparisonData, AlertResponse initialAnalysis) {
+    private BuiltPrompt buildReportingPrompt(HouseholdComparisonDto comparisonData, AlertResponse initialAnalysis) {
         StringBuilder prompt = new StringBuilder();
 
         prompt.append("독거노인 가구의 위험 상황에 대한 공식적인 상황 보고서를 작성해주세요.\n\n");
 
         prompt.append("### 기본 정보:\n");
         prompt.append(String.format("- 가구 ID: %d\n", comparisonData.getHouseholdId()));
-        prompt.append(String.format("- 보고 일시: %s\n", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
+        prompt.append(String.format("- 보고 일시: %s\n", timeWindows.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
         prompt.append(String.format("- 위험도: %s\n", initialAnalysis.getRiskLevel()));
         prompt.append(String.format("- 활동 패턴 일치율: %.1f%%\n\n", initialAnalysis.getCommonDataRatio()));
 
@@ -371,87 +556,316 @@ public class BedrockService {
         prompt.append("  \"urgencyLevel\": \"긴급도\"\n");
         prompt.append("}\n");
 
-        return prompt.toString();
+        // 모두 필요한 내용이라 줄이지 않음 (토큰 수 집계용)
+        return BuiltPrompt.of(new PromptBudget().add(PromptBudget.REQUIRED, prompt), 0);
     }
 
     /**
-     * 일간 활동 요약 추가
+     * 하루 활동 요약 (시간 수)
      */
-    private void appendDailyActivitySummary(StringBuilder prompt, List<Map<String, Object>> dayData, String dayLabel) {
-        if (dayData.isEmpty()) {
-            prompt.append(String.format("%s: 데이터 없음\n\n", dayLabel));
-            return;
+    private static String dailyActivitySummary(int[] yesterday, int[] today) {
+        return "### 하루 요약 (시간 수)\n" +
+                dailyActivityLine("어제", yesterday) +
+                dailyActivityLine("오늘", today) +
+                "\n";
+    }
+
+    private static String dailyActivityLine(String dayLabel, int[] masks) {
+        if (masks[ActivityRows.PRESENT] == 0) {
+            return String.format("- %s: 데이터 없음\n", dayLabel);
         }
+        return String.format("- %s: 데이터 %d, 조명 %d, 움직임 %d, 소음 %d\n", dayLabel,
+                Integer.bitCount(masks[ActivityRows.PRESENT]),
+                Integer.bitCount(masks[ActivityRows.LED]),
+                Integer.bitCount(masks[ActivityRows.OCCUPIED]),
+                Integer.bitCount(masks[ActivityRows.NOISY]));
+    }
 
-        long ledActiveHours = dayData.stream().mapToLong(hour -> isAnyLedActive(hour) ? 1 : 0).sum();
-        long occupancyHours = dayData.stream().mapToLong(hour -> getBooleanValue(hour, "is_occupied") ? 1 : 0).sum();
-        long noiseHours = dayData.stream().mapToLong(hour -> getBooleanValue(hour, "is_noisy") ? 1 : 0).sum();
+    /**
+     * 시간대별 활동 표 - 0~23시를 한 글자씩 (1=감지, 0=없음, -=데이터 없음)
+     */
+    private static String hourlyActivityTable(int[] yesterday, int[] today) {
+        StringBuilder table = new StringBuilder();
+        table.append("### 시간대별 활동 (0~23시 한 글자씩: 1=감지, 0=없음, -=데이터 없음)\n");
+        table.append("조명=방별 LED(안방/거실/주방/화장실) 중 하나라도 켜짐, 움직임=재실 감지, 소음=생활 소음\n");
+        String[] labels = {"조명", "움직임", "소음"};
+        int[] kinds = {ActivityRows.LED, ActivityRows.OCCUPIED, ActivityRows.NOISY};
+        for (int i = 0; i < kinds.length; i++) {
+            table.append("어제 ").append(labels[i]).append(' ')
+                    .append(hourString(yesterday[ActivityRows.PRESENT], yesterday[kinds[i]])).append('\n');
+            table.append("오늘 ").append(labels[i]).append(' ')
+                    .append(hourString(today[ActivityRows.PRESENT], today[kinds[i]])).append('\n');
+        }
+        return table.append('\n').toString();
+    }
 
-        prompt.append(String.format("%s 활동 요약 (총 %d시간 데이터):\n", dayLabel, dayData.size()));
-        prompt.append(String.format("- 조명 사용: %d시간\n", ledActiveHours));
-        prompt.append(String.format("- 움직임 감지: %d시간\n", occupancyHours));
-        prompt.append(String.format("- 소음 감지: %d시간\n\n", noiseHours));
+    private static String hourString(int presentMask, int activeMask) {
+        char[] hours = new char[24];
+        for (int hour = 0; hour < 24; hour++) {
+            int bit = 1 << hour;
+            hours[hour] = (presentMask & bit) == 0 ? '-' : (activeMask & bit) != 0 ? '1' : '0';
+        }
+        return new String(hours);
     }
 
     /**
-     * 시간대별 비교 추가
+     * 최근 7일/28일 기준선 요약 (기준선이 없는 가구는 생략)
      */
-    private void appendHourlyComparison(StringBuilder prompt, HouseholdComparisonDto comparisonData) {
-        List<Map<String, Object>> yesterdayData = comparisonData.getYesterdayData();
-        List<Map<String, Object>> todayData = comparisonData.getTodayData();
+    private String baselineSummary(int householdId) {
+        if (!baselineModel.contains(householdId)) {
+            return null;
+        }
+        long todayActivity = activityModel.todayActivity(householdId);
+
+        StringBuilder summary = new StringBuilder("### 평소 활동 (기준선, 시간대 표기는 위와 같음)\n");
+        for (int window : new int[]{HouseholdBaselineModel.SHORT_WINDOW, HouseholdBaselineModel.LONG_WINDOW}) {
+            double score = baselineModel.score(householdId, todayActivity, window);
+            summary.append(String.format("- 최근 %d일 평소 활동 %s, 오늘 활동 비율 %s\n", window,
+                    hourString(-1, baselineModel.typicalMask(householdId, window)),
+                    Double.isNaN(score) ? "비교 불가" : String.format("%.1f%%", score)));
+        }
+        return summary.append('\n').toString();
+    }
 
-        // 주요 시간대만 비교 (아침 7-9시, 점심 12-14시, 저녁 18-20시)
-        int[] importantHours = {7, 8, 12, 13, 18, 19};
-
-        for (int hour : importantHours) {
-            if (hour < yesterdayData.size() && hour < todayData.size()) {
-                Map<String, Object> yesterdayHour = yesterdayData.get(hour);
-                Map<String, Object> todayHour = todayData.get(hour);
-
-                prompt.append(String.format("%d시:\n", hour));
-                prompt.append(String.format("  어제: LED=%s, 재실=%s, 소음=%s\n",
-                        isAnyLedActive(yesterdayHour) ? "ON" : "OFF",
-                        getBooleanValue(yesterdayHour, "is_occupied") ? "감지" : "미감지",
-                        getBooleanValue(yesterdayHour, "is_noisy") ? "감지" : "미감지"));
-                prompt.append(String.format("  오늘: LED=%s, 재실=%s, 소음=%s\n",
-                        isAnyLedActive(todayHour) ? "ON" : "OFF",
-                        getBooleanValue(todayHour, "is_occupied") ? "감지" : "미감지",
-                        getBooleanValue(todayHour, "is_noisy") ? "감지" : "미감지"));
-            }
+    /**
+     * 주요 시간대 활동 확률 (7일 / 28일)
+     */
+    private String baselineProbabilities(int householdId) {
+        if (!baselineModel.contains(householdId)) {
+            return null;
+        }
+        int[] shortProbabilities = baselineModel.hourlyProbabilities(householdId, HouseholdBaselineModel.SHORT_WINDOW);
+        int[] longProbabilities = baselineModel.hourlyProbabilities(householdId, HouseholdBaselineModel.LONG_WINDOW);
+        StringBuilder line = new StringBuilder("- 주요 시간대 활동 확률 (7일/28일):");
+        for (int hour : new int[]{7, 8, 12, 13, 18, 19}) {
+            line.append(String.format(" %d시 %s/%s", hour,
+                    probabilityLabel(shortProbabilities[hour]), probabilityLabel(longProbabilities[hour])));
         }
-        prompt.append("\n");
+        return line.append("\n\n").toString();
+    }
+
+    private static String probabilityLabel(int probability) {
+        return probability < 0 ? "-" : probability + "%";
+    }
+
+    private String modelKey() {
+        return inferenceProfileArn != null ? inferenceProfileArn : modelId;
     }
 
     /**
-     * AWS Bedrock 호출
+     * AWS Bedrock 비동기 호출 (회로 차단기 + 동시 호출 수 제한 + 호출 제한 시간 적용)
+     * @param slowCallMs 이보다 오래 걸린 응답은 느린 호출로 기록 (0이면 기록 안 함)
      */
-    private String callBedrock(String prompt) {
-        try {
-            logger.debug("Bedrock 호출 시작 - 모델: {}", modelId);
+    private CompletableFuture<ModelReply> callBedrockAsync(String prompt, long deadlineMs, long slowCallMs) {
+        logger.debug("Bedrock 호출 시작 - 모델: {}", modelId);
+
+        ConverseRequest request = ConverseRequest.builder()
+                .modelId(modelKey())
+                .messages(userMessage(prompt))
+                .overrideConfiguration(config -> config.apiCallTimeout(Duration.ofMillis(deadlineMs)))
+                .build();
+
+        return guarded(() -> asyncClient.converse(request), slowCallMs)
+                .thenApply(response -> {
+                    String responseText = response.output().message().content().get(0).text();
+                    logger.debug("Bedrock 응답 길이: {} characters", responseText.length());
+                    return ModelReply.of(responseText, response.usage());
+                });
+    }
 
-            Message userMessage = Message.builder()
-                    .role(ConversationRole.USER)
-                    .content(ContentBlock.fromText(prompt))
+    /**
+     * AWS Bedrock 스트리밍 호출 (ConverseStream, 동시 호출 수 제한 적용) - 스트림이 끝날 때까지 자리를 차지한다
+     */
+    private CompletableFuture<ModelReply> callBedrockStream(String prompt, Consumer<String> onText) {
+        logger.debug("Bedrock 스트리밍 호출 시작 - 모델: {}", modelId);
+
+        ConverseStreamRequest request = ConverseStreamRequest.builder()
+                .modelId(modelKey())
+                .messages(userMessage(prompt))
+                .overrideConfiguration(config -> config.apiCallTimeout(Duration.ofMillis(reportDeadlineMs)))
+                .build();
+
+        return guarded(() -> {
+            StringBuffer responseText = new StringBuffer(); // SDK 이벤트 스레드에서 추가, 완료 스레드에서 읽음
+            AtomicReference<TokenUsage> usage = new AtomicReference<>();
+            ConverseStreamResponseHandler handler = ConverseStreamResponseHandler.builder()
+                    .subscriber(ConverseStreamResponseHandler.Visitor.builder()
+                            .onContentBlockDelta(event -> {
+                                String text = event.delta() != null ? event.delta().text() : null;
+                                if (text != null && !text.isEmpty()) {
+                                    responseText.append(text);
+                                    onText.accept(text);
+                                }
+                            })
+                            .onMetadata(event -> usage.set(event.usage()))
+                            .build())
                     .build();
+            return asyncClient.converseStream(request, handler).thenApply(done -> {
+                logger.debug("Bedrock 스트리밍 응답 길이: {} characters", responseText.length());
+                return ModelReply.of(responseText.toString(), usage.get());
+            });
+        }, 0);
+    }
 
-            ConverseRequest request = ConverseRequest.builder()
-                    .modelId(inferenceProfileArn != null ? inferenceProfileArn : modelId)
-                    .messages(userMessage)
-                    .build();
+    /**
+     * 회로 차단기 확인 후 동시 호출 수 제한 안에서 호출 - 모델 호출 결과(성공/실패/느림)를 차단기에 기록한다
+     * 차단 중이면 BedrockCircuitOpenException, 대기열 초과면 RejectedExecutionException으로 실패한 future
+     */
+    private <T> CompletableFuture<T> guarded(Supplier<CompletableFuture<T>> call, long slowCallMs) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new BedrockCircuitOpenException(
+                    "AI 분석 서비스 응답이 불안정해 잠시 호출을 멈췄습니다. 잠시 후 다시 시도해주세요."));
+        }
+        AtomicBoolean started = new AtomicBoolean();
+        return callLimiter.submit(() -> {
+            started.set(true);
+            long start = System.currentTimeMillis();
+            CompletableFuture<T> future;
+            try {
+                future = call.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            return future.whenComplete((value, error) -> {
+                if (error == null) {
+                    circuitBreaker.onSuccess(slowCallMs > 0 && System.currentTimeMillis() - start > slowCallMs);
+                } else {
+                    circuitBreaker.onFailure();
+                }
+            });
+        }).whenComplete((value, error) -> {
+            if (!started.get()) {
+                circuitBreaker.onSkipped(); // 대기열에서 거절/만료 - 모델은 호출하지 않음
+            }
+        });
+    }
 
-            ConverseResponse response = client.converse(request);
-            String responseText = response.output().message().content().get(0).text();
+    /**
+     * 헤지 호출 - hedgeDelayMs 안에 응답이 없으면 같은 요청을 한 번 더 보내고 먼저 성공한 응답을 쓴다.
+     * 회로가 닫혀 있고 동시 호출 자리에 여유가 있을 때만 보낸다 (혼잡할 때 부하를 두 배로 만들지 않도록).
+     * 결과가 같은 요청(가구 분석)에만 쓴다.
+     */
+    private CompletableFuture<ModelReply> hedged(Supplier<CompletableFuture<ModelReply>> attempt) {
+        CompletableFuture<ModelReply> primary = attempt.get();
+        if (hedgeDelayMs <= 0 || primary.isDone()) {
+            return primary;
+        }
+
+        CompletableFuture<ModelReply> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        BiConsumer<Boolean, CompletableFuture<ModelReply>> settle = (hedge, future) -> future.whenComplete((reply, error) -> {
+            if (error == null) {
+                if (result.complete(reply) && hedge) {
+                    hedgeWins.incrementAndGet();
+                }
+            } else {
+                firstError.compareAndSet(null, error);
+            }
+            if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(firstError.get()); // 둘 다 실패 - 먼저 난 오류로
+            }
+        });
+        settle.accept(false, primary);
+
+        CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.isDone()
+                    || circuitBreaker.getState() != BedrockCircuitBreaker.State.CLOSED
+                    || callLimiter.getInFlight() >= callLimiter.getMaxInFlight()
+                    || callLimiter.getQueued() > 0
+                    || outstanding.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) {
+                return;
+            }
+            hedges.incrementAndGet();
+            logger.debug("Bedrock 응답 지연 - 헤지 호출 시작 ({}ms 경과)", hedgeDelayMs);
+            settle.accept(true, attempt.get());
+        });
+        return result;
+    }
 
-            logger.debug("Bedrock 응답 길이: {} characters", responseText.length());
+    private static Message userMessage(String prompt) {
+        return Message.builder()
+                .role(ConversationRole.USER)
+                .content(ContentBlock.fromText(prompt))
+                .build();
+    }
 
-            return responseText;
+    /**
+     * 완성된 프롬프트 + 예상 토큰 수 + 예산 때문에 뺀 섹션이 있는지
+     */
+    private record BuiltPrompt(String text, int estimatedTokens, boolean trimmed) {
 
-        } catch (Exception e) {
-            logger.error("Bedrock 호출 실패", e);
-            throw new RuntimeException("AI 분석 서비스 호출 실패: " + e.getMessage(), e);
+        static BuiltPrompt of(PromptBudget budget, int tokenBudget) {
+            String text = budget.build(tokenBudget);
+            return new BuiltPrompt(text, budget.estimatedTokens(), budget.droppedSections() > 0);
         }
     }
 
+    /**
+     * 가구 분석 입력 - 데이터 부족이면 comparisonData가 null, "정상"이면 prompt / promptHash가 null
+     */
+    private record PreparedAnalysis(HouseholdComparisonDto comparisonData, double commonDataRatio, String riskLevel,
+                                    BuiltPrompt prompt, String promptHash) {
+    }
+
+    /**
+     * 모델 응답 텍스트 + 모델이 알려준 토큰 수 (없으면 null)
+     */
+    private record ModelReply(String text, Integer inputTokens, Integer outputTokens) {
+
+        static ModelReply of(String text, TokenUsage usage) {
+            return usage != null
+                    ? new ModelReply(text, usage.inputTokens(), usage.outputTokens())
+                    : new ModelReply(text, null, null);
+        }
+
+        /**
+         * 입력+출력 토큰 수 - 모델이 알려주지 않았으면 프롬프트 / 응답 길이로 추정
+         */
+        int tokensUsed(BuiltPrompt prompt) {
+            return (inputTokens != null ? inputTokens : prompt.estimatedTokens())
+                    + (outputTokens != null ? outputTokens : PromptBudget.estimateTokens(text));
+        }
+    }
+
+    /**
+     * Bedrock 호출 현황 - 동시 호출 제한 + 회로 차단기 + 헤지/대체 응답 + 분석 결과 캐시 + 분석 컨텍스트 + 동시 요청 합치기 + 분석 로그 기록
+     * + 요청 종류별 토큰 수
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", callLimiter.getStats());
+        stats.put("breaker", circuitBreaker.getStats());
+        stats.put("resilience", getResilienceStats());
+        stats.put("cache", analysisResultCache.getStats());
+        stats.put("contexts", analysisContextStore.getStats());
+        stats.put("coalescing", getCoalescingStats());
+        stats.put("log", aiAnalysisLogWriter.getStats());
+        stats.put("tokens", promptTokenStats.getStats());
+        return stats;
+    }
+
+    private Map<String, Object> getCoalescingStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", coalesce);
+        stats.put("dataFetch", dataFlight.getStats());
+        stats.put("modelCall", modelFlight.getStats());
+        return stats;
+    }
+
+    private Map<String, Object> getResilienceStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("analysisDeadlineMs", analysisDeadlineMs);
+        stats.put("reportDeadlineMs", reportDeadlineMs);
+        stats.put("hedgeDelayMs", hedgeDelayMs);
+        stats.put("hedges", hedges.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        stats.put("fallbacks", fallbackCircuitOpen.get() + fallbackErrors.get());
+        stats.put("fallbackCircuitOpen", fallbackCircuitOpen.get());
+        stats.put("fallbackErrors", fallbackErrors.get());
+        return stats;
+    }
+
     /**
      * Bedrock 응답 파싱
      */
@@ -484,35 +898,22 @@ public class BedrockService {
      */
     private void logAIAnalysis(int householdId, String requestType, String requestData,
                                String aiResponse, long processingTime, boolean success, String errorMessage) {
-        try {
-            // JSON 형태로 변환
-            ObjectMapper objectMapper = new ObjectMapper();
-
-            String jsonRequestData = requestData != null ?
-                    objectMapper.writeValueAsString(Map.of("prompt", requestData)) : null;
-            String jsonAiResponse = aiResponse != null ?
-                    objectMapper.writeValueAsString(Map.of("response", aiResponse)) : null;
-
-            String logQuery = "INSERT INTO ai_analysis_log " +
-                    "(household_id, request_type, request_data, ai_response, processing_time_ms, success, error_message) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-            jdbcTemplate.update(logQuery,
-                    householdId,
-                    requestType,
-                    jsonRequestData,    // JSON 형태
-                    jsonAiResponse,     // JSON 형태
-                    processingTime,
-                    success,
-                    errorMessage);
-
-            logger.debug("AI 분석 로그 기록 완료: householdId={}, type={}", householdId, requestType);
+        aiAnalysisLogWriter.submit(new AIAnalysisLogWriter.Entry(householdId, requestType, requestData, aiResponse,
+                processingTime, success, errorMessage, null, null, null, null));
+    }
 
-        } catch (Exception e) {
-            logger.error("AI 분석 로그 기록 실패", e);
-            // 로그 기록 실패는 메인 기능에 영향을 주지 않도록 무시
-        }
+    /**
+     * 성공한 호출 기록 - 토큰 집계 + AI 분석 로그 (promptHash / expiresAt이 있으면 분석 결과 캐시의 영속 항목으로도 쓰인다)
+     * 로그는 대기열에 넣기만 하고 저장은 AIAnalysisLogWriter가 모아서 한다 - 대기열이 가득 차면 버려지며 메인 기능에는 영향 없음
+     */
+    private void recordSuccess(int householdId, String requestType, BuiltPrompt prompt, ModelReply reply,
+                               long processingTime, String promptHash, LocalDateTime expiresAt) {
+        promptTokenStats.record(requestType, prompt.estimatedTokens(), reply.inputTokens(), reply.outputTokens(),
+                PromptBudget.estimateTokens(reply.text()), processingTime, prompt.trimmed());
+        aiAnalysisLogWriter.submit(new AIAnalysisLogWriter.Entry(householdId, requestType, prompt.text(), reply.text(),
+                processingTime, true, null, promptHash, expiresAt, reply.inputTokens(), reply.outputTokens()));
     }
+
     /**
      * 기본 응답 생성
      */
@@ -558,6 +959,30 @@ public class BedrockService {
         return response;
     }
 
+    /**
+     * 규칙 기반 대체 응답 - Bedrock을 쓸 수 없을 때 공통 활동 비율과 위험도만으로 만든다 (같은 입력이면 같은 결과)
+     */
+    private AlertResponse createRuleBasedResponse(int householdId, double commonDataRatio, String riskLevel) {
+        boolean severe = "심각".equals(riskLevel);
+        AlertResponse response = new AlertResponse();
+        response.setRiskLevel(riskLevel);
+        response.setSituation(String.format("어제 대비 공통 활동 비율이 %.1f%%로 %s. (AI 분석을 일시적으로 사용할 수 없어 규칙 기반으로 판정)",
+                commonDataRatio, severe ? "크게 낮아져 위험이 의심됩니다" : "평소보다 낮습니다"));
+        response.setLocation("전체");
+        response.setComparisonDetails(String.format("공통 활동 비율 %.1f%% (판정 기준: 60%% 초과 정상, 40-60%% 의심, 40%% 이하 심각)",
+                commonDataRatio));
+        response.setRecommendation(severe
+                ? "즉시 보호자 또는 담당 생활지원사가 전화로 안부를 확인하세요.\n연락이 닿지 않으면 방문하거나 119에 신고하세요."
+                : "담당 생활지원사가 전화로 안부를 확인하고 활동 패턴을 계속 관찰하세요.");
+        response.setReportingAgency(severe ? "119" : "지역복지센터");
+        response.setContactNumber(severe ? "119" : "지역복지센터");
+        response.setUrgencyLevel(severe ? "즉시" : "신속");
+        response.setCommonDataRatio(commonDataRatio);
+        response.setHouseholdId(String.valueOf(householdId));
+        response.setFallback(true);
+        return response;
+    }
+
     /**
      * 데이터 부족 응답
      */
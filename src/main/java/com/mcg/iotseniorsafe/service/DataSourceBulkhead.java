@@ -0,0 +1,88 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DB(JdbcTemplate)별 동시 쿼리 수 제한
+ * 느린 한전 MCS(Primary) DB가 작업 스레드를 모두 붙잡아 Secondary 조회까지 막는 것을 방지한다.
+ * 병렬 작업(submit)은 DB마다 따로 둔 maxConcurrent개 스레드에서만 실행하므로, 한 DB가 느려도
+ * 다른 DB의 작업 스레드를 빼앗지 않는다. 대기 중인 작업은 스레드를 붙잡지 않고 큐에서 기다린다.
+ */
+public class DataSourceBulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Semaphore permits; // submit / execute 공용 - 동기 호출까지 합쳐 maxConcurrent개
+    private final ThreadPoolExecutor workers;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    public DataSourceBulkhead(String name, int maxConcurrent) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(this.maxConcurrent, this.maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "risk-eval-" + name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 이 DB 전용 스레드에서 작업 실행 (병렬 평가용). 대기 시간(ns)은 제출부터 시작까지
+     */
+    public <T> Future<T> submit(Callable<T> task, WaitListener waitListener) {
+        long submittedAt = System.nanoTime();
+        return workers.submit(() -> run(task, waitListener, submittedAt));
+    }
+
+    /**
+     * 호출 스레드에서 허용량 안에 작업 실행 (순차 평가용). 대기 시간(ns)은 waitListener로 전달
+     */
+    public <T> T execute(Callable<T> task, WaitListener waitListener) throws Exception {
+        return run(task, waitListener, System.nanoTime());
+    }
+
+    private <T> T run(Callable<T> task, WaitListener waitListener, long waitStart) throws Exception {
+        permits.acquire();
+        long waited = System.nanoTime() - waitStart;
+
+        calls.increment();
+        queueWaitNanos.add(waited);
+        if (waitListener != null) {
+            waitListener.onWait(name, waited);
+        }
+
+        try {
+            return task.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public String getName() { return name; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public int getInUse() { return maxConcurrent - permits.availablePermits(); }
+    public int getQueued() { return permits.getQueueLength() + workers.getQueue().size(); }
+    public long getCalls() { return calls.sum(); }
+    public long getTotalQueueWaitMs() { return queueWaitNanos.sum() / 1_000_000; }
+
+    @FunctionalInterface
+    public interface WaitListener {
+        void onWait(String bulkheadName, long waitNanos);
+    }
+}
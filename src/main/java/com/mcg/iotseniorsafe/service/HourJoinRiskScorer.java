@@ -0,0 +1,43 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.mcg.iotseniorsafe.service.ActivityRows.LED;
+import static com.mcg.iotseniorsafe.service.ActivityRows.NOISY;
+import static com.mcg.iotseniorsafe.service.ActivityRows.OCCUPIED;
+import static com.mcg.iotseniorsafe.service.ActivityRows.PRESENT;
+
+/**
+ * 시간대 기준 비교 (RiskAnalysisService 기본값)
+ * 어제와 오늘 모두 데이터가 있는 시간대 중 같은 종류의 활동이 있었던 시간대 비율.
+ * 하루를 시간대별 24비트 마스크(데이터 있음 / LED / 재실 / 소음)로 접어서 비교하므로
+ * 같은 시간대의 행이 여러 개여도 한 시간으로 세고, 비교 중에 객체를 만들지 않는다.
+ */
+@Component
+public class HourJoinRiskScorer implements RiskScorer {
+
+    public static final String NAME = "hour-join";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double commonDataRatio(List<Map<String, Object>> yesterdayData, List<Map<String, Object>> todayData) {
+        int[] yesterday = new int[4];
+        int[] today = new int[4];
+        ActivityRows.foldHours(yesterdayData, yesterday);
+        ActivityRows.foldHours(todayData, today);
+
+        int comparable = yesterday[PRESENT] & today[PRESENT];
+        int common = comparable & ((yesterday[LED] & today[LED])
+                | (yesterday[OCCUPIED] & today[OCCUPIED])
+                | (yesterday[NOISY] & today[NOISY]));
+
+        return comparable != 0 ? (double) Integer.bitCount(common) / Integer.bitCount(comparable) * 100 : 0.0;
+    }
+}
@@ -0,0 +1,344 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import com.mcg.iotseniorsafe.util.IntIntHashMap;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 가구별 어제/오늘 시간대별 활동 인메모리 모델 (비트 패킹)
+ * 가구-일(day) 하나는 24시간 × (데이터 유무 + LED + 재실 + 소음) = 96비트로 long 2개에 들어간다.
+ *   word A: 0~23비트 데이터 있음, 24~47비트 LED 활동
+ *   word B: 0~23비트 재실 감지, 24~47비트 소음 감지
+ * 공통 활동 비율은 AND/popcount 몇 번으로 계산하며 조회 시 객체를 할당하지 않는다.
+ */
+@Component
+public class HouseholdActivityModel {
+
+    private static final int WORDS_PER_HOUSEHOLD = 4; // 어제 A, 어제 B, 오늘 A, 오늘 B
+    private static final int YESTERDAY = 0;
+    private static final int TODAY = 2;
+    private static final int UPPER_SHIFT = 24;
+    private static final long HOURS_MASK = 0xFFFFFFL;
+
+    private volatile Store store = new Store(null, 16);
+
+    /**
+     * 전체 로드가 한 번이라도 끝났는지 여부
+     */
+    public boolean isReady() {
+        return store.day != null;
+    }
+
+    /**
+     * 모델 기준 날짜 (오늘)
+     */
+    public LocalDate getDay() {
+        return store.day;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * 전체 재적재용 빈 저장소 생성 - 채운 뒤 publish()로 교체
+     */
+    public Store newStore(LocalDate day, int expectedHouseholds) {
+        return new Store(day, expectedHouseholds);
+    }
+
+    public void publish(Store loaded) {
+        this.store = loaded;
+    }
+
+    /**
+     * 현재 모델의 가구 항목을 새 저장소로 그대로 옮김 (전체 재적재 중 조회에 실패한 가구용)
+     * 날짜가 다르거나 현재 모델에 없는 가구면 false - 새 모델에서 빠지므로 평가 대상이 아니다
+     */
+    public boolean carryOver(Store loaded, int householdId) {
+        Store current = store;
+        if (current.day == null || !current.day.equals(loaded.day)) {
+            return false;
+        }
+        long[] entry = current.entry(householdId);
+        if (entry == null) {
+            return false;
+        }
+        loaded.restore(householdId, current.source(householdId), entry);
+        return true;
+    }
+
+    /**
+     * 새로 들어온 센서 집계 반영 (비트 OR 이므로 같은 시간대를 여러 번 반영해도 결과 동일)
+     */
+    public void recordHour(int householdId, SensorSource source, int dayOffset, int hour,
+                           boolean led, boolean occupied, boolean noisy) {
+        store.recordHour(householdId, source, dayOffset, hour, led, occupied, noisy);
+    }
+
+    public boolean contains(int householdId) {
+        return store.slotOf(householdId) >= 0;
+    }
+
+    /**
+     * 어제 대비 오늘 공통 활동 비율 (%) - 모델에 없는 가구는 NaN
+     */
+    public double ratio(int householdId) {
+        return store.ratio(householdId);
+    }
+
+    public SensorSource source(int householdId) {
+        return store.source(householdId);
+    }
+
+    /**
+     * 오늘 시간대별 마스크 - 하위 24비트 데이터 있음, 32~55비트 활동(LED/재실/소음 중 하나) 있음
+     * 모델에 없는 가구는 -1
+     */
+    public long todayActivity(int householdId) {
+        return store.todayActivity(householdId);
+    }
+
+    /**
+     * 모델에 있는 가구 ID (오름차순 복사본)
+     */
+    public int[] householdIds() {
+        return store.householdIds();
+    }
+
+    /**
+     * 마지막 전체 적재에서 조회에 실패해 모델에서 빠진 가구 ID (오름차순 복사본)
+     * 평가하지 못한 가구이므로 스냅샷에서 지우거나 단계 변화로 보지 않는다
+     */
+    public int[] unevaluatedIds() {
+        return store.unevaluatedIds.clone();
+    }
+
+    /**
+     * 어제/오늘 패킹된 활동으로 공통 활동 비율 계산
+     * 어제 또는 오늘 데이터가 없으면 0, 두 날 모두 데이터가 있는 시간대 중 같은 센서 활동이 겹친 비율
+     */
+    public static double commonActivityRatio(long yesterdayA, long yesterdayB, long todayA, long todayB) {
+        long yesterdayPresent = yesterdayA & HOURS_MASK;
+        long todayPresent = todayA & HOURS_MASK;
+        if (yesterdayPresent == 0 || todayPresent == 0) {
+            return 0.0;
+        }
+
+        long comparable = yesterdayPresent & todayPresent;
+        long ledAndOccupied = (yesterdayA & todayA) >>> UPPER_SHIFT | (yesterdayB & todayB);
+        long noisy = (yesterdayB & todayB) >>> UPPER_SHIFT;
+        long common = comparable & (ledAndOccupied | noisy);
+
+        return (double) Long.bitCount(common) / Long.bitCount(comparable) * 100;
+    }
+
+    /**
+     * 시간대 하나의 활동을 패킹된 두 word로 변환 - [A, B]
+     */
+    static long packA(int hour, boolean led) {
+        long bit = 1L << hour;
+        return led ? bit | bit << UPPER_SHIFT : bit;
+    }
+
+    static long packB(int hour, boolean occupied, boolean noisy) {
+        long bit = 1L << hour;
+        return (occupied ? bit : 0L) | (noisy ? bit << UPPER_SHIFT : 0L);
+    }
+
+    /**
+     * 특정 날짜 기준 가구별 활동 저장소
+     */
+    public static final class Store {
+
+        private final LocalDate day;
+        private final StampedLock lock = new StampedLock();
+        private final IntIntHashMap slots;
+        private int[] householdIds;
+        private byte[] sources;
+        private long[] words;
+        private int size;
+        private volatile int[] unevaluatedIds = new int[0];
+
+        private Store(LocalDate day, int expectedHouseholds) {
+            int capacity = Math.max(16, expectedHouseholds);
+            this.day = day;
+            this.slots = new IntIntHashMap(capacity);
+            this.householdIds = new int[capacity];
+            this.sources = new byte[capacity];
+            this.words = new long[capacity * WORDS_PER_HOUSEHOLD];
+        }
+
+        public void recordHour(int householdId, SensorSource source, int dayOffset, int hour,
+                               boolean led, boolean occupied, boolean noisy) {
+            if ((dayOffset != 0 && dayOffset != 1) || hour < 0 || hour > 23) {
+                return;
+            }
+            long stamp = lock.writeLock();
+            try {
+                int base = slotFor(householdId, source) * WORDS_PER_HOUSEHOLD + (dayOffset == 1 ? YESTERDAY : TODAY);
+                words[base] |= packA(hour, led);
+                words[base + 1] |= packB(hour, occupied, noisy);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 조회에 실패했고 이전 값도 옮기지 못한 가구 기록 (publish 전에 호출)
+         */
+        public void markUnevaluated(Collection<Integer> householdIds) {
+            unevaluatedIds = householdIds.stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+
+        /**
+         * 가구만 등록 (데이터가 하나도 없는 가구도 평가 대상에 포함하기 위함)
+         */
+        public void register(int householdId, SensorSource source) {
+            long stamp = lock.writeLock();
+            try {
+                slotFor(householdId, source);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 가구의 활동 word 복사본 (어제 A, 어제 B, 오늘 A, 오늘 B) - 없으면 null
+         */
+        long[] entry(int householdId) {
+            long stamp = lock.readLock();
+            try {
+                int slot = slots.get(householdId);
+                return slot < 0 ? null
+                        : Arrays.copyOfRange(words, slot * WORDS_PER_HOUSEHOLD, (slot + 1) * WORDS_PER_HOUSEHOLD);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void restore(int householdId, SensorSource source, long[] entry) {
+            long stamp = lock.writeLock();
+            try {
+                int base = slotFor(householdId, source) * WORDS_PER_HOUSEHOLD; // 배열이 늘어날 수 있어 먼저 계산
+                System.arraycopy(entry, 0, words, base, WORDS_PER_HOUSEHOLD);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int slotOf(int householdId) {
+            long stamp = lock.tryOptimisticRead();
+            int slot = slots.get(householdId);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    slot = slots.get(householdId);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return slot;
+        }
+
+        double ratio(int householdId) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    double ratio = readRatio(householdId);
+                    if (lock.validate(stamp)) {
+                        return ratio;
+                    }
+                } catch (RuntimeException e) {
+                    // 쓰기와 겹쳐 배열 크기가 어긋난 경우 - 아래에서 읽기 락으로 재시도
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return readRatio(householdId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long todayActivity(int householdId) {
+            long stamp = lock.readLock();
+            try {
+                int slot = slots.get(householdId);
+                if (slot < 0) {
+                    return -1;
+                }
+                long a = words[slot * WORDS_PER_HOUSEHOLD + TODAY];
+                long b = words[slot * WORDS_PER_HOUSEHOLD + TODAY + 1];
+                long present = a & HOURS_MASK;
+                long active = (a >>> UPPER_SHIFT | b | b >>> UPPER_SHIFT) & HOURS_MASK;
+                return present | active << 32;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        SensorSource source(int householdId) {
+            long stamp = lock.readLock();
+            try {
+                int slot = slots.get(householdId);
+                return slot < 0 ? null : SensorSource.values()[sources[slot]];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int[] householdIds() {
+            long stamp = lock.readLock();
+            try {
+                int[] ids = Arrays.copyOf(householdIds, size);
+                Arrays.sort(ids);
+                return ids;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private double readRatio(int householdId) {
+            int slot = slots.get(householdId);
+            if (slot < 0) {
+                return Double.NaN;
+            }
+            long[] w = words;
+            int base = slot * WORDS_PER_HOUSEHOLD;
+            return commonActivityRatio(w[base + YESTERDAY], w[base + YESTERDAY + 1], w[base + TODAY], w[base + TODAY + 1]);
+        }
+
+        private int slotFor(int householdId, SensorSource source) {
+            int slot = slots.get(householdId);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (size == householdIds.length) {
+                int capacity = householdIds.length * 2;
+                householdIds = Arrays.copyOf(householdIds, capacity);
+                sources = Arrays.copyOf(sources, capacity);
+                words = Arrays.copyOf(words, capacity * WORDS_PER_HOUSEHOLD);
+            }
+            slot = size++;
+            householdIds[slot] = householdId;
+            sources[slot] = (byte) source.ordinal();
+            slots.put(householdId, slot);
+            return slot;
+        }
+    }
+}
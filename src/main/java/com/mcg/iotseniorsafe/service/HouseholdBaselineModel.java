@@ -0,0 +1,334 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.util.IntIntHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 가구별 최근 7일 / 28일 시간대별 활동 기준선 (baseline)
+ * - 가구마다 28일치 일별 24비트 마스크(데이터 있음 / 활동 있음) 링 버퍼
+ * - 창(7일, 28일)별 시간대별 관측 일수 / 활동 일수를 byte 카운터로 유지
+ * - 하루가 지나면 창에서 빠지는 날의 비트만 빼고 새 날의 비트를 더한다 (전체 재계산 없음)
+ * - 활동 확률이 기준 이상인 시간대를 "평소 활동 시간대" 마스크로 미리 계산해 두고
+ *   평가 시에는 오늘 마스크와 AND/popcount만 한다.
+ */
+@Component
+public class HouseholdBaselineModel {
+
+    public static final int SHORT_WINDOW = 7;
+    public static final int LONG_WINDOW = 28;
+
+    private static final int HOURS = 24;
+    private static final int PRESENT = 0, ACTIVE = 1;
+    private static final int COUNTERS_PER_HOUSEHOLD = 2 * 2 * HOURS; // 창 2개 × (관측, 활동) × 24시간
+
+    // 평소 활동 시간대로 보기 위한 최소 관측 일수 / 활동 확률(%)
+    @Value("${app.baseline.minObservedDays:3}")
+    private int minObservedDays = 3;
+
+    @Value("${app.baseline.typicalPercent:50}")
+    private int typicalPercent = 50;
+
+    private volatile Store store = new Store(null, 16);
+
+    public boolean isReady() {
+        return store.lastDay != null;
+    }
+
+    /**
+     * 기준선에 포함된 가장 최근 날짜 (보통 어제)
+     */
+    public LocalDate getLastDay() {
+        return store.lastDay;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * 전체 재적재용 빈 저장소 - lastDay부터 과거 28일치를 recordDay로 채운 뒤 publish()
+     */
+    public Store newStore(LocalDate lastDay, int expectedHouseholds) {
+        return new Store(lastDay, expectedHouseholds);
+    }
+
+    public void publish(Store loaded) {
+        loaded.recomputeTypical(minObservedDays, typicalPercent);
+        this.store = loaded;
+    }
+
+    /**
+     * 하루 전진 - 창에서 빠지는 날을 빼고 day를 새 날로 비운다 (day = lastDay + 1 이어야 함)
+     */
+    public boolean beginDay(LocalDate day) {
+        return store.beginDay(day);
+    }
+
+    public void recordHour(int householdId, LocalDate day, int hour, boolean present, boolean active) {
+        store.recordHour(householdId, day, hour, present, active);
+    }
+
+    /**
+     * 증분 반영이 끝난 뒤 평소 활동 시간대 마스크 재계산
+     */
+    public void recomputeTypical() {
+        store.recomputeTypical(minObservedDays, typicalPercent);
+    }
+
+    public boolean contains(int householdId) {
+        return store.slotOf(householdId) >= 0;
+    }
+
+    /**
+     * 기준선 대비 오늘 활동 비율 (%)
+     * 평소 활동 시간대 중 오늘 데이터가 있는 시간대에서 실제로 활동이 있었던 비율.
+     * todayActivity는 HouseholdActivityModel.todayActivity() 형식 (하위 24비트 데이터 있음, 32~55비트 활동)
+     * 기준선이 없거나 비교할 시간대가 없으면 NaN
+     */
+    public double score(int householdId, long todayActivity, int window) {
+        if (todayActivity < 0) {
+            return Double.NaN;
+        }
+        int typical = store.typical(householdId, window);
+        return score(typical, (int) (todayActivity & 0xFFFFFF), (int) (todayActivity >>> 32));
+    }
+
+    static double score(int typicalMask, int todayPresent, int todayActive) {
+        int expected = typicalMask & todayPresent;
+        if (expected == 0) {
+            return Double.NaN;
+        }
+        return (double) Integer.bitCount(expected & todayActive) / Integer.bitCount(expected) * 100;
+    }
+
+    /**
+     * 시간대별 활동 확률 (%) - 관측되지 않은 시간대는 -1, 모델에 없는 가구는 null
+     */
+    public int[] hourlyProbabilities(int householdId, int window) {
+        return store.hourlyProbabilities(householdId, window);
+    }
+
+    /**
+     * 평소 활동 시간대 마스크 (비트 n = n시)
+     */
+    public int typicalMask(int householdId, int window) {
+        return store.typical(householdId, window);
+    }
+
+    /**
+     * 가구 기준선 저장소
+     */
+    public static final class Store {
+
+        private final StampedLock lock = new StampedLock();
+        private final IntIntHashMap slots;
+        private LocalDate lastDay;
+        private int size;
+
+        private int[] presentRing;  // [slot * 28 + epochDay % 28]
+        private int[] activeRing;
+        private byte[] counters;    // [slot * 96 + window(0=7일,1=28일) * 48 + kind * 24 + hour]
+        private int[] typicalShort;
+        private int[] typicalLong;
+
+        private Store(LocalDate lastDay, int expectedHouseholds) {
+            int capacity = Math.max(16, expectedHouseholds);
+            this.lastDay = lastDay;
+            this.slots = new IntIntHashMap(capacity);
+            this.presentRing = new int[capacity * LONG_WINDOW];
+            this.activeRing = new int[capacity * LONG_WINDOW];
+            this.counters = new byte[capacity * COUNTERS_PER_HOUSEHOLD];
+            this.typicalShort = new int[capacity];
+            this.typicalLong = new int[capacity];
+        }
+
+        /**
+         * day의 시간대 하나 반영 - 28일 창 밖이거나 lastDay 이후 날짜는 무시, 이미 반영된 비트는 다시 세지 않음
+         */
+        public void recordHour(int householdId, LocalDate day, int hour, boolean present, boolean active) {
+            if (hour < 0 || hour >= HOURS || (!present && !active)) {
+                return;
+            }
+            long stamp = lock.writeLock();
+            try {
+                if (lastDay == null) {
+                    return;
+                }
+                long age = lastDay.toEpochDay() - day.toEpochDay();
+                if (age < 0 || age >= LONG_WINDOW) {
+                    return;
+                }
+                int slot = slotFor(householdId);
+                int ringIndex = slot * LONG_WINDOW + (int) Math.floorMod(day.toEpochDay(), LONG_WINDOW);
+                int bit = 1 << hour;
+                boolean inShort = age < SHORT_WINDOW;
+
+                if (present && (presentRing[ringIndex] & bit) == 0) {
+                    presentRing[ringIndex] |= bit;
+                    increment(slot, PRESENT, hour, inShort);
+                }
+                if (active && (activeRing[ringIndex] & bit) == 0) {
+                    activeRing[ringIndex] |= bit;
+                    increment(slot, ACTIVE, hour, inShort);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean beginDay(LocalDate day) {
+            long stamp = lock.writeLock();
+            try {
+                if (lastDay == null || day.toEpochDay() != lastDay.toEpochDay() + 1) {
+                    return false;
+                }
+                long epochDay = day.toEpochDay();
+                int leavingShort = (int) Math.floorMod(epochDay - SHORT_WINDOW, LONG_WINDOW);
+                int leavingLong = (int) Math.floorMod(epochDay, LONG_WINDOW); // 28일 전 = 새 날과 같은 자리
+
+                for (int slot = 0; slot < size; slot++) {
+                    int base = slot * LONG_WINDOW;
+                    subtract(slot, 0, presentRing[base + leavingShort], activeRing[base + leavingShort]);
+                    subtract(slot, 1, presentRing[base + leavingLong], activeRing[base + leavingLong]);
+                    presentRing[base + leavingLong] = 0;
+                    activeRing[base + leavingLong] = 0;
+                }
+                lastDay = day;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void recomputeTypical(int minObservedDays, int typicalPercent) {
+            long stamp = lock.writeLock();
+            try {
+                for (int slot = 0; slot < size; slot++) {
+                    typicalShort[slot] = typicalMask(slot, 0, Math.min(minObservedDays, SHORT_WINDOW), typicalPercent);
+                    typicalLong[slot] = typicalMask(slot, 1, minObservedDays, typicalPercent);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int slotOf(int householdId) {
+            long stamp = lock.readLock();
+            try {
+                return slots.get(householdId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int typical(int householdId, int window) {
+            long stamp = lock.tryOptimisticRead();
+            int typical = readTypical(householdId, window);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    typical = readTypical(householdId, window);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return typical;
+        }
+
+        int[] hourlyProbabilities(int householdId, int window) {
+            long stamp = lock.readLock();
+            try {
+                int slot = slots.get(householdId);
+                if (slot < 0) {
+                    return null;
+                }
+                int base = slot * COUNTERS_PER_HOUSEHOLD + windowIndex(window) * 2 * HOURS;
+                int[] probabilities = new int[HOURS];
+                for (int hour = 0; hour < HOURS; hour++) {
+                    int observed = counters[base + PRESENT * HOURS + hour];
+                    int active = counters[base + ACTIVE * HOURS + hour];
+                    probabilities[hour] = observed > 0 ? Math.round(active * 100f / observed) : -1;
+                }
+                return probabilities;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private int readTypical(int householdId, int window) {
+            int slot = slots.get(householdId);
+            if (slot < 0) {
+                return 0;
+            }
+            int[] masks = window == SHORT_WINDOW ? typicalShort : typicalLong;
+            return slot < masks.length ? masks[slot] : 0;
+        }
+
+        private int typicalMask(int slot, int windowIndex, int minObservedDays, int typicalPercent) {
+            int base = slot * COUNTERS_PER_HOUSEHOLD + windowIndex * 2 * HOURS;
+            int mask = 0;
+            for (int hour = 0; hour < HOURS; hour++) {
+                int observed = counters[base + PRESENT * HOURS + hour];
+                int active = counters[base + ACTIVE * HOURS + hour];
+                if (observed >= Math.max(1, minObservedDays) && active * 100 >= observed * typicalPercent) {
+                    mask |= 1 << hour;
+                }
+            }
+            return mask;
+        }
+
+        private void increment(int slot, int kind, int hour, boolean inShort) {
+            int base = slot * COUNTERS_PER_HOUSEHOLD + kind * HOURS + hour;
+            counters[base + 2 * HOURS]++; // 28일
+            if (inShort) {
+                counters[base]++;         // 7일
+            }
+        }
+
+        private void subtract(int slot, int windowIndex, int presentMask, int activeMask) {
+            int base = slot * COUNTERS_PER_HOUSEHOLD + windowIndex * 2 * HOURS;
+            for (int bits = presentMask; bits != 0; bits &= bits - 1) {
+                counters[base + PRESENT * HOURS + Integer.numberOfTrailingZeros(bits)]--;
+            }
+            for (int bits = activeMask; bits != 0; bits &= bits - 1) {
+                counters[base + ACTIVE * HOURS + Integer.numberOfTrailingZeros(bits)]--;
+            }
+        }
+
+        private int slotFor(int householdId) {
+            int slot = slots.get(householdId);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (size == typicalShort.length) {
+                int capacity = typicalShort.length * 2;
+                presentRing = Arrays.copyOf(presentRing, capacity * LONG_WINDOW);
+                activeRing = Arrays.copyOf(activeRing, capacity * LONG_WINDOW);
+                counters = Arrays.copyOf(counters, capacity * COUNTERS_PER_HOUSEHOLD);
+                typicalShort = Arrays.copyOf(typicalShort, capacity);
+                typicalLong = Arrays.copyOf(typicalLong, capacity);
+            }
+            slot = size++;
+            slots.put(householdId, slot);
+            return slot;
+        }
+
+        private static int windowIndex(int window) {
+            return window == SHORT_WINDOW ? 0 : 1;
+        }
+    }
+}
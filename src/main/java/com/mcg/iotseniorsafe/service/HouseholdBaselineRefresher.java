@@ -0,0 +1,136 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import com.mcg.iotseniorsafe.repository.SensorSummaryStore;
+import com.mcg.iotseniorsafe.repository.SensorTableCatalog;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 기준선(HouseholdBaselineModel) 갱신
+ * - 처음이거나 28일 넘게 밀렸으면 최근 28일 전체 적재
+ * - 그 외에는 하루에 한 번, 아직 반영하지 않은 날(보통 어제 하루)만 조회해 반영
+ * 주기적으로 확인만 하고, 새 날이 없으면 DB를 조회하지 않는다.
+ */
+@Component
+public class HouseholdBaselineRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HouseholdBaselineRefresher.class);
+
+    private final HouseholdBaselineModel baselineModel;
+    private final SensorSummaryStore sensorSummaryStore;
+    private final SensorTableCatalog sensorTableCatalog;
+    private final TimeWindows timeWindows;
+
+    @Value("${app.risk.batchChunkSize:50}")
+    private int chunkSize;
+
+    @Autowired
+    public HouseholdBaselineRefresher(HouseholdBaselineModel baselineModel,
+                                      SensorSummaryStore sensorSummaryStore,
+                                      SensorTableCatalog sensorTableCatalog,
+                                      TimeWindows timeWindows) {
+        this.baselineModel = baselineModel;
+        this.sensorSummaryStore = sensorSummaryStore;
+        this.sensorTableCatalog = sensorTableCatalog;
+        this.timeWindows = timeWindows;
+    }
+
+    @Scheduled(initialDelayString = "${app.baseline.initialDelayMs:15000}",
+            fixedDelayString = "${app.baseline.checkIntervalMs:600000}")
+    public synchronized void catchUp() {
+        try {
+            LocalDate today = timeWindows.today();
+            LocalDate yesterday = today.minusDays(1);
+            LocalDate lastDay = baselineModel.getLastDay();
+
+            if (lastDay != null && !lastDay.isBefore(yesterday)) {
+                return; // 이미 어제까지 반영됨
+            }
+            if (lastDay == null || yesterday.toEpochDay() - lastDay.toEpochDay() >= HouseholdBaselineModel.LONG_WINDOW) {
+                fullLoad(today);
+            } else {
+                advance(today, lastDay);
+            }
+        } catch (Exception e) {
+            logger.error("기준선 갱신 실패", e);
+        }
+    }
+
+    private void fullLoad(LocalDate today) {
+        long start = System.currentTimeMillis();
+        int days = HouseholdBaselineModel.LONG_WINDOW;
+
+        List<Integer> secondaryIds = new ArrayList<>(sensorTableCatalog.householdIds(SensorSource.SECONDARY));
+        Set<Integer> primaryOnly = new TreeSet<>(sensorTableCatalog.householdIds(SensorSource.PRIMARY));
+        primaryOnly.removeAll(secondaryIds);
+
+        HouseholdBaselineModel.Store store = baselineModel.newStore(today.minusDays(1),
+                secondaryIds.size() + primaryOnly.size());
+        RowCallbackHandler handler = rs -> store.recordHour(rs.getInt("household_id"),
+                today.minusDays(rs.getInt("day_offset")), rs.getInt("hour"), true, isActive(rs));
+
+        load(SensorSource.SECONDARY, secondaryIds, today, days, handler);
+        load(SensorSource.PRIMARY, new ArrayList<>(primaryOnly), today, days, handler);
+        baselineModel.publish(store);
+
+        logger.info("기준선 전체 적재 완료 - 가구: {}, {}일, {}ms",
+                baselineModel.size(), days, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * lastDay 다음 날부터 어제까지 하루씩 전진한 뒤 그 기간의 집계만 반영
+     */
+    private void advance(LocalDate today, LocalDate lastDay) {
+        long start = System.currentTimeMillis();
+        int days = (int) (today.toEpochDay() - lastDay.toEpochDay() - 1);
+
+        for (LocalDate day = lastDay.plusDays(1); day.isBefore(today); day = day.plusDays(1)) {
+            baselineModel.beginDay(day);
+        }
+
+        List<Integer> secondaryIds = new ArrayList<>(sensorTableCatalog.householdIds(SensorSource.SECONDARY));
+        Set<Integer> primaryOnly = new TreeSet<>(sensorTableCatalog.householdIds(SensorSource.PRIMARY));
+        primaryOnly.removeAll(secondaryIds);
+
+        RowCallbackHandler handler = rs -> baselineModel.recordHour(rs.getInt("household_id"),
+                today.minusDays(rs.getInt("day_offset")), rs.getInt("hour"), true, isActive(rs));
+        load(SensorSource.SECONDARY, secondaryIds, today, days, handler);
+        load(SensorSource.PRIMARY, new ArrayList<>(primaryOnly), today, days, handler);
+        baselineModel.recomputeTypical();
+
+        logger.info("기준선 증분 반영 완료 - {}일 ({} ~ {}), {}ms",
+                days, lastDay.plusDays(1), today.minusDays(1), System.currentTimeMillis() - start);
+    }
+
+    private void load(SensorSource source, List<Integer> householdIds, LocalDate today, int days,
+                      RowCallbackHandler handler) {
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < householdIds.size(); from += size) {
+            List<Integer> chunk = householdIds.subList(from, Math.min(from + size, householdIds.size()));
+            try {
+                sensorSummaryStore.streamHourlyActivityForPastDays(source, chunk, today, days, handler);
+            } catch (Exception e) {
+                logger.warn("{} 기준선 청크 적재 실패 - {}가구: {}", source, chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isActive(ResultSet rs) throws SQLException {
+        return rs.getInt("led_active") > 0 || rs.getInt("occupied") > 0 || rs.getInt("noisy") > 0;
+    }
+}
@@ -1,6 +1,7 @@
 package com.mcg.iotseniorsafe.service;
 
 import com.mcg.iotseniorsafe.dto.HouseholdMonitoringDto;
+import com.mcg.iotseniorsafe.repository.HouseholdDirectory;
 import com.mcg.iotseniorsafe.repository.HouseholdMonitoringRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,6 +16,9 @@ public class HouseholdMonitoringService {
     @Autowired
     private HouseholdMonitoringRepository householdMonitoringRepository;
 
+    @Autowired
+    private HouseholdDirectory householdDirectory;
+
     /**
      * 통합 센서 모니터링 데이터 조회
      */
@@ -28,6 +32,19 @@ public class HouseholdMonitoringService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 검색어(가구명 / 담당자명 / 주소)에 맞는 가구의 모니터링 데이터만 조회
+     */
+    public List<HouseholdMonitoringDto> searchHouseholdMonitoringData(String query) {
+        List<Integer> householdIds = householdDirectory.search(query, Integer.MAX_VALUE);
+        if (householdIds.isEmpty()) {
+            return List.of();
+        }
+        return householdMonitoringRepository.findHouseholdMonitoringData(householdIds).stream()
+                .map(this::processMonitoringData)
+                .collect(Collectors.toList());
+    }
+
     /**
      * 특정 가구의 상세 센서 데이터 조회
      */
@@ -0,0 +1,19 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.repository.SensorSource;
+
+// 가구 한 곳의 위험도 평가 결과
+public record HouseholdRisk(
+        int householdId,
+        SensorSource source,     // 사용한 센서 데이터 (프로토타입 / 기존 LED)
+        double commonDataRatio,  // 공통 활동 비율 (%, 7일 기준선 우선, 없으면 어제 대비)
+        String riskLevel         // 정상 / 의심 / 심각
+) {
+    public boolean isAtRisk() {
+        return isAtRiskLevel(riskLevel);
+    }
+
+    public static boolean isAtRiskLevel(String riskLevel) {
+        return "의심".equals(riskLevel) || "심각".equals(riskLevel);
+    }
+}
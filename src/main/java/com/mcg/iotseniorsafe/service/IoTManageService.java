@@ -4,9 +4,15 @@ package com.mcg.iotseniorsafe.service;
 import com.mcg.iotseniorsafe.dto.MaintenanceLogDto;
 import com.mcg.iotseniorsafe.dto.SensorStatsDto;
 import com.mcg.iotseniorsafe.repository.IoTManageRepository;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import com.mcg.iotseniorsafe.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -15,6 +21,17 @@ public class IoTManageService {
     @Autowired
     private IoTManageRepository iotManageRepository;
 
+    @Autowired
+    private TimeWindows timeWindows;
+
+    @Value("${app.iot.maintenanceCountTtlMs:60000}")
+    private long maintenanceCountTtlMs;
+
+    private volatile CachedCount maintenanceLogCount;
+
+    private record CachedCount(int count, long countedAtMs) {
+    }
+
     /**
      * 센서 상태 통계 조회
      */
@@ -23,17 +40,57 @@ public class IoTManageService {
     }
 
     /**
-     * 유지보수 로그 조회
+     * 유지보수 로그 한 페이지 조회
+     * - cursor가 있으면 키셋 페이징 (page 무시), 없으면 page 오프셋으로 조회
+     * - limit + 1건을 읽어 다음 페이지 여부를 판단하므로 페이지당 DB 조회는 한 번
+     * - 전체 건수는 app.iot.maintenanceCountTtlMs 동안 캐시한 근사값 (캐시가 만료된 요청만 COUNT 쿼리)
+     * 잘못된 커서는 IllegalArgumentException
      */
-    public List<MaintenanceLogDto> getMaintenanceLogs(int page, int size, String sortBy) {
-        return iotManageRepository.getMaintenanceLogs(page, size, sortBy);
+    public MaintenanceLogPage getMaintenanceLogPage(String cursor, int page, int size, String sortBy, boolean withTotal) {
+        String scope = "maintenance-logs:" + sortBy;
+        int limit = Math.max(size, 1);
+
+        MaintenanceLogDto after = null;
+        LocalDateTime asOf;
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor decoded = PageCursor.decode(cursor, scope, 6);
+            asOf = decoded.getDateTime(0);
+            after = MaintenanceLogDto.builder()
+                    .id(decoded.getInt(1))
+                    .householdId(decoded.getInt(2))
+                    .householdName(decoded.getString(3))
+                    .status(decoded.getString(4))
+                    .lastActivity(decoded.getDateTime(5))
+                    .build();
+        } else {
+            asOf = timeWindows.now().truncatedTo(ChronoUnit.SECONDS);
+        }
+
+        List<MaintenanceLogDto> logs = iotManageRepository.getMaintenanceLogs(
+                sortBy, asOf, after, Math.max(page, 0) * limit, limit + 1);
+
+        String nextCursor = null;
+        if (logs.size() > limit) {
+            logs = new ArrayList<>(logs.subList(0, limit));
+            MaintenanceLogDto last = logs.get(limit - 1);
+            nextCursor = PageCursor.encode(scope, asOf, last.getId(), last.getHouseholdId(),
+                    last.getHouseholdName(), last.getStatus(), last.getLastActivity());
+        }
+
+        return new MaintenanceLogPage(logs, withTotal ? getMaintenanceLogCount() : -1, nextCursor);
     }
 
     /**
-     * 유지보수 로그 전체 개수 조회
+     * 유지보수 로그 전체 개수 (TTL 캐시)
      */
     public int getMaintenanceLogCount() {
-        return iotManageRepository.getMaintenanceLogCount();
+        long now = System.currentTimeMillis();
+        CachedCount cached = maintenanceLogCount;
+        if (cached == null || now - cached.countedAtMs() >= maintenanceCountTtlMs) {
+            cached = new CachedCount(iotManageRepository.getMaintenanceLogCount(timeWindows.now()), now);
+            maintenanceLogCount = cached;
+        }
+        return cached.count();
     }
 
     /**
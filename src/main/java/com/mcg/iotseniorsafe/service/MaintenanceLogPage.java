@@ -0,0 +1,13 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.dto.MaintenanceLogDto;
+
+import java.util.List;
+
+// 유지보수 로그 한 페이지 + 다음 페이지 커서
+public record MaintenanceLogPage(
+        List<MaintenanceLogDto> logs,
+        int totalElements,           // 전체 건수 (짧은 주기로 캐시한 근사값, 요청하지 않았으면 -1)
+        String nextCursor            // 다음 페이지 커서 (마지막 페이지면 null)
+) {
+}
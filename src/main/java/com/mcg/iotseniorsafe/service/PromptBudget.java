@@ -0,0 +1,93 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 프롬프트 토큰 예산
+ * 섹션을 중요도와 함께 순서대로 모으고, 예상 토큰 수가 예산을 넘으면 중요도가 낮은 섹션부터 뺀다.
+ * REQUIRED 섹션(지시문, 응답 형식 등)은 예산을 넘어도 빼지 않는다.
+ */
+final class PromptBudget {
+
+    static final int REQUIRED = 0;
+
+    private final List<Section> sections = new ArrayList<>();
+    private int droppedSections;
+    private int estimatedTokens;
+
+    /**
+     * @param priority 작을수록 중요 (REQUIRED=0, 그다음 1, 2 ...)
+     */
+    PromptBudget add(int priority, CharSequence text) {
+        if (text != null && text.length() > 0) {
+            String value = text.toString();
+            sections.add(new Section(sections.size(), priority, value, estimateTokens(value)));
+        }
+        return this;
+    }
+
+    /**
+     * 예산 안에 들도록 섹션을 고른 프롬프트 (budget이 0 이하면 전부 포함)
+     */
+    String build(int tokenBudget) {
+        List<Section> kept = new ArrayList<>(sections);
+        int total = kept.stream().mapToInt(Section::tokens).sum();
+
+        if (tokenBudget > 0 && total > tokenBudget) {
+            // 덜 중요한 것부터, 같은 중요도면 뒤에 있는 것부터 뺀다
+            List<Section> candidates = new ArrayList<>(kept);
+            candidates.sort(Comparator.comparingInt(Section::priority).reversed()
+                    .thenComparing(Comparator.comparingInt(Section::order).reversed()));
+            for (Section section : candidates) {
+                if (total <= tokenBudget || section.priority() == REQUIRED) {
+                    break;
+                }
+                kept.remove(section);
+                total -= section.tokens();
+                droppedSections++;
+            }
+        }
+
+        estimatedTokens = total;
+        StringBuilder prompt = new StringBuilder();
+        kept.forEach(section -> prompt.append(section.text()));
+        return prompt.toString();
+    }
+
+    int droppedSections() {
+        return droppedSections;
+    }
+
+    /**
+     * build() 결과의 예상 토큰 수
+     */
+    int estimatedTokens() {
+        return estimatedTokens;
+    }
+
+    /**
+     * 대략적인 토큰 수 - 한글 음절 1, 그 외 문자는 영문 기준 약 4글자당 1 (공백 포함)
+     * 실제 토크나이저 값이 아니므로 추세 비교용으로만 쓴다.
+     */
+    static int estimateTokens(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int hangul = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '가' && c <= '힣') {
+                hangul++;
+            } else {
+                other++;
+            }
+        }
+        return hangul + (other + 3) / 4;
+    }
+
+    private record Section(int order, int priority, String text, int tokens) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bedrock 요청 종류별 토큰 / 지연 시간 집계
+ * 입력 토큰은 모델이 알려준 값(usage)을 쓰고, 없으면 예상값을 쓴다.
+ * 입력 토큰 구간별 평균 지연 시간으로 프롬프트 크기와 응답 시간의 관계를 본다.
+ */
+@Component
+public class PromptTokenStats {
+
+    // 입력 토큰 구간 상한 (마지막 구간은 그 이상)
+    private static final int[] INPUT_BUCKETS = {500, 1000, 2000, 4000};
+
+    private final Map<String, TypeStats> byType = new ConcurrentHashMap<>();
+
+    public void record(String requestType, int estimatedInputTokens, Integer inputTokens, Integer outputTokens,
+                       int estimatedOutputTokens, long latencyMs, boolean trimmed) {
+        TypeStats stats = byType.computeIfAbsent(requestType, type -> new TypeStats());
+        int input = inputTokens != null ? inputTokens : estimatedInputTokens;
+        int output = outputTokens != null ? outputTokens : estimatedOutputTokens;
+
+        stats.calls.increment();
+        stats.estimatedInputTokens.add(estimatedInputTokens);
+        stats.inputTokens.add(input);
+        stats.outputTokens.add(output);
+        stats.latencyMs.add(latencyMs);
+        if (inputTokens != null) {
+            stats.reportedUsage.increment();
+        }
+        if (trimmed) {
+            stats.trimmed.increment();
+        }
+
+        int bucket = 0;
+        while (bucket < INPUT_BUCKETS.length && input >= INPUT_BUCKETS[bucket]) {
+            bucket++;
+        }
+        stats.bucketCalls[bucket].increment();
+        stats.bucketLatencyMs[bucket].add(latencyMs);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        byType.forEach((type, stats) -> result.put(type, stats.toMap()));
+        return result;
+    }
+
+    private static final class TypeStats {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder reportedUsage = new LongAdder();
+        private final LongAdder trimmed = new LongAdder();
+        private final LongAdder estimatedInputTokens = new LongAdder();
+        private final LongAdder inputTokens = new LongAdder();
+        private final LongAdder outputTokens = new LongAdder();
+        private final LongAdder latencyMs = new LongAdder();
+        private final LongAdder[] bucketCalls = newAdders(INPUT_BUCKETS.length + 1);
+        private final LongAdder[] bucketLatencyMs = newAdders(INPUT_BUCKETS.length + 1);
+
+        Map<String, Object> toMap() {
+            long count = calls.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("calls", count);
+            map.put("reportedUsage", reportedUsage.sum());
+            map.put("trimmedPrompts", trimmed.sum());
+            map.put("avgEstimatedInputTokens", average(estimatedInputTokens.sum(), count));
+            map.put("avgInputTokens", average(inputTokens.sum(), count));
+            map.put("avgOutputTokens", average(outputTokens.sum(), count));
+            map.put("avgLatencyMs", average(latencyMs.sum(), count));
+
+            Map<String, Object> buckets = new LinkedHashMap<>();
+            for (int i = 0; i <= INPUT_BUCKETS.length; i++) {
+                long bucketCount = bucketCalls[i].sum();
+                if (bucketCount == 0) {
+                    continue;
+                }
+                String label = i < INPUT_BUCKETS.length
+                        ? "<" + INPUT_BUCKETS[i]
+                        : ">=" + INPUT_BUCKETS[INPUT_BUCKETS.length - 1];
+                buckets.put(label, Map.of("calls", bucketCount,
+                        "avgLatencyMs", average(bucketLatencyMs[i].sum(), bucketCount)));
+            }
+            map.put("latencyByInputTokens", buckets);
+            return map;
+        }
+
+        private static long average(long sum, long count) {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        private static LongAdder[] newAdders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
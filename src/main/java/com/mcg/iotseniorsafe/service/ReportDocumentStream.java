@@ -0,0 +1,262 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.dto.AlertResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 신고 문서 스트리밍 생성 SSE(text/event-stream) 중계
+ * - delta 이벤트: 모델이 만든 텍스트 조각 {"text": "..."} (도착하는 대로)
+ * - result 이벤트: 끝까지 받은 응답을 파싱한 AlertResponse, 이후 연결 종료
+ * - error 이벤트: {"status": 503|404|500, "message": "..."} 이후 연결 종료
+ * 전송은 별도 스레드 풀에서 연결마다 하나씩 진행한다. 클라이언트가 느리면 밀린 조각을 합쳐 보내므로
+ * SDK 이벤트 스레드를 막지 않는다. 클라이언트가 끊겨도 모델 호출과 ai_analysis_log 기록은 끝까지 진행한다.
+ */
+@Component
+public class ReportDocumentStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportDocumentStream.class);
+
+    public static final String DELTA_EVENT = "delta";
+    public static final String RESULT_EVENT = "result";
+    public static final String ERROR_EVENT = "error";
+
+    private final BedrockService bedrockService;
+    private final AIPrewarmPipeline aiPrewarmPipeline;
+    private final ExecutorService sender;
+
+    @Value("${app.reportStream.emitterTimeoutMs:180000}")
+    private long emitterTimeoutMs;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong streams = new AtomicLong();
+    private final AtomicLong deltas = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+    private final AtomicLong firstDeltaMsTotal = new AtomicLong();
+    private final AtomicLong firstDeltaCount = new AtomicLong();
+
+    @Autowired
+    public ReportDocumentStream(BedrockService bedrockService, AIPrewarmPipeline aiPrewarmPipeline,
+                                @Value("${app.reportStream.senderThreads:2}") int senderThreads) {
+        this.bedrockService = bedrockService;
+        this.aiPrewarmPipeline = aiPrewarmPipeline;
+        AtomicInteger sequence = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "report-stream-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 신고 문서 생성 시작 - 요청 스레드는 프롬프트 준비까지만 쓰고 바로 반환
+     * 같은 분석으로 미리 만든 초안이 있으면 delta 없이 result 이벤트만 보낸다.
+     */
+    public SseEmitter start(int householdId, String analysisId, AlertResponse initialAnalysis) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Relay relay = new Relay(emitter);
+        streams.incrementAndGet();
+        active.incrementAndGet();
+
+        emitter.onCompletion(relay::close);
+        emitter.onTimeout(relay::close);
+        emitter.onError(e -> relay.close());
+
+        try {
+            AlertResponse prewarmed = aiPrewarmPipeline.getReport(householdId,
+                    analysisId != null ? analysisId : initialAnalysis != null ? initialAnalysis.getAnalysisId() : null);
+            if (prewarmed != null) {
+                relay.finish(householdId, prewarmed, null);
+                return emitter;
+            }
+            bedrockService.streamReportingDocument(householdId, analysisId, initialAnalysis, relay::offer)
+                    .whenComplete((response, error) -> relay.finish(householdId, response, error));
+        } catch (Exception e) {
+            relay.finish(householdId, null, e);
+        }
+        return emitter;
+    }
+
+    public Map<String, Object> getStats() {
+        long firstDeltas = firstDeltaCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", active.get());
+        stats.put("streams", streams.get());
+        stats.put("deltas", deltas.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("rejected", rejected.get());
+        stats.put("failed", failed.get());
+        stats.put("disconnects", disconnects.get());
+        stats.put("avgFirstDeltaMs", firstDeltas == 0 ? 0 : firstDeltaMsTotal.get() / firstDeltas);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * 연결 하나 - 밀린 텍스트 조각 + 마지막 이벤트 + 전송 예약 상태
+     */
+    private final class Relay {
+
+        private final SseEmitter emitter;
+        private final long startedAt = System.currentTimeMillis();
+        private final StringBuilder pendingText = new StringBuilder();
+        private int pendingDeltas;
+        private boolean firstDelta = true;
+        private String finalEvent;        // RESULT_EVENT / ERROR_EVENT
+        private Object finalData;
+        private boolean scheduled;
+        private boolean closed;
+
+        Relay(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(String text) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (firstDelta) {
+                    firstDelta = false;
+                    firstDeltaMsTotal.addAndGet(System.currentTimeMillis() - startedAt);
+                    firstDeltaCount.incrementAndGet();
+                }
+                pendingText.append(text);
+                if (++pendingDeltas > 1) {
+                    coalesced.incrementAndGet();
+                }
+            }
+            schedule();
+        }
+
+        void finish(int householdId, AlertResponse response, Throwable error) {
+            Object data;
+            String event;
+            if (error == null) {
+                event = RESULT_EVENT;
+                data = response;
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                int status;
+                String message;
+                if (cause instanceof RejectedExecutionException) {
+                    rejected.incrementAndGet();
+                    logger.warn("신고 문서 스트리밍 거절 (동시 호출 초과): householdId={}, {}", householdId, cause.getMessage());
+                    status = 503;
+                    message = String.valueOf(cause.getMessage());
+                } else if (cause instanceof NoSuchElementException) {
+                    logger.warn("신고 문서 스트리밍 - {}: householdId={}", cause.getMessage(), householdId);
+                    status = 404;
+                    message = String.valueOf(cause.getMessage());
+                } else {
+                    failed.incrementAndGet();
+                    logger.error("신고 문서 스트리밍 실패: householdId={}", householdId, cause);
+                    status = 500;
+                    message = "신고 문서 생성 중 오류가 발생했습니다.";
+                }
+                event = ERROR_EVENT;
+                data = Map.of("status", status, "message", message);
+            }
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                finalEvent = event;
+                finalData = data;
+            }
+            schedule();
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pendingText.setLength(0);
+                if (finalEvent == null) {
+                    disconnects.incrementAndGet(); // 결과를 보내기 전에 끊김
+                }
+            }
+            active.decrementAndGet();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (scheduled || closed || (pendingText.length() == 0 && finalEvent == null)) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (Exception e) {
+                synchronized (this) {
+                    scheduled = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                String text;
+                String event;
+                Object data;
+                synchronized (this) {
+                    if (closed || (pendingText.length() == 0 && finalEvent == null)) {
+                        scheduled = false;
+                        return;
+                    }
+                    text = pendingText.toString();
+                    pendingText.setLength(0);
+                    pendingDeltas = 0;
+                    event = finalEvent;
+                    data = finalData;
+                }
+
+                try {
+                    if (!text.isEmpty()) {
+                        emitter.send(SseEmitter.event()
+                                .name(DELTA_EVENT)
+                                .data(Map.of("text", text), MediaType.APPLICATION_JSON));
+                        deltas.incrementAndGet();
+                    }
+                    if (event != null) {
+                        emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                        close();
+                        return;
+                    }
+                } catch (Exception e) {
+                    logger.debug("신고 문서 스트림 전송 실패 - 연결 종료: {}", e.getMessage());
+                    close();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.mcg.iotseniorsafe.dto.ManualReportDto;
 import com.mcg.iotseniorsafe.entity.Report;
 import com.mcg.iotseniorsafe.repository.ReportDetailRepository;
 import com.mcg.iotseniorsafe.repository.ReportRepository;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +23,7 @@ public class ReportService {
 
     private final ReportRepository repo;
     private final ReportDetailRepository detailRepo;
+    private final TimeWindows timeWindows;
 
     // 한전 MCS 담당자가 직접 신고하는 기능 (기존 report 확인 후 detail 추가)
     @Transactional
@@ -29,7 +31,7 @@ public class ReportService {
         logger.info("수동 신고 생성: managerId={}, householdId={}", dto.managerId(), dto.householdId());
 
         // 1. 해당 가구의 기존 report 확인 (오늘 날짜 기준)
-        Optional<Report> existingReport = repo.findByHouseholdIdAndCreatedAtToday(dto.householdId());
+        Optional<Report> existingReport = repo.findByHouseholdIdAndCreatedAtToday(dto.householdId(), timeWindows.day(0));
 
         Report rpt;
         if (existingReport.isPresent()) {
@@ -77,7 +79,7 @@ public class ReportService {
 
         try {
             // 1. 해당 가구의 기존 report 확인 (오늘 날짜 기준)
-            Optional<Report> existingReport = repo.findByHouseholdIdAndCreatedAtToday(householdId);
+            Optional<Report> existingReport = repo.findByHouseholdIdAndCreatedAtToday(householdId, timeWindows.day(0));
 
             Report rpt;
             if (existingReport.isPresent()) {
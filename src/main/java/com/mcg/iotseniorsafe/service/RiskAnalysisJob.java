@@ -1,55 +1,171 @@
 package com.mcg.iotseniorsafe.service;
 
-import lombok.RequiredArgsConstructor;
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import com.mcg.iotseniorsafe.repository.SensorSummaryStore;
+import com.mcg.iotseniorsafe.repository.SensorTableCatalog;
+import com.mcg.iotseniorsafe.repository.TimeWindow;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
-// 스케줄러 비활성화 - 자동 신고 생성하지 않음
+/**
+ * 최근 1시간 무점유·소음 패턴 스캔 (자동 신고 생성하지 않음 - 로그만 기록)
+ * 가구 테이블을 청크 단위 UNION ALL로 묶어 COUNT/SUM을 DB에서 계산하고, 가구당 한 행만 받아 처리한다.
+ * 청크 조회가 실패하면 가구별로 다시 조회한다 (테이블 하나의 문제로 같은 청크의 다른 가구가 빠지지 않도록).
+ * 이전 실행이 끝나지 않았으면 이번 실행은 건너뛴다.
+ */
 @Component
-@RequiredArgsConstructor
 public class RiskAnalysisJob {
 
     private static final Logger logger = LoggerFactory.getLogger(RiskAnalysisJob.class);
 
-    private final JdbcTemplate jdbc;
+    // 패턴 감지 기준 (1시간 내 무점유·소음 기록 수)
+    private static final int PATTERN_THRESHOLD = 3;
+
     private final ReportService reportService;
+    private final SensorSummaryStore sensorSummaryStore;
+    private final SensorTableCatalog sensorTableCatalog;
+    private final TimeWindows timeWindows;
+
+    @Value("${app.risk.batchChunkSize:50}")
+    private int chunkSize;
+
+    @Value("${app.risk.hourlyScanWindowMinutes:60}")
+    private int windowMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // 실행 지표
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedRuns = new AtomicLong();
+    private final AtomicLong failedHouseholds = new AtomicLong();
+    private volatile long lastDurationMs;
+    private volatile long lastRowsScanned;
+    private volatile int lastHouseholds;
+    private volatile int lastDetected;
+    private volatile int lastFailedHouseholds;
+    private volatile LocalDateTime lastRunAt;
+
+    @Autowired
+    public RiskAnalysisJob(ReportService reportService, SensorSummaryStore sensorSummaryStore,
+                           SensorTableCatalog sensorTableCatalog, TimeWindows timeWindows) {
+        this.reportService = reportService;
+        this.sensorSummaryStore = sensorSummaryStore;
+        this.sensorTableCatalog = sensorTableCatalog;
+        this.timeWindows = timeWindows;
+    }
+
+    @Scheduled(initialDelayString = "${app.risk.hourlyScanInitialDelayMs:60000}",
+            fixedDelayString = "${app.risk.hourlyScanIntervalMs:300000}")
+    public void hourlyScan() {
+        if (!running.compareAndSet(false, true)) {
+            skippedRuns.incrementAndGet();
+            logger.warn("이전 패턴 스캔이 진행 중이라 이번 실행을 건너뜀");
+            return;
+        }
+        try {
+            scan();
+        } catch (Exception e) {
+            logger.error("무점유·소음 패턴 스캔 실패", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void scan() {
+        long start = System.currentTimeMillis();
+        List<Integer> householdIds = sensorTableCatalog.householdIds(SensorSource.SECONDARY);
+        TimeWindow window = timeWindows.lastMinutes(windowMinutes); // 모든 청크가 같은 시작 시각 사용
 
-    // 스케줄러 비활성화 - 자동 신고 생성 중단
-    // @Scheduled(cron = "0 10 * * * *")  // 주석 처리
-    public void hourlyScan(){
-        logger.info("스케줄러 비활성화됨 - 자동 신고 생성하지 않음");
-
-        // 기존 로직은 유지하되 신고 생성은 하지 않음
-        List<String> tbls = jdbc.queryForList(
-                "SELECT table_name FROM information_schema.tables " +
-                        "WHERE table_schema = DATABASE() AND table_name LIKE 'sensor_summary_%'",
-                String.class);
-
-        for(String tbl: tbls){
-            int hhId = Integer.parseInt(tbl.replace("sensor_summary_", ""));
-            List<Map<String, Object>> rows = jdbc.queryForList(
-                    "SELECT * FROM "+tbl+" WHERE recorded_at >= NOW() - INTERVAL 1 HOUR");
-
-            long cnt = rows.stream()
-                    .filter(r -> ((byte)r.get("is_occupied")==0) && ((byte)r.get("is_noisy")==1))
-                    .count();
-
-            if(cnt >= 3){
-                // 자동 신고 생성하지 않고 로그만 기록
-                logger.info("위험 패턴 감지 (신고 생성 안함): householdId={}, 패턴=무점유·소음 {}회", hhId, cnt);
-
-                // 기존 자동 신고 생성 코드 주석 처리
-                // reportService.createAutoReport(
-                //         hhId,
-                //         (byte)(cnt>=5?2:1),    // 1:MED, 2:HIGH
-                //         "무점유·소음 패턴 "+cnt+"회"
-                // );
+        long rowsScanned = 0;
+        int detected = 0;
+        int failed = 0;
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < householdIds.size(); from += size) {
+            List<Integer> chunk = householdIds.subList(from, Math.min(from + size, householdIds.size()));
+            List<PatternCount> counts = new ArrayList<>();
+            try {
+                counts.addAll(queryCounts(chunk, window));
+            } catch (Exception e) {
+                logger.warn("패턴 스캔 청크 실패, 가구별 재시도 - {}가구: {}", chunk.size(), e.getMessage());
+                for (int householdId : chunk) {
+                    try {
+                        counts.addAll(queryCounts(List.of(householdId), window));
+                    } catch (Exception ex) {
+                        failed++;
+                        logger.warn("가구 {} 패턴 스캔 실패: {}", householdId, ex.getMessage());
+                    }
+                }
+            }
+
+            for (PatternCount count : counts) {
+                rowsScanned += count.scannedRows();
+                if (count.patternCount() >= PATTERN_THRESHOLD) {
+                    detected++;
+                    // 자동 신고 생성하지 않고 로그만 기록
+                    logger.info("위험 패턴 감지 (신고 생성 안함): householdId={}, 패턴=무점유·소음 {}회",
+                            count.householdId(), count.patternCount());
+
+                    // 기존 자동 신고 생성 코드 주석 처리
+                    // reportService.createAutoReport(
+                    //         hhId,
+                    //         (byte)(cnt>=5?2:1),    // 1:MED, 2:HIGH
+                    //         "무점유·소음 패턴 "+cnt+"회"
+                    // );
+                }
             }
         }
+
+        runs.incrementAndGet();
+        failedHouseholds.addAndGet(failed);
+        lastDurationMs = System.currentTimeMillis() - start;
+        lastRowsScanned = rowsScanned;
+        lastHouseholds = householdIds.size();
+        lastDetected = detected;
+        lastFailedHouseholds = failed;
+        lastRunAt = timeWindows.now();
+
+        logger.info("무점유·소음 패턴 스캔 완료 - 가구: {}, 스캔 행: {}, 감지: {}, 실패: {}, {}ms",
+                lastHouseholds, lastRowsScanned, lastDetected, failed, lastDurationMs);
+    }
+
+    /**
+     * 가구들의 무점유·소음 기록 수 조회 - 끝까지 읽은 경우만 반환 (중간에 실패한 조회의 일부 행을 세지 않도록)
+     */
+    private List<PatternCount> queryCounts(List<Integer> householdIds, TimeWindow window) {
+        List<PatternCount> counts = new ArrayList<>();
+        sensorSummaryStore.streamQuietNoiseCounts(householdIds, window, rs -> counts.add(new PatternCount(
+                rs.getInt("household_id"), rs.getLong("pattern_count"), rs.getLong("scanned_rows"))));
+        return counts;
+    }
+
+    private record PatternCount(int householdId, long patternCount, long scannedRows) {
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("skippedRuns", skippedRuns.get());
+        stats.put("failedHouseholds", failedHouseholds.get());
+        stats.put("lastFailedHouseholds", lastFailedHouseholds);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastDurationMs", lastDurationMs);
+        stats.put("lastRowsScanned", lastRowsScanned);
+        stats.put("lastHouseholds", lastHouseholds);
+        stats.put("lastDetected", lastDetected);
+        return stats;
     }
-}
\ No newline at end of file
+}
@@ -1,174 +1,187 @@
 package com.mcg.iotseniorsafe.service;
 
+import com.mcg.iotseniorsafe.dto.HouseholdProfileDto;
 import com.mcg.iotseniorsafe.dto.RiskEntryDto;
+import com.mcg.iotseniorsafe.repository.HouseholdDirectory;
+import com.mcg.iotseniorsafe.repository.RiskSnapshotRepository;
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import com.mcg.iotseniorsafe.repository.SensorSummaryStore;
+import com.mcg.iotseniorsafe.repository.SensorTableCatalog;
+import com.mcg.iotseniorsafe.repository.TimeWindow;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import com.mcg.iotseniorsafe.util.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class RiskAnalysisService {
 
     private static final Logger logger = LoggerFactory.getLogger(RiskAnalysisService.class);
 
-    private final JdbcTemplate primaryJdbcTemplate;   // 한전 MCS (기존 LED만)
-    private final JdbcTemplate secondaryJdbcTemplate; // 우리 시스템 (신고 테이블 + 프로토타입 센서)
+    // 캐시할 검색어별 위험 가구 수 최대 개수 (넘으면 비움)
+    private static final int MAX_CACHED_COUNTS = 256;
 
-    // 위험도 판단 기준값
-    private static final double NORMAL_THRESHOLD = 60.0;
-    private static final double CRITICAL_THRESHOLD = 40.0;
+    private final SensorSummaryStore sensorSummaryStore;
+    private final RiskBatchEvaluator riskBatchEvaluator;
+    private final HouseholdActivityModel activityModel;
+    private final HouseholdBaselineModel baselineModel;
+    private final SensorTableCatalog sensorTableCatalog;
+    private final HouseholdDirectory householdDirectory;
+    private final RiskSnapshotRepository riskSnapshotRepository;
+    private final RiskSnapshotRefresher riskSnapshotRefresher;
+
+    private final RiskScorers riskScorers;
+    private final BaselineRiskScorer baselineRiskScorer;
+    private final TimeWindows timeWindows;
+
+    // 스냅샷 시각 기준 검색어별 위험 가구 수 캐시
+    private final Map<String, Long> atRiskCounts = new ConcurrentHashMap<>();
+    private volatile LocalDateTime atRiskCountsSnapshotAt;
+
+    // 가구별 조회 경로의 공통 활동 비율 계산 방식 (RiskScorer 이름)
+    @Value("${app.risk.scorer:" + HourJoinRiskScorer.NAME + "}")
+    private String scorerName;
 
     @Autowired
-    public RiskAnalysisService(@Qualifier("primaryJdbcTemplate") JdbcTemplate primaryJdbcTemplate,
-                               @Qualifier("secondaryJdbcTemplate") JdbcTemplate secondaryJdbcTemplate) {
-        this.primaryJdbcTemplate = primaryJdbcTemplate;
-        this.secondaryJdbcTemplate = secondaryJdbcTemplate;
+    public RiskAnalysisService(SensorSummaryStore sensorSummaryStore,
+                               RiskBatchEvaluator riskBatchEvaluator,
+                               HouseholdActivityModel activityModel,
+                               HouseholdBaselineModel baselineModel,
+                               SensorTableCatalog sensorTableCatalog,
+                               HouseholdDirectory householdDirectory,
+                               RiskSnapshotRepository riskSnapshotRepository,
+                               RiskSnapshotRefresher riskSnapshotRefresher,
+                               RiskScorers riskScorers,
+                               BaselineRiskScorer baselineRiskScorer,
+                               TimeWindows timeWindows) {
+        this.sensorSummaryStore = sensorSummaryStore;
+        this.riskBatchEvaluator = riskBatchEvaluator;
+        this.activityModel = activityModel;
+        this.baselineModel = baselineModel;
+        this.sensorTableCatalog = sensorTableCatalog;
+        this.householdDirectory = householdDirectory;
+        this.riskSnapshotRepository = riskSnapshotRepository;
+        this.riskSnapshotRefresher = riskSnapshotRefresher;
+        this.riskScorers = riskScorers;
+        this.baselineRiskScorer = baselineRiskScorer;
+        this.timeWindows = timeWindows;
     }
 
     /**
-     * 위험 의심 내역 조회 - 실시간 센서 데이터 기반 (report 테이블 사용 안함)
+     * 위험 의심 내역 조회 - risk_snapshot 기반 (정렬/검색/페이징은 SQL에서 처리)
      */
     public List<RiskEntryDto> getRiskEntries(int page, int size, String search, String sort) {
-        logger.info("getRiskEntries 호출 - page: {}, size: {}, search: '{}', sort: '{}'", page, size, search, sort);
+        return getRiskEntryPage(page, size, search, sort).entries();
+    }
 
-        List<RiskEntryDto> riskEntries = new ArrayList<>();
+    public RiskEntryPage getRiskEntryPage(int page, int size, String search, String sort) {
+        return getRiskEntryPage(null, page, size, search, sort, true);
+    }
 
-        try {
-            // 1. 모든 sensor_summary 테이블 조회 (Secondary + Primary)
-            String tablesQuery = "SHOW TABLES LIKE 'sensor_summary_%'";
-            List<String> secondaryTables = secondaryJdbcTemplate.queryForList(tablesQuery, String.class);
-            List<String> primaryTables = primaryJdbcTemplate.queryForList(tablesQuery, String.class);
-
-            Set<String> allTables = new HashSet<>();
-            allTables.addAll(secondaryTables);
-            allTables.addAll(primaryTables);
-
-            // 2. 각 가구별 위험도 계산
-            for (String tableName : allTables) {
-                String householdIdStr = tableName.replace("sensor_summary_", "");
-
-                // 숫자가 아닌 테이블명 필터링 (예: sensor_summary_queue_test)
-                if (!householdIdStr.matches("\\d+")) {
-                    logger.debug("숫자가 아닌 테이블 스킵: {}", tableName);
-                    continue;
-                }
-
-                int householdId = Integer.parseInt(householdIdStr);
-
-                try {
-                    double commonDataRatio = calculateCommonDataRatio(householdId);
-                    String riskLevel = determineRiskLevel(commonDataRatio);
-
-                    // 3. 위험(의심, 심각)인 경우만 포함
-                    if ("의심".equals(riskLevel) || "심각".equals(riskLevel)) {
-
-                        // 4. 가구 정보 조회
-                        String householdQuery = "SELECT h.household_id, h.name, h.address, h.contact_number, h.manager_id, " +
-                                "m.name as manager_name FROM household h " +
-                                "LEFT JOIN manager m ON h.manager_id = m.manager_id " +
-                                "WHERE h.household_id = ?";
-
-                        Map<String, Object> householdInfo = null;
-                        try {
-                            householdInfo = secondaryJdbcTemplate.queryForMap(householdQuery, householdId);
-                        } catch (Exception e) {
-                            logger.warn("가구 정보 조회 실패: householdId={}", householdId);
-                            continue;
-                        }
-
-                        // 5. RiskEntryDto 생성 (report 테이블 없이)
-                        RiskEntryDto dto = new RiskEntryDto();
-                        dto.setReportId(0); // 아직 신고되지 않음
-                        dto.setHouseholdId(householdId);
-                        dto.setManagerId((Integer) householdInfo.get("manager_id"));
-                        dto.setManagerName((String) householdInfo.get("manager_name"));
-                        dto.setHouseholdName((String) householdInfo.get("name"));
-                        dto.setAddress((String) householdInfo.get("address"));
-                        dto.setContactNumber((String) householdInfo.get("contact_number"));
-                        dto.setStatusCode(0); // 미처리
-                        dto.setCreatedAt(LocalDateTime.now()); // 현재 시간
-                        dto.setUpdatedAt(LocalDateTime.now());
-                        dto.setAgencyName(riskLevel.equals("심각") ? "119소방서" : "지역복지센터");
-                        dto.setDescription(String.format("시스템 감지: %s 위험도, 공통 활동 비율 %.1f%%",
-                                riskLevel, commonDataRatio));
-                        dto.setCommonDataRatio(commonDataRatio);
-                        dto.setRiskLevel(riskLevel);
-
-                        riskEntries.add(dto);
-                    }
-                } catch (Exception e) {
-                    logger.warn("가구 {} 위험도 계산 실패: {}", householdId, e.getMessage());
-                }
-            }
+    /**
+     * 위험 의심 내역 한 페이지 + 다음 페이지 커서 + 전체 건수 + 스냅샷 시각
+     * - cursor가 있으면 키셋 페이징 (page 무시), 없으면 page 오프셋으로 조회
+     * - limit + 1건을 읽어 다음 페이지 여부를 판단하므로 페이지당 DB 조회는 한 번
+     * - 전체 건수는 스냅샷이 바뀔 때까지 검색어별로 캐시 (검색어가 없으면 스냅샷 갱신 시 센 값 사용)
+     * 잘못된 커서는 IllegalArgumentException
+     */
+    public RiskEntryPage getRiskEntryPage(String cursor, int page, int size, String search, String sort,
+                                          boolean withTotal) {
+        logger.info("getRiskEntries 호출 - cursor: {}, page: {}, size: {}, search: '{}', sort: '{}'",
+                cursor != null, page, size, search, sort);
 
-            // 6. 정렬
-            if ("latest".equals(sort)) {
-                riskEntries.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
-            } else {
-                riskEntries.sort((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
-            }
+        boolean latestFirst = "latest".equals(sort);
+        String scope = riskEntryCursorScope(search, latestFirst);
+        PageCursor after = cursor != null && !cursor.isBlank() ? PageCursor.decode(cursor, scope, 2) : null;
 
-            // 7. 검색 필터 적용
-            if (search != null && !search.trim().isEmpty()) {
-                String searchLower = search.toLowerCase();
-                riskEntries = riskEntries.stream()
-                        .filter(dto ->
-                                (dto.getManagerName() != null && dto.getManagerName().toLowerCase().contains(searchLower)) ||
-                                        (dto.getHouseholdName() != null && dto.getHouseholdName().toLowerCase().contains(searchLower)) ||
-                                        (dto.getAddress() != null && dto.getAddress().toLowerCase().contains(searchLower))
-                        )
-                        .collect(Collectors.toList());
+        try {
+            LocalDateTime snapshotAt = riskSnapshotRefresher.lastRefreshedAt();
+
+            int limit = Math.max(size, 1);
+            List<RiskEntryDto> entries = after != null
+                    ? riskSnapshotRepository.findAtRiskAfter(search, latestFirst,
+                            after.getDateTime(0), after.getInt(1), limit + 1)
+                    : riskSnapshotRepository.findAtRisk(search, latestFirst, Math.max(page, 0) * limit, limit + 1);
+
+            String nextCursor = null;
+            if (entries.size() > limit) {
+                entries = new ArrayList<>(entries.subList(0, limit));
+                RiskEntryDto last = entries.get(limit - 1);
+                nextCursor = PageCursor.encode(scope, last.getCreatedAt(), last.getHouseholdId());
             }
+            entries.forEach(RiskAnalysisService::describe);
+            long totalCount = withTotal ? countAtRisk(search, snapshotAt) : -1;
 
-            // 8. 페이징 적용
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, riskEntries.size());
-
-            if (startIndex < riskEntries.size()) {
-                return riskEntries.subList(startIndex, endIndex);
-            } else {
-                return new ArrayList<>();
-            }
+            long snapshotAgeSeconds = snapshotAt != null
+                    ? Math.max(0, Duration.between(snapshotAt, timeWindows.now()).getSeconds()) : -1;
+            return new RiskEntryPage(entries, totalCount, snapshotAt, snapshotAgeSeconds, nextCursor);
 
         } catch (Exception e) {
             logger.error("위험 의심 내역 조회 실패", e);
-            return new ArrayList<>();
+            return new RiskEntryPage(new ArrayList<>(), 0, null, -1, null);
         }
     }
 
+    private static String riskEntryCursorScope(String search, boolean latestFirst) {
+        return "risk-entries:" + (latestFirst ? "latest" : "oldest") + ":" + (search != null ? search.trim() : "");
+    }
+
+    /**
+     * 검색 조건별 위험 가구 수 - 같은 스냅샷 안에서는 한 번만 센다
+     */
+    private long countAtRisk(String search, LocalDateTime snapshotAt) {
+        String key = search != null ? search.trim() : "";
+        if (key.isEmpty() && riskSnapshotRefresher.lastAtRiskCount() >= 0) {
+            return riskSnapshotRefresher.lastAtRiskCount();
+        }
+        if (!Objects.equals(snapshotAt, atRiskCountsSnapshotAt) || atRiskCounts.size() >= MAX_CACHED_COUNTS) {
+            atRiskCounts.clear();
+            atRiskCountsSnapshotAt = snapshotAt;
+        }
+        return atRiskCounts.computeIfAbsent(key, riskSnapshotRepository::countAtRisk);
+    }
+
+    /**
+     * 위험도에 따른 신고 기관 / 설명 채우기
+     */
+    private static void describe(RiskEntryDto dto) {
+        dto.setAgencyName("심각".equals(dto.getRiskLevel()) ? "119소방서" : "지역복지센터");
+        dto.setDescription(String.format("시스템 감지: %s 위험도, 공통 활동 비율 %.1f%%",
+                dto.getRiskLevel(), dto.getCommonDataRatio()));
+    }
+
     /**
      * 특정 가구의 공통 데이터 비율 계산
      * Secondary의 프로토타입 데이터 우선, 없으면 Primary의 기존 데이터 사용
      */
     private double calculateCommonDataRatio(int householdId) {
-        try {
-            String tableName = "sensor_summary_" + householdId;
+        return calculateCommonDataRatio(householdId, new RiskScanStats("single"));
+    }
 
-            // 우선 Secondary에서 프로토타입 센서 데이터 확인
-            String checkTableQuery = "SELECT COUNT(*) FROM information_schema.tables " +
-                    "WHERE table_schema = DATABASE() AND table_name = ?";
-            Integer tableExists = secondaryJdbcTemplate.queryForObject(checkTableQuery, Integer.class, tableName);
+    private double calculateCommonDataRatio(int householdId, RiskScanStats stats) {
+        try {
+            // 테이블 존재 여부는 카탈로그로 확인 (메타데이터 쿼리 없음)
+            SensorSource source = sensorTableCatalog.resolve(householdId);
 
-            if (tableExists != null && tableExists > 0) {
+            if (source == SensorSource.SECONDARY) {
                 // Secondary에 프로토타입 데이터가 있으면 사용 (LED + 재실감지 + 소음감지)
                 logger.debug("프로토타입 센서 데이터 사용: householdId={}", householdId);
-                return calculateFromSecondary(householdId, tableName);
-            } else {
+                return calculateFromSecondary(householdId, stats);
+            } else if (source == SensorSource.PRIMARY) {
                 // Secondary에 없으면 Primary에서 기존 LED 데이터 사용
-                tableExists = primaryJdbcTemplate.queryForObject(checkTableQuery, Integer.class, tableName);
-                if (tableExists != null && tableExists > 0) {
-                    logger.debug("기존 LED 데이터 사용: householdId={}", householdId);
-                    return calculateFromPrimary(householdId, tableName);
-                }
+                logger.debug("기존 LED 데이터 사용: householdId={}", householdId);
+                return calculateFromPrimary(householdId, stats);
             }
 
-            logger.warn("센서 테이블이 존재하지 않음: {}", tableName);
+            logger.warn("센서 요약 데이터가 존재하지 않음: householdId={}", householdId);
             return 0.0;
 
         } catch (Exception e) {
@@ -180,76 +193,28 @@ public class RiskAnalysisService {
     /**
      * Secondary DB에서 프로토타입 센서 데이터 사용 (LED + 재실감지 + 소음감지)
      */
-    private double calculateFromSecondary(int householdId, String tableName) {
+    private double calculateFromSecondary(int householdId, RiskScanStats stats) {
         try {
+            TimeWindow yesterday = timeWindows.day(1);
+            TimeWindow today = timeWindows.day(0);
+
             // 어제와 오늘의 시간대별 활동 데이터 조회
-            String yesterdayQuery = String.format(
-                    "SELECT HOUR(recorded_at) as hour, " +
-                            "MAX(led_master_room + led_living_room + led_kitchen + led_toilet) as led_active, " +
-                            "MAX(is_occupied) as occupied, " +
-                            "MAX(is_noisy) as noisy " +
-                            "FROM %s WHERE DATE(recorded_at) = DATE(NOW() - INTERVAL 1 DAY) " +
-                            "GROUP BY HOUR(recorded_at) ORDER BY hour", tableName);
-
-            String todayQuery = String.format(
-                    "SELECT HOUR(recorded_at) as hour, " +
-                            "MAX(led_master_room + led_living_room + led_kitchen + led_toilet) as led_active, " +
-                            "MAX(is_occupied) as occupied, " +
-                            "MAX(is_noisy) as noisy " +
-                            "FROM %s WHERE DATE(recorded_at) = DATE(NOW()) " +
-                            "GROUP BY HOUR(recorded_at) ORDER BY hour", tableName);
-
-            List<Map<String, Object>> yesterdayData = secondaryJdbcTemplate.queryForList(yesterdayQuery);
-            List<Map<String, Object>> todayData = secondaryJdbcTemplate.queryForList(todayQuery);
-
-            if (yesterdayData.isEmpty() || todayData.isEmpty()) {
+            List<Map<String, Object>> yesterdayData = sensorSummaryStore.findHourlyActivity(SensorSource.SECONDARY, householdId, yesterday);
+            List<Map<String, Object>> todayData = sensorSummaryStore.findHourlyActivity(SensorSource.SECONDARY, householdId, today);
+            stats.roundTrip();
+            stats.roundTrip();
+
+            if (todayData.isEmpty()) {
                 logger.debug("프로토타입 데이터 부족 - householdId: {}, 어제: {}시간, 오늘: {}시간",
                         householdId, yesterdayData.size(), todayData.size());
                 return 0.0;
             }
 
-            // 시간대별 활동 패턴 비교
-            int commonActivityHours = 0;
-            int totalComparableHours = 0;
-
-            // 어제 데이터를 Map으로 변환 (빠른 검색을 위해)
-            Map<Integer, Map<String, Object>> yesterdayMap = new HashMap<>();
-            for (Map<String, Object> row : yesterdayData) {
-                yesterdayMap.put((Integer) row.get("hour"), row);
-            }
-
-            // 오늘 데이터와 비교
-            for (Map<String, Object> todayRow : todayData) {
-                Integer hour = (Integer) todayRow.get("hour");
-                Map<String, Object> yesterdayRow = yesterdayMap.get(hour);
-
-                if (yesterdayRow != null) {
-                    totalComparableHours++;
-
-                    // 같은 시간대의 활동 패턴 비교
-                    boolean yesterdayLed = ((Number) yesterdayRow.get("led_active")).intValue() > 0;
-                    boolean todayLed = ((Number) todayRow.get("led_active")).intValue() > 0;
-
-                    boolean yesterdayOccupied = ((Number) yesterdayRow.get("occupied")).intValue() > 0;
-                    boolean todayOccupied = ((Number) todayRow.get("occupied")).intValue() > 0;
-
-                    boolean yesterdayNoisy = ((Number) yesterdayRow.get("noisy")).intValue() > 0;
-                    boolean todayNoisy = ((Number) todayRow.get("noisy")).intValue() > 0;
-
-                    // 하나라도 공통 활동이 있으면 카운트
-                    if ((yesterdayLed && todayLed) ||
-                            (yesterdayOccupied && todayOccupied) ||
-                            (yesterdayNoisy && todayNoisy)) {
-                        commonActivityHours++;
-                    }
-                }
-            }
-
-            double ratio = totalComparableHours > 0 ?
-                    (double) commonActivityHours / totalComparableHours * 100 : 0.0;
+            // 기준선 우선, 없으면 어제 대비 (어제 데이터도 없으면 0)
+            double ratio = baselineRiskScorer.commonDataRatio(householdId, yesterdayData, todayData,
+                    riskScorers.get(scorerName));
 
-            logger.debug("프로토타입 센서 활동 패턴 비교 - householdId: {}, 공통활동: {}/{}시간 = {}%",
-                    householdId, commonActivityHours, totalComparableHours, ratio);
+            logger.debug("프로토타입 센서 활동 패턴 비교 - householdId: {}, 공통활동 비율 = {}%", householdId, ratio);
             return ratio;
 
         } catch (Exception e) {
@@ -261,64 +226,28 @@ public class RiskAnalysisService {
     /**
      * Primary DB에서 기존 LED 데이터만 사용
      */
-    private double calculateFromPrimary(int householdId, String tableName) {
+    private double calculateFromPrimary(int householdId, RiskScanStats stats) {
         try {
+            TimeWindow yesterday = timeWindows.day(1);
+            TimeWindow today = timeWindows.day(0);
+
             // 어제와 오늘의 시간대별 LED 활동 데이터 조회
-            String yesterdayQuery = String.format(
-                    "SELECT HOUR(recorded_at) as hour, " +
-                            "MAX(led_master_room + led_living_room + led_kitchen + led_toilet) as led_active " +
-                            "FROM %s WHERE DATE(recorded_at) = DATE(NOW() - INTERVAL 1 DAY) " +
-                            "GROUP BY HOUR(recorded_at) ORDER BY hour", tableName);
-
-            String todayQuery = String.format(
-                    "SELECT HOUR(recorded_at) as hour, " +
-                            "MAX(led_master_room + led_living_room + led_kitchen + led_toilet) as led_active " +
-                            "FROM %s WHERE DATE(recorded_at) = DATE(NOW()) " +
-                            "GROUP BY HOUR(recorded_at) ORDER BY hour", tableName);
-
-            List<Map<String, Object>> yesterdayData = primaryJdbcTemplate.queryForList(yesterdayQuery);
-            List<Map<String, Object>> todayData = primaryJdbcTemplate.queryForList(todayQuery);
-
-            if (yesterdayData.isEmpty() || todayData.isEmpty()) {
+            List<Map<String, Object>> yesterdayData = sensorSummaryStore.findHourlyActivity(SensorSource.PRIMARY, householdId, yesterday);
+            List<Map<String, Object>> todayData = sensorSummaryStore.findHourlyActivity(SensorSource.PRIMARY, householdId, today);
+            stats.roundTrip();
+            stats.roundTrip();
+
+            if (todayData.isEmpty()) {
                 logger.debug("기존 LED 데이터 부족 - householdId: {}, 어제: {}시간, 오늘: {}시간",
                         householdId, yesterdayData.size(), todayData.size());
                 return 0.0;
             }
 
-            // 시간대별 LED 활동 패턴 비교
-            int commonLedHours = 0;
-            int totalComparableHours = 0;
-
-            // 어제 데이터를 Map으로 변환
-            Map<Integer, Map<String, Object>> yesterdayMap = new HashMap<>();
-            for (Map<String, Object> row : yesterdayData) {
-                yesterdayMap.put((Integer) row.get("hour"), row);
-            }
-
-            // 오늘 데이터와 비교
-            for (Map<String, Object> todayRow : todayData) {
-                Integer hour = (Integer) todayRow.get("hour");
-                Map<String, Object> yesterdayRow = yesterdayMap.get(hour);
+            // 시간대별 LED 활동 패턴 비교 (Primary 집계 행에는 재실/소음 컬럼이 없어 LED만 비교됨), 기준선 우선
+            double ratio = baselineRiskScorer.commonDataRatio(householdId, yesterdayData, todayData,
+                    riskScorers.get(scorerName));
 
-                if (yesterdayRow != null) {
-                    totalComparableHours++;
-
-                    // 같은 시간대의 LED 활동 비교
-                    boolean yesterdayLed = ((Number) yesterdayRow.get("led_active")).intValue() > 0;
-                    boolean todayLed = ((Number) todayRow.get("led_active")).intValue() > 0;
-
-                    // 둘 다 LED 활동이 있으면 공통 활동
-                    if (yesterdayLed && todayLed) {
-                        commonLedHours++;
-                    }
-                }
-            }
-
-            double ratio = totalComparableHours > 0 ?
-                    (double) commonLedHours / totalComparableHours * 100 : 0.0;
-
-            logger.debug("기존 LED 활동 패턴 비교 - householdId: {}, 공통LED: {}/{}시간 = {}%",
-                    householdId, commonLedHours, totalComparableHours, ratio);
+            logger.debug("기존 LED 활동 패턴 비교 - householdId: {}, 공통LED 비율 = {}%", householdId, ratio);
             return ratio;
 
         } catch (Exception e) {
@@ -327,19 +256,6 @@ public class RiskAnalysisService {
         }
     }
 
-    /**
-     * 위험도 결정
-     */
-    private String determineRiskLevel(double commonDataRatio) {
-        if (commonDataRatio > NORMAL_THRESHOLD) {
-            return "정상";
-        } else if (commonDataRatio <= CRITICAL_THRESHOLD) {
-            return "심각";
-        } else {
-            return "의심";
-        }
-    }
-
     /**
      * 특정 가구의 센서 데이터 요약 조회 (Secondary DB 우선)
      */
@@ -349,60 +265,44 @@ public class RiskAnalysisService {
         try {
             String tableName = "sensor_summary_" + householdId;
 
-            // Secondary DB에서 우선 확인
-            String checkTableQuery = "SELECT COUNT(*) FROM information_schema.tables " +
-                    "WHERE table_schema = DATABASE() AND table_name = ?";
-            Integer tableExists = secondaryJdbcTemplate.queryForObject(checkTableQuery, Integer.class, tableName);
-
-            JdbcTemplate useTemplate = secondaryJdbcTemplate;
-            String dataSource = "프로토타입 센서";
-
-            if (tableExists == null || tableExists == 0) {
-                // Secondary에 없으면 Primary 확인
-                tableExists = primaryJdbcTemplate.queryForObject(checkTableQuery, Integer.class, tableName);
-                if (tableExists != null && tableExists > 0) {
-                    useTemplate = primaryJdbcTemplate;
-                    dataSource = "기존 LED 센서";
-                } else {
-                    result.put("error", "센서 요약 테이블이 존재하지 않습니다: " + tableName);
-                    return result;
-                }
+            // Secondary DB 우선, 없으면 Primary (카탈로그 조회)
+            SensorSource source = sensorTableCatalog.resolve(householdId);
+            if (source == null) {
+                result.put("error", "센서 요약 테이블이 존재하지 않습니다: " + tableName);
+                return result;
             }
+            String dataSource = source.getLabel();
 
-            // 오늘 데이터 조회
-            String todayQuery = String.format(
-                    "SELECT COUNT(*) as total_hours, " +
-                            "SUM(CASE WHEN (led_master_room + led_living_room + led_kitchen + led_toilet) > 0 THEN 1 ELSE 0 END) as led_active_hours, " +
-                            "SUM(CASE WHEN is_occupied = 1 THEN 1 ELSE 0 END) as occupancy_hours, " +
-                            "SUM(CASE WHEN is_noisy = 1 THEN 1 ELSE 0 END) as noise_hours " +
-                            "FROM %s WHERE DATE(recorded_at) = DATE(NOW())", tableName);
-
-            Map<String, Object> todayData = useTemplate.queryForMap(todayQuery);
-
-            // 어제 데이터 조회
-            String yesterdayQuery = String.format(
-                    "SELECT COUNT(*) as total_hours, " +
-                            "SUM(CASE WHEN (led_master_room + led_living_room + led_kitchen + led_toilet) > 0 THEN 1 ELSE 0 END) as led_active_hours, " +
-                            "SUM(CASE WHEN is_occupied = 1 THEN 1 ELSE 0 END) as occupancy_hours, " +
-                            "SUM(CASE WHEN is_noisy = 1 THEN 1 ELSE 0 END) as noise_hours " +
-                            "FROM %s WHERE DATE(recorded_at) = DATE(NOW() - INTERVAL 1 DAY)", tableName);
-
-            Map<String, Object> yesterdayData = useTemplate.queryForMap(yesterdayQuery);
+            TimeWindow today = timeWindows.day(0);
+            TimeWindow yesterday = timeWindows.day(1);
 
-            // 가구 정보 조회 (Secondary DB에서)
-            String householdQuery = "SELECT h.name, h.address, h.contact_number, m.name as manager_name " +
-                    "FROM household h LEFT JOIN manager m ON h.manager_id = m.manager_id " +
-                    "WHERE h.household_id = ?";
+            // 오늘 / 어제 데이터 조회
+            Map<String, Object> todayData = sensorSummaryStore.findActivityTotals(source, householdId, today);
+            Map<String, Object> yesterdayData = sensorSummaryStore.findActivityTotals(source, householdId, yesterday);
 
-            Map<String, Object> householdInfo = secondaryJdbcTemplate.queryForMap(householdQuery, householdId);
+            // 가구 정보 조회 (디렉터리)
+            HouseholdProfileDto profile = householdDirectory.find(householdId);
+            if (profile == null) {
+                result.put("error", "가구 정보가 존재하지 않습니다: " + householdId);
+                return result;
+            }
+            Map<String, Object> householdInfo = new LinkedHashMap<>();
+            householdInfo.put("name", profile.getName());
+            householdInfo.put("address", profile.getAddress());
+            householdInfo.put("contact_number", profile.getContactNumber());
+            householdInfo.put("manager_name", profile.getManagerName());
 
             result.put("householdId", householdId);
             result.put("householdInfo", householdInfo);
             result.put("dataSource", dataSource);
             result.put("today", todayData);
             result.put("yesterday", yesterdayData);
-            result.put("commonDataRatio", calculateCommonDataRatio(householdId));
-            result.put("timestamp", LocalDateTime.now());
+            // 모델에 있으면 DB 조회 없이 모델 값으로 - 두 경로 모두 BaselineRiskScorer(기준선 우선)로 계산
+            result.put("commonDataRatio", activityModel.contains(householdId)
+                    ? riskBatchEvaluator.modelRatio(householdId)
+                    : calculateCommonDataRatio(householdId));
+            result.put("baseline", getBaselineSummary(householdId));
+            result.put("timestamp", timeWindows.now());
 
         } catch (Exception e) {
             logger.error("가구 센서 데이터 요약 조회 실패: householdId={}", householdId, e);
@@ -412,61 +312,71 @@ public class RiskAnalysisService {
         return result;
     }
 
+    /**
+     * 가구 기준선 요약 - 7일/28일 기준선 대비 오늘 활동 비율, 평소 활동 시간대, 시간대별 활동 확률
+     */
+    private Map<String, Object> getBaselineSummary(int householdId) {
+        Map<String, Object> baseline = new LinkedHashMap<>();
+        if (!baselineModel.contains(householdId)) {
+            baseline.put("available", false);
+            return baseline;
+        }
+
+        long todayActivity = activityModel.todayActivity(householdId);
+        baseline.put("available", true);
+        baseline.put("lastDay", baselineModel.getLastDay());
+        for (int window : new int[]{HouseholdBaselineModel.SHORT_WINDOW, HouseholdBaselineModel.LONG_WINDOW}) {
+            double score = baselineModel.score(householdId, todayActivity, window);
+            baseline.put("score" + window + "d", Double.isNaN(score) ? null : score);
+            baseline.put("typicalHours" + window + "d", hoursOf(baselineModel.typicalMask(householdId, window)));
+            baseline.put("hourlyProbability" + window + "d", baselineModel.hourlyProbabilities(householdId, window));
+        }
+        return baseline;
+    }
+
+    static List<Integer> hoursOf(int mask) {
+        List<Integer> hours = new ArrayList<>();
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            hours.add(Integer.numberOfTrailingZeros(bits));
+        }
+        return hours;
+    }
+
     /**
      * 모든 가구의 위험도 평가 (자동 신고 생성 제거)
      */
     public Map<String, Object> evaluateAllHouseholds() {
+        return evaluateAllHouseholds(null);
+    }
+
+    /**
+     * 모든 가구의 위험도 평가 - parallel이 null이면 설정값(app.risk.parallelEnabled) 사용
+     */
+    public Map<String, Object> evaluateAllHouseholds(Boolean parallel) {
         Map<String, Object> result = new HashMap<>();
 
         try {
-            // Secondary DB의 sensor_summary_ 테이블 목록 조회
-            String tablesQuery = "SHOW TABLES LIKE 'sensor_summary_%'";
-            List<String> secondaryTables = secondaryJdbcTemplate.queryForList(tablesQuery, String.class);
-
-            // Primary DB의 sensor_summary_ 테이블 목록 조회
-            List<String> primaryTables = primaryJdbcTemplate.queryForList(tablesQuery, String.class);
+            RiskScanResult scanResult = parallel == null
+                    ? riskBatchEvaluator.evaluateAll()
+                    : riskBatchEvaluator.evaluateAll(parallel);
 
-            // 모든 테이블 통합 (중복 제거)
-            Set<String> allTables = new HashSet<>();
-            allTables.addAll(secondaryTables);
-            allTables.addAll(primaryTables);
-
-            int totalHouseholds = allTables.size();
             int riskHouseholds = 0;
+            for (HouseholdRisk risk : scanResult.getAtRisk()) {
+                riskHouseholds++;
 
-            for (String tableName : allTables) {
-                String householdIdStr = tableName.replace("sensor_summary_", "");
-
-                // 숫자가 아닌 테이블명 필터링 (예: sensor_summary_queue_test)
-                if (!householdIdStr.matches("\\d+")) {
-                    logger.debug("숫자가 아닌 테이블 스킵: {}", tableName);
-                    continue;
-                }
-
-                int householdId = Integer.parseInt(householdIdStr);
-
-                try {
-                    double commonDataRatio = calculateCommonDataRatio(householdId);
-                    String riskLevel = determineRiskLevel(commonDataRatio);
-
-                    if ("의심".equals(riskLevel) || "심각".equals(riskLevel)) {
-                        riskHouseholds++;
-
-                        // 자동 신고 생성 제거 - 로그만 남기기
-                        logger.info("위험 감지: householdId={}, riskLevel={}, ratio={}%",
-                                householdId, riskLevel, commonDataRatio);
-                    }
-
-                } catch (Exception e) {
-                    logger.warn("가구 {} 평가 중 오류: {}", householdId, e.getMessage());
-                }
+                // 자동 신고 생성 제거 - 로그만 남기기
+                logger.info("위험 감지: householdId={}, riskLevel={}, ratio={}%",
+                        risk.householdId(), risk.riskLevel(), risk.commonDataRatio());
             }
 
-            result.put("totalHouseholds", totalHouseholds);
+            result.put("totalHouseholds", scanResult.getRisks().size());
             result.put("riskHouseholds", riskHouseholds);
-            result.put("secondaryTables", secondaryTables.size());
-            result.put("primaryTables", primaryTables.size());
-            result.put("evaluationTime", LocalDateTime.now());
+            result.put("secondaryTables", scanResult.getSecondaryTables());
+            result.put("primaryTables", scanResult.getPrimaryTables());
+            result.put("roundTrips", scanResult.getStats().getRoundTrips());
+            result.put("elapsedMs", scanResult.getStats().getElapsedMs());
+            result.put("scanStats", scanResult.getStats().toMap());
+            result.put("evaluationTime", timeWindows.now());
             result.put("status", "completed");
 
         } catch (Exception e) {
@@ -477,4 +387,99 @@ public class RiskAnalysisService {
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * 가구 디렉터리 현황 (가구/담당자 수, 메모리 추정치, hit/miss)
+     */
+    public Map<String, Object> getHouseholdDirectoryStats() {
+        return householdDirectory.getStats();
+    }
+
+    /**
+     * 전체 가구 검색 (가구명 / 담당자명 / 주소, 디렉터리 색인) - 가구 ID와 가구 정보
+     * 결과 ID는 가구별 위험도 분석, 모니터링 상세, 신고 조회에 그대로 넘길 수 있다.
+     */
+    public Map<String, Object> searchHouseholds(String query, int limit) {
+        long start = System.nanoTime();
+        List<Integer> householdIds = householdDirectory.search(query, limit);
+        long tookMicros = (System.nanoTime() - start) / 1000;
+
+        Map<Integer, HouseholdProfileDto> profiles = householdDirectory.findAll(householdIds);
+        List<HouseholdProfileDto> households = new ArrayList<>(householdIds.size());
+        for (int householdId : householdIds) {
+            HouseholdProfileDto profile = profiles.get(householdId);
+            if (profile != null) {
+                households.add(profile);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        result.put("householdIds", householdIds);
+        result.put("households", households);
+        result.put("tookMicros", tookMicros);
+        return result;
+    }
+
+    /**
+     * 센서 테이블 카탈로그 현황 (테이블 수, 캐시 hit/miss, 메타데이터 쿼리 수)
+     */
+    public Map<String, Object> getSensorTableCatalogStats() {
+        return sensorTableCatalog.getStats();
+    }
+
+    /**
+     * 가구 수별 위험도 평가 벤치마크 - 기존 가구별 조회 방식 vs 일괄 조회 방식
+     * 각 크기마다 같은 가구 집합(가구 ID 오름차순 앞에서 n개)을 두 방식으로 평가해
+     * DB 왕복 횟수와 소요 시간을 비교한다.
+     */
+    public List<Map<String, Object>> benchmarkRiskScan(List<Integer> sizes) {
+        List<Integer> secondaryIds = sensorTableCatalog.householdIds(SensorSource.SECONDARY);
+        List<Integer> primaryIds = sensorTableCatalog.householdIds(SensorSource.PRIMARY);
+
+        TreeSet<Integer> allIds = new TreeSet<>(secondaryIds);
+        allIds.addAll(primaryIds);
+        List<Integer> orderedIds = new ArrayList<>(allIds);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int requested : sizes) {
+            List<Integer> sample = orderedIds.subList(0, Math.min(Math.max(requested, 0), orderedIds.size()));
+            Set<Integer> sampleSet = new HashSet<>(sample);
+
+            // 기존 방식: 가구마다 어제/오늘 집계 쿼리
+            RiskScanStats legacy = new RiskScanStats("per-household");
+            for (int householdId : sample) {
+                calculateCommonDataRatio(householdId, legacy);
+            }
+            legacy.finish(sample.size());
+
+            // 일괄 방식: 청크 단위 UNION ALL 집계
+            RiskScanStats batch = new RiskScanStats("batch");
+            riskBatchEvaluator.evaluate(
+                    secondaryIds.stream().filter(sampleSet::contains).toList(),
+                    primaryIds.stream().filter(sampleSet::contains).toList(),
+                    batch);
+            batch.finish(sample.size());
+
+            // 일괄 + 병렬 방식: 청크를 DB별 bulkhead 안에서 동시 조회
+            RiskScanStats parallelBatch = new RiskScanStats("batch-parallel");
+            riskBatchEvaluator.evaluate(
+                    secondaryIds.stream().filter(sampleSet::contains).toList(),
+                    primaryIds.stream().filter(sampleSet::contains).toList(),
+                    parallelBatch, true);
+            parallelBatch.finish(sample.size());
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requestedHouseholds", requested);
+            row.put("households", sample.size());
+            row.put("perHousehold", legacy.toMap());
+            row.put("batch", batch.toMap());
+            row.put("batchParallel", parallelBatch.toMap());
+            results.add(row);
+
+            logger.info("위험도 평가 벤치마크 - {}가구: 기존 {}회/{}ms, 일괄 {}회/{}ms", sample.size(),
+                    legacy.getRoundTrips(), legacy.getElapsedMs(), batch.getRoundTrips(), batch.getElapsedMs());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,307 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import com.mcg.iotseniorsafe.repository.SensorSummaryStore;
+import com.mcg.iotseniorsafe.repository.SensorTableCatalog;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * 전체 가구 위험도 일괄 평가
+ * 가구마다 쿼리를 보내지 않고, 가구 ID 청크 단위로 시간대별 활동 집계를 한 번에 가져와
+ * 공통 활동 비율(기준선 우선, BaselineRiskScorer)을 메모리에서 계산한다.
+ * 병렬 모드에서는 Secondary/Primary 청크를 동시에 조회하며, 청크는 DB별 bulkhead의 전용 스레드에서 실행한다
+ * (느린 Primary 청크가 Secondary 청크의 스레드를 차지하지 않음).
+ */
+@Service
+public class RiskBatchEvaluator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskBatchEvaluator.class);
+
+    // 시간대별 활동 비트마스크 인덱스 (비트 n = n시)
+    private static final int Y_PRESENT = 0, Y_LED = 1, Y_OCCUPIED = 2, Y_NOISY = 3;
+    private static final int T_PRESENT = 4, T_LED = 5, T_OCCUPIED = 6, T_NOISY = 7;
+
+    private final SensorSummaryStore sensorSummaryStore;
+    private final SensorTableCatalog sensorTableCatalog;
+    private final HouseholdActivityModel activityModel;
+    private final BaselineRiskScorer baselineRiskScorer;
+    private final TimeWindows timeWindows;
+    private final DataSourceBulkhead primaryBulkhead;
+    private final DataSourceBulkhead secondaryBulkhead;
+
+    // 한 번의 UNION ALL 쿼리에 묶을 가구 테이블 수
+    @Value("${app.risk.batchChunkSize:50}")
+    private int chunkSize;
+
+    // 기본 실행 방식 (true: 청크를 스레드 풀에서 병렬 조회)
+    @Value("${app.risk.parallelEnabled:true}")
+    private boolean parallelEnabled;
+
+    @Autowired
+    public RiskBatchEvaluator(SensorSummaryStore sensorSummaryStore,
+                              SensorTableCatalog sensorTableCatalog,
+                              HouseholdActivityModel activityModel,
+                              BaselineRiskScorer baselineRiskScorer,
+                              TimeWindows timeWindows,
+                              @Qualifier("primaryBulkhead") DataSourceBulkhead primaryBulkhead,
+                              @Qualifier("secondaryBulkhead") DataSourceBulkhead secondaryBulkhead) {
+        this.sensorSummaryStore = sensorSummaryStore;
+        this.sensorTableCatalog = sensorTableCatalog;
+        this.activityModel = activityModel;
+        this.baselineRiskScorer = baselineRiskScorer;
+        this.timeWindows = timeWindows;
+        this.primaryBulkhead = primaryBulkhead;
+        this.secondaryBulkhead = secondaryBulkhead;
+    }
+
+    /**
+     * 모든 sensor_summary 테이블(Secondary + Primary) 가구 평가 (기본 실행 방식)
+     * 인메모리 활동 모델이 적재되어 있으면 DB 조회 없이 모델로 평가한다.
+     */
+    public RiskScanResult evaluateAll() {
+        if (activityModel.isReady()) {
+            return evaluateFromModel();
+        }
+        return evaluateAll(parallelEnabled);
+    }
+
+    /**
+     * 인메모리 활동 모델로 전체 가구 평가 (DB 왕복 없음)
+     */
+    public RiskScanResult evaluateFromModel() {
+        RiskScanStats stats = new RiskScanStats("in-memory");
+
+        int[] householdIds = activityModel.householdIds();
+        List<HouseholdRisk> risks = new ArrayList<>(householdIds.length);
+        int secondaryTables = 0;
+        for (int householdId : householdIds) {
+            SensorSource source = activityModel.source(householdId);
+            if (source == SensorSource.SECONDARY) {
+                secondaryTables++;
+            }
+            double ratio = modelRatio(householdId);
+            risks.add(new HouseholdRisk(householdId, source, ratio, RiskScorer.riskLevel(ratio)));
+        }
+        List<Integer> unevaluated = Arrays.stream(activityModel.unevaluatedIds()).boxed().toList();
+        stats.householdsFailed(unevaluated);
+        stats.finish(risks.size());
+
+        return new RiskScanResult(risks, secondaryTables, householdIds.length - secondaryTables, stats, unevaluated);
+    }
+
+    /**
+     * 인메모리 모델 기준 공통 활동 비율 (기준선 우선, 없으면 모델의 어제 대비 비율)
+     */
+    double modelRatio(int householdId) {
+        return baselineRiskScorer.commonDataRatio(householdId, activityModel.todayActivity(householdId),
+                () -> activityModel.ratio(householdId));
+    }
+
+    /**
+     * 모든 sensor_summary 테이블(Secondary + Primary) 가구 평가
+     */
+    public RiskScanResult evaluateAll(boolean parallel) {
+        RiskScanStats stats = new RiskScanStats(parallel ? "batch-parallel" : "batch");
+
+        List<Integer> secondaryIds = sensorTableCatalog.householdIds(SensorSource.SECONDARY);
+        List<Integer> primaryIds = sensorTableCatalog.householdIds(SensorSource.PRIMARY);
+
+        List<HouseholdRisk> risks = evaluate(secondaryIds, primaryIds, stats, parallel);
+        stats.finish(risks.size());
+
+        logger.info("전체 가구 일괄 평가 완료 ({}) - 가구: {}, 조회 실패: {}, DB 왕복: {}회, {}ms", stats.getMode(),
+                risks.size(), stats.getFailedHouseholds().size(), stats.getRoundTrips(), stats.getElapsedMs());
+        return new RiskScanResult(risks, secondaryIds.size(), primaryIds.size(), stats, stats.getFailedHouseholds());
+    }
+
+    /**
+     * 주어진 가구들 순차 평가 (Secondary 프로토타입 데이터 우선, 없으면 Primary 기존 LED 데이터)
+     */
+    public List<HouseholdRisk> evaluate(Collection<Integer> secondaryIds, Collection<Integer> primaryIds, RiskScanStats stats) {
+        return evaluate(secondaryIds, primaryIds, stats, false);
+    }
+
+    /**
+     * 주어진 가구들 평가. 병렬 실행 시 청크 조회를 DB별 bulkhead의 전용 스레드에 나눠 맡기고,
+     * 순차 실행 시 호출 스레드에서 같은 허용량 안에 조회한다. 결과는 항상 가구 ID 오름차순.
+     * 가구별 재시도까지 조회에 실패한 가구는 결과에서 빼고 stats에 기록한다 (데이터 없음으로 보고 심각 처리하지 않음).
+     */
+    public List<HouseholdRisk> evaluate(Collection<Integer> secondaryIds, Collection<Integer> primaryIds,
+                                        RiskScanStats stats, boolean parallel) {
+        Set<Integer> secondarySet = new TreeSet<>(secondaryIds);
+        Set<Integer> primaryOnly = new TreeSet<>(primaryIds);
+        primaryOnly.removeAll(secondarySet);
+
+        Map<Integer, SensorSource> sources = new HashMap<>();
+        secondarySet.forEach(id -> sources.put(id, SensorSource.SECONDARY));
+        primaryOnly.forEach(id -> sources.put(id, SensorSource.PRIMARY));
+
+        LocalDate today = timeWindows.today(); // 자정을 걸쳐도 모든 청크가 같은 날 기준
+        List<Chunk> chunks = new ArrayList<>();
+        addChunks(SensorSource.SECONDARY, new ArrayList<>(secondarySet), chunks);
+        addChunks(SensorSource.PRIMARY, new ArrayList<>(primaryOnly), chunks);
+
+        Map<Integer, int[]> activity = new HashMap<>();
+        Set<Integer> failed = new TreeSet<>();
+        if (parallel) {
+            List<Future<ChunkActivity>> futures = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                futures.add(bulkhead(chunk.source()).submit(
+                        () -> loadChunk(chunk.source(), chunk.householdIds(), today, stats), stats::recordQueueWait));
+            }
+            for (Future<ChunkActivity> future : futures) {
+                ChunkActivity loaded = join(future);
+                activity.putAll(loaded.activity());
+                failed.addAll(loaded.failedIds());
+            }
+        } else {
+            for (Chunk chunk : chunks) {
+                try {
+                    ChunkActivity loaded = bulkhead(chunk.source()).execute(
+                            () -> loadChunk(chunk.source(), chunk.householdIds(), today, stats), stats::recordQueueWait);
+                    activity.putAll(loaded.activity());
+                    failed.addAll(loaded.failedIds());
+                } catch (Exception e) {
+                    throw new IllegalStateException("활동 데이터 조회 실패", e);
+                }
+            }
+        }
+        if (!failed.isEmpty()) {
+            stats.householdsFailed(failed);
+            logger.warn("활동 데이터 조회 실패로 평가에서 제외한 가구: {}가구 {}", failed.size(), failed);
+        }
+
+        List<Integer> householdIds = new ArrayList<>(sources.keySet());
+        householdIds.removeAll(failed);
+        Collections.sort(householdIds);
+
+        List<HouseholdRisk> risks = new ArrayList<>(householdIds.size());
+        for (int householdId : householdIds) {
+            int[] masks = activity.get(householdId); // 조회는 성공했지만 기록이 없으면 데이터 부족(0%)
+            double ratio = masks != null ? ratio(householdId, masks) : 0.0;
+            risks.add(new HouseholdRisk(householdId, sources.get(householdId), ratio,
+                    RiskScorer.riskLevel(ratio)));
+        }
+        return risks;
+    }
+
+    private void addChunks(SensorSource source, List<Integer> householdIds, List<Chunk> chunks) {
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < householdIds.size(); from += size) {
+            chunks.add(new Chunk(source, householdIds.subList(from, Math.min(from + size, householdIds.size()))));
+        }
+    }
+
+    private record Chunk(SensorSource source, List<Integer> householdIds) {
+    }
+
+    // 청크 조회 결과 - 가구별 활동 비트마스크와 가구별 재시도까지 실패한 가구 ID
+    private record ChunkActivity(Map<Integer, int[]> activity, List<Integer> failedIds) {
+    }
+
+    /**
+     * 청크 하나의 시간대별 활동 집계를 조회해 비트마스크로 누적
+     */
+    private ChunkActivity loadChunk(SensorSource source, List<Integer> chunk, LocalDate today, RiskScanStats stats) {
+        Map<Integer, int[]> activity = new HashMap<>();
+        List<Integer> failedIds = new ArrayList<>();
+        try {
+            stats.roundTrip();
+            sensorSummaryStore.streamHourlyActivity(source, chunk, today, accumulator(activity));
+        } catch (Exception e) {
+            // 테이블 하나의 스키마 문제로 청크 전체가 실패할 수 있으므로 가구별로 재시도
+            logger.warn("{} 청크 조회 실패, 가구별 재시도 - {}가구: {}", source, chunk.size(), e.getMessage());
+            activity.clear();
+            for (int householdId : chunk) {
+                try {
+                    stats.roundTrip();
+                    sensorSummaryStore.streamHourlyActivity(source, List.of(householdId), today,
+                            accumulator(activity));
+                } catch (Exception ex) {
+                    logger.warn("가구 {} 활동 데이터 조회 실패: {}", householdId, ex.getMessage());
+                    activity.remove(householdId);
+                    failedIds.add(householdId);
+                }
+            }
+        }
+        return new ChunkActivity(activity, failedIds);
+    }
+
+    private DataSourceBulkhead bulkhead(SensorSource source) {
+        return source == SensorSource.SECONDARY ? secondaryBulkhead : primaryBulkhead;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("위험도 평가 중단", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("위험도 평가 작업 실패", e.getCause());
+        }
+    }
+
+    private RowCallbackHandler accumulator(Map<Integer, int[]> activity) {
+        return rs -> {
+            int dayOffset = rs.getInt("day_offset");
+            if (dayOffset != 0 && dayOffset != 1) {
+                return;
+            }
+            int[] masks = activity.computeIfAbsent(rs.getInt("household_id"), id -> new int[8]);
+            int bit = 1 << rs.getInt("hour");
+            int base = dayOffset == 1 ? Y_PRESENT : T_PRESENT;
+
+            masks[base] |= bit;
+            if (rs.getInt("led_active") > 0) masks[base + 1] |= bit;
+            if (rs.getInt("occupied") > 0) masks[base + 2] |= bit;
+            if (rs.getInt("noisy") > 0) masks[base + 3] |= bit;
+        };
+    }
+
+    /**
+     * 조회한 마스크 기준 공통 활동 비율 (기준선 우선, 없으면 어제 대비 비율)
+     */
+    private double ratio(int householdId, int[] masks) {
+        long todayActivity = BaselineRiskScorer.todayActivity(masks[T_PRESENT],
+                masks[T_LED] | masks[T_OCCUPIED] | masks[T_NOISY]);
+        return baselineRiskScorer.commonDataRatio(householdId, todayActivity, () -> commonActivityRatio(masks));
+    }
+
+    /**
+     * 어제와 오늘 모두 데이터가 있는 시간대 중 같은 센서 활동이 하나라도 겹친 시간대 비율
+     */
+    static double commonActivityRatio(int[] masks) {
+        if (masks[Y_PRESENT] == 0 || masks[T_PRESENT] == 0) {
+            return 0.0; // 어제 또는 오늘 데이터 부족
+        }
+        int comparable = masks[Y_PRESENT] & masks[T_PRESENT];
+        int common = comparable & ((masks[Y_LED] & masks[T_LED])
+                | (masks[Y_OCCUPIED] & masks[T_OCCUPIED])
+                | (masks[Y_NOISY] & masks[T_NOISY]));
+
+        int totalComparableHours = Integer.bitCount(comparable);
+        return totalComparableHours > 0 ?
+                (double) Integer.bitCount(common) / totalComparableHours * 100 : 0.0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.dto.RiskEntryDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 위험 의심 내역 한 페이지 + 기준 스냅샷 정보
+public record RiskEntryPage(
+        List<RiskEntryDto> entries,
+        long totalCount,             // 검색 조건에 맞는 전체 건수 (스냅샷 기준, 요청하지 않았으면 -1)
+        LocalDateTime snapshotAt,    // 스냅샷 평가 시각 (없으면 null)
+        long snapshotAgeSeconds,     // 스냅샷 경과 초 - TimeWindows 시계 기준 (스냅샷이 없으면 -1)
+        String nextCursor            // 다음 페이지 커서 (마지막 페이지면 null)
+) {
+}
@@ -0,0 +1,82 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 위험도 단계 변화 이벤트 버스 (프로세스 내)
+ * - 발행 시 이벤트 번호를 매기고 최근 이벤트를 app.riskEvents.historySize개까지 보관한다 (재연결 시 이어 받기용).
+ * - 구독자에게는 발행 스레드에서 바로 전달하므로 구독자는 큐에 넣기만 하고 즉시 반환해야 한다.
+ */
+@Component
+public class RiskEventBus {
+
+    @Value("${app.riskEvents.historySize:1000}")
+    private int historySize;
+
+    private final Deque<RiskTransition> history = new ArrayDeque<>();
+    private final List<Consumer<RiskTransition>> listeners = new CopyOnWriteArrayList<>();
+    // 재시작 후에도 이전 번호보다 커지도록 시작 시각에서 출발 (이전 실행의 번호로 재연결하면 보관 범위 밖으로 처리됨)
+    private long lastEventId = System.currentTimeMillis() * 1000;
+
+    /**
+     * 이벤트 발행 - 번호를 매겨 보관하고 구독자에게 전달, 번호가 매겨진 이벤트 반환
+     */
+    public synchronized List<RiskTransition> publish(List<RiskTransition> transitions) {
+        List<RiskTransition> published = new ArrayList<>(transitions.size());
+        for (RiskTransition transition : transitions) {
+            RiskTransition event = transition.withId(++lastEventId);
+            history.addLast(event);
+            if (history.size() > Math.max(1, historySize)) {
+                history.removeFirst();
+            }
+            published.add(event);
+        }
+        // 구독과 재생(subscribe)이 같은 락 안에서 일어나므로 누락/중복 없이 이어진다
+        for (RiskTransition event : published) {
+            for (Consumer<RiskTransition> listener : listeners) {
+                listener.accept(event);
+            }
+        }
+        return published;
+    }
+
+    /**
+     * 구독 - lastEventId 이후 보관된 이벤트를 먼저 전달한 뒤 새 이벤트를 전달한다.
+     * 요청한 이벤트가 이미 보관 범위를 벗어났으면 false 반환 (구독은 그대로 진행, 호출 측에서 전체 다시 조회 안내)
+     * lastEventId가 null이면 새 이벤트만 받는다.
+     */
+    public synchronized boolean subscribe(Long lastEventId, Consumer<RiskTransition> listener) {
+        boolean complete = true;
+        if (lastEventId != null && lastEventId < this.lastEventId) {
+            long oldest = history.isEmpty() ? this.lastEventId + 1 : history.getFirst().id();
+            complete = lastEventId + 1 >= oldest;
+            for (RiskTransition event : history) {
+                if (event.id() > lastEventId) {
+                    listener.accept(event);
+                }
+            }
+        }
+        listeners.add(listener);
+        return complete;
+    }
+
+    public void unsubscribe(Consumer<RiskTransition> listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized long lastEventId() {
+        return lastEventId;
+    }
+
+    public int subscriberCount() {
+        return listeners.size();
+    }
+}
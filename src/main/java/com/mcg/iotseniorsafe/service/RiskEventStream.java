@@ -0,0 +1,236 @@
+package com.mcg.iotseniorsafe.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 위험도 단계 변화 SSE(text/event-stream) 배포
+ * - 접속한 대시보드마다 가구별로 합치는(coalescing) 버퍼를 둔다: 보내기 전에 같은 가구가 다시 바뀌면 한 건으로 합친다.
+ * - 버퍼가 app.riskEvents.clientBufferSize를 넘으면 비우고 reset 이벤트를 보낸다 (클라이언트는 목록을 다시 조회).
+ * - Last-Event-ID로 재연결하면 RiskEventBus에 보관된 이후 이벤트부터 이어 보낸다.
+ * 전송은 별도 스레드 풀에서 클라이언트별로 하나씩만 진행하므로 느린 클라이언트가 평가나 다른 클라이언트를 막지 않는다.
+ */
+@Component
+public class RiskEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskEventStream.class);
+
+    public static final String TRANSITION_EVENT = "risk-transition";
+    public static final String RESET_EVENT = "reset";
+
+    private final RiskEventBus riskEventBus;
+    private final ExecutorService sender;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.riskEvents.clientBufferSize:256}")
+    private int clientBufferSize;
+
+    @Value("${app.riskEvents.emitterTimeoutMs:1800000}")
+    private long emitterTimeoutMs;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+
+    @Autowired
+    public RiskEventStream(RiskEventBus riskEventBus,
+                           @Value("${app.riskEvents.senderThreads:2}") int senderThreads) {
+        this.riskEventBus = riskEventBus;
+        AtomicInteger sequence = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "risk-events-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 새 SSE 연결 - lastEventId 이후 이벤트부터 (null이면 새 이벤트만)
+     */
+    public SseEmitter connect(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Client client = new Client(emitter);
+        clients.add(client);
+
+        emitter.onCompletion(() -> close(client));
+        emitter.onTimeout(() -> close(client));
+        emitter.onError(e -> close(client));
+
+        if (!riskEventBus.subscribe(lastEventId, client.listener)) {
+            client.requestReset(); // 보관 범위 밖 - 놓친 이벤트가 있으니 목록부터 다시 조회하도록
+        }
+        client.schedule();
+        logger.debug("위험 이벤트 스트림 연결 - lastEventId: {}, 연결 수: {}", lastEventId, clients.size());
+        return emitter;
+    }
+
+    /**
+     * 연결 유지용 주석 전송 (프록시 유휴 타임아웃 방지, 끊긴 연결 정리)
+     */
+    @Scheduled(fixedDelayString = "${app.riskEvents.heartbeatMs:15000}")
+    public void heartbeat() {
+        for (Client client : clients) {
+            client.requestHeartbeat();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clients", clients.size());
+        stats.put("lastEventId", riskEventBus.lastEventId());
+        stats.put("delivered", delivered.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("overflows", overflows.get());
+        stats.put("disconnects", disconnects.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Client client : clients) {
+            client.emitter.complete();
+        }
+        sender.shutdownNow();
+    }
+
+    private void close(Client client) {
+        if (clients.remove(client)) {
+            riskEventBus.unsubscribe(client.listener);
+            disconnects.incrementAndGet();
+        }
+    }
+
+    /**
+     * 접속한 대시보드 하나 - 가구별 합치기 버퍼 + 전송 예약 상태
+     */
+    private final class Client {
+
+        private final SseEmitter emitter;
+        private final Consumer<RiskTransition> listener = this::offer; // 구독 해제 시 같은 참조 필요
+        private final LinkedHashMap<Integer, RiskTransition> pending = new LinkedHashMap<>();
+        private boolean reset;
+        private boolean heartbeat;
+        private boolean scheduled;
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(RiskTransition event) {
+            synchronized (this) {
+                RiskTransition previous = pending.remove(event.householdId());
+                RiskTransition merged = previous != null ? previous.coalesce(event) : event;
+                if (previous != null) {
+                    coalesced.incrementAndGet();
+                }
+                if (!merged.isNoop()) {
+                    pending.put(event.householdId(), merged); // 마지막 변화 순서로 다시 넣음
+                }
+                if (pending.size() > Math.max(1, clientBufferSize)) {
+                    pending.clear();
+                    reset = true;
+                    overflows.incrementAndGet();
+                }
+            }
+            schedule();
+        }
+
+        synchronized void requestReset() {
+            pending.clear();
+            reset = true;
+        }
+
+        void requestHeartbeat() {
+            synchronized (this) {
+                heartbeat = true;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            synchronized (this) {
+                if (scheduled || (pending.isEmpty() && !reset && !heartbeat)) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (Exception e) {
+                synchronized (this) {
+                    scheduled = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                boolean sendReset;
+                boolean sendHeartbeat;
+                List<RiskTransition> batch;
+                synchronized (this) {
+                    if (pending.isEmpty() && !reset && !heartbeat) {
+                        scheduled = false;
+                        return;
+                    }
+                    sendReset = reset;
+                    sendHeartbeat = heartbeat;
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    reset = false;
+                    heartbeat = false;
+                }
+
+                try {
+                    if (sendReset) {
+                        // 놓친 변화가 있음 - 목록을 다시 조회하고 이 번호부터 이어 받으면 된다
+                        long resumeFrom = riskEventBus.lastEventId();
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(resumeFrom))
+                                .name(RESET_EVENT)
+                                .data(Map.of("lastEventId", resumeFrom), MediaType.APPLICATION_JSON));
+                    }
+                    for (RiskTransition event : batch) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.id()))
+                                .name(TRANSITION_EVENT)
+                                .data(event, MediaType.APPLICATION_JSON));
+                        delivered.incrementAndGet();
+                    }
+                    if (sendHeartbeat && batch.isEmpty() && !sendReset) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (Exception e) {
+                    logger.debug("위험 이벤트 스트림 전송 실패 - 연결 종료: {}", e.getMessage());
+                    synchronized (this) {
+                        pending.clear();
+                        scheduled = false;
+                    }
+                    close(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.List;
+
+// 전체 가구 위험도 평가 결과 (가구 ID 오름차순)
+public class RiskScanResult {
+
+    private final List<HouseholdRisk> risks;
+    private final int secondaryTables;
+    private final int primaryTables;
+    private final RiskScanStats stats;
+    private final List<Integer> unevaluatedIds; // 조회 실패로 평가하지 못한 가구 (risks에 없음)
+
+    public RiskScanResult(List<HouseholdRisk> risks, int secondaryTables, int primaryTables, RiskScanStats stats,
+                          List<Integer> unevaluatedIds) {
+        this.risks = risks;
+        this.secondaryTables = secondaryTables;
+        this.primaryTables = primaryTables;
+        this.stats = stats;
+        this.unevaluatedIds = unevaluatedIds;
+    }
+
+    public List<HouseholdRisk> getRisks() { return risks; }
+    public int getSecondaryTables() { return secondaryTables; }
+    public int getPrimaryTables() { return primaryTables; }
+    public RiskScanStats getStats() { return stats; }
+    public List<Integer> getUnevaluatedIds() { return unevaluatedIds; }
+
+    public List<HouseholdRisk> getAtRisk() {
+        return risks.stream().filter(HouseholdRisk::isAtRisk).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// 위험도 평가 1회 실행의 DB 왕복 횟수 / 소요 시간
+public class RiskScanStats {
+
+    private final String mode;
+    private final long startedAt = System.nanoTime();
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final Map<String, LongAdder> queueWaitNanos = new ConcurrentHashMap<>();
+    private final Map<String, LongAccumulator> maxQueueWaitNanos = new ConcurrentHashMap<>();
+    private final Set<Integer> failedHouseholds = ConcurrentHashMap.newKeySet(); // 조회 실패로 평가하지 못한 가구
+    private int households;
+    private long elapsedMs;
+
+    public RiskScanStats(String mode) {
+        this.mode = mode;
+    }
+
+    public void roundTrip() {
+        roundTrips.incrementAndGet();
+    }
+
+    /**
+     * DB별 동시 쿼리 제한(bulkhead) 대기 시간 기록
+     */
+    public void recordQueueWait(String dataSource, long waitNanos) {
+        queueWaitNanos.computeIfAbsent(dataSource, k -> new LongAdder()).add(waitNanos);
+        maxQueueWaitNanos.computeIfAbsent(dataSource, k -> new LongAccumulator(Math::max, 0)).accumulate(waitNanos);
+    }
+
+    /**
+     * 활동 데이터 조회에 실패해 평가하지 못한 가구 기록
+     */
+    public void householdsFailed(Collection<Integer> householdIds) {
+        failedHouseholds.addAll(householdIds);
+    }
+
+    public void finish(int households) {
+        this.households = households;
+        this.elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    public String getMode() { return mode; }
+    public int getRoundTrips() { return roundTrips.get(); }
+    public int getHouseholds() { return households; }
+    public long getElapsedMs() { return elapsedMs; }
+    public List<Integer> getFailedHouseholds() { return failedHouseholds.stream().sorted().toList(); }
+
+    public double getHouseholdsPerSecond() {
+        return elapsedMs > 0 ? households * 1000.0 / elapsedMs : households;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("mode", mode);
+        map.put("households", households);
+        map.put("failedHouseholds", failedHouseholds.size());
+        map.put("roundTrips", getRoundTrips());
+        map.put("elapsedMs", elapsedMs);
+        map.put("householdsPerSecond", Math.round(getHouseholdsPerSecond() * 10) / 10.0);
+        if (!queueWaitNanos.isEmpty()) {
+            Map<String, Object> queueWait = new TreeMap<>();
+            queueWaitNanos.forEach((dataSource, total) -> queueWait.put(dataSource, Map.of(
+                    "totalMs", total.sum() / 1_000_000,
+                    "maxMs", maxQueueWaitNanos.get(dataSource).get() / 1_000_000)));
+            map.put("queueWait", queueWait);
+        }
+        return map;
+    }
+}
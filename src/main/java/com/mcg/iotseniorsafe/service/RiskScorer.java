@@ -0,0 +1,40 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 어제/오늘 활동 데이터로 공통 활동 비율(%)을 계산하는 위험도 산정 방식
+ * 행은 시간대별 집계(hour, led_active, occupied, noisy) 또는 센서 원본
+ * (recorded_at, led_*, is_occupied, is_noisy) 어느 쪽이든 받을 수 있다 (ActivityRows 참고).
+ * 구현체는 빈으로 등록되고 이름(name())으로 선택한다 (RiskScorers).
+ */
+public interface RiskScorer {
+
+    // 위험도 판단 기준값
+    double NORMAL_THRESHOLD = 60.0;   // 60% 초과 시 정상
+    double CRITICAL_THRESHOLD = 40.0; // 40% 이하 시 심각 (그 사이는 의심)
+
+    /**
+     * 설정(app.risk.scorer, app.bedrock.scorer)에서 쓰는 이름
+     */
+    String name();
+
+    /**
+     * 공통 활동 비율 (%) - 비교할 데이터가 없으면 0
+     */
+    double commonDataRatio(List<Map<String, Object>> yesterdayData, List<Map<String, Object>> todayData);
+
+    /**
+     * 공통 활동 비율에 따른 위험도 결정
+     */
+    static String riskLevel(double commonDataRatio) {
+        if (commonDataRatio > NORMAL_THRESHOLD) {
+            return "정상";
+        } else if (commonDataRatio <= CRITICAL_THRESHOLD) {
+            return "심각";
+        } else {
+            return "의심";
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 등록된 RiskScorer 빈을 이름으로 찾는다
+ */
+@Component
+public class RiskScorers {
+
+    private final Map<String, RiskScorer> scorers = new LinkedHashMap<>();
+
+    @Autowired
+    public RiskScorers(List<RiskScorer> scorers) {
+        for (RiskScorer scorer : scorers) {
+            if (this.scorers.putIfAbsent(scorer.name(), scorer) != null) {
+                throw new IllegalStateException("중복된 위험도 산정 방식 이름: " + scorer.name());
+            }
+        }
+    }
+
+    /**
+     * 이름으로 조회 - 없는 이름이면 IllegalArgumentException
+     */
+    public RiskScorer get(String name) {
+        RiskScorer scorer = scorers.get(name);
+        if (scorer == null) {
+            throw new IllegalArgumentException("알 수 없는 위험도 산정 방식: " + name + " (사용 가능: " + scorers.keySet() + ")");
+        }
+        return scorer;
+    }
+
+    public Set<String> names() {
+        return scorers.keySet();
+    }
+}
@@ -0,0 +1,170 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.dto.HouseholdProfileDto;
+import com.mcg.iotseniorsafe.repository.HouseholdDirectory;
+import com.mcg.iotseniorsafe.repository.RiskSnapshotRepository;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 위험도 스냅샷(risk_snapshot) 갱신
+ * 전체 가구를 평가해 위험도/공통 활동 비율과 가구·담당자 정보를 한 테이블에 저장한다.
+ * 목록 조회는 요청마다 평가하지 않고 이 스냅샷만 읽는다.
+ * 직전 스냅샷과 비교해 위험도 단계가 바뀐 가구는 RiskEventBus로 발행한다 (위험 이벤트 스트림).
+ * 위험 가구는 AI 선별 분석 대기열(AITriageQueue)에 넣는다 (같은 가구·같은 날은 한 번만 분석).
+ * 새로 심각이 된 가구는 그 대기열에서 먼저 분석해 결과를 미리 만든 분석으로 보관한다 (AIPrewarmPipeline).
+ */
+@Component
+public class RiskSnapshotRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskSnapshotRefresher.class);
+
+    private final RiskBatchEvaluator riskBatchEvaluator;
+    private final HouseholdDirectory householdDirectory;
+    private final RiskSnapshotRepository riskSnapshotRepository;
+    private final RiskEventBus riskEventBus;
+    private final AITriageQueue aiTriageQueue;
+    private final AIPrewarmPipeline aiPrewarmPipeline;
+    private final TimeWindows timeWindows;
+
+    private volatile LocalDateTime lastRefreshedAt;
+    private Map<Integer, String> lastLevels; // 직전 스냅샷의 가구별 위험도 (refresh()에서만 사용)
+    private volatile long lastAtRiskCount = -1; // 마지막 스냅샷의 위험 가구 수 (이 인스턴스가 갱신한 경우만)
+
+    @Autowired
+    public RiskSnapshotRefresher(RiskBatchEvaluator riskBatchEvaluator,
+                                 HouseholdDirectory householdDirectory,
+                                 RiskSnapshotRepository riskSnapshotRepository,
+                                 RiskEventBus riskEventBus,
+                                 AITriageQueue aiTriageQueue,
+                                 AIPrewarmPipeline aiPrewarmPipeline,
+                                 TimeWindows timeWindows) {
+        this.riskBatchEvaluator = riskBatchEvaluator;
+        this.householdDirectory = householdDirectory;
+        this.riskSnapshotRepository = riskSnapshotRepository;
+        this.riskEventBus = riskEventBus;
+        this.aiTriageQueue = aiTriageQueue;
+        this.aiPrewarmPipeline = aiPrewarmPipeline;
+        this.timeWindows = timeWindows;
+    }
+
+    @Scheduled(initialDelayString = "${app.risk.snapshotInitialDelayMs:10000}",
+            fixedDelayString = "${app.risk.snapshotIntervalMs:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("위험도 스냅샷 갱신 실패", e);
+        }
+    }
+
+    /**
+     * 전체 가구 평가 후 스냅샷 갱신 - 갱신 시각 반환
+     */
+    public synchronized LocalDateTime refresh() {
+        long start = System.currentTimeMillis();
+        LocalDateTime evaluatedAt = timeWindows.now().truncatedTo(ChronoUnit.SECONDS);
+
+        RiskScanResult scanResult = riskBatchEvaluator.evaluateAll();
+        List<HouseholdRisk> risks = scanResult.getRisks();
+        Map<Integer, HouseholdProfileDto> profiles = householdDirectory.findAll(
+                risks.stream().map(HouseholdRisk::householdId).toList());
+
+        if (lastLevels == null) {
+            lastLevels = riskSnapshotRepository.findRiskLevels(); // 재시작 후 첫 갱신 - 저장된 스냅샷과 비교
+        }
+        List<RiskTransition> transitions = detectTransitions(risks, profiles, evaluatedAt);
+
+        // 조회에 실패한 가구는 평가하지 못한 것 - 이전 스냅샷 행과 단계를 그대로 둔다 (다시 읽히면 그때 비교)
+        List<Integer> unevaluated = scanResult.getUnevaluatedIds();
+        int removed = riskSnapshotRepository.replaceAll(risks, profiles, evaluatedAt, unevaluated);
+        Map<Integer, String> levels = levelsOf(risks, unevaluated);
+        lastAtRiskCount = levels.values().stream().filter(HouseholdRisk::isAtRiskLevel).count();
+        lastRefreshedAt = evaluatedAt;
+        lastLevels = levels; // 스냅샷 반영에 성공한 경우만 기준 갱신 (실패하면 다음 갱신에서 다시 감지)
+
+        // 스냅샷 반영 후 발행 - 이벤트를 받고 목록을 다시 조회해도 같은 상태가 보인다
+        if (!transitions.isEmpty()) {
+            riskEventBus.publish(transitions);
+        }
+        // 새로 심각이 된 가구는 선별 분석에서 먼저 처리하고 그 결과를 미리 만든 분석으로 보관 (가구당 분석 한 번)
+        Set<Integer> prewarm = aiPrewarmPipeline.onEvaluated(risks, transitions);
+        aiTriageQueue.enqueueAll(scanResult.getAtRisk(), prewarm);
+
+        logger.info("위험도 스냅샷 갱신 완료 - 가구: {}, 위험: {}, 단계 변화: {}, 삭제: {}, 평가 불가(유지): {}, {}ms",
+                risks.size(), scanResult.getAtRisk().size(), transitions.size(), removed, unevaluated.size(),
+                System.currentTimeMillis() - start);
+        return evaluatedAt;
+    }
+
+    /**
+     * 직전 스냅샷 대비 위험도 단계가 바뀐 가구 - 처음 보는 가구는 위험(의심/심각)일 때만 변화로 본다
+     */
+    private List<RiskTransition> detectTransitions(List<HouseholdRisk> risks, Map<Integer, HouseholdProfileDto> profiles,
+                                                   LocalDateTime evaluatedAt) {
+        List<RiskTransition> transitions = new ArrayList<>();
+        for (HouseholdRisk risk : risks) {
+            String previous = lastLevels.get(risk.householdId());
+            if (previous == null ? !risk.isAtRisk() : previous.equals(risk.riskLevel())) {
+                continue;
+            }
+            HouseholdProfileDto profile = profiles.get(risk.householdId());
+            transitions.add(new RiskTransition(0, risk.householdId(),
+                    profile != null ? profile.getName() : null,
+                    profile != null ? profile.getManagerName() : null,
+                    previous, risk.riskLevel(), risk.commonDataRatio(), evaluatedAt));
+        }
+        return transitions;
+    }
+
+    /**
+     * 이번 평가의 가구별 위험도 - 평가하지 못한 가구는 직전 단계를 이어 간다
+     */
+    private Map<Integer, String> levelsOf(List<HouseholdRisk> risks, List<Integer> unevaluated) {
+        Map<Integer, String> levels = new HashMap<>(risks.size() * 2);
+        for (HouseholdRisk risk : risks) {
+            levels.put(risk.householdId(), risk.riskLevel());
+        }
+        for (int householdId : unevaluated) {
+            String previous = lastLevels.get(householdId);
+            if (previous != null) {
+                levels.put(householdId, previous);
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * 마지막 스냅샷 시각 - 재시작 직후에는 테이블에서 읽는다
+     * 스냅샷이 아직 없으면 null (요청 스레드에서 전체 평가를 돌리지 않고 예약된 첫 갱신을 기다린다)
+     */
+    public LocalDateTime lastRefreshedAt() {
+        LocalDateTime last = lastRefreshedAt;
+        if (last == null) {
+            last = riskSnapshotRepository.findLastEvaluatedAt();
+            if (last != null) {
+                lastRefreshedAt = last;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * 마지막 스냅샷의 위험 가구 수 - 재시작 후 아직 갱신하지 않았으면 -1
+     */
+    public long lastAtRiskCount() {
+        return lastAtRiskCount;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// 가구 위험도 단계 변화 (정상 / 의심 / 심각) - 위험 이벤트 스트림 항목
+public record RiskTransition(
+        long id,                 // 이벤트 번호 (RiskEventBus가 매기는 단조 증가 값, SSE id)
+        int householdId,
+        String householdName,
+        String managerName,
+        String fromLevel,        // 이전 단계 (처음 평가된 가구는 null)
+        String toLevel,          // 현재 단계
+        double commonDataRatio,  // 공통 활동 비율 (%, 7일 기준선 우선, 없으면 어제 대비)
+        LocalDateTime occurredAt // 평가 시각
+) {
+    public RiskTransition withId(long id) {
+        return new RiskTransition(id, householdId, householdName, managerName, fromLevel, toLevel,
+                commonDataRatio, occurredAt);
+    }
+
+    /**
+     * 같은 가구의 이후 변화와 합치기 - 처음 단계에서 마지막 단계로의 변화 하나로 만든다
+     */
+    public RiskTransition coalesce(RiskTransition later) {
+        return new RiskTransition(later.id, householdId, later.householdName, later.managerName, fromLevel,
+                later.toLevel, later.commonDataRatio, later.occurredAt);
+    }
+
+    /**
+     * 합친 결과 단계가 그대로면 보낼 필요 없음 (예: 정상 → 의심 → 정상)
+     */
+    public boolean isNoop() {
+        return Objects.equals(fromLevel, toLevel);
+    }
+}
@@ -0,0 +1,35 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 행 순서 기준 비교 (BedrockService 기본값)
+ * 어제와 오늘의 i번째 행끼리 비교해 같은 종류의 활동이 있었던 행의 비율.
+ * 시간대를 맞추지 않으므로 한쪽에 빠진 시간대가 있으면 이후 행이 밀려서 비교된다.
+ */
+@Component
+public class RowIndexRiskScorer implements RiskScorer {
+
+    public static final String NAME = "row-index";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double commonDataRatio(List<Map<String, Object>> yesterdayData, List<Map<String, Object>> todayData) {
+        int totalHours = Math.min(yesterdayData.size(), todayData.size());
+        int commonActivityHours = 0;
+
+        for (int i = 0; i < totalHours; i++) {
+            if (ActivityRows.hasCommonActivity(yesterdayData.get(i), todayData.get(i))) {
+                commonActivityHours++;
+            }
+        }
+        return totalHours > 0 ? (double) commonActivityHours / totalHours * 100 : 0.0;
+    }
+}
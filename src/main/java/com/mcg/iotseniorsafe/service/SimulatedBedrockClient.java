@@ -0,0 +1,435 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeServiceClientConfiguration;
+import software.amazon.awssdk.services.bedrockruntime.model.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bedrock 대역 클라이언트 (bedrock-sim 프로필) - 실제 모델을 부르지 않고 부하 테스트용 응답을 만든다.
+ * - 지연 시간: 중앙값 latencyMedianMs, 99백분위 latencyP99Ms인 로그정규분포
+ * - 스트리밍: 전체 지연의 firstTokenRatio만큼 뒤에 첫 조각, 나머지 시간 동안 chunkChars 글자씩 나눠 보냄
+ * - 오류 주입: throttleRate 비율로 ThrottlingException, errorRate 비율로 InternalServerException,
+ *   동시 호출이 maxConcurrent를 넘으면 ThrottlingException (계정 한도 흉내, 0이면 제한 없음)
+ * - 요청의 apiCallTimeout보다 오래 걸리면 그 시간에 ApiCallTimeoutException
+ * 응답은 프롬프트의 공통 활동 비율 / 위험도를 읽어 만든 AlertResponse 형식 JSON, 토큰 수는 PromptBudget 추정값
+ */
+public class SimulatedBedrockClient implements BedrockRuntimeAsyncClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedBedrockClient.class);
+
+    // 99백분위의 표준정규 z 값
+    private static final double Z_99 = 2.326;
+
+    private static final Pattern ANALYSIS_RATIO = Pattern.compile("공통 활동 비율: ([0-9.]+)% \\((\\S+)\\)");
+    private static final Pattern REPORT_RISK = Pattern.compile("- 위험도: (\\S+)");
+    private static final Pattern REPORT_RATIO = Pattern.compile("- 활동 패턴 일치율: ([0-9.]+)%");
+    private static final String[] LOCATIONS = {"안방", "거실", "주방", "화장실"};
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler;
+    private final double latencyMu;
+    private final double latencySigma;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SimulatedBedrockClient(Settings settings, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.latencyMu = Math.log(Math.max(1, settings.latencyMedianMs()));
+        this.latencySigma = Math.max(0, Math.log((double) Math.max(settings.latencyP99Ms(), settings.latencyMedianMs())
+                / Math.max(1, settings.latencyMedianMs())) / Z_99);
+        AtomicInteger sequence = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, settings.threads()), runnable -> {
+            Thread thread = new Thread(runnable, "bedrock-sim-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Bedrock 대역 클라이언트 사용 - {}", settings);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public BedrockRuntimeServiceClientConfiguration serviceClientConfiguration() {
+        return BedrockRuntimeServiceClientConfiguration.builder().region(Region.of(settings.region())).build();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<ConverseResponse> converse(ConverseRequest request) {
+        CompletableFuture<ConverseResponse> result = new CompletableFuture<>();
+        Call call = start(request, promptOf(request.messages()));
+        if (call.failure != null) {
+            result.completeExceptionally(call.failure);
+            return result;
+        }
+
+        schedule(call.deadlineMs(call.latencyMs), () -> {
+            finish();
+            if (call.timedOut()) {
+                result.completeExceptionally(call.timeout());
+                return;
+            }
+            result.complete(ConverseResponse.builder()
+                    .output(ConverseOutput.fromMessage(Message.builder()
+                            .role(ConversationRole.ASSISTANT)
+                            .content(ContentBlock.fromText(call.responseText))
+                            .build()))
+                    .stopReason(StopReason.END_TURN)
+                    .usage(call.usage())
+                    .metrics(ConverseMetrics.builder().latencyMs(call.latencyMs).build())
+                    .build());
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> converseStream(ConverseStreamRequest request, ConverseStreamResponseHandler handler) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Call call = start(request, promptOf(request.messages()));
+        if (call.failure != null) {
+            handler.exceptionOccurred(call.failure);
+            result.completeExceptionally(call.failure);
+            return result;
+        }
+
+        // 메시지 시작 → 텍스트 조각들 → 메시지 끝 → 메타데이터(토큰 수)
+        List<ConverseStreamOutput> events = new ArrayList<>();
+        events.add(ConverseStreamOutput.messageStartBuilder().role(ConversationRole.ASSISTANT).build());
+        String text = call.responseText;
+        int chunkChars = Math.max(1, settings.chunkChars());
+        for (int offset = 0; offset < text.length(); offset += chunkChars) {
+            events.add(ConverseStreamOutput.contentBlockDeltaBuilder()
+                    .contentBlockIndex(0)
+                    .delta(ContentBlockDelta.fromText(text.substring(offset, Math.min(text.length(), offset + chunkChars))))
+                    .build());
+        }
+        events.add(ConverseStreamOutput.messageStopBuilder().stopReason(StopReason.END_TURN).build());
+        events.add(ConverseStreamOutput.metadataBuilder()
+                .usage(call.usage())
+                .metrics(ConverseStreamMetrics.builder().latencyMs(call.latencyMs).build())
+                .build());
+
+        long firstTokenMs = Math.round(call.latencyMs * Math.min(1.0, Math.max(0.0, settings.firstTokenRatio())));
+        long chunkDelayMs = (call.latencyMs - firstTokenMs) / Math.max(1, events.size() - 1);
+
+        schedule(call.deadlineMs(firstTokenMs), () -> {
+            if (call.timedOut() && call.timeoutMs <= firstTokenMs) {
+                finish();
+                ApiCallTimeoutException timeout = call.timeout();
+                handler.exceptionOccurred(timeout);
+                result.completeExceptionally(timeout);
+                return;
+            }
+            handler.responseReceived(ConverseStreamResponse.builder().build());
+            handler.onEventStream(SdkPublisher.adapt(new EventPublisher(events, chunkDelayMs, call, firstTokenMs,
+                    error -> {
+                        finish();
+                        if (error != null) {
+                            handler.exceptionOccurred(error);
+                            result.completeExceptionally(error);
+                        } else {
+                            handler.complete();
+                            result.complete(null);
+                        }
+                    })));
+        });
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.get());
+        stats.put("maxObservedInFlight", maxObservedInFlight.get());
+        stats.put("calls", calls.sum());
+        stats.put("throttled", throttled.sum());
+        stats.put("errors", errors.sum());
+        stats.put("timeouts", timeouts.sum());
+        return stats;
+    }
+
+    /**
+     * 호출 시작 - 주입할 오류가 있으면 failure에 담아 바로 반환
+     */
+    private Call start(AwsRequest request, String prompt) {
+        calls.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int running = inFlight.incrementAndGet();
+        maxObservedInFlight.accumulateAndGet(running, Math::max);
+
+        Call call = new Call();
+        if ((settings.maxConcurrent() > 0 && running > settings.maxConcurrent())
+                || random.nextDouble() < settings.throttleRate()) {
+            finish();
+            throttled.increment();
+            call.failure = ThrottlingException.builder()
+                    .message("Too many requests, please wait before trying again.")
+                    .statusCode(429)
+                    .build();
+            return call;
+        }
+        if (random.nextDouble() < settings.errorRate()) {
+            finish();
+            errors.increment();
+            call.failure = InternalServerException.builder()
+                    .message("Simulated internal server error")
+                    .statusCode(500)
+                    .build();
+            return call;
+        }
+
+        call.latencyMs = Math.max(1, Math.round(Math.exp(latencyMu + latencySigma * random.nextGaussian())));
+        call.timeoutMs = request.overrideConfiguration()
+                .flatMap(config -> config.apiCallTimeout())
+                .map(Duration::toMillis)
+                .orElse(0L);
+        call.inputTokens = PromptBudget.estimateTokens(prompt);
+        call.responseText = responseFor(prompt, random);
+        call.outputTokens = PromptBudget.estimateTokens(call.responseText);
+        return call;
+    }
+
+    private void finish() {
+        inFlight.decrementAndGet();
+    }
+
+    private void schedule(long delayMs, Runnable task) {
+        scheduler.schedule(task, Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+    }
+
+    private static String promptOf(List<Message> messages) {
+        StringBuilder prompt = new StringBuilder();
+        for (Message message : messages) {
+            for (ContentBlock block : message.content()) {
+                if (block.text() != null) {
+                    prompt.append(block.text());
+                }
+            }
+        }
+        return prompt.toString();
+    }
+
+    /**
+     * 프롬프트 종류에 맞는 응답 JSON (신고 문서 / 가구 분석)
+     */
+    private String responseFor(String prompt, ThreadLocalRandom random) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        String location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+
+        if (prompt.contains("reportTitle")) {
+            String riskLevel = group(REPORT_RISK, prompt, 1, "의심");
+            String ratio = group(REPORT_RATIO, prompt, 1, "50.0");
+            boolean severe = "심각".equals(riskLevel);
+            body.put("reportTitle", "독거노인 안전 상황 보고서");
+            body.put("summary", String.format("활동 패턴 일치율 %s%%로 %s 단계의 이상 징후가 확인되었습니다.", ratio, riskLevel));
+            body.put("detailedSituation", String.format("오늘 오전부터 %s의 조명과 움직임 감지가 평소보다 크게 줄었습니다. "
+                    + "어제 같은 시간대와 비교해 활동 패턴 일치율은 %s%%입니다.", location, ratio));
+            body.put("riskAssessment", severe ? "장시간 활동이 없어 낙상 등 응급 상황 가능성이 있습니다."
+                    : "평소보다 활동이 줄었으나 즉각적인 위험 징후는 확인되지 않았습니다.");
+            body.put("immediateActions", severe ? "1. 보호자 연락\n2. 연락 불가 시 방문 확인\n3. 필요 시 119 신고"
+                    : "1. 담당 생활지원사 안부 전화\n2. 오후 활동 재확인");
+            body.put("followUpPlan", "향후 3일간 시간대별 활동 패턴을 집중 관찰합니다.");
+            body.put("contactInfo", "담당 생활지원사 / 지역복지센터");
+            body.put("reportingAgency", severe ? "119" : "지역복지센터");
+            body.put("urgencyLevel", severe ? "즉시" : "신속");
+        } else {
+            String ratio = group(ANALYSIS_RATIO, prompt, 1, "50.0");
+            String riskLevel = group(ANALYSIS_RATIO, prompt, 2, "의심");
+            boolean severe = "심각".equals(riskLevel);
+            body.put("riskLevel", riskLevel);
+            body.put("situation", String.format("어제 대비 공통 활동 비율이 %s%%로 낮아졌습니다. %s의 활동이 특히 줄었습니다.",
+                    ratio, location));
+            body.put("location", location);
+            body.put("comparisonDetails", String.format("어제 대비 조명 사용 %d시간, 움직임 감지 %d시간 감소",
+                    1 + random.nextInt(6), 1 + random.nextInt(6)));
+            body.put("recommendation", severe ? "즉시 보호자에게 연락하고\n연락이 닿지 않으면 방문 확인하세요."
+                    : "담당 생활지원사가 안부 전화로 상태를 확인하세요.");
+            body.put("reportingAgency", severe ? "119" : "지역복지센터");
+            body.put("contactNumber", severe ? "119" : "지역복지센터");
+            body.put("urgencyLevel", severe ? "즉시" : "신속");
+        }
+
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String group(Pattern pattern, String text, int group, String defaultValue) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.group(group) : defaultValue;
+    }
+
+    /**
+     * 대역 설정 (app.bedrockSim.*)
+     */
+    public record Settings(String region, long latencyMedianMs, long latencyP99Ms, double firstTokenRatio,
+                           int chunkChars, double throttleRate, double errorRate, int maxConcurrent, int threads) {
+    }
+
+    /**
+     * 호출 한 건 - 뽑은 지연 시간, 제한 시간, 응답
+     */
+    private final class Call {
+
+        private Exception failure;
+        private long latencyMs;
+        private long timeoutMs;
+        private String responseText;
+        private int inputTokens;
+        private int outputTokens;
+
+        boolean timedOut() {
+            return timeoutMs > 0 && latencyMs > timeoutMs;
+        }
+
+        /**
+         * delayMs 뒤 할 일을 제한 시간 안으로 당김 (제한 시간이 먼저 오면 그때 실패)
+         */
+        long deadlineMs(long delayMs) {
+            return timedOut() ? Math.min(delayMs, timeoutMs) : delayMs;
+        }
+
+        ApiCallTimeoutException timeout() {
+            timeouts.increment();
+            return ApiCallTimeoutException.create(timeoutMs);
+        }
+
+        TokenUsage usage() {
+            return TokenUsage.builder()
+                    .inputTokens(inputTokens)
+                    .outputTokens(outputTokens)
+                    .totalTokens(inputTokens + outputTokens)
+                    .build();
+        }
+    }
+
+    /**
+     * 스트리밍 이벤트 발행 - 구독자의 요청 수만큼만 chunkDelayMs 간격으로 보내고, 제한 시간이 되면 오류로 끝낸다
+     */
+    private final class EventPublisher implements Publisher<ConverseStreamOutput> {
+
+        private final List<ConverseStreamOutput> events;
+        private final long chunkDelayMs;
+        private final Call call;
+        private final long startedAtMs;
+        private final Consumer<Throwable> onDone;
+
+        EventPublisher(List<ConverseStreamOutput> events, long chunkDelayMs, Call call, long elapsedMs,
+                       Consumer<Throwable> onDone) {
+            this.events = events;
+            this.chunkDelayMs = chunkDelayMs;
+            this.call = call;
+            this.startedAtMs = System.currentTimeMillis() - elapsedMs;
+            this.onDone = onDone;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ConverseStreamOutput> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+
+                private long demand;     // this로 동기화
+                private int next;
+                private boolean waiting = true;
+                private boolean done;
+
+                @Override
+                public void request(long n) {
+                    boolean resume;
+                    synchronized (this) {
+                        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // 넘치면 무제한
+                        resume = waiting && !done;
+                        waiting = false;
+                    }
+                    if (resume) {
+                        schedule(0, this::emit);
+                    }
+                }
+
+                @Override
+                public synchronized void cancel() {
+                    if (!done) {
+                        done = true;
+                        onDone.accept(null);
+                    }
+                }
+
+                private void emit() {
+                    ConverseStreamOutput event = null;
+                    Throwable error = null;
+                    boolean complete = false;
+                    synchronized (this) {
+                        if (done) {
+                            return;
+                        }
+                        if (call.timedOut() && System.currentTimeMillis() - startedAtMs >= call.timeoutMs) {
+                            error = call.timeout();
+                            done = true;
+                        } else if (next >= events.size()) {
+                            complete = true;
+                            done = true;
+                        } else if (demand == 0) {
+                            waiting = true;
+                            return;
+                        } else {
+                            demand--;
+                            event = events.get(next++);
+                        }
+                    }
+
+                    if (error != null) {
+                        subscriber.onError(error);
+                        onDone.accept(error);
+                    } else if (complete) {
+                        subscriber.onComplete();
+                        onDone.accept(null);
+                    } else {
+                        subscriber.onNext(event);
+                        schedule(next < events.size() ? chunkDelayMs : 0, this::emit);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.mcg.iotseniorsafe.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키의 동시 비동기 작업 합치기 (single-flight)
+ * - 키의 작업이 진행 중이면 새로 시작하지 않고 진행 중인 작업의 결과를 같이 받는다.
+ * - 작업이 끝나면(성공/실패) 키를 지우므로 그 뒤에 온 호출은 새 작업을 시작한다 - 결과를 보관하는 캐시가 아니다.
+ * - 호출마다 복사한 future를 돌려주므로 한 호출자가 취소해도 다른 호출자의 결과에는 영향이 없다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * key의 진행 중인 작업에 합류하거나, 없으면 call로 새로 시작한다.
+     * call은 새로 시작할 때만 호출 스레드에서 실행되고, 던진 예외는 실패한 future로 전달된다.
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        calls.increment();
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+
+        CompletableFuture<V> source;
+        try {
+            source = call.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        source.whenComplete((value, error) -> {
+            // 결과 전달 전에 키를 지워 완료 이후 호출이 끝난 작업에 합류하지 않게 한다
+            inFlight.remove(key, pending);
+            if (error != null) {
+                failed.increment();
+                pending.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                pending.complete(value);
+            }
+        });
+        return pending.copy();
+    }
+
+    public Map<String, Object> getStats() {
+        long total = calls.sum();
+        long joined = coalesced.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("calls", total);
+        stats.put("executed", total - joined);
+        stats.put("coalesced", joined);
+        stats.put("coalescedRate", total == 0 ? 0.0 : Math.round(joined * 1000.0 / total) / 10.0);
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+}
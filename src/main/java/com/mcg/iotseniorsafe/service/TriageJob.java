@@ -0,0 +1,22 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.dto.AlertResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// AI 선별 분석 작업 한 건의 현재 상태 (AITriageQueue 조회용 복사본)
+public record TriageJob(
+        int householdId,
+        LocalDate day,              // 같은 가구·같은 날의 요청은 한 작업으로 합친다
+        String riskLevel,           // 의심 / 심각 (대기 중 단계가 바뀌면 갱신)
+        double commonDataRatio,
+        Status status,
+        int attempts,
+        LocalDateTime enqueuedAt,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt,
+        AlertResponse result        // DONE일 때만
+) {
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+}
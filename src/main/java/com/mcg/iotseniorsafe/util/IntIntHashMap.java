@@ -0,0 +1,116 @@
+package com.mcg.iotseniorsafe.util;
+
+import java.util.Arrays;
+
+/**
+ * int → int 오픈 어드레싱 해시맵 (박싱 없음)
+ * 키/값을 하나의 배열에 번갈아 저장하므로 배열 참조 하나만 읽으면 일관된 상태를 본다.
+ * 스레드 안전하지 않음 - 호출 측에서 동기화
+ */
+public final class IntIntHashMap {
+
+    public static final int NO_VALUE = -1;
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] table; // [key0, value0, key1, value1, ...]
+    private int size;
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        table = newTable(capacity);
+    }
+
+    public int get(int key) {
+        int[] t = table;
+        int mask = (t.length >> 1) - 1;
+        int index = mix(key) & mask;
+        while (true) {
+            int k = t[index << 1];
+            if (k == key) {
+                return t[(index << 1) + 1];
+            }
+            if (k == EMPTY) {
+                return NO_VALUE;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != NO_VALUE;
+    }
+
+    /**
+     * 값 저장 (키는 Integer.MIN_VALUE 불가, 값은 0 이상)
+     */
+    public void put(int key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("지원하지 않는 키: " + key);
+        }
+        if ((size + 1) * 4 > (table.length >> 1) * 3) {
+            resize();
+        }
+        if (insert(table, key, value)) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * 해시 테이블이 차지하는 메모리 (bytes, 배열 본문 기준)
+     */
+    public long estimatedBytes() {
+        return 16L + (long) table.length * Integer.BYTES;
+    }
+
+    private void resize() {
+        int[] old = table;
+        int[] resized = newTable(old.length); // 슬롯 수 2배
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != EMPTY) {
+                insert(resized, old[i], old[i + 1]);
+            }
+        }
+        table = resized;
+    }
+
+    private static boolean insert(int[] t, int key, int value) {
+        int mask = (t.length >> 1) - 1;
+        int index = mix(key) & mask;
+        while (true) {
+            int k = t[index << 1];
+            if (k == EMPTY) {
+                t[index << 1] = key;
+                t[(index << 1) + 1] = value;
+                return true;
+            }
+            if (k == key) {
+                t[(index << 1) + 1] = value;
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private static int[] newTable(int slots) {
+        int[] t = new int[slots * 2];
+        for (int i = 0; i < t.length; i += 2) {
+            t[i] = EMPTY;
+        }
+        return t;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
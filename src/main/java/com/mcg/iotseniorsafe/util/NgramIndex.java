@@ -0,0 +1,263 @@
+package com.mcg.iotseniorsafe.util;
+
+import java.util.Arrays;
+
+/**
+ * 글자 단위 1-gram / 2-gram 역색인 (한글은 음절 단위)
+ * - 문서(ID)마다 여러 필드 문자열을 색인하고, 부분 문자열을 포함한 문서 ID를 찾는다.
+ * - 공백은 무시하고 영문은 소문자로 맞춘다 ("서울 강남" = "서울강남").
+ * - 질의의 n-gram 포스팅을 교집합한 뒤 원문에 실제로 포함되는지 확인하므로 결과에 오탐이 없다.
+ * - 필드 앞부분이 질의와 일치하는 문서(접두 일치)를 먼저 돌려준다.
+ * 포스팅은 n-gram별 정렬된 int 배열, n-gram → 포스팅 번호는 IntIntHashMap.
+ * 문서 삭제는 지원하지 않음 - 삭제를 반영하려면 새로 만든다.
+ * 스레드 안전하지 않음 - 호출 측에서 동기화
+ */
+public final class NgramIndex {
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final IntIntHashMap postingSlots;   // n-gram 키 → postings 인덱스
+    private int[][] postings = new int[64][];   // 정렬된 문서 ID
+    private int[] postingSizes = new int[64];
+    private int postingCount;
+
+    private final IntIntHashMap documentSlots;  // 문서 ID → documents 인덱스
+    private String[] documents;                 // 정규화한 필드를 FIELD_SEPARATOR로 이은 문자열
+    private int documentCount;
+
+    public NgramIndex(int expectedDocuments) {
+        int capacity = Math.max(16, expectedDocuments);
+        this.postingSlots = new IntIntHashMap(capacity * 4);
+        this.documentSlots = new IntIntHashMap(capacity);
+        this.documents = new String[capacity];
+    }
+
+    /**
+     * 문서 색인 (이미 있으면 이전 내용을 지우고 다시 색인), null 필드는 건너뛴다
+     */
+    public void put(int id, String... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (String field : fields) {
+            String normalized = normalize(field);
+            if (!normalized.isEmpty()) {
+                sb.append(FIELD_SEPARATOR).append(normalized);
+            }
+        }
+        String document = sb.toString();
+
+        int slot = documentSlots.get(id);
+        if (slot >= 0) {
+            if (document.equals(documents[slot])) {
+                return; // 변경 없음
+            }
+            forEachKey(documents[slot], key -> removePosting(key, id));
+        } else {
+            slot = allocateDocumentSlot();
+            documentSlots.put(id, slot);
+        }
+        documents[slot] = document;
+        forEachKey(document, key -> addPosting(key, id));
+    }
+
+    /**
+     * 질의 문자열을 포함한 문서 ID (접두 일치 먼저, 각 그룹 안에서는 ID 순), 최대 limit건
+     * 빈 질의는 빈 배열
+     */
+    public int[] search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+
+        int[] candidates = candidates(normalized);
+        if (candidates.length == 0) {
+            return candidates;
+        }
+
+        String prefix = FIELD_SEPARATOR + normalized;
+        int[] prefixMatches = new int[Math.min(limit, candidates.length)];
+        int[] substringMatches = new int[Math.min(limit, candidates.length)];
+        int prefixCount = 0, substringCount = 0;
+
+        for (int id : candidates) {
+            String document = documents[documentSlots.get(id)];
+            if (document.contains(prefix)) {
+                prefixMatches[prefixCount++] = id;
+                if (prefixCount == limit) {
+                    break;
+                }
+            } else if (substringCount < limit && document.contains(normalized)) {
+                substringMatches[substringCount++] = id;
+            }
+        }
+
+        int count = Math.min(limit, prefixCount + substringCount);
+        int[] result = Arrays.copyOf(prefixMatches, count);
+        System.arraycopy(substringMatches, 0, result, prefixCount, count - prefixCount);
+        return result;
+    }
+
+    public int size() {
+        return documentCount;
+    }
+
+    public int termCount() {
+        return postingSlots.size();
+    }
+
+    /**
+     * 대략적인 메모리 사용량 (bytes)
+     */
+    public long estimatedBytes() {
+        long bytes = postingSlots.estimatedBytes() + documentSlots.estimatedBytes();
+        bytes += 16L + (long) postings.length * 4 + 16L + (long) postingSizes.length * Integer.BYTES;
+        for (int i = 0; i < postingCount; i++) {
+            bytes += postings[i] != null ? 16L + (long) postings[i].length * Integer.BYTES : 0;
+        }
+        bytes += 16L + (long) documents.length * 4;
+        for (int i = 0; i < documentCount; i++) {
+            bytes += documents[i] != null ? 40L + documents[i].length() * 2L : 0;
+        }
+        return bytes;
+    }
+
+    /**
+     * 질의의 모든 n-gram을 가진 문서 ID - 가장 짧은 포스팅을 기준으로 나머지는 이진 탐색
+     * 한 글자 질의는 1-gram, 두 글자 이상은 2-gram만 사용한다.
+     */
+    private int[] candidates(String normalized) {
+        int[] keys;
+        if (normalized.length() == 1) {
+            keys = new int[]{unigram(normalized.charAt(0))};
+        } else {
+            keys = new int[normalized.length() - 1];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = bigram(normalized.charAt(i), normalized.charAt(i + 1));
+            }
+        }
+
+        int shortest = -1;
+        int[] slots = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            slots[i] = postingSlots.get(keys[i]);
+            if (slots[i] < 0 || postingSizes[slots[i]] == 0) {
+                return new int[0];
+            }
+            if (shortest < 0 || postingSizes[slots[i]] < postingSizes[slots[shortest]]) {
+                shortest = i;
+            }
+        }
+
+        int[] base = postings[slots[shortest]];
+        int baseSize = postingSizes[slots[shortest]];
+        int[] result = new int[baseSize];
+        int count = 0;
+        outer:
+        for (int n = 0; n < baseSize; n++) {
+            int id = base[n];
+            for (int i = 0; i < slots.length; i++) {
+                if (i != shortest && Arrays.binarySearch(postings[slots[i]], 0, postingSizes[slots[i]], id) < 0) {
+                    continue outer;
+                }
+            }
+            result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void addPosting(int key, int id) {
+        int slot = postingSlots.get(key);
+        if (slot < 0) {
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, postingCount * 2);
+                postingSizes = Arrays.copyOf(postingSizes, postingCount * 2);
+            }
+            slot = postingCount++;
+            postingSlots.put(key, slot);
+            postings[slot] = new int[4];
+        }
+
+        int[] ids = postings[slot];
+        int size = postingSizes[slot];
+        // 적재는 대부분 ID 오름차순이라 끝에 붙이는 경우가 많다
+        int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0 && position < size) {
+            return; // 이미 있음
+        }
+        if (position < 0) {
+            position = -position - 1;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            postings[slot] = ids;
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        postingSizes[slot] = size + 1;
+    }
+
+    private void removePosting(int key, int id) {
+        int slot = postingSlots.get(key);
+        if (slot < 0) {
+            return;
+        }
+        int[] ids = postings[slot];
+        int size = postingSizes[slot];
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        postingSizes[slot] = size - 1;
+    }
+
+    private int allocateDocumentSlot() {
+        if (documentCount == documents.length) {
+            documents = Arrays.copyOf(documents, documentCount * 2);
+        }
+        return documentCount++;
+    }
+
+    /**
+     * 문서의 필드별 1-gram / 2-gram 키 (필드 경계를 넘는 2-gram은 만들지 않음, 중복 키는 add/remove에서 무해)
+     */
+    private static void forEachKey(String document, KeyConsumer consumer) {
+        for (int i = 0; i < document.length(); i++) {
+            char c = document.charAt(i);
+            if (c == FIELD_SEPARATOR) {
+                continue;
+            }
+            consumer.accept(unigram(c));
+            if (i + 1 < document.length() && document.charAt(i + 1) != FIELD_SEPARATOR) {
+                consumer.accept(bigram(c, document.charAt(i + 1)));
+            }
+        }
+    }
+
+    private static int unigram(char c) {
+        return c; // 상위 16비트 0 - 2-gram 키와 겹치지 않음
+    }
+
+    private static int bigram(char first, char second) {
+        return (first << 16) | second; // first는 0이 아님 (구분자 제외)
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c) && c != FIELD_SEPARATOR) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    private interface KeyConsumer {
+        void accept(int key);
+    }
+}
@@ -0,0 +1,109 @@
+package com.mcg.iotseniorsafe.util;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 키셋(keyset) 페이지네이션용 불투명 커서 토큰
+ * 마지막으로 내려준 행의 정렬 키 값들을 "scope|값|값..." 형태로 묶어 base64url로 인코딩한다.
+ * scope에는 정렬/검색 조건을 넣어, 다른 조건으로 만든 커서를 재사용하면 거부한다.
+ * 잘못된 토큰은 IllegalArgumentException
+ */
+public final class PageCursor {
+
+    private static final String VERSION = "c1";
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "-";
+    private static final String VALUE_PREFIX = "=";
+
+    private final List<String> values;
+
+    private PageCursor(List<String> values) {
+        this.values = values;
+    }
+
+    /**
+     * 커서 토큰 생성 - 값은 toString()으로 저장 (null 허용)
+     */
+    public static String encode(String scope, Object... values) {
+        StringBuilder sb = new StringBuilder(VERSION).append(SEPARATOR).append(escape(scope));
+        for (Object value : values) {
+            sb.append(SEPARATOR).append(value == null ? NULL_VALUE : VALUE_PREFIX + escape(value.toString()));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 토큰 해석 - scope가 다르거나 형식이 맞지 않으면 IllegalArgumentException
+     */
+    public static PageCursor decode(String token, String scope, int expectedValues) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다");
+        }
+
+        String[] parts = decoded.split("\\" + SEPARATOR, -1);
+        if (parts.length != expectedValues + 2 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("잘못된 커서입니다");
+        }
+        if (!scope.equals(unescape(parts[1]))) {
+            throw new IllegalArgumentException("정렬/검색 조건이 바뀌어 커서를 사용할 수 없습니다");
+        }
+
+        List<String> values = new ArrayList<>(expectedValues);
+        for (int i = 2; i < parts.length; i++) {
+            if (NULL_VALUE.equals(parts[i])) {
+                values.add(null);
+            } else if (parts[i].startsWith(VALUE_PREFIX)) {
+                values.add(unescape(parts[i].substring(VALUE_PREFIX.length())));
+            } else {
+                throw new IllegalArgumentException("잘못된 커서입니다");
+            }
+        }
+        return new PageCursor(values);
+    }
+
+    public String getString(int index) {
+        return values.get(index);
+    }
+
+    public int getInt(int index) {
+        return Integer.parseInt(require(index));
+    }
+
+    public long getLong(int index) {
+        return Long.parseLong(require(index));
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        try {
+            return LocalDateTime.parse(require(index));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다");
+        }
+    }
+
+    private String require(int index) {
+        String value = values.get(index);
+        if (value == null) {
+            throw new IllegalArgumentException("잘못된 커서입니다");
+        }
+        return value;
+    }
+
+    private static String escape(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String unescape(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
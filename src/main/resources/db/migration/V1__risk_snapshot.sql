@@ -0,0 +1,18 @@
+/* 위험도 스냅샷 (RiskSnapshotRefresher가 주기적으로 갱신) ------------ */
+CREATE TABLE IF NOT EXISTS risk_snapshot (
+    household_id      INT          NOT NULL,
+    source            VARCHAR(16)  NOT NULL,             -- SECONDARY / PRIMARY
+    common_data_ratio DOUBLE       NOT NULL,
+    risk_level        VARCHAR(10)  NOT NULL,             -- 정상 / 의심 / 심각
+    at_risk           TINYINT(1)   NOT NULL DEFAULT 0,   -- 의심 또는 심각
+    household_name    VARCHAR(100) NULL,
+    address           VARCHAR(255) NULL,
+    contact_number    VARCHAR(50)  NULL,
+    manager_id        INT          NULL,
+    manager_name      VARCHAR(100) NULL,
+    detected_at       DATETIME     NOT NULL,             -- 현재 위험 상태로 처음 감지된 시각
+    evaluated_at      DATETIME     NOT NULL,             -- 마지막 평가 시각
+    PRIMARY KEY (household_id),
+    KEY idx_risk_snapshot_list (at_risk, detected_at, household_id),
+    KEY idx_risk_snapshot_evaluated (evaluated_at)
+);
@@ -0,0 +1,8 @@
+/* 가구/담당자 변경 시각 (HouseholdDirectory 증분 갱신 워터마크) ----- */
+ALTER TABLE household
+    ADD COLUMN IF NOT EXISTS updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX IF NOT EXISTS idx_household_updated_at (updated_at);
+
+ALTER TABLE manager
+    ADD COLUMN IF NOT EXISTS updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX IF NOT EXISTS idx_manager_updated_at (updated_at);
@@ -0,0 +1,5 @@
+/* 기간 조회 인덱스 (recorded_at / created_at 범위 조건, TimeWindow) --- */
+CREATE INDEX IF NOT EXISTS idx_sensor_log_household_recorded ON all_household_sensor_log (household_id, recorded_at);
+CREATE INDEX IF NOT EXISTS idx_sensor_log_recorded ON all_household_sensor_log (recorded_at);
+CREATE INDEX IF NOT EXISTS idx_report_household_created ON report (household_id, created_at);
+-- 가구별 sensor_summary_{id} 테이블은 동적으로 생기므로 SensorSummaryIndexer가 idx_recorded_at을 만든다
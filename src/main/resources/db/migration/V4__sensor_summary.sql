@@ -0,0 +1,18 @@
+/* 통합 센서 요약 (app.sensorStore.backend=partitioned) ---------------- */
+-- 가구별 sensor_summary_{id}를 SensorSummaryMigrator로 옮겨 담는다.
+-- 월별 파티션은 SensorSummaryPartitions가 p_future를 나눠 미리 만든다 (pYYYYMM).
+CREATE TABLE IF NOT EXISTS sensor_summary (
+    household_id    INT      NOT NULL,
+    recorded_at     DATETIME NOT NULL,
+    led_master_room TINYINT  NOT NULL DEFAULT 0,
+    led_living_room TINYINT  NOT NULL DEFAULT 0,
+    led_kitchen     TINYINT  NOT NULL DEFAULT 0,
+    led_toilet      TINYINT  NOT NULL DEFAULT 0,
+    is_occupied     TINYINT  NOT NULL DEFAULT 0,
+    is_noisy        TINYINT  NOT NULL DEFAULT 0,
+    PRIMARY KEY (household_id, recorded_at),
+    KEY idx_sensor_summary_recorded (recorded_at)
+)
+PARTITION BY RANGE COLUMNS (recorded_at) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
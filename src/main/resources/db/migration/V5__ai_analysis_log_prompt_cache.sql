@@ -0,0 +1,6 @@
+/* AI 분석 결과 캐시 (AnalysisResultCache 영속 저장) ------------------- */
+-- 프롬프트 SHA-256이 같고 expires_at이 지나지 않은 성공 응답은 Bedrock을 다시 호출하지 않고 재사용한다.
+ALTER TABLE ai_analysis_log
+    ADD COLUMN IF NOT EXISTS prompt_hash CHAR(64) NULL,
+    ADD COLUMN IF NOT EXISTS expires_at  DATETIME NULL,
+    ADD INDEX IF NOT EXISTS idx_ai_analysis_log_prompt_hash (prompt_hash, expires_at);
@@ -0,0 +1,5 @@
+/* AI 분석 요청별 토큰 수 (PromptTokenStats) ------------------------- */
+-- 모델이 알려준 입력/출력 토큰 수 (실패했거나 알려주지 않으면 NULL)
+ALTER TABLE ai_analysis_log
+    ADD COLUMN IF NOT EXISTS input_tokens  INT NULL,
+    ADD COLUMN IF NOT EXISTS output_tokens INT NULL;
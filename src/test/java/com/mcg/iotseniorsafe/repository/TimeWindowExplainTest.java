@@ -0,0 +1,133 @@
+package com.mcg.iotseniorsafe.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TimeWindow 범위 조건이 실제로 인덱스 range scan을 타는지 로컬 MariaDB의 EXPLAIN으로 확인
+ * EXPLAIN_DB_URL(예: jdbc:mariadb://localhost:3306/iot_test), EXPLAIN_DB_USER, EXPLAIN_DB_PASSWORD가 있을 때만 실행된다.
+ */
+@EnabledIfEnvironmentVariable(named = "EXPLAIN_DB_URL", matches = ".+")
+class TimeWindowExplainTest {
+
+    private static final String SUMMARY_TABLE = "sensor_summary_explain_test";
+    private static final String REPORT_TABLE = "report_explain_test";
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 1);
+    private static final int DAYS = 30;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getenv("EXPLAIN_DB_URL"),
+                System.getenv("EXPLAIN_DB_USER"), System.getenv("EXPLAIN_DB_PASSWORD"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        dropTables();
+
+        jdbcTemplate.execute("CREATE TABLE " + SUMMARY_TABLE + " (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, recorded_at DATETIME NOT NULL, " +
+                "led_master_room TINYINT NOT NULL, led_living_room TINYINT NOT NULL, " +
+                "led_kitchen TINYINT NOT NULL, led_toilet TINYINT NOT NULL, " +
+                "is_occupied TINYINT NOT NULL, is_noisy TINYINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + SensorSummaryRepository.RECORDED_AT_INDEX
+                + " ON " + SUMMARY_TABLE + " (recorded_at)");
+
+        jdbcTemplate.execute("CREATE TABLE " + REPORT_TABLE + " (" +
+                "report_id BIGINT AUTO_INCREMENT PRIMARY KEY, household_id INT NOT NULL, created_at DATETIME NOT NULL, " +
+                "KEY idx_report_household_created (household_id, created_at))");
+
+        // 30일 × 24시간 × 10분 간격 센서 요약, 100가구 × 30일 신고
+        List<Object[]> summaries = new ArrayList<>();
+        List<Object[]> reports = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            LocalDateTime start = TODAY.minusDays(day).atStartOfDay();
+            for (int minute = 0; minute < 24 * 60; minute += 10) {
+                int flag = minute % 3 == 0 ? 1 : 0;
+                summaries.add(new Object[]{start.plusMinutes(minute), flag, 0, flag, 0, 1 - flag, flag});
+            }
+            for (int householdId = 1; householdId <= 100; householdId++) {
+                reports.add(new Object[]{householdId, start.plusHours(householdId % 24)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + SUMMARY_TABLE + " (recorded_at, led_master_room, led_living_room, " +
+                "led_kitchen, led_toilet, is_occupied, is_noisy) VALUES (?, ?, ?, ?, ?, ?, ?)", summaries);
+        jdbcTemplate.batchUpdate("INSERT INTO " + REPORT_TABLE + " (household_id, created_at) VALUES (?, ?)", reports);
+        jdbcTemplate.execute("ANALYZE TABLE " + SUMMARY_TABLE + ", " + REPORT_TABLE);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (jdbcTemplate != null) {
+            dropTables();
+        }
+    }
+
+    private static void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + SUMMARY_TABLE + ", " + REPORT_TABLE);
+    }
+
+    @Test
+    void dayWindowUsesRecordedAtRangeScan() {
+        TimeWindow yesterday = TimeWindow.day(TODAY.minusDays(1));
+
+        Map<String, Object> plan = explain("SELECT HOUR(recorded_at) as hour, MAX(is_occupied) as occupied FROM "
+                + SUMMARY_TABLE + " WHERE " + yesterday.predicate("recorded_at")
+                + " GROUP BY HOUR(recorded_at)", yesterday.args().toArray());
+
+        assertThat(plan.get("type")).isEqualTo("range");
+        assertThat(plan.get("key")).isEqualTo(SensorSummaryRepository.RECORDED_AT_INDEX);
+    }
+
+    @Test
+    void dateFunctionPredicateCannotUseIndex() {
+        // 기존 DATE(recorded_at) = ? 방식은 인덱스를 쓰지 못하고 전체 스캔한다 (비교 기준)
+        Map<String, Object> plan = explain("SELECT COUNT(*) FROM " + SUMMARY_TABLE
+                + " WHERE DATE(recorded_at) = ?", TODAY.minusDays(1));
+
+        assertThat(plan.get("type")).isNotEqualTo("range");
+    }
+
+    @Test
+    void openEndedWindowUsesRecordedAtRangeScan() {
+        TimeWindow lastHour = TimeWindow.since(TODAY.atStartOfDay().plusHours(23));
+
+        Map<String, Object> plan = explain("SELECT COUNT(*) FROM " + SUMMARY_TABLE
+                + " WHERE " + lastHour.predicate("recorded_at"), lastHour.args().toArray());
+
+        assertThat(plan.get("type")).isEqualTo("range");
+        assertThat(plan.get("key")).isEqualTo(SensorSummaryRepository.RECORDED_AT_INDEX);
+    }
+
+    @Test
+    void reportTodayUsesHouseholdCreatedAtIndex() {
+        TimeWindow today = TimeWindow.day(TODAY);
+        List<Object> args = new ArrayList<>();
+        args.add(42);
+        args.addAll(today.args());
+
+        // ReportRepository.findByHouseholdIdAndCreatedAtWithin 과 같은 조건
+        Map<String, Object> plan = explain("SELECT * FROM " + REPORT_TABLE
+                + " WHERE household_id = ? AND " + today.predicate("created_at"), args.toArray());
+
+        assertThat(plan.get("type")).isEqualTo("range");
+        assertThat(plan.get("key")).isEqualTo("idx_report_household_created");
+    }
+
+    private static Map<String, Object> explain(String sql, Object... args) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+        assertThat(rows).isNotEmpty();
+        return rows.get(0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기준선 우선 / 어제 대비 fallback 확인
+ */
+class BaselineRiskScorerTest {
+
+    private static final LocalDate LAST_DAY = LocalDate.of(2025, 3, 1);
+
+    private final HourJoinRiskScorer yesterdayScorer = new HourJoinRiskScorer();
+
+    private static BaselineRiskScorer scorerWithBaseline() {
+        HouseholdBaselineModel model = new HouseholdBaselineModel();
+        HouseholdBaselineModel.Store store = model.newStore(LAST_DAY, 4);
+        for (int age = 0; age < HouseholdBaselineModel.SHORT_WINDOW; age++) {
+            for (int hour = 8; hour < 12; hour++) {
+                store.recordHour(1, LAST_DAY.minusDays(age), hour, true, true);
+            }
+        }
+        model.publish(store);
+        return new BaselineRiskScorer(model);
+    }
+
+    private static List<Map<String, Object>> hours(int from, int to, int activeUntil) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int hour = from; hour < to; hour++) {
+            rows.add(Map.of("hour", hour, "led_active", hour < activeUntil ? 1 : 0));
+        }
+        return rows;
+    }
+
+    @Test
+    void usesBaselineWhenAvailable() {
+        BaselineRiskScorer scorer = scorerWithBaseline();
+
+        // 어제 데이터가 없어도 기준선으로 판단한다 (8~11시 중 8~9시 활동)
+        assertThat(scorer.commonDataRatio(1, List.of(), hours(8, 12, 10), yesterdayScorer)).isEqualTo(50.0);
+        assertThat(scorer.commonDataRatio(1, BaselineRiskScorer.todayActivity(0xF << 8, 0xF << 8), () -> 0.0))
+                .isEqualTo(100.0);
+    }
+
+    @Test
+    void fallsBackToYesterdayWithoutBaseline() {
+        BaselineRiskScorer scorer = scorerWithBaseline();
+
+        assertThat(scorer.commonDataRatio(2, hours(8, 12, 12), hours(8, 12, 10), yesterdayScorer)).isEqualTo(50.0);
+        assertThat(scorer.commonDataRatio(2, List.of(), hours(8, 12, 10), yesterdayScorer)).isZero();
+        // 평소 시간대에 오늘 데이터가 없으면 기준선이 있어도 어제 대비
+        assertThat(scorer.commonDataRatio(1, hours(20, 22, 22), hours(20, 22, 22), yesterdayScorer)).isEqualTo(100.0);
+        assertThat(scorer.commonDataRatio(1, -1, () -> 42.0)).isEqualTo(42.0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.service.BedrockCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CLOSED → OPEN → HALF_OPEN → CLOSED 상태 전이 확인
+ */
+class BedrockCircuitBreakerTest {
+
+    private static final long SHORT_OPEN_MS = 50;
+
+    // 10초 창, 최소 4건, 실패율 50% / 느린 호출 75% 이상이면 차단, 시험 호출 2건
+    private static BedrockCircuitBreaker breaker(long openMs) {
+        return new BedrockCircuitBreaker(true, 10_000, 4, 50, 75, openMs, 2);
+    }
+
+    private static void waitForHalfOpen() throws InterruptedException {
+        Thread.sleep(SHORT_OPEN_MS * 2);
+    }
+
+    private static void trip(BedrockCircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        BedrockCircuitBreaker breaker = breaker(60_000);
+        breaker.onSuccess(false);
+        breaker.onSuccess(false);
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED); // 최소 호출 수 미만
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getStats().get("rejected")).isEqualTo(1L);
+        assertThat(breaker.getStats().get("opened")).isEqualTo(1L);
+    }
+
+    @Test
+    void opensWhenSlowCallRateReachesThreshold() {
+        BedrockCircuitBreaker breaker = breaker(60_000);
+        breaker.onSuccess(true);
+        breaker.onSuccess(true);
+        breaker.onSuccess(false);
+        breaker.onSuccess(true);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void halfOpenProbesCloseTheCircuitWhenAllSucceed() throws InterruptedException {
+        BedrockCircuitBreaker breaker = breaker(SHORT_OPEN_MS);
+        trip(breaker);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        waitForHalfOpen();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse(); // 시험 호출은 halfOpenProbes건까지만
+
+        breaker.onSuccess(false);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        breaker.onSuccess(false);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        // 차단 전 실패가 창에서 지워져 실패 한 건으로 다시 열리지 않는다
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getStats().get("windowCalls")).isEqualTo(1);
+    }
+
+    @Test
+    void failedOrSlowProbeReopensTheCircuit() throws InterruptedException {
+        BedrockCircuitBreaker breaker = breaker(SHORT_OPEN_MS);
+        trip(breaker);
+
+        waitForHalfOpen();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        waitForHalfOpen();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess(true);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.getStats().get("opened")).isEqualTo(3L);
+    }
+
+    @Test
+    void skippedProbeReturnsItsSlot() throws InterruptedException {
+        BedrockCircuitBreaker breaker = breaker(SHORT_OPEN_MS);
+        trip(breaker);
+
+        waitForHalfOpen();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSkipped();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void disabledBreakerNeverRejects() {
+        BedrockCircuitBreaker breaker = new BedrockCircuitBreaker(false, 10_000, 1, 1, 1, 60_000, 1);
+        for (int i = 0; i < 10; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getStats().get("failures")).isEqualTo(10L);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 비트 패킹 / 공통 활동 비율 / 전체 재적재 시 실패 가구 이월 확인
+ */
+class HouseholdActivityModelTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 1);
+
+    @Test
+    void packPutsPresenceAndActivityInSeparateHalves() {
+        assertThat(HouseholdActivityModel.packA(5, false)).isEqualTo(1L << 5);
+        assertThat(HouseholdActivityModel.packA(5, true)).isEqualTo(1L << 5 | 1L << 29);
+        assertThat(HouseholdActivityModel.packB(5, true, false)).isEqualTo(1L << 5);
+        assertThat(HouseholdActivityModel.packB(5, false, true)).isEqualTo(1L << 29);
+        assertThat(HouseholdActivityModel.packB(23, true, true)).isEqualTo(1L << 23 | 1L << 47);
+    }
+
+    @Test
+    void ratioCountsHoursWithSameSensorActivityOnBothDays() {
+        // 어제/오늘 모두 8~11시 데이터, 8시 LED 겹침, 9시 재실 겹침, 10시 소음 겹침, 11시는 서로 다른 센서
+        long yesterdayA = HouseholdActivityModel.packA(8, true) | HouseholdActivityModel.packA(9, false)
+                | HouseholdActivityModel.packA(10, false) | HouseholdActivityModel.packA(11, true);
+        long yesterdayB = HouseholdActivityModel.packB(9, true, false) | HouseholdActivityModel.packB(10, false, true);
+        long todayA = HouseholdActivityModel.packA(8, true) | HouseholdActivityModel.packA(9, false)
+                | HouseholdActivityModel.packA(10, false) | HouseholdActivityModel.packA(11, false);
+        long todayB = HouseholdActivityModel.packB(9, true, false) | HouseholdActivityModel.packB(10, false, true)
+                | HouseholdActivityModel.packB(11, true, false);
+
+        assertThat(HouseholdActivityModel.commonActivityRatio(yesterdayA, yesterdayB, todayA, todayB))
+                .isEqualTo(75.0);
+    }
+
+    @Test
+    void ratioOnlyComparesHoursPresentOnBothDays() {
+        long yesterdayA = HouseholdActivityModel.packA(8, true) | HouseholdActivityModel.packA(9, true);
+        long todayA = HouseholdActivityModel.packA(8, true) | HouseholdActivityModel.packA(20, false);
+
+        assertThat(HouseholdActivityModel.commonActivityRatio(yesterdayA, 0, todayA, 0)).isEqualTo(100.0);
+    }
+
+    @Test
+    void ratioIsZeroWithoutDataOnEitherDay() {
+        long active = HouseholdActivityModel.packA(8, true);
+
+        assertThat(HouseholdActivityModel.commonActivityRatio(0, 0, active, 0)).isZero();
+        assertThat(HouseholdActivityModel.commonActivityRatio(active, 0, 0, 0)).isZero();
+        // 활동 비트만 있고 데이터 있음 비트가 없으면 비교할 시간대가 없다
+        assertThat(HouseholdActivityModel.commonActivityRatio(active << 24, 0, active << 24, 0)).isZero();
+    }
+
+    @Test
+    void modelRatioAndTodayActivityFollowRecordedHours() {
+        HouseholdActivityModel model = new HouseholdActivityModel();
+        HouseholdActivityModel.Store store = model.newStore(TODAY, 4);
+        store.recordHour(1, SensorSource.SECONDARY, 1, 8, true, false, false);
+        store.recordHour(1, SensorSource.SECONDARY, 1, 9, false, true, false);
+        store.recordHour(1, SensorSource.SECONDARY, 0, 8, true, false, false);
+        store.recordHour(1, SensorSource.SECONDARY, 0, 9, false, false, false);
+        store.recordHour(1, SensorSource.SECONDARY, 2, 9, true, true, true); // 어제/오늘 밖은 무시
+        model.publish(store);
+
+        assertThat(model.ratio(1)).isEqualTo(50.0);
+        assertThat(model.todayActivity(1)).isEqualTo((1L << 8 | 1L << 9) | (1L << 8) << 32);
+        assertThat(model.source(1)).isEqualTo(SensorSource.SECONDARY);
+        assertThat(model.ratio(2)).isNaN();
+        assertThat(model.todayActivity(2)).isEqualTo(-1);
+    }
+
+    @Test
+    void carryOverKeepsPreviousEntryForSameDayOnly() {
+        HouseholdActivityModel model = new HouseholdActivityModel();
+        HouseholdActivityModel.Store current = model.newStore(TODAY, 4);
+        current.recordHour(1, SensorSource.PRIMARY, 1, 8, true, false, false);
+        current.recordHour(1, SensorSource.PRIMARY, 0, 8, true, false, false);
+        model.publish(current);
+
+        // 조회에 실패한 가구는 빈 항목(0% → 심각) 대신 이전 항목을 그대로 가져간다
+        HouseholdActivityModel.Store reloaded = model.newStore(TODAY, 1);
+        for (int householdId = 100; householdId < 140; householdId++) {
+            reloaded.register(householdId, SensorSource.SECONDARY); // 이월 중 배열이 늘어나는 경우
+        }
+        assertThat(model.carryOver(reloaded, 1)).isTrue();
+        assertThat(model.carryOver(reloaded, 2)).isFalse();
+        model.publish(reloaded);
+
+        assertThat(model.ratio(1)).isEqualTo(100.0);
+        assertThat(model.source(1)).isEqualTo(SensorSource.PRIMARY);
+        assertThat(model.contains(2)).isFalse();
+
+        // 날짜가 바뀌면 어제/오늘 위치가 달라지므로 이월하지 않는다 (평가 대상에서 빠짐)
+        HouseholdActivityModel.Store nextDay = model.newStore(TODAY.plusDays(1), 4);
+        assertThat(model.carryOver(nextDay, 1)).isFalse();
+        model.publish(nextDay);
+        assertThat(model.contains(1)).isFalse();
+    }
+}
@@ -0,0 +1,139 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 7일 / 28일 창 이동(roll-off)과 기준선 대비 점수 확인
+ */
+class HouseholdBaselineModelTest {
+
+    private static final LocalDate LAST_DAY = LocalDate.of(2025, 3, 1);
+    private static final int SHORT = HouseholdBaselineModel.SHORT_WINDOW;
+    private static final int LONG = HouseholdBaselineModel.LONG_WINDOW;
+
+    private static HouseholdBaselineModel modelActiveAt(int hour, int days) {
+        HouseholdBaselineModel model = new HouseholdBaselineModel();
+        HouseholdBaselineModel.Store store = model.newStore(LAST_DAY, 4);
+        for (int age = 0; age < days; age++) {
+            store.recordHour(1, LAST_DAY.minusDays(age), hour, true, true);
+        }
+        model.publish(store);
+        return model;
+    }
+
+    private static long today(int presentMask, int activeMask) {
+        return BaselineRiskScorer.todayActivity(presentMask, activeMask);
+    }
+
+    @Test
+    void shortWindowDropsDaysOlderThanSevenDays() {
+        HouseholdBaselineModel model = modelActiveAt(8, LONG);
+        assertThat(model.typicalMask(1, SHORT)).isEqualTo(1 << 8);
+
+        // 하루씩 전진할 때마다 가장 오래된 날이 7일 창에서 빠진다 - 남은 관측이 3일 미만이면 평소 시간대에서 제외
+        LocalDate day = LAST_DAY;
+        for (int i = 0; i < 5; i++) {
+            day = day.plusDays(1);
+            assertThat(model.beginDay(day)).isTrue();
+        }
+        model.recomputeTypical();
+        assertThat(model.hourlyProbabilities(1, SHORT)[8]).isEqualTo(100);
+        assertThat(model.typicalMask(1, SHORT)).isZero();
+        assertThat(model.typicalMask(1, LONG)).isEqualTo(1 << 8);
+
+        for (int i = 0; i < 2; i++) {
+            day = day.plusDays(1);
+            model.beginDay(day);
+        }
+        assertThat(model.hourlyProbabilities(1, SHORT)[8]).isEqualTo(-1);
+        assertThat(model.hourlyProbabilities(1, LONG)[8]).isEqualTo(100);
+        assertThat(model.getLastDay()).isEqualTo(LAST_DAY.plusDays(7));
+    }
+
+    @Test
+    void longWindowDropsDaysOlderThanTwentyEightDays() {
+        HouseholdBaselineModel model = modelActiveAt(8, 1);
+
+        LocalDate day = LAST_DAY;
+        for (int i = 0; i < LONG - 1; i++) {
+            day = day.plusDays(1);
+            model.beginDay(day);
+        }
+        assertThat(model.hourlyProbabilities(1, LONG)[8]).isEqualTo(100);
+
+        model.beginDay(day.plusDays(1));
+        assertThat(model.hourlyProbabilities(1, LONG)[8]).isEqualTo(-1);
+    }
+
+    @Test
+    void newDayStartsEmptyAfterRollOff() {
+        HouseholdBaselineModel model = modelActiveAt(8, 1);
+
+        // 28일 뒤 같은 링 위치를 다시 쓰므로 이전 비트가 남아 있으면 새 관측이 무시된다
+        LocalDate day = LAST_DAY;
+        for (int i = 0; i < LONG; i++) {
+            day = day.plusDays(1);
+            model.beginDay(day);
+        }
+        model.recordHour(1, day, 8, true, false);
+        assertThat(model.hourlyProbabilities(1, LONG)[8]).isZero();
+    }
+
+    @Test
+    void beginDayOnlyAdvancesByOneDay() {
+        HouseholdBaselineModel model = modelActiveAt(8, 3);
+
+        assertThat(model.beginDay(LAST_DAY.plusDays(2))).isFalse();
+        assertThat(model.beginDay(LAST_DAY)).isFalse();
+        assertThat(model.getLastDay()).isEqualTo(LAST_DAY);
+    }
+
+    @Test
+    void recordHourIgnoresDuplicatesAndDaysOutsideWindow() {
+        HouseholdBaselineModel model = modelActiveAt(8, 3);
+        model.recordHour(1, LAST_DAY, 8, true, true);                 // 이미 반영된 시간대
+        model.recordHour(1, LAST_DAY.plusDays(1), 9, true, true);     // 기준 날짜 이후
+        model.recordHour(1, LAST_DAY.minusDays(LONG), 10, true, true); // 28일 창 밖
+
+        int[] probabilities = model.hourlyProbabilities(1, LONG);
+        assertThat(probabilities[8]).isEqualTo(100);
+        assertThat(probabilities[9]).isEqualTo(-1);
+        assertThat(probabilities[10]).isEqualTo(-1);
+        assertThat(model.hourlyProbabilities(2, LONG)).isNull();
+    }
+
+    @Test
+    void scoreComparesTodayWithTypicalHoursThatHaveData() {
+        HouseholdBaselineModel model = new HouseholdBaselineModel();
+        HouseholdBaselineModel.Store store = model.newStore(LAST_DAY, 4);
+        for (int age = 0; age < SHORT; age++) {
+            for (int hour = 8; hour < 12; hour++) {
+                store.recordHour(1, LAST_DAY.minusDays(age), hour, true, true);
+            }
+            store.recordHour(1, LAST_DAY.minusDays(age), 20, true, age % 4 == 0); // 활동 확률 2/7 - 평소 시간대 아님
+        }
+        model.publish(store);
+        int typical = 0xF << 8;
+        assertThat(model.typicalMask(1, SHORT)).isEqualTo(typical);
+
+        // 평소 시간대 8~11시 중 오늘 데이터가 있는 8~10시, 그중 8~9시 활동 → 2/3
+        int present = 0x7 << 8 | 1 << 20;
+        int active = 0x3 << 8 | 1 << 20;
+        assertThat(model.score(1, today(present, active), SHORT)).isEqualTo(2.0 / 3 * 100);
+        assertThat(model.score(1, today(present, present), SHORT)).isEqualTo(100.0);
+        assertThat(model.score(1, today(present, 0), SHORT)).isZero();
+    }
+
+    @Test
+    void scoreIsNaNWithoutBaselineOrComparableHours() {
+        HouseholdBaselineModel model = modelActiveAt(8, SHORT);
+
+        assertThat(model.score(1, today(1 << 20, 1 << 20), SHORT)).isNaN(); // 평소 시간대에 오늘 데이터 없음
+        assertThat(model.score(2, today(1 << 8, 1 << 8), SHORT)).isNaN();   // 기준선 없는 가구
+        assertThat(model.score(1, -1L, SHORT)).isNaN();                     // 활동 모델에 없는 가구
+    }
+}
@@ -0,0 +1,173 @@
+package com.mcg.iotseniorsafe.service;
+
+import com.mcg.iotseniorsafe.repository.SensorSource;
+import com.mcg.iotseniorsafe.repository.SensorSummaryStore;
+import com.mcg.iotseniorsafe.repository.TimeWindow;
+import com.mcg.iotseniorsafe.repository.TimeWindows;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 조회에 실패한 가구는 0%(심각)로 평가하지 않고 제외해 평가 불가로 보고하는지 확인
+ */
+class RiskBatchEvaluatorTest {
+
+    private static final int BROKEN = 3; // 테이블 스키마 문제로 조회가 항상 실패하는 가구
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 1);
+
+    private final FakeSensorSummaryStore store = new FakeSensorSummaryStore();
+    private final HouseholdActivityModel activityModel = new HouseholdActivityModel();
+
+    private RiskBatchEvaluator evaluator() {
+        TimeWindows timeWindows = new TimeWindows(Clock.fixed(
+                TODAY.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        RiskBatchEvaluator evaluator = new RiskBatchEvaluator(store, null, activityModel,
+                new BaselineRiskScorer(new HouseholdBaselineModel()), timeWindows,
+                new DataSourceBulkhead("primary", 1), new DataSourceBulkhead("secondary", 2));
+        ReflectionTestUtils.setField(evaluator, "chunkSize", 50);
+        return evaluator;
+    }
+
+    @Test
+    void householdsThatFailToLoadAreNotScored() {
+        RiskScanStats stats = new RiskScanStats("batch");
+
+        List<HouseholdRisk> risks = evaluator().evaluate(List.of(1, 2, BROKEN, 4), List.of(), stats);
+
+        assertThat(risks).extracting(HouseholdRisk::householdId).containsExactly(1, 2, 4);
+        assertThat(risks).extracting(HouseholdRisk::commonDataRatio).containsExactly(100.0, 100.0, 0.0);
+        assertThat(stats.getFailedHouseholds()).containsExactly(BROKEN);
+        assertThat(stats.getRoundTrips()).isEqualTo(5); // 청크 1회 + 가구별 재시도 4회
+    }
+
+    @Test
+    void parallelEvaluationAlsoSkipsFailedHouseholds() {
+        RiskScanStats stats = new RiskScanStats("batch-parallel");
+
+        List<HouseholdRisk> risks = evaluator().evaluate(List.of(1, BROKEN), List.of(2), stats, true);
+
+        assertThat(risks).extracting(HouseholdRisk::householdId).containsExactly(1, 2);
+        assertThat(risks).noneMatch(HouseholdRisk::isAtRisk);
+        assertThat(stats.getFailedHouseholds()).containsExactly(BROKEN);
+    }
+
+    @Test
+    void modelEvaluationReportsHouseholdsLeftOutOfTheModel() {
+        HouseholdActivityModel.Store loaded = activityModel.newStore(TODAY, 4);
+        for (int dayOffset = 0; dayOffset <= 1; dayOffset++) {
+            loaded.recordHour(1, SensorSource.SECONDARY, dayOffset, 9, true, false, false);
+        }
+        loaded.markUnevaluated(List.of(BROKEN));
+        activityModel.publish(loaded);
+
+        RiskScanResult result = evaluator().evaluateFromModel();
+
+        assertThat(result.getRisks()).extracting(HouseholdRisk::householdId).containsExactly(1);
+        assertThat(result.getUnevaluatedIds()).containsExactly(BROKEN);
+        assertThat(result.getStats().getFailedHouseholds()).containsExactly(BROKEN);
+    }
+
+    /**
+     * 가구 1, 2는 어제/오늘 9~11시 LED 활동, 4는 기록 없음, BROKEN이 포함된 조회는 예외
+     */
+    private static final class FakeSensorSummaryStore implements SensorSummaryStore {
+
+        private static final Set<Integer> ACTIVE = Set.of(1, 2);
+
+        @Override
+        public String backend() {
+            return PER_TABLE;
+        }
+
+        @Override
+        public void streamHourlyActivity(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                         RowCallbackHandler handler) {
+            if (householdIds.contains(BROKEN)) {
+                throw new IllegalStateException("Unknown column 'is_noisy'");
+            }
+            List<Map<String, Integer>> rows = new ArrayList<>();
+            for (int householdId : householdIds) {
+                if (!ACTIVE.contains(householdId)) {
+                    continue;
+                }
+                for (int dayOffset = 0; dayOffset <= 1; dayOffset++) {
+                    for (int hour = 9; hour < 12; hour++) {
+                        rows.add(Map.of("household_id", householdId, "day_offset", dayOffset, "hour", hour,
+                                "led_active", 1, "occupied", 0, "noisy", 0));
+                    }
+                }
+            }
+            for (Map<String, Integer> row : rows) {
+                try {
+                    handler.processRow(resultSet(row));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        private static ResultSet resultSet(Map<String, Integer> row) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("getInt") && args[0] instanceof String column) {
+                            return row.getOrDefault(column, 0);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        @Override
+        public List<Integer> findHouseholdIds(SensorSource source) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void streamHourlyActivityForPastDays(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                                    int days, RowCallbackHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void streamHourlyActivitySince(SensorSource source, List<Integer> householdIds, LocalDate today,
+                                              LocalDateTime since, RowCallbackHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void streamQuietNoiseCounts(List<Integer> householdIds, TimeWindow window, RowCallbackHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Map<String, Object>> findHourlyActivity(SensorSource source, int householdId, TimeWindow window) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, Object> findActivityTotals(SensorSource source, int householdId, TimeWindow window) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> List<T> findRecords(SensorSource source, int householdId, TimeWindow window, boolean newestFirst,
+                                       int limit, RowMapper<T> rowMapper) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.mcg.iotseniorsafe.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 같은 키 동시 호출 합치기 / 완료 후 키 제거 확인
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger started = new AtomicInteger();
+
+    private CompletableFuture<String> start(CompletableFuture<String> source) {
+        started.incrementAndGet();
+        return source;
+    }
+
+    @Test
+    void concurrentCallsForSameKeyShareOneExecution() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute(1, () -> start(source));
+        CompletableFuture<String> second = singleFlight.execute(1, () -> start(new CompletableFuture<>()));
+        CompletableFuture<String> other = singleFlight.execute(2, () -> start(CompletableFuture.completedFuture("b")));
+
+        assertThat(started.get()).isEqualTo(2);
+        assertThat(first.isDone()).isFalse();
+        assertThat(second.isDone()).isFalse();
+        assertThat(other.get()).isEqualTo("b");
+
+        source.complete("a");
+        assertThat(first.get()).isEqualTo("a");
+        assertThat(second.get()).isEqualTo("a");
+        assertThat(singleFlight.getStats().get("coalesced")).isEqualTo(1L);
+        assertThat(singleFlight.getStats().get("executed")).isEqualTo(2L);
+    }
+
+    @Test
+    void keyIsRemovedAfterCompletion() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        singleFlight.execute(1, () -> start(source));
+        assertThat(singleFlight.getStats().get("inFlight")).isEqualTo(1);
+
+        source.complete("a");
+        assertThat(singleFlight.getStats().get("inFlight")).isEqualTo(0);
+
+        // 끝난 작업에 합류하지 않고 새로 시작한다 (결과 캐시가 아님)
+        CompletableFuture<String> next = singleFlight.execute(1, () -> start(CompletableFuture.completedFuture("c")));
+        assertThat(next.get()).isEqualTo("c");
+        assertThat(started.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failureIsSharedAndKeyIsRemoved() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute(1, () -> start(source));
+        CompletableFuture<String> second = singleFlight.execute(1, () -> start(source));
+
+        source.completeExceptionally(new IllegalStateException("모델 호출 실패"));
+
+        assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.getStats().get("inFlight")).isEqualTo(0);
+        assertThat(singleFlight.getStats().get("failed")).isEqualTo(1L);
+    }
+
+    @Test
+    void exceptionThrownByCallBecomesFailedFuture() {
+        CompletableFuture<String> result = singleFlight.execute(1, () -> {
+            throw new IllegalArgumentException("잘못된 가구");
+        });
+
+        assertThatThrownBy(result::get).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(singleFlight.getStats().get("inFlight")).isEqualTo(0);
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotAffectOthers() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute(1, () -> start(source));
+        CompletableFuture<String> second = singleFlight.execute(1, () -> start(source));
+
+        first.cancel(true);
+        source.complete("a");
+
+        assertThat(first.isCancelled()).isTrue();
+        assertThat(second.get()).isEqualTo("a");
+    }
+}
@@ -0,0 +1,82 @@
+package com.mcg.iotseniorsafe.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 접두 일치 / 부분 일치 순서, 재색인, 공백·대소문자 정규화 확인
+ */
+class NgramIndexTest {
+
+    private static NgramIndex index() {
+        NgramIndex index = new NgramIndex(4);
+        index.put(1, "김강남", "서울 강남구 역삼동");
+        index.put(2, "강남희", "부산 해운대구");
+        index.put(3, "이영희", "서울 강서구");
+        index.put(4, "박철수", null, "경기 성남시");
+        return index;
+    }
+
+    @Test
+    void prefixMatchesComeBeforeSubstringMatches() {
+        // 2는 가구명이 "강남"으로 시작, 1은 가구명/주소 중간에 "강남"
+        assertThat(index().search("강남", 10)).containsExactly(2, 1);
+        assertThat(index().search("서울", 10)).containsExactly(1, 3);
+    }
+
+    @Test
+    void singleCharacterQueryUsesUnigrams() {
+        assertThat(index().search("희", 10)).containsExactly(2, 3);
+        assertThat(index().search("성", 10)).containsExactly(4);
+    }
+
+    @Test
+    void bigramsAloneDoNotProduceFalsePositives() {
+        NgramIndex index = new NgramIndex(2);
+        index.put(1, "abxbc");     // "ab", "bc" 2-gram은 있지만 "abc"는 없다
+        index.put(2, "xabcx");
+
+        assertThat(index.search("abc", 10)).containsExactly(2);
+    }
+
+    @Test
+    void doesNotMatchAcrossFieldBoundaries() {
+        // 가구명 끝 "남" + 주소 앞 "서" - 필드를 이어 붙인 "남서"는 어느 필드에도 없다
+        assertThat(index().search("남서", 10)).isEmpty();
+    }
+
+    @Test
+    void rePutReplacesPreviousContent() {
+        NgramIndex index = index();
+        index.put(2, "최민수", "대구 수성구");
+        index.put(3, "이영희", "서울 강서구"); // 같은 내용 - 변경 없음
+
+        assertThat(index.search("강남", 10)).containsExactly(1);
+        assertThat(index.search("수성", 10)).containsExactly(2);
+        assertThat(index.search("서울", 10)).containsExactly(1, 3);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void whitespaceAndCaseAreIgnored() {
+        NgramIndex index = new NgramIndex(2);
+        index.put(1, "Seoul Gangnam", "서울 강남구");
+
+        assertThat(index.search("서울강남", 10)).containsExactly(1);
+        assertThat(index.search(" 서 울 강 남 ", 10)).containsExactly(1);
+        assertThat(index.search("GANGNAM", 10)).containsExactly(1);
+        assertThat(index.search("seoulgang", 10)).containsExactly(1);
+        assertThat(NgramIndex.normalize(" A\tb\nC ")).isEqualTo("abc");
+    }
+
+    @Test
+    void emptyQueryAndLimit() {
+        NgramIndex index = index();
+
+        assertThat(index.search("   ", 10)).isEmpty();
+        assertThat(index.search(null, 10)).isEmpty();
+        assertThat(index.search("서울", 0)).isEmpty();
+        assertThat(index.search("구", 2)).containsExactly(1, 2);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mcg.iotseniorsafe.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 커서 토큰 왕복 / scope 불일치 / 변조된 토큰 거부 확인
+ */
+class PageCursorTest {
+
+    private static final String SCOPE = "risk-entries:latest:홍길동";
+
+    private static String rawToken(String payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTripsValuesIncludingSeparatorsAndNull() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 9, 30, 15);
+        String token = PageCursor.encode(SCOPE, createdAt, 42, 9_000_000_000L, "a|b=c %", null);
+
+        PageCursor cursor = PageCursor.decode(token, SCOPE, 5);
+
+        assertThat(cursor.getDateTime(0)).isEqualTo(createdAt);
+        assertThat(cursor.getInt(1)).isEqualTo(42);
+        assertThat(cursor.getLong(2)).isEqualTo(9_000_000_000L);
+        assertThat(cursor.getString(3)).isEqualTo("a|b=c %");
+        assertThat(cursor.getString(4)).isNull();
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = PageCursor.encode(SCOPE, "??>>", "~~~");
+
+        assertThat(token.matches("[A-Za-z0-9_-]+")).isTrue();
+    }
+
+    @Test
+    void rejectsCursorFromAnotherScope() {
+        String token = PageCursor.encode("risk-entries:latest:", LocalDateTime.of(2025, 3, 1, 9, 0), 1);
+
+        assertThatThrownBy(() -> PageCursor.decode(token, "risk-entries:oldest:", 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("정렬/검색 조건");
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String valid = PageCursor.encode(SCOPE, 1, 2);
+
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor!", SCOPE, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(valid, SCOPE, 3))               // 값 개수 불일치
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(valid.substring(0, valid.length() - 3), SCOPE, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(rawToken("c0|risk|=1|=2"), "risk", 2)) // 다른 버전
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(rawToken("c1|risk|1|=2"), "risk", 2))  // 값 표시 없음
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsValuesOfWrongType() {
+        PageCursor cursor = PageCursor.decode(PageCursor.encode(SCOPE, "abc", null), SCOPE, 2);
+
+        assertThatThrownBy(() -> cursor.getInt(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cursor.getDateTime(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cursor.getLong(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}